@@ -39,6 +39,8 @@ import com.jaamsim.units.TimeUnit;
 
 public class DowntimeEntity extends StateEntity implements StateEntityListener {
 
+	public static final int STATE_DOWNTIME = getStateID("Downtime");
+
 	@Keyword(description = "The calendar or working time for the first planned or unplanned "
 	                     + "maintenance event. If an input is not provided, the first maintenance "
 	                     + "event is determined by the input for the Interval keyword.",
@@ -392,9 +394,9 @@ public class DowntimeEntity extends StateEntity implements StateEntityListener {
 	private void setDown(boolean b) {
 		down = b;
 		if (down)
-			setPresentState("Downtime");
+			setPresentState(STATE_DOWNTIME);
 		else
-			setPresentState("Working");
+			setPresentState(STATE_WORKING);
 	}
 
 	final void endDowntime() {
@@ -19,10 +19,11 @@ package com.jaamsim.BasicObjects;
 
 import java.util.ArrayList;
 
+import com.jaamsim.Samples.SampleExpression;
 import com.jaamsim.Samples.SampleListInput;
 import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.basicsim.EntityTarget;
-import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.LogBuffer;
 import com.jaamsim.datatypes.IntegerVector;
 import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventManager;
@@ -150,11 +151,11 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 	}
 
 	@Override
-	protected void printColumnTitles(FileEntity file) {
+	protected void addColumnTitles(ArrayList<String> titles) {
 
 		// Traced entities
 		for (StateEntity ent : stateTraceList.getValue()) {
-			file.format("\t%s", ent.getName());
+			titles.add(ent.getName());
 		}
 
 		// Traced values
@@ -163,22 +164,21 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 		for (String str : valToks) {
 			if (str.equals("{") || str.equals("}"))
 				continue;
-			file.format("\t%s", str);
+			titles.add(str);
 		}
 	}
 
 	@Override
-	protected void printColumnUnits(FileEntity file) {
+	protected void addColumnUnits(ArrayList<String> units) {
 
 		// Traced entities
 		for (int i=0; i<stateTraceList.getValue().size(); i++) {
-			file.format("\tState");
+			units.add("State");
 		}
 
 		// Traced values
 		for (int i=0; i<valueTraceList.getListSize(); i++) {
-			String unit = Unit.getDisplayedUnit(valueTraceList.getUnitType(i));
-			file.format("\t%s", unit);
+			units.add(Unit.getDisplayedUnit(valueTraceList.getUnitType(i)));
 		}
 	}
 
@@ -216,11 +216,11 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 	}
 
 	@Override
-	protected void recordEntry(FileEntity file, double simTime) {
+	protected void recordEntry(LogBuffer buf, double simTime) {
 
 		// Write the state values
 		for (StateEntity ent : stateTraceList.getValue()) {
-			file.format("\t%s", ent.getPresentState(simTime));
+			buf.addString(ent.getPresentState(simTime));
 		}
 
 		try {
@@ -231,14 +231,14 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 
 				if (valuePrecisionList.getValue().size() == 1) {
 					int precision = valuePrecisionList.getValue().get(0);
-					file.format("\t%."+precision+"f", val/factor );
+					buf.addValue(val/factor, precision);
 				}
 				else if (valuePrecisionList.getValue().size() > 1) {
 					int precision = valuePrecisionList.getValue().get(i);
-					file.format("\t%."+precision+"f", val/factor );
+					buf.addValue(val/factor, precision);
 				}
 				else {
-					file.format("\t%s", val/factor);
+					buf.addValue(val/factor);
 				}
 
 				// Update the last recorded values for the traced expressions
@@ -260,6 +260,18 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 		this.recordLogEntry(getSimTime());
 	}
 
+	/**
+	 * Returns true if the values of all the traced expressions depend only on model state
+	 * that is tracked for Conditional evaluation.
+	 */
+	final boolean isValueTraceTracked() {
+		for (SampleProvider samp : valueTraceList.getValue()) {
+			if (!SampleExpression.isTracked(samp))
+				return false;
+		}
+		return true;
+	}
+
 	/**
 	 * Returns true if any of the traced expressions have changed their values.
 	 */
@@ -308,6 +320,11 @@ public class ExpressionLogger extends Logger implements StateEntityListener {
 		public boolean evaluate() {
 			return ent.valueChanged();
 		}
+
+		@Override
+		public boolean isTracked() {
+			return ent.isValueTraceTracked();
+		}
 	}
 	private final Conditional valueChanged = new ValueChangedConditional(this);
 
@@ -20,11 +20,17 @@ package com.jaamsim.BasicObjects;
 import java.util.ArrayList;
 
 import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.StringProviders.StringProvExpression;
 import com.jaamsim.StringProviders.StringProvListInput;
 import com.jaamsim.StringProviders.StringProvider;
+import com.jaamsim.basicsim.ColumnarLogWriter;
 import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.LogBuffer;
 import com.jaamsim.basicsim.Simulation;
+import com.jaamsim.basicsim.TextLogWriter;
 import com.jaamsim.input.BooleanInput;
+import com.jaamsim.input.ExpResType;
+import com.jaamsim.input.ExpResult;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.Keyword;
@@ -64,7 +70,16 @@ public abstract class Logger extends DisplayEntity {
 	         exampleList = { "8760.0 h" })
 	private final ValueInput endTime;
 
-	private FileEntity file;
+	@Keyword(description = "If TRUE, the log is written to a binary file with the extension "
+	                     + "'.jlog' instead of a tab-delimited text file. "
+	                     + "The values are stored by column in groups of rows, and the file can "
+	                     + "be read using the ColumnarLogReader class.",
+	         exampleList = { "TRUE" })
+	private final BooleanInput binaryFormat;
+
+	private LogBuffer logBuffer;
+	private FileEntity file;                  // text file
+	private ColumnarLogWriter columnarWriter; // binary file
 	private double logTime;
 
 	{
@@ -91,6 +106,9 @@ public abstract class Logger extends DisplayEntity {
 		endTime.setUnitType(TimeUnit.class);
 		endTime.setValidRange(0.0d, Double.POSITIVE_INFINITY);
 		this.addInput(endTime);
+
+		binaryFormat = new BooleanInput("BinaryFormat", "Key Inputs", false);
+		this.addInput(binaryFormat);
 	}
 
 	public Logger() {}
@@ -112,17 +130,24 @@ public abstract class Logger extends DisplayEntity {
 		logTime = 0.0d;
 
 		// Close the file if it is already open
-		if (file != null && Simulation.isFirstRun()) {
-			file.close();
-			file = null;
+		if (logBuffer != null && Simulation.isFirstRun()) {
+			this.closeFile();
 		}
 
 		// Create the report file
-		if (file == null) {
+		if (logBuffer == null) {
 			StringBuilder tmp = new StringBuilder(InputAgent.getReportFileName(InputAgent.getRunName()));
 			tmp.append("-").append(this.getName());
-			tmp.append(".log");
-			file = new FileEntity(tmp.toString());
+			if (binaryFormat.getValue()) {
+				tmp.append(".jlog");
+				columnarWriter = new ColumnarLogWriter(tmp.toString());
+				logBuffer = new LogBuffer(columnarWriter);
+			}
+			else {
+				tmp.append(".log");
+				file = new FileEntity(tmp.toString());
+				logBuffer = new LogBuffer(new TextLogWriter(file));
+			}
 		}
 	}
 
@@ -130,59 +155,80 @@ public abstract class Logger extends DisplayEntity {
 	public void startUp() {
 		super.startUp();
 
-		// Print the detailed run information to the file
-		if (Simulation.isFirstRun())
-			Simulation.getInstance().printReport(file, 0.0d);
+		// Wait for the entries from the previous run to be written
+		logBuffer.waitForWriter();
 
-		// Print run number header if multiple runs are to be performed
-		if (Simulation.isMultipleRuns()) {
-			if (!Simulation.isFirstRun()) {
-				file.format("%n");
-			}
-			file.format("%n%s%n", Simulation.getRunHeader());
-		}
-
-		// Print the title for each column
+		// Title for each column
 		// (a) Simulation time
-		file.format("%n%s", "SimTime");
+		ArrayList<String> titles = new ArrayList<>();
+		titles.add("SimTime");
 
-		// (b) Print at titles for any additional columns
-		this.printColumnTitles(file);
+		// (b) Titles for any additional columns
+		this.addColumnTitles(titles);
 
-		// (c) Print the mathematical expressions to be logged
+		// (c) Mathematical expressions to be logged
 		ArrayList<String> toks = new ArrayList<>();
 		dataSource.getValueTokens(toks);
 		for (String str : toks) {
 			if (str.equals("{") || str.equals("}"))
 				continue;
-			file.format("\t%s", str);
+			titles.add(str);
 		}
 
-		// Print the units for each column
+		// Units for each column
 		// (a) Simulation time units
-		String unit = Unit.getDisplayedUnit(TimeUnit.class);
-		file.format("%n%s", unit);
+		ArrayList<String> units = new ArrayList<>();
+		units.add(Unit.getDisplayedUnit(TimeUnit.class));
 
-		// (b) Print the units for any additional columns
-		this.printColumnUnits(file);
+		// (b) Units for any additional columns
+		this.addColumnUnits(units);
 
-		// (c) Print the units for the mathematical expressions
+		// (c) Units for the mathematical expressions
 		for (int i=0; i<dataSource.getListSize(); i++) {
-			unit = Unit.getDisplayedUnit(dataSource.getUnitType(i));
-			file.format("\t%s", unit);
+			units.add(Unit.getDisplayedUnit(dataSource.getUnitType(i)));
 		}
 
+		// Start a new table in a binary file
+		if (columnarWriter != null) {
+			String header = Simulation.isMultipleRuns() ? Simulation.getRunHeader() : "";
+			columnarWriter.startTable(header, titles, units);
+			return;
+		}
+
+		// Print the detailed run information to the file
+		if (Simulation.isFirstRun())
+			Simulation.getInstance().printReport(file, 0.0d);
+
+		// Print run number header if multiple runs are to be performed
+		if (Simulation.isMultipleRuns()) {
+			if (!Simulation.isFirstRun()) {
+				file.format("%n");
+			}
+			file.format("%n%s%n", Simulation.getRunHeader());
+		}
+
+		// Print the title and units for each column
+		printLine(file, titles);
+		printLine(file, units);
+
 		// Empty the output buffer
 		file.flush();
 	}
 
+	private static void printLine(FileEntity file, ArrayList<String> list) {
+		file.format("%n%s", list.get(0));
+		for (int i = 1; i < list.size(); i++) {
+			file.format("\t%s", list.get(i));
+		}
+	}
+
 	/**
 	 * Writes an entry to the log file.
 	 */
 	protected void recordLogEntry(double simTime) {
 
 		// Skip the log entry if the log file has been closed at the end of the run duration
-		if (file == null)
+		if (logBuffer == null)
 			return;
 
 		// Skip the log entry if the run is still initializing
@@ -198,28 +244,31 @@ public abstract class Logger extends DisplayEntity {
 
 		// Write the time for the log entry
 		double factor = Unit.getDisplayedUnitFactor(TimeUnit.class);
-		file.format("%n%s", simTime/factor);
+		logBuffer.newEntry(simTime/factor);
 
 		// Write any additional columns for the log entry
-		this.recordEntry(file, simTime);
+		this.recordEntry(logBuffer, simTime);
 
 		// Write the expression values
+		// (numbers are formatted by the log file's writer thread)
 		for (int i=0; i<dataSource.getListSize(); i++) {
-			String str;
 			try {
 				StringProvider samp = dataSource.getValue().get(i);
 				factor = Unit.getDisplayedUnitFactor(dataSource.getUnitType(i));
-				str = samp.getNextString(simTime, "%s", factor);
+				ExpResult result = samp.getNextResult(simTime);
+				if (result.type == ExpResType.NUMBER)
+					logBuffer.addValue(result.value/factor);
+				else
+					logBuffer.addString(StringProvExpression.formatResult(result, "%s", factor, false));
 			}
 			catch (Exception e) {
-				str = e.getMessage();
+				logBuffer.addString(e.getMessage());
 			}
-			file.format("\t%s", str);
 		}
 
 		// If running in real time mode, empty the file buffer after each entity is logged
 		if (!InputAgent.getBatch() && Simulation.isRealTime())
-			file.flush();
+			logBuffer.flush();
 	}
 
 	protected double getStartTime() {
@@ -230,24 +279,30 @@ public abstract class Logger extends DisplayEntity {
 		return endTime.getValue();
 	}
 
-	protected abstract void printColumnTitles(FileEntity file);
+	protected abstract void addColumnTitles(ArrayList<String> titles);
 
-	protected abstract void printColumnUnits(FileEntity file);
+	protected abstract void addColumnUnits(ArrayList<String> units);
 
-	protected abstract void recordEntry(FileEntity file, double simTime);
+	protected abstract void recordEntry(LogBuffer buf, double simTime);
 
 	@Override
 	public void doEnd() {
 		super.doEnd();
-		file.flush();
+		logBuffer.flush();
 
 		// Close the report file
 		if (Simulation.isLastRun()) {
-			file.close();
-			file = null;
+			this.closeFile();
 		}
 	}
 
+	private void closeFile() {
+		logBuffer.close();
+		logBuffer = null;
+		file = null;
+		columnarWriter = null;
+	}
+
 	@Output(name = "LogTime",
 	 description = "The simulation time at which the last log entry was made.",
 	    unitType = TimeUnit.class)
@@ -138,7 +138,7 @@ public class ColladaModel extends DisplayModel {
 		return FileInput.getFileNameExtensionFilters("3D", validFileExtensions, validFileDescriptions);
 	}
 
-	public static MeshProtoKey getCachedMeshKey(URI shapeURI) {
+	public static synchronized MeshProtoKey getCachedMeshKey(URI shapeURI) {
 
 		MeshProtoKey meshKey = _cachedKeys.get(shapeURI);
 
@@ -264,6 +264,12 @@ public class ColladaModel extends DisplayModel {
 					pickingID));
 		}
 
+		@Override
+		protected boolean isRetainable() {
+			// Actions are driven by outputs that change with time
+			return cachedProxies != null && actions.getValue().isEmpty();
+		}
+
 		@Override
 		public void collectProxies(double simTime, ArrayList<RenderProxy> out) {
 			if (dispEnt == null || !dispEnt.getShow()) {
@@ -278,7 +284,10 @@ public class ColladaModel extends DisplayModel {
 	}
 
 	private MeshData getMeshData() {
-		MeshProtoKey key = _cachedKeys.get(colladaFile.getValue());
+		MeshProtoKey key;
+		synchronized (ColladaModel.class) {
+			key = _cachedKeys.get(colladaFile.getValue());
+		}
 		if (key == null) return null;
 
 		return MeshDataCache.getMeshData(key);
@@ -34,6 +34,7 @@ public abstract class DisplayModel extends Entity {
 	public static final Vec3d ONES = new Vec3d(1.0d, 1.0d, 1.0d);
 
 	private VisibilityInfo visInfo = ALWAYS;
+	private volatile long graphicsStamp;  // changes whenever an input is changed
 
 	@Keyword(description = "The view windows on which this model will be visible. "
 	                     + "If this is empty the entity is visible on all views.",
@@ -83,6 +84,7 @@ public abstract class DisplayModel extends Entity {
 	@Override
 	public void updateForInput( Input<?> in ) {
 		super.updateForInput( in );
+		graphicsStamp = DisplayModelBinding.nextGraphicsStamp();
 
 		if (in == visibleViews || in == drawRange) {
 			double minDist = drawRange.getValue().get(0);
@@ -97,6 +99,13 @@ public abstract class DisplayModel extends Entity {
 
 	}
 
+	/**
+	 * Returns a value that changes whenever an input to this display model is changed.
+	 */
+	public long getGraphicsStamp() {
+		return graphicsStamp;
+	}
+
 	public VisibilityInfo getVisibilityInfo() {
 
 		return visInfo;
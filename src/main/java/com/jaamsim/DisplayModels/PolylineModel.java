@@ -159,6 +159,11 @@ public class PolylineModel extends DisplayModel {
 			}
 		}
 
+		@Override
+		protected boolean isRetainable() {
+			return true;
+		}
+
 		@Override
 		public void collectProxies(double simTime, ArrayList<RenderProxy> out) {
 
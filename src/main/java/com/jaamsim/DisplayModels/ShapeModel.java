@@ -221,6 +221,11 @@ public class ShapeModel extends DisplayModel {
 			return t.colors[0];
 		}
 
+		@Override
+		protected boolean isRetainable() {
+			return true;
+		}
+
 		@Override
 		public void collectProxies(double simTime, ArrayList<RenderProxy> out) {
 			// This is slightly quirky behaviour, as a null entity will be shown because we use that for previews
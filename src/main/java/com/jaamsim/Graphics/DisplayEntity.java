@@ -139,9 +139,19 @@ public class DisplayEntity extends Entity {
 	private ArrayList<DisplayModelBinding> modelBindings;
 
 	private final HashMap<String, Tag> tagMap = new HashMap<>();
+	private volatile long graphicsStamp;  // changes whenever the entity's appearance may have changed
+
+	// Default values that are shared by every instance and must not be modified
+	private static final Vec3d DEFAULT_POSITION = new Vec3d();
+	private static final Vec3d DEFAULT_ORIENTATION = new Vec3d();
+	private static final ArrayList<Vec3d> DEFAULT_POINTS = new ArrayList<>(2);
+	static {
+		DEFAULT_POINTS.add(new Vec3d(0.0d, 0.0d, 0.0d));
+		DEFAULT_POINTS.add(new Vec3d(1.0d, 0.0d, 0.0d));
+	}
 
 	{
-		positionInput = new Vec3dInput("Position", "Graphics", new Vec3d());
+		positionInput = new Vec3dInput("Position", "Graphics", DEFAULT_POSITION);
 		positionInput.setUnitType(DistanceUnit.class);
 		this.addInput(positionInput);
 
@@ -153,14 +163,11 @@ public class DisplayEntity extends Entity {
 		sizeInput.setValidRange(0.0d, Double.POSITIVE_INFINITY);
 		this.addInput(sizeInput);
 
-		orientationInput = new Vec3dInput("Orientation", "Graphics", new Vec3d());
+		orientationInput = new Vec3dInput("Orientation", "Graphics", DEFAULT_ORIENTATION);
 		orientationInput.setUnitType(AngleUnit.class);
 		this.addInput(orientationInput);
 
-		ArrayList<Vec3d> defPoints =  new ArrayList<>();
-		defPoints.add(new Vec3d(0.0d, 0.0d, 0.0d));
-		defPoints.add(new Vec3d(1.0d, 0.0d, 0.0d));
-		pointsInput = new Vec3dListInput("Points", "Graphics", defPoints);
+		pointsInput = new Vec3dListInput("Points", "Graphics", DEFAULT_POINTS);
 		pointsInput.setValidCountRange( 2, Integer.MAX_VALUE );
 		pointsInput.setUnitType(DistanceUnit.class);
 		this.addInput(pointsInput);
@@ -240,6 +247,7 @@ public class DisplayEntity extends Entity {
 	@Override
 	public void updateForInput( Input<?> in ) {
 		super.updateForInput( in );
+		this.graphicsChanged();
 
 		if (in == positionInput) {
 			this.setPosition(positionInput.getValue());
@@ -314,6 +322,13 @@ public class DisplayEntity extends Entity {
 		currentRegion = null;
 	}
 
+	@Override
+	public void reuse() {
+		super.reuse();
+		tagMap.clear();
+		this.graphicsChanged();
+	}
+
 	/**
 	 * Restores the initial appearance of this entity.
 	 */
@@ -380,10 +395,22 @@ public class DisplayEntity extends Entity {
 		}
 	}
 
+	/**
+	 * Copies the entity's position to the specified vector.
+	 */
+	public void getPosition(Vec3d ret) {
+		synchronized (position) {
+			ret.set3(position);
+		}
+	}
+
 	public void setPosition(Vec3d pos) {
 		synchronized (position) {
+			if (position.equals3(pos))
+				return;
 			position.set3(pos);
 		}
+		this.graphicsChanged();
 	}
 
 	public Vec3d getSize() {
@@ -394,8 +421,11 @@ public class DisplayEntity extends Entity {
 
 	public void setSize(Vec3d size) {
 		synchronized (position) {
+			if (this.size.equals3(size))
+				return;
 			this.size.set3(size);
 		}
+		this.graphicsChanged();
 	}
 
 	public Vec3d getOrientation() {
@@ -404,10 +434,22 @@ public class DisplayEntity extends Entity {
 		}
 	}
 
+	/**
+	 * Copies the entity's orientation to the specified vector.
+	 */
+	public void getOrientation(Vec3d ret) {
+		synchronized (position) {
+			ret.set3(orient);
+		}
+	}
+
 	public void setOrientation(Vec3d orientation) {
 		synchronized (position) {
+			if (orient.equals3(orientation))
+				return;
 			orient.set3(orientation);
 		}
+		this.graphicsChanged();
 	}
 
 	public Vec3d getAlignment() {
@@ -418,8 +460,11 @@ public class DisplayEntity extends Entity {
 
 	public void setAlignment(Vec3d align) {
 		synchronized (position) {
+			if (this.align.equals3(align))
+				return;
 			this.align.set3(align);
 		}
+		this.graphicsChanged();
 	}
 
 	public boolean getShow() {
@@ -430,8 +475,11 @@ public class DisplayEntity extends Entity {
 
 	public void setShow(boolean bool) {
 		synchronized (position) {
+			if (show == bool)
+				return;
 			show = bool;
 		}
+		this.graphicsChanged();
 	}
 
 	public boolean isActive() {
@@ -464,6 +512,7 @@ public class DisplayEntity extends Entity {
 	 */
 	public void setRegion( Region newRegion ) {
 		currentRegion = newRegion;
+		this.graphicsChanged();
 	}
 
 	/**
@@ -628,8 +677,19 @@ public class DisplayEntity extends Entity {
 	 * @return
 	 */
 	public Vec3d getGlobalPosition(Vec3d pos) {
+		Vec3d ret = new Vec3d();
+		getGlobalPosition(pos, ret);
+		return ret;
+	}
 
-		Vec3d ret = new Vec3d(pos);
+	/**
+	 * Convert the specified local coordinate to the global coordinate system
+	 * @param pos - a position in the entity's local coordinate system
+	 * @param ret - receives the global position, can be the same vector as pos
+	 */
+	public void getGlobalPosition(Vec3d pos, Vec3d ret) {
+
+		ret.set3(pos);
 
 		// Position is relative to another entity
 		DisplayEntity ent = this.getRelativeEntity();
@@ -637,14 +697,12 @@ public class DisplayEntity extends Entity {
 			if (currentRegion != null)
 				currentRegion.getRegionTransForVectors().multAndTrans(ret, ret);
 			ret.add3(ent.getGlobalPosition());
-			return ret;
+			return;
 		}
 
 		// Position is given in a local coordinate system
 		if (currentRegion != null)
 			currentRegion.getRegionTrans().multAndTrans(ret, ret);
-
-		return ret;
 	}
 
 	/**
@@ -693,8 +751,19 @@ public class DisplayEntity extends Entity {
 	 * @param pos - a position in the global coordinate system
 	 */
 	public Vec3d getLocalPosition(Vec3d pos) {
+		Vec3d localPos = new Vec3d();
+		getLocalPosition(pos, localPos);
+		return localPos;
+	}
 
-		Vec3d localPos = new Vec3d(pos);
+	/**
+	 * Converts the specified global coordinates to the entity's local coordinates.
+	 * @param pos - a position in the global coordinate system
+	 * @param localPos - receives the local position, can be the same vector as pos
+	 */
+	public void getLocalPosition(Vec3d pos, Vec3d localPos) {
+
+		localPos.set3(pos);
 
 		// Position is relative to another entity
 		DisplayEntity ent = this.getRelativeEntity();
@@ -702,14 +771,12 @@ public class DisplayEntity extends Entity {
 			localPos.sub3(ent.getGlobalPosition());
 			if (currentRegion != null)
 				currentRegion.getInverseRegionTransForVectors().multAndTrans(localPos, localPos);
-			return localPos;
+			return;
 		}
 
 		// Position is given in a local coordinate system
 		if (currentRegion != null)
-			currentRegion.getInverseRegionTrans().multAndTrans(pos, localPos);
-
-		return localPos;
+			currentRegion.getInverseRegionTrans().multAndTrans(localPos, localPos);
 	}
 
 	/*
@@ -773,10 +840,11 @@ public class DisplayEntity extends Entity {
 		displayModelList.clear();
 		if (dmList == null)
 			return;
-		for (DisplayModel dm : dmList) {
-			displayModelList.add(dm);
+		for (int i = 0; i < dmList.size(); i++) {
+			displayModelList.add(dmList.get(i));
 		}
 		clearBindings(); // Clear this on any change, and build it lazily later
+		this.graphicsChanged();
 	}
 
 	public final void clearBindings() {
@@ -885,6 +953,30 @@ public class DisplayEntity extends Entity {
 			cachedPointInfo = null;
 			cachedCurvePoints = null;
 		}
+		this.graphicsChanged();
+	}
+
+	/**
+	 * Records that the appearance of this entity may have changed, so that any display model
+	 * bindings that retain their proxies between frames will collect them again.
+	 */
+	protected final void graphicsChanged() {
+		graphicsStamp = DisplayModelBinding.nextGraphicsStamp();
+	}
+
+	/**
+	 * Returns a value that changes whenever the appearance of this entity, its relative entity,
+	 * or its region may have changed.
+	 */
+	public long getGraphicsStamp() {
+		long ret = graphicsStamp;
+		DisplayEntity ent = this.getRelativeEntity();
+		if (ent != null && ent != this)
+			ret = Math.max(ret, ent.getGraphicsStamp());
+		Region region = currentRegion;
+		if (region != null && region != this)
+			ret = Math.max(ret, region.getGraphicsStamp());
+		return ret;
 	}
 
 	public final PolylineInfo[] getScreenPoints(double simTime) {
@@ -958,13 +1050,15 @@ public class DisplayEntity extends Entity {
 		if (t == null) {
 			t = new Tag(cas, null, true);
 			tagMap.put(tagName, t);
+			this.graphicsChanged();
 			return;
 		}
 
 		if (t.colorsMatch(cas))
 			return;
-		else
-			tagMap.put(tagName, new Tag(cas, t.sizes, t.visible));
+
+		tagMap.put(tagName, new Tag(cas, t.sizes, t.visible));
+		this.graphicsChanged();
 	}
 
 	public final void setTagSize(String tagName, double size) {
@@ -978,13 +1072,15 @@ public class DisplayEntity extends Entity {
 		if (t == null) {
 			t = new Tag(null, sizes, true);
 			tagMap.put(tagName, t);
+			this.graphicsChanged();
 			return;
 		}
 
 		if (t.sizesMatch(sizes))
 			return;
-		else
-			tagMap.put(tagName, new Tag(t.colors, sizes, t.visible));
+
+		tagMap.put(tagName, new Tag(t.colors, sizes, t.visible));
+		this.graphicsChanged();
 	}
 
 	public final void setTagVisibility(String tagName, boolean isVisible) {
@@ -992,13 +1088,15 @@ public class DisplayEntity extends Entity {
 		if (t == null) {
 			t = new Tag(null, null, isVisible);
 			tagMap.put(tagName, t);
+			this.graphicsChanged();
 			return;
 		}
 
 		if (t.visMatch(isVisible))
 			return;
-		else
-			tagMap.put(tagName, new Tag(t.colors, t.sizes, isVisible));
+
+		tagMap.put(tagName, new Tag(t.colors, t.sizes, isVisible));
+		this.graphicsChanged();
 	}
 
 	/**
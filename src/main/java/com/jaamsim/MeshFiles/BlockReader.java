@@ -18,7 +18,14 @@ package com.jaamsim.MeshFiles;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.zip.CRC32;
 
@@ -27,9 +34,132 @@ public class BlockReader {
 	private static final boolean CHECK_PAYLOAD_CRC = false;
 
 	public static final MeshData parse(URI asset) throws Exception {
-		InputStream inStream = asset.toURL().openStream();
-		DataBlock block = readBlock(inStream);
-		return new MeshData(false, block, asset.toURL());
+		URL url = asset.toURL();
+		if (!"file".equals(asset.getScheme())) {
+			InputStream inStream = url.openStream();
+			DataBlock block = readBlock(inStream);
+			return new MeshData(false, block, url);
+		}
+
+		// Map the file so that the block payloads are read in place without being copied
+		ByteBuffer buf;
+		try (FileChannel channel = FileChannel.open(Paths.get(asset), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new DataBlock.Error("File is too large to map");
+			buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		DataBlock block = readBlock(buf, CHECK_PAYLOAD_CRC);
+		return new MeshData(false, block, url);
+	}
+
+	/**
+	 * Read a block starting at the buffer's position and advance the position past the end of
+	 * the block. The returned blocks are read only slices of the buffer.
+	 * Can throw a DataBlock.Error
+	 * @param buf
+	 * @param checkCRC - check the payload CRC, which includes the payloads of the children
+	 */
+	public static DataBlock readBlock(ByteBuffer buf, boolean checkCRC) {
+		try {
+			byte[] readBuffer = new byte[128];
+
+			// Read the header
+			buf.get(readBuffer, 0, 4);
+			for (int i = 0; i < 4; ++i) {
+				if (readBuffer[i] != BlockUtils.header[i])
+					throw new DataBlock.Error("Missing block header");
+			}
+
+			// Read the header CRC
+			int headerValue = buf.getInt();
+
+			CRC32 headerCRC = new CRC32();
+
+			// Read until a null byte, or max 128
+			int stringSize = 0;
+			while (stringSize < 128) {
+				byte b = buf.get();
+				headerCRC.update(b);
+				readBuffer[stringSize] = b;
+				if (b == 0)
+					break;
+				++stringSize;
+			}
+			if (stringSize == 128) {
+				throw new DataBlock.Error("No null terminator for block name");
+			}
+
+			String blockName = new String(readBuffer, 0, stringSize, "UTF-8");
+
+			// Read the number of children and the block size
+			int headerPos = buf.position();
+			int numChildren = buf.getInt();
+			long payloadSize = buf.getLong();
+			buf.position(headerPos);
+			buf.get(readBuffer, 0, 12);
+			headerCRC.update(readBuffer, 0, 12);
+
+			// check the header Adds up
+			if ((int)headerCRC.getValue() != headerValue) {
+				throw new DataBlock.Error("Header CRC mismatch");
+			}
+
+			if (payloadSize < 0 || payloadSize > buf.remaining() - 8) {
+				throw new DataBlock.Error("Block payload past end of buffer");
+			}
+			int payloadStart = buf.position();
+			int payloadEnd = payloadStart + (int)payloadSize;
+
+			// The children are covered by this block's payload CRC, so they are not checked again
+			ArrayList<DataBlock> children = new ArrayList<>();
+			for (int i = 0; i < numChildren; ++i) {
+				children.add(readBlock(buf, false));
+			}
+			if (buf.position() > payloadEnd) {
+				throw new DataBlock.Error("Child block past end of payload");
+			}
+
+			// The remainder of the payload is used in place
+			ByteBuffer data = buf.duplicate();
+			data.limit(payloadEnd);
+			buf.position(payloadEnd);
+
+			// Check the CRC and footer
+			int payloadValue = buf.getInt();
+			if (checkCRC && payloadValue != getCRC(buf, payloadStart, payloadEnd)) {
+				throw new DataBlock.Error("Block payload CRC mismatch");
+			}
+
+			buf.get(readBuffer, 0, 4);
+			for (int i = 0; i < 4; ++i) {
+				if (readBuffer[i] != BlockUtils.footer[i])
+					throw new DataBlock.Error("Missing block footer");
+			}
+
+			return new DataBlock(blockName, data, children);
+
+		} catch (BufferUnderflowException e) {
+			throw new DataBlock.Error("Unexpected end of buffer");
+		} catch (UnsupportedEncodingException e) {
+			throw new DataBlock.Error(e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the CRC for the specified range of the buffer
+	 */
+	private static int getCRC(ByteBuffer buf, int start, int end) {
+		CRC32 crc = new CRC32();
+		byte[] chunk = new byte[Math.min(end - start, 65536)];
+		ByteBuffer dup = buf.duplicate();
+		dup.position(start);
+		dup.limit(end);
+		while (dup.hasRemaining()) {
+			int size = Math.min(dup.remaining(), chunk.length);
+			dup.get(chunk, 0, size);
+			crc.update(chunk, 0, size);
+		}
+		return (int)crc.getValue();
 	}
 
 	public static DataBlock readBlock(InputStream in) {
@@ -18,6 +18,7 @@
 package com.jaamsim.MeshFiles;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 
 import com.jaamsim.math.Mat4d;
@@ -38,7 +39,8 @@ public class DataBlock {
 	}
 
 	private final String name;
-	private final byte[] data;
+	private final byte[] data;       // null for a block read in place from a mapped file
+	private final ByteBuffer buffer; // big-endian view of the data used for reading
 	private int dataSize = 0;
 	private int readPos = 0;
 	private final ArrayList<DataBlock> children;
@@ -49,6 +51,7 @@ public class DataBlock {
 	public DataBlock(String name, int bufferSize) {
 		this.name = name;
 		data = new byte[bufferSize];
+		buffer = ByteBuffer.wrap(data);
 		children = new ArrayList<>();
 	}
 
@@ -62,9 +65,25 @@ public class DataBlock {
 		this.name = name;
 		this.data = data;
 		this.children = children;
+		buffer = ByteBuffer.wrap(data);
 		dataSize = data.length;
 	}
 
+	/**
+	 * Create a read only DataBlock whose data is the remaining content of a buffer, this method
+	 * is meant to be used by a file reader to avoid copying the data from a mapped file
+	 * @param name
+	 * @param data
+	 * @param children
+	 */
+	public DataBlock(String name, ByteBuffer data, ArrayList<DataBlock> children) {
+		this.name = name;
+		this.data = null;
+		this.children = children;
+		buffer = data.slice();
+		dataSize = buffer.remaining();
+	}
+
 	public int getDataSize() {
 		return dataSize;
 	}
@@ -85,7 +104,15 @@ public class DataBlock {
 	}
 
 	public byte[] getData() {
-		return data;
+		if (data != null)
+			return data;
+
+		// Copy the data out of a read only block
+		byte[] ret = new byte[dataSize];
+		ByteBuffer dup = buffer.duplicate();
+		dup.position(0);
+		dup.get(ret);
+		return ret;
 	}
 
 	public ArrayList<DataBlock> getChildren() {
@@ -101,6 +128,9 @@ public class DataBlock {
 	}
 
 	private void checkWriteSize(int newSize) {
+		if (data == null) {
+			throw new Error("DataBlock is read only");
+		}
 		if (dataSize + newSize > data.length) {
 			throw new Error("DataBlock write too large");
 		}
@@ -187,13 +217,13 @@ public class DataBlock {
 
 	public byte readByte() {
 		checkReadSize(1);
-		return data[readPos++];
+		return buffer.get(readPos++);
 	}
 
 	public int readInt() {
 		checkReadSize(4);
 
-		int ret = BlockUtils.intFromBytes(data, readPos);
+		int ret = buffer.getInt(readPos);
 		readPos += 4;
 		return ret;
 	}
@@ -206,7 +236,7 @@ public class DataBlock {
 	public long readLong() {
 		checkReadSize(8);
 
-		long ret = BlockUtils.longFromBytes(data, readPos);
+		long ret = buffer.getLong(readPos);
 		readPos += 8;
 		return ret;
 	}
@@ -219,17 +249,19 @@ public class DataBlock {
 	public String readString() {
 		// Find the next null terminator
 		int startPos = readPos;
-		while (readPos++ < dataSize) {
-			if (data[readPos] == 0)
-				break;
+		int endPos = startPos;
+		while (endPos < dataSize && buffer.get(endPos) != 0) {
+			endPos++;
 		}
-		if (readPos == dataSize) {
+		if (endPos == dataSize) {
 			throw new Error("Read string past end of block");
 		}
-		int size = readPos - startPos;
-		readPos++; // Skip the null byte
+		int size = endPos - startPos;
+		readPos = endPos + 1; // Skip the null byte
 		byte[] bytes = new byte[size];
-		System.arraycopy(data, startPos, bytes, 0, size);
+		ByteBuffer dup = buffer.duplicate();
+		dup.position(startPos);
+		dup.get(bytes);
 
 		try {
 			return new String(bytes, "UTF-8");
@@ -238,6 +270,32 @@ public class DataBlock {
 		}
 	}
 
+	/**
+	 * Fills the array with ints read in bulk from the block
+	 * @param dst
+	 */
+	public void readInts(int[] dst) {
+		checkReadSize(dst.length * 4);
+
+		ByteBuffer dup = buffer.duplicate();
+		dup.position(readPos);
+		dup.asIntBuffer().get(dst);
+		readPos += dst.length * 4;
+	}
+
+	/**
+	 * Fills the array with doubles read in bulk from the block
+	 * @param dst
+	 */
+	public void readDoubles(double[] dst) {
+		checkReadSize(dst.length * 8);
+
+		ByteBuffer dup = buffer.duplicate();
+		dup.position(readPos);
+		dup.asDoubleBuffer().get(dst);
+		readPos += dst.length * 8;
+	}
+
 	public Mat4d readMat4d() {
 		Mat4d ret = new Mat4d();
 
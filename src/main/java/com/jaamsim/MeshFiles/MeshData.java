@@ -1077,22 +1077,29 @@ public class MeshData {
 		DataBlock v3s = vectorsBlock.findChildByName("Vec3ds");
 		DataBlock v4s = vectorsBlock.findChildByName("Vec4ds");
 
+		// The vector libraries are read in bulk
 		int vec2dSize = (v2s != null) ? v2s.getDataSize() / 16 : 0;
+		double[] vals = new double[vec2dSize * 2];
+		if (v2s != null) v2s.readDoubles(vals);
 		Vec2d[] vec2ds = new Vec2d[vec2dSize];
 		for (int i = 0; i < vec2dSize; ++i) {
-			vec2ds[i] = new Vec2d(v2s.readDouble(), v2s.readDouble());
+			vec2ds[i] = new Vec2d(vals[2*i], vals[2*i + 1]);
 		}
 
 		int vec3dSize = (v3s != null) ? v3s.getDataSize() / 24 : 0;
+		vals = new double[vec3dSize * 3];
+		if (v3s != null) v3s.readDoubles(vals);
 		Vec3d[] vec3ds = new Vec3d[vec3dSize];
 		for (int i = 0; i < vec3dSize; ++i) {
-			vec3ds[i] = new Vec3d(v3s.readDouble(), v3s.readDouble(), v3s.readDouble());
+			vec3ds[i] = new Vec3d(vals[3*i], vals[3*i + 1], vals[3*i + 2]);
 		}
 
 		int vec4dSize = (v4s != null) ? v4s.getDataSize() / 32 : 0;
+		vals = new double[vec4dSize * 4];
+		if (v4s != null) v4s.readDoubles(vals);
 		Vec4d[] vec4ds = new Vec4d[vec4dSize];
 		for (int i = 0; i < vec4dSize; ++i) {
-			vec4ds[i] = new Vec4d(v4s.readDouble(), v4s.readDouble(), v4s.readDouble(), v4s.readDouble());
+			vec4ds[i] = new Vec4d(vals[4*i], vals[4*i + 1], vals[4*i + 2], vals[4*i + 3]);
 		}
 
 		// Build up the sub mesh data
@@ -1106,25 +1113,28 @@ public class MeshData {
 
 			DataBlock vertBlock = subMeshBlock.findChildByName("Vertices");
 			if (vertBlock == null) throw new RenderException("Missing vertices in submesh");
-			subData.verts = new ArrayList<>(vertBlock.getDataSize() / 4);
-			for (int i = 0; i < vertBlock.getDataSize() / 4; ++i) {
-				int vertInd = vertBlock.readInt();
+			int[] inds = new int[vertBlock.getDataSize() / 4];
+			vertBlock.readInts(inds);
+			subData.verts = new ArrayList<>(inds.length);
+			for (int vertInd : inds) {
 				subData.verts.add(vec3ds[vertInd]);
 			}
 
 			DataBlock normBlock = subMeshBlock.findChildByName("Normals");
 			if (normBlock == null) throw new RenderException("Missing normals in submesh");
-			subData.normals = new ArrayList<>(normBlock.getDataSize() / 4);
-			for (int i = 0; i < normBlock.getDataSize() / 4; ++i) {
-				int normInd = normBlock.readInt();
+			inds = new int[normBlock.getDataSize() / 4];
+			normBlock.readInts(inds);
+			subData.normals = new ArrayList<>(inds.length);
+			for (int normInd : inds) {
 				subData.normals.add(vec3ds[normInd]);
 			}
 
 			DataBlock texCoordBlock = subMeshBlock.findChildByName("TexCoords");
 			if (texCoordBlock != null) {
-				subData.texCoords = new ArrayList<>(texCoordBlock.getDataSize() / 4);
-				for (int i = 0; i < texCoordBlock.getDataSize() / 4; ++i) {
-					int texInd = texCoordBlock.readInt();
+				inds = new int[texCoordBlock.getDataSize() / 4];
+				texCoordBlock.readInts(inds);
+				subData.texCoords = new ArrayList<>(inds.length);
+				for (int texInd : inds) {
 					subData.texCoords.add(vec2ds[texInd]);
 				}
 			}
@@ -1132,9 +1142,7 @@ public class MeshData {
 			DataBlock indicesBlock = subMeshBlock.findChildByName("Indices");
 			if (indicesBlock == null) throw new RenderException("Missing indices in submesh");
 			subData.indices = new int[indicesBlock.getDataSize() / 4];
-			for (int i = 0; i < indicesBlock.getDataSize() / 4; ++i) {
-				subData.indices[i] = indicesBlock.readInt();
-			}
+			indicesBlock.readInts(subData.indices);
 
 			DataBlock hullBlock = subMeshBlock.findChildByName("ConvexHull");
 			if (hullBlock == null) throw new RenderException("Missing hull in submesh");
@@ -1153,9 +1161,10 @@ public class MeshData {
 
 			DataBlock vertBlock = subLineBlock.findChildByName("Vertices");
 			if (vertBlock == null) throw new RenderException("Missing vertices in subline");
-			subLine.verts = new ArrayList<>(vertBlock.getDataSize() / 4);
-			for (int i = 0; i < vertBlock.getDataSize() / 4; ++i) {
-				int vertInd = vertBlock.readInt();
+			int[] inds = new int[vertBlock.getDataSize() / 4];
+			vertBlock.readInts(inds);
+			subLine.verts = new ArrayList<>(inds.length);
+			for (int vertInd : inds) {
 				subLine.verts.add(vec3ds[vertInd]);
 			}
 
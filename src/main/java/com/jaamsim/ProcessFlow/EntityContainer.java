@@ -91,7 +91,7 @@ public class EntityContainer extends SimEntity {
 		// Set the states for the entities carried by the EntityContainer to the new state
 		for (DisplayEntity ent : entityList) {
 			if (ent instanceof StateEntity)
-				((StateEntity)ent).setPresentState(next.name);
+				((StateEntity)ent).setPresentState(next.id);
 		}
 	}
 
@@ -17,6 +17,7 @@
  */
 package com.jaamsim.ProcessFlow;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 
 import com.jaamsim.Graphics.DisplayEntity;
@@ -49,8 +50,13 @@ public class EntityConveyor extends LinkedService {
 	         exampleList = {"red"})
 	private final ColourInput colorInput;
 
-	private final ArrayList<ConveyorEntry> entryList;  // List of the entities being conveyed
+	private final ArrayDeque<ConveyorEntry> entryList;  // List of the entities being conveyed
 	private double presentTravelTime;
+	private double totalProgress;  // fractional distance travelled since the last rebase
+
+	// The total progress is rebased when it reaches this value so that the positions are not
+	// calculated from large values that have lost precision
+	private static final double REBASE_PROGRESS = 2.0d;
 
 	{
 		operatingThresholdList.setHidden(true);
@@ -77,7 +83,7 @@ public class EntityConveyor extends LinkedService {
 	}
 
 	public EntityConveyor() {
-		entryList = new ArrayList<>();
+		entryList = new ArrayDeque<>();
 	}
 
 	@Override
@@ -85,6 +91,7 @@ public class EntityConveyor extends LinkedService {
 		super.earlyInit();
 		entryList.clear();
 		presentTravelTime = 0.0d;
+		totalProgress = 0.0d;
 	}
 
 	@Override
@@ -93,21 +100,30 @@ public class EntityConveyor extends LinkedService {
 		presentTravelTime = travelTimeInput.getValue().getNextSample(0.0);
 	}
 
+	/**
+	 * Records an entity on the conveyor and the total progress of the conveyor when it was
+	 * added. The entity's position is the difference between the present total progress and
+	 * this value, so advancing the conveyor does not require each entry to be updated.
+	 */
 	private static class ConveyorEntry {
 		final DisplayEntity entity;
-		double position;
+		double startProgress;
 
-		public ConveyorEntry(DisplayEntity ent, double pos) {
+		public ConveyorEntry(DisplayEntity ent, double start) {
 			entity = ent;
-			position = pos;
+			startProgress = start;
 		}
 
 		@Override
 		public String toString() {
-			return String.format("(%s, %.6f)", entity, position);
+			return String.format("(%s, %.6f)", entity, startProgress);
 		}
 	}
 
+	private double getPosition(ConveyorEntry entry) {
+		return totalProgress - entry.startProgress;
+	}
+
 	@Override
 	public void addEntity(DisplayEntity ent ) {
 		super.addEntity(ent);
@@ -120,8 +136,8 @@ public class EntityConveyor extends LinkedService {
 		this.updateTravelTime(simTime);
 
 		// Add the entity to the conveyor
-		ConveyorEntry entry = new ConveyorEntry(ent, 0.0d);
-		entryList.add(entry);
+		ConveyorEntry entry = new ConveyorEntry(ent, totalProgress);
+		entryList.addLast(entry);
 
 		// If necessary, wake up the conveyor
 		this.startStep();
@@ -136,7 +152,13 @@ public class EntityConveyor extends LinkedService {
 	protected boolean processStep(double simTime) {
 
 		// Remove the entity from the conveyor
-		DisplayEntity ent = entryList.remove(0).entity;
+		DisplayEntity ent = entryList.removeFirst().entity;
+
+		// Restart the progress measurement when the conveyor is empty
+		if (entryList.isEmpty())
+			totalProgress = 0.0d;
+		else if (totalProgress >= REBASE_PROGRESS)
+			this.rebaseProgress();
 
 		// Update the travel time
 		this.updateTravelTime(simTime);
@@ -152,7 +174,7 @@ public class EntityConveyor extends LinkedService {
 
 		// Calculate the time for the first entity to reach the end of the conveyor
 		double dt = simTime - this.getLastUpdateTime();
-		double dur = (1.0d - entryList.get(0).position)*presentTravelTime - dt;
+		double dur = (1.0d - getPosition(entryList.peekFirst()))*presentTravelTime - dt;
 		dur = Math.max(dur, 0);  // Round-off to the nearest tick can cause a negative value
 		if (isTraceFlag()) trace(1, "getProcessingTime = %.6f", dur);
 		return dur;
@@ -170,11 +192,23 @@ public class EntityConveyor extends LinkedService {
 			return;
 
 		// Increment the positions of the entities on the conveyor
-		if (isTraceFlag()) traceLine(2, "BEFORE - entryList=%s", entryList);
+		if (isTraceFlag()) traceLine(2, "BEFORE - totalProgress=%.6f, entryList=%s", totalProgress, entryList);
+		totalProgress += frac;
+		if (isTraceFlag()) traceLine(2, "AFTER - totalProgress=%.6f", totalProgress);
+	}
+
+	/**
+	 * Subtracts one from the total progress and from the start of each entry. The entries
+	 * have positions between zero and one, so these values are between one and four and the
+	 * subtraction is exact. The cost is amortized over the entries that have left the
+	 * conveyor since the last rebase.
+	 */
+	private void rebaseProgress() {
+		if (isTraceFlag()) traceLine(2, "REBASE - totalProgress=%.6f", totalProgress);
+		totalProgress -= 1.0d;
 		for (ConveyorEntry entry : entryList) {
-			entry.position += frac;
+			entry.startProgress -= 1.0d;
 		}
-		if (isTraceFlag()) traceLine(2, "AFTER - entryList=%s", entryList);
 	}
 
 	private void updateTravelTime(double simTime) {
@@ -219,10 +253,10 @@ public class EntityConveyor extends LinkedService {
 			return;
 
 		// Move each entity on the conveyor to its present position
-		double frac = (simTime - this.getLastUpdateTime())/presentTravelTime;
-		for (int i=0; i<entryList.size(); i++) {
-			ConveyorEntry entry = entryList.get(i);
-			Vec3d localPos = PolylineInfo.getPositionOnPolyline(getCurvePoints(), entry.position + frac);
+		double progress = totalProgress + (simTime - this.getLastUpdateTime())/presentTravelTime;
+		for (ConveyorEntry entry : entryList) {
+			double pos = progress - entry.startProgress;
+			Vec3d localPos = PolylineInfo.getPositionOnPolyline(getCurvePoints(), pos);
 			entry.entity.setGlobalPosition(this.getGlobalPosition(localPos));
 		}
 	}
@@ -17,7 +17,6 @@
 package com.jaamsim.ProcessFlow;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Graphics.PolylineInfo;
@@ -55,7 +54,8 @@ public class EntityDelay extends LinkedComponent {
 	         exampleList = {"red"})
 	private final ColourInput colorInput;
 
-	private final HashMap<Long, EntityDelayEntry> entityMap = new HashMap<>();  // List of the entities being handled
+	private final ArrayList<RemoveDisplayEntityTarget> entityList = new ArrayList<>();  // entities shown on the path
+	private final ArrayList<RemoveDisplayEntityTarget> freeTargets = new ArrayList<>();  // targets available for reuse
 
 	{
 		stateGraphics.setHidden(false);
@@ -89,7 +89,7 @@ public class EntityDelay extends LinkedComponent {
 		// If animation is turned off, clear the list of entities to be displayed
 		if (in == animation) {
 			if (!animation.getValue())
-				entityMap.clear();
+				this.clearEntityList();
 			return;
 		}
 
@@ -103,7 +103,7 @@ public class EntityDelay extends LinkedComponent {
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
-		entityMap.clear();
+		this.clearEntityList();
 	}
 
 	@Override
@@ -111,12 +111,6 @@ public class EntityDelay extends LinkedComponent {
 		return "Idle";
 	}
 
-	private static class EntityDelayEntry {
-		DisplayEntity ent;
-		double startTime;
-		double duration;
-	}
-
 	@Override
 	public void addEntity(DisplayEntity ent) {
 		super.addEntity(ent);
@@ -126,39 +120,78 @@ public class EntityDelay extends LinkedComponent {
 		double dur = duration.getValue().getNextSample(simTime);
 
 		// Add the entity to the list of entities being delayed
+		RemoveDisplayEntityTarget target = this.getRemoveTarget(ent);
 		if (animation.getValue()) {
-			EntityDelayEntry entry = new EntityDelayEntry();
-			entry.ent = ent;
-			entry.startTime = simTime;
-			entry.duration = dur;
-			entityMap.put(ent.getEntityNumber(), entry);
+			target.startTime = simTime;
+			target.duration = dur;
+			target.index = entityList.size();
+			entityList.add(target);
 		}
 
-		this.scheduleProcess(dur, 5, new RemoveDisplayEntityTarget(this, ent));
+		this.scheduleProcess(dur, 5, target);
 
 		// Set the present state to Working
 		this.setPresentState();
 	}
 
 	private static class RemoveDisplayEntityTarget extends EntityTarget<EntityDelay> {
-		private final DisplayEntity delayedEnt;
+		private DisplayEntity delayedEnt;
+		private double startTime;
+		private double duration;
+		private int index = -1;  // position in the list of entities shown on the path, if any
 
-		RemoveDisplayEntityTarget(EntityDelay d, DisplayEntity e) {
+		RemoveDisplayEntityTarget(EntityDelay d) {
 			super(d, "removeDisplayEntity");
-			delayedEnt = e;
 		}
 
 		@Override
 		public void process() {
-			ent.removeDisplayEntity(delayedEnt);
+			DisplayEntity e = delayedEnt;
+			delayedEnt = null;
+			ent.removeFromEntityList(this);
+			ent.freeTargets.add(this);
+			ent.removeDisplayEntity(e);
 		}
 	}
 
-	public void removeDisplayEntity(DisplayEntity ent) {
+	/**
+	 * Returns a target that removes the specified entity, reusing one that has been completed
+	 * if possible.
+	 */
+	private RemoveDisplayEntityTarget getRemoveTarget(DisplayEntity ent) {
+		RemoveDisplayEntityTarget ret;
+		if (freeTargets.isEmpty())
+			ret = new RemoveDisplayEntityTarget(this);
+		else
+			ret = freeTargets.remove(freeTargets.size() - 1);
+		ret.delayedEnt = ent;
+		return ret;
+	}
 
-		// Remove the entity from the lists
-		if (animation.getValue())
-			entityMap.remove(ent.getEntityNumber());
+	/**
+	 * Removes the specified target from the list of entities shown on the path. The last target
+	 * in the list takes its place.
+	 */
+	private void removeFromEntityList(RemoveDisplayEntityTarget target) {
+		if (target.index < 0)
+			return;
+
+		RemoveDisplayEntityTarget last = entityList.remove(entityList.size() - 1);
+		if (last != target) {
+			entityList.set(target.index, last);
+			last.index = target.index;
+		}
+		target.index = -1;
+	}
+
+	private void clearEntityList() {
+		for (int i = 0; i < entityList.size(); i++) {
+			entityList.get(i).index = -1;
+		}
+		entityList.clear();
+	}
+
+	public void removeDisplayEntity(DisplayEntity ent) {
 
 		// Send the entity to the next component
 		this.sendToNextComponent(ent);
@@ -168,10 +201,10 @@ public class EntityDelay extends LinkedComponent {
 	@Override
 	public void setPresentState() {
 		if (this.getNumberInProgress() > 0) {
-			this.setPresentState("Working");
+			this.setPresentState(STATE_WORKING);
 		}
 		else {
-			this.setPresentState("Idle");
+			this.setPresentState(STATE_IDLE);
 		}
 	}
 
@@ -182,13 +215,18 @@ public class EntityDelay extends LinkedComponent {
 			return;
 
 		// Loop through the entities on the path
-		for (EntityDelayEntry entry : entityMap.values()) {
+		for (int i = 0; i < entityList.size(); i++) {
+			RemoveDisplayEntityTarget entry = entityList.get(i);
+			DisplayEntity ent = entry.delayedEnt;
+			if (ent == null)
+				continue;
+
 			// Calculate the distance travelled by this entity
 			double frac = ( simTime - entry.startTime ) / entry.duration;
 
 			// Set the position for the entity
 			Vec3d localPos = PolylineInfo.getPositionOnPolyline(getCurvePoints(), frac);
-			entry.ent.setGlobalPosition(this.getGlobalPosition(localPos));
+			ent.setGlobalPosition(this.getGlobalPosition(localPos));
 		}
 	}
 
@@ -18,6 +18,7 @@
 package com.jaamsim.ProcessFlow;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.EntityProviders.EntityProvInput;
@@ -27,6 +28,8 @@ import com.jaamsim.Graphics.TextBasics;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.basicsim.EntityPool;
+import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.Keyword;
@@ -61,8 +64,16 @@ public class EntityGenerator extends LinkedService {
 	         exampleList = {"3", "InputValue1", "[InputValue1].Value"})
 	private final SampleInput maxNumber;
 
+	@Keyword(description = "If TRUE, entities that are sent to an EntitySink are returned to a "
+	                     + "pool for their prototype and are reused in place of new entities. "
+	                     + "This option must not be used if the model retains references to "
+	                     + "entities after they have been sent to an EntitySink.",
+	         exampleList = {"TRUE"})
+	private final BooleanInput reuseEntities;
+
 	private int numberGenerated = 0;  // Number of entities generated so far
 	private double presentIAT;
+	private final HashMap<DisplayEntity, EntityPool<DisplayEntity>> poolMap;  // pool for each prototype
 
 	{
 		defaultEntity.setHidden(true);
@@ -104,15 +115,21 @@ public class EntityGenerator extends LinkedService {
 		maxNumber.setValidRange(1, Double.POSITIVE_INFINITY);
 		maxNumber.setDefaultText(Input.POSITIVE_INFINITY);
 		this.addInput(maxNumber);
+
+		reuseEntities = new BooleanInput("ReuseEntities", "Key Inputs", false);
+		this.addInput(reuseEntities);
 	}
 
-	public EntityGenerator() {}
+	public EntityGenerator() {
+		poolMap = new HashMap<>();
+	}
 
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
 		numberGenerated = 0;
 		presentIAT = 0.0d;
+		poolMap.clear();
 	}
 
 	@Override
@@ -158,10 +175,7 @@ public class EntityGenerator extends LinkedService {
 		for (int i=0; i<num; i++) {
 			numberGenerated++;
 			DisplayEntity proto = prototypeEntity.getValue().getNextEntity(simTime);
-			StringBuilder sb = new StringBuilder();
-			sb.append(this.getName()).append("_").append(numberGenerated);
-			DisplayEntity ent = InputAgent.generateEntityWithName(proto.getClass(), sb.toString());
-			Entity.fastCopyInputs(proto, ent);
+			DisplayEntity ent = this.getEntity(proto);
 			ent.earlyInit();
 
 
@@ -174,6 +188,33 @@ public class EntityGenerator extends LinkedService {
 		return true;
 	}
 
+	/**
+	 * Returns a new entity that is a copy of the specified prototype. If entities are reused,
+	 * the entity is taken from the prototype's pool whenever possible.
+	 */
+	private DisplayEntity getEntity(DisplayEntity proto) {
+		EntityPool<DisplayEntity> pool = null;
+		if (reuseEntities.getValue()) {
+			pool = poolMap.get(proto);
+			if (pool == null) {
+				pool = new EntityPool<>();
+				poolMap.put(proto, pool);
+			}
+
+			DisplayEntity ent = pool.acquire();
+			if (ent != null) {
+				ent.setGeneratedName(this.getName(), numberGenerated);
+				return ent;
+			}
+		}
+
+		DisplayEntity ent = InputAgent.generateEntity(proto.getClass(), this.getName(), numberGenerated);
+		Entity.fastCopyInputs(proto, ent);
+		if (pool != null)
+			pool.register(ent);
+		return ent;
+	}
+
 	@Override
 	protected double getStepDuration(double simTime) {
 		return presentIAT;
@@ -24,7 +24,7 @@ import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.Graphics.LinkDisplayable;
 import com.jaamsim.basicsim.Entity;
-import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.LogBuffer;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InterfaceEntityInput;
 import com.jaamsim.input.Keyword;
@@ -67,18 +67,18 @@ public class EntityLogger extends Logger implements Linkable, LinkDisplayable {
 	}
 
 	@Override
-	protected void printColumnTitles(FileEntity file) {
-		file.format("\t%s", "this.obj");
+	protected void addColumnTitles(ArrayList<String> titles) {
+		titles.add("this.obj");
 	}
 
 	@Override
-	protected void printColumnUnits(FileEntity file) {
-		file.format("\t%s", "");
+	protected void addColumnUnits(ArrayList<String> units) {
+		units.add("");
 	}
 
 	@Override
-	protected void recordEntry(FileEntity file, double simTime) {
-		file.format("\t%s", receivedEntity);
+	protected void recordEntry(LogBuffer buf, double simTime) {
+		buf.addString(String.valueOf(receivedEntity));
 	}
 
 	@Override
@@ -37,7 +37,7 @@ public class EntitySink extends LinkedComponent {
 		this.sendToNextComponent(ent);
 
 		// Kill the added entity
-		ent.kill();
+		ent.dispose();
 	}
 
 }
@@ -55,6 +55,7 @@ public abstract class LinkedService extends LinkedDevice implements QueueUser {
 	protected final StringProvInput match;
 
 	private String matchValue;
+	private final Vec3d processPos = new Vec3d();  // working vector for moveToProcessPosition
 
 	{
 		stateGraphics.setHidden(false);
@@ -186,9 +187,12 @@ public abstract class LinkedService extends LinkedDevice implements QueueUser {
 	// ********************************************************************************************
 
 	protected final void moveToProcessPosition(DisplayEntity ent) {
-		Vec3d pos = this.getGlobalPosition();
+		Vec3d pos = processPos;
+		this.getPosition(pos);
+		this.getGlobalPosition(pos, pos);
 		pos.add3(processPosition.getValue());
-		ent.setGlobalPosition(pos);
+		ent.getLocalPosition(pos, pos);
+		ent.setPosition(pos);
 	}
 
 	@Override
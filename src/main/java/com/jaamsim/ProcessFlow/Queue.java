@@ -19,6 +19,7 @@ package com.jaamsim.ProcessFlow;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.TreeSet;
@@ -30,7 +31,9 @@ import com.jaamsim.StringProviders.StringProvInput;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.EntityTarget;
 import com.jaamsim.datatypes.DoubleVector;
+import com.jaamsim.datatypes.IndexedTreeSet;
 import com.jaamsim.datatypes.IntegerVector;
+import com.jaamsim.events.ConditionalSource;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
@@ -98,13 +101,18 @@ public class Queue extends LinkedComponent {
 			exampleList = {"4"})
 	protected final IntegerInput maxPerLine; // maximum items per sub line-up of queue
 
-	private final TreeSet<QueueEntry> itemSet;  // contains all the entities in queue order
+	private final IndexedTreeSet<QueueEntry> itemSet;  // contains all the entities in queue order, guarded by its own lock
+	private final IdentityHashMap<DisplayEntity, QueueEntry> entryMap;  // queue entry for each entity
+	private final ConditionalSource queueSource; // notified whenever the queue contents change
 	private final HashMap<String, TreeSet<QueueEntry>> matchMap; // each TreeSet contains the queued entities for a given match value
 
 	private String matchForMaxCount;  // match value with the largest number of entities
 	private int maxCount;     // largest number of entities for a given match value
 
 	private final ArrayList<QueueUser> userList;  // other objects that use this queue
+	private final ArrayList<Seize> seizeList;  // Seize objects that use this queue
+	private final ArrayList<RenegeActionTarget> freeRenegeTargets;  // renege targets available for reuse
+	private final ArrayList<QueueEntry> freeEntries;  // queue entries available for reuse
 
 	//	Statistics
 	protected double timeOfLastUpdate; // time at which the statistics were last updated
@@ -160,9 +168,14 @@ public class Queue extends LinkedComponent {
 	}
 
 	public Queue() {
-		itemSet = new TreeSet<>();
+		itemSet = new IndexedTreeSet<>();
+		entryMap = new IdentityHashMap<>();
+		queueSource = new ConditionalSource();
 		queueLengthDist = new DoubleVector(10,10);
 		userList = new ArrayList<>();
+		seizeList = new ArrayList<>();
+		freeRenegeTargets = new ArrayList<>();
+		freeEntries = new ArrayList<>();
 		matchMap = new HashMap<>();
 	}
 
@@ -182,8 +195,12 @@ public class Queue extends LinkedComponent {
 		super.earlyInit();
 
 		// Clear the entries in the queue
-		itemSet.clear();
+		synchronized (itemSet) {
+			itemSet.clear();
+		}
+		entryMap.clear();
 		matchMap.clear();
+		queueSource.notifyChanged();
 
 		matchForMaxCount = null;
 		maxCount = -1;
@@ -200,32 +217,35 @@ public class Queue extends LinkedComponent {
 
 		// Identify the objects that use this queue
 		userList.clear();
+		seizeList.clear();
 		for (Entity each : Entity.getClonesOfIterator(Entity.class)) {
 			if (each instanceof QueueUser) {
 				QueueUser u = (QueueUser)each;
-				if (u.getQueues().contains(this))
+				if (u.getQueues().contains(this)) {
 					userList.add(u);
+					if (u instanceof Seize)
+						seizeList.add((Seize)u);
+				}
 			}
 		}
 	}
 
 	private static class QueueEntry implements Comparable<QueueEntry> {
-		final DisplayEntity entity;
-		final long entNum;
-		final int priority;
-		final String match;
-		final double timeAdded;
-		final Vec3d orientation;
-		final EventHandle renegeHandle;
-
-		public QueueEntry(DisplayEntity ent, long n, int pri, String m, double t, Vec3d orient, EventHandle rh) {
+		DisplayEntity entity;
+		long entNum;
+		int priority;
+		String match;
+		double timeAdded;
+		final Vec3d orientation = new Vec3d();
+		RenegeActionTarget renegeTarget;  // scheduled renege test, if any
+
+		void set(DisplayEntity ent, long n, int pri, String m, double t) {
 			entity = ent;
 			entNum = n;
 			priority = pri;
 			match = m;
 			timeAdded = t;
-			orientation = orient;
-			renegeHandle = rh;
+			ent.getOrientation(orientation);
 		}
 
 		@Override
@@ -255,8 +275,8 @@ public class Queue extends LinkedComponent {
 
 		@Override
 		public void process() {
-			for (QueueUser each : queue.userList)
-				each.queueChanged();
+			for (int i = 0; i < queue.userList.size(); i++)
+				queue.userList.get(i).queueChanged();
 		}
 
 		@Override
@@ -267,6 +287,13 @@ public class Queue extends LinkedComponent {
 
 	// ******************************************************************************************************
 	// QUEUE HANDLING METHODS
+	@Override
+	public ConditionalSource getOutputSource(String outputName) {
+		if ("QueueLength".equals(outputName) || "QueueList".equals(outputName))
+			return queueSource;
+		return super.getOutputSource(outputName);
+	}
+
 	// ******************************************************************************************************
 
 	@Override
@@ -286,16 +313,18 @@ public class Queue extends LinkedComponent {
 		if (match.getValue() != null)
 			m = match.getValue().getNextString(getSimTime(), "%s", 1.0d, true);
 
-		EventHandle rh = null;
-		if (renegeTime.getValue() != null)
-			rh = new EventHandle();
-
-		QueueEntry entry = new QueueEntry(ent, n, pri, m, getSimTime(), ent.getOrientation(), rh);
+		QueueEntry entry = this.getFreeEntry();
+		entry.set(ent, n, pri, m, getSimTime());
 
 		// Add the entity to the TreeSet of all the entities in the queue
-		boolean bool = itemSet.add(entry);
+		boolean bool;
+		synchronized (itemSet) {
+			bool = itemSet.add(entry);
+		}
 		if (!bool)
 			error("Entity %s is already present in the queue.", ent);
+		entryMap.put(ent, entry);
+		queueSource.notifyChanged();
 
 		// Does the entry have a match value?
 		if (entry.match != null) {
@@ -323,6 +352,10 @@ public class Queue extends LinkedComponent {
 			}
 		}
 
+		// Notify any Seize objects if the entity is now first in the queue
+		if (itemSet.first() == entry)
+			this.firstEntityChanged();
+
 		// Notify the users of this queue
 		if (!userUpdateHandle.isScheduled())
 			EventManager.scheduleTicks(0, 2, false, userUpdate, userUpdateHandle);
@@ -332,16 +365,17 @@ public class Queue extends LinkedComponent {
 			double dur = renegeTime.getValue().getNextSample(getSimTime());
 			// Schedule the renege tests in FIFO order so that if two or more entities are added to
 			// the queue at the same time, the one nearest the front of the queue is tested first
-			EventManager.scheduleSeconds(dur, 5, true, new RenegeActionTarget(this, entry), rh);
+			RenegeActionTarget rt = this.getRenegeTarget(entry);
+			EventManager.scheduleSeconds(dur, 5, true, rt, rt.handle);
 		}
 	}
 
 	private static class RenegeActionTarget extends EntityTarget<Queue> {
-		private final QueueEntry entry;
+		private QueueEntry entry;
+		private final EventHandle handle = new EventHandle();
 
-		RenegeActionTarget(Queue q, QueueEntry e) {
+		RenegeActionTarget(Queue q) {
 			super(q, "renegeAction");
-			entry = e;
 		}
 
 		@Override
@@ -350,7 +384,48 @@ public class Queue extends LinkedComponent {
 		}
 	}
 
+	/**
+	 * Returns a renege target for the specified entry, reusing one that is no longer scheduled
+	 * if possible.
+	 */
+	private RenegeActionTarget getRenegeTarget(QueueEntry entry) {
+		RenegeActionTarget ret;
+		if (freeRenegeTargets.isEmpty())
+			ret = new RenegeActionTarget(this);
+		else
+			ret = freeRenegeTargets.remove(freeRenegeTargets.size() - 1);
+		ret.entry = entry;
+		entry.renegeTarget = ret;
+		return ret;
+	}
+
+	/**
+	 * Kills the renege test for the specified entry, if any, and makes its target available
+	 * for reuse.
+	 */
+	private void releaseRenegeTarget(QueueEntry entry) {
+		RenegeActionTarget rt = entry.renegeTarget;
+		if (rt == null)
+			return;
+
+		EventManager.killEvent(rt.handle);
+		rt.entry = null;
+		entry.renegeTarget = null;
+		freeRenegeTargets.add(rt);
+	}
+
+	/**
+	 * Returns an unused queue entry, reusing one that has been removed from the queue if
+	 * possible.
+	 */
+	private QueueEntry getFreeEntry() {
+		if (freeEntries.isEmpty())
+			return new QueueEntry();
+		return freeEntries.remove(freeEntries.size() - 1);
+	}
+
 	public void renegeAction(QueueEntry entry) {
+		this.releaseRenegeTarget(entry);
 
 		// Temporarily set the obj entity to the one that might renege
 		double simTime = this.getSimTime();
@@ -365,9 +440,9 @@ public class Queue extends LinkedComponent {
 		}
 
 		// Remove the entity from the queue and send it to the renege destination
-		this.remove(entry);
+		DisplayEntity ent = this.remove(entry);
 		numberReneged++;
-		renegeDestination.getValue().addEntity(entry.entity);
+		renegeDestination.getValue().addEntity(ent);
 	}
 
 	public DisplayEntity removeEntity(DisplayEntity ent) {
@@ -383,13 +458,19 @@ public class Queue extends LinkedComponent {
 		this.updateStatistics(queueSize, queueSize-1);
 
 		// Remove the entity from the TreeSet of all entities in the queue
-		boolean found = itemSet.remove(entry);
+		boolean first = (itemSet.first() == entry);
+		boolean found;
+		synchronized (itemSet) {
+			found = itemSet.remove(entry);
+		}
 		if (!found)
 			error("Cannot find the entry in itemSet.");
+		if (entryMap.get(entry.entity) == entry)
+			entryMap.remove(entry.entity);
+		queueSource.notifyChanged();
 
 		// Kill the renege event
-		if (entry.renegeHandle != null)
-			EventManager.killEvent(entry.renegeHandle);
+		this.releaseRenegeTarget(entry);
 
 		// Does the entry have a match value?
 		if (entry.match != null) {
@@ -416,18 +497,29 @@ public class Queue extends LinkedComponent {
 		// Reset the entity's orientation to its original value
 		entry.entity.setOrientation(entry.orientation);
 
+		// The entry can be reused once it has been removed from the queue. Other threads only
+		// read the entries that are in the item set while holding its lock.
+		DisplayEntity ent = entry.entity;
+		freeEntries.add(entry);
+
+		// Notify any Seize objects that there is a new first entity
+		if (first)
+			this.firstEntityChanged();
+
 		this.incrementNumberProcessed();
-		return entry.entity;
+		return ent;
+	}
+
+	/**
+	 * Informs the Seize objects that use this queue that the first entity has changed.
+	 */
+	private void firstEntityChanged() {
+		for (int i = 0; i < seizeList.size(); i++)
+			seizeList.get(i).firstEntityChanged();
 	}
 
 	private QueueEntry getQueueEntry(DisplayEntity ent) {
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			QueueEntry entry = itr.next();
-			if (entry.entity == ent)
-				return entry;
-		}
-		return null;
+		return entryMap.get(ent);
 	}
 
 	/**
@@ -437,15 +529,10 @@ public class Queue extends LinkedComponent {
 	 * @return index of the entity in the queue.
 	 */
 	public int getPosition(DisplayEntity ent) {
-		int ret = 0;
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			if (itr.next().entity == ent)
-				return ret;
-
-			ret++;
-		}
-		return -1;
+		QueueEntry entry = entryMap.get(ent);
+		if (entry == null)
+			return -1;
+		return itemSet.indexOf(entry);
 	}
 
 	/**
@@ -486,6 +573,13 @@ public class Queue extends LinkedComponent {
 		return this.getSimTime() - itemSet.first().timeAdded;
 	}
 
+	/**
+	 * Returns the simulation time at which the first object was added to the queue
+	 */
+	public double getFirstTimeAdded() {
+		return itemSet.first().timeAdded;
+	}
+
 	/**
 	 * Returns the priority value for the first object in the queue
 	 */
@@ -654,22 +748,22 @@ public class Queue extends LinkedComponent {
 		double distanceY = 0;
 		double maxWidth = 0;
 
-		// Copy the item set to avoid some concurrent modification exceptions
-		TreeSet<QueueEntry> itemSetCopy = new TreeSet<>(itemSet);
+		// Copy the entities in the queue, since the entries are reused by the simulation thread
+		ArrayList<DisplayEntity> itemList = this.getEntityList();
 
 		// find widest vessel
-		if (itemSetCopy.size() >  maxPerLine.getValue()){
-			Iterator<QueueEntry> itr = itemSetCopy.iterator();
+		if (itemList.size() >  maxPerLine.getValue()){
+			Iterator<DisplayEntity> itr = itemList.iterator();
 			while (itr.hasNext()) {
-				 maxWidth = Math.max(maxWidth, itr.next().entity.getSize().y);
+				 maxWidth = Math.max(maxWidth, itr.next().getSize().y);
 			 }
 		}
 
 		// update item locations
 		int i = 0;
-		Iterator<QueueEntry> itr = itemSetCopy.iterator();
+		Iterator<DisplayEntity> itr = itemList.iterator();
 		while (itr.hasNext()) {
-			DisplayEntity item = itr.next().entity;
+			DisplayEntity item = itr.next();
 
 			// if new row is required, set reset distanceX and move distanceY up one row
 			if( i > 0 && i % maxPerLine.getValue() == 0 ){
@@ -770,12 +864,22 @@ public class Queue extends LinkedComponent {
 	 description = "The entities in the queue.",
 	    sequence = 1)
 	public ArrayList<DisplayEntity> getQueueList(double simTime) {
-		ArrayList<DisplayEntity> ret = new ArrayList<>(itemSet.size());
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			ret.add(itr.next().entity);
+		return this.getEntityList();
+	}
+
+	/**
+	 * Returns the entities in the queue in queue order. The list can be requested from any
+	 * thread.
+	 */
+	private ArrayList<DisplayEntity> getEntityList() {
+		synchronized (itemSet) {
+			ArrayList<DisplayEntity> ret = new ArrayList<>(itemSet.size());
+			Iterator<QueueEntry> itr = itemSet.iterator();
+			while (itr.hasNext()) {
+				ret.add(itr.next().entity);
+			}
+			return ret;
 		}
-		return ret;
 	}
 
 	@Output(name = "QueueTimes",
@@ -783,12 +887,14 @@ public class Queue extends LinkedComponent {
 	    unitType = TimeUnit.class,
 	    sequence = 2)
 	public ArrayList<Double> getQueueTimes(double simTime) {
-		ArrayList<Double> ret = new ArrayList<>(itemSet.size());
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			ret.add(simTime - itr.next().timeAdded);
+		synchronized (itemSet) {
+			ArrayList<Double> ret = new ArrayList<>(itemSet.size());
+			Iterator<QueueEntry> itr = itemSet.iterator();
+			while (itr.hasNext()) {
+				ret.add(simTime - itr.next().timeAdded);
+			}
+			return ret;
 		}
-		return ret;
 	}
 
 	@Output(name = "PriorityValues",
@@ -796,12 +902,14 @@ public class Queue extends LinkedComponent {
 	    unitType = DimensionlessUnit.class,
 	    sequence = 3)
 	public IntegerVector getPriorityValues(double simTime) {
-		IntegerVector ret = new IntegerVector(itemSet.size());
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			ret.add(itr.next().priority);
+		synchronized (itemSet) {
+			IntegerVector ret = new IntegerVector(itemSet.size());
+			Iterator<QueueEntry> itr = itemSet.iterator();
+			while (itr.hasNext()) {
+				ret.add(itr.next().priority);
+			}
+			return ret;
 		}
-		return ret;
 	}
 
 	@Output(name = "MatchValues",
@@ -809,15 +917,17 @@ public class Queue extends LinkedComponent {
 	    unitType = DimensionlessUnit.class,
 	    sequence = 4)
 	public ArrayList<String> getMatchValues(double simTime) {
-		ArrayList<String> ret = new ArrayList<>(itemSet.size());
-		Iterator<QueueEntry> itr = itemSet.iterator();
-		while (itr.hasNext()) {
-			String m = itr.next().match;
-			if (m != null) {
-				ret.add(m);
+		synchronized (itemSet) {
+			ArrayList<String> ret = new ArrayList<>(itemSet.size());
+			Iterator<QueueEntry> itr = itemSet.iterator();
+			while (itr.hasNext()) {
+				String m = itr.next().match;
+				if (m != null) {
+					ret.add(m);
+				}
 			}
+			return ret;
 		}
-		return ret;
 	}
 
 
@@ -18,12 +18,13 @@
 package com.jaamsim.ProcessFlow;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.TreeSet;
 
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.ProbabilityDistributions.Distribution;
 import com.jaamsim.Samples.SampleConstant;
+import com.jaamsim.Samples.SampleExpression;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.Samples.TimeSeries;
 import com.jaamsim.basicsim.Entity;
@@ -62,6 +63,8 @@ public class Resource extends DisplayEntity {
 
 	private int unitsInUse;  // number of resource units that are being used at present
 	private ArrayList<Seize> seizeList;  // Seize objects that require this resource
+	private final HashMap<Seize, WaitingSeize> waitingMap;  // entry for each Seize object
+	private final TreeSet<WaitingSeize> waitingSet;  // Seize objects that have a waiting entity
 	private int lastCapacity; // capacity for the resource
 
 	//	Statistics
@@ -91,6 +94,8 @@ public class Resource extends DisplayEntity {
 	public Resource() {
 		unitsInUseDist = new DoubleVector();
 		seizeList = new ArrayList<>();
+		waitingMap = new HashMap<>();
+		waitingSet = new TreeSet<>();
 	}
 
 	@Override
@@ -128,9 +133,13 @@ public class Resource extends DisplayEntity {
 
 		// Prepare a list of the Seize objects that use this resource
 		seizeList.clear();
+		waitingMap.clear();
+		waitingSet.clear();
 		for (Seize ent : Entity.getClonesOfIterator(Seize.class)) {
-			if( ent.requiresResource(this) )
+			if( ent.requiresResource(this) ) {
+				waitingMap.put(ent, new WaitingSeize(ent, seizeList.size()));
 				seizeList.add(ent);
+			}
 		}
 	}
 
@@ -176,23 +185,14 @@ public class Resource extends DisplayEntity {
 		if (cap <= unitsInUse)
 			return;
 
-		// Prepare a sorted list of the Seize objects that have a waiting entity
-		ArrayList<Seize> list = new ArrayList<>(seizeList.size());
-		for (Seize s : seizeList) {
-			if (!s.getQueue().isEmpty()) {
-				list.add(s);
-			}
-		}
-		Collections.sort(list, seizeCompare);
-
 		// Find the Seize object(s) that can use the released units
 		while (true) {
 
 			// Find the first Seize object that can seize the Resource
 			Seize selection = null;
-			for (Seize s : list) {
-				if (s.isReadyToStart()) {
-					selection = s;
+			for (WaitingSeize ws : waitingSet) {
+				if (ws.seize.isReadyToStart()) {
+					selection = ws.seize;
 					break;
 				}
 
@@ -207,44 +207,65 @@ public class Resource extends DisplayEntity {
 				return;
 
 			// Seize the resource
+			// (the Seize objects are re-ordered as the first entities in their queues change)
 			selection.startProcessing(getSimTime());
 
 			// Is additional capacity available?
 			if (cap <= unitsInUse)
 				return;
-
-			// If the selected Seize object has no more entities, remove it from the list
-			if (selection.getQueue().isEmpty()) {
-				list.remove(selection);
-			}
-			// If it does have more entities, re-sort the list to account for the next entity
-			else {
-				Collections.sort(list, seizeCompare);
-			}
 		}
 	}
 
 	/**
-	 * Sorts the Seize objects by the priority and waiting time of the first entity in each queue
+	 * Updates the position of the specified Seize object in the list of Seize objects that have
+	 * a waiting entity. Called whenever the first entity in the Seize object's queue changes.
+	 * @param s = the specified Seize object.
 	 */
-	private static class SeizeCompare implements Comparator<Seize> {
+	void updateWaitingSeize(Seize s) {
+		WaitingSeize ws = waitingMap.get(s);
+		if (ws == null)
+			return;
+
+		waitingSet.remove(ws);
+		Queue que = s.getQueue();
+		if (que.isEmpty())
+			return;
+
+		ws.priority = que.getFirstPriority();
+		ws.timeAdded = que.getFirstTimeAdded();
+		waitingSet.add(ws);
+	}
+
+	/**
+	 * Orders the Seize objects by the priority and waiting time of the first entity in each queue
+	 */
+	private static class WaitingSeize implements Comparable<WaitingSeize> {
+		final Seize seize;
+		final int index;  // position in the list of Seize objects, used to break ties
+		int priority;     // priority of the first entity in the queue
+		double timeAdded; // time at which the first entity was added to the queue
+
+		WaitingSeize(Seize s, int ind) {
+			seize = s;
+			index = ind;
+		}
+
 		@Override
-		public int compare(Seize s1, Seize s2) {
+		public int compareTo(WaitingSeize ws) {
 
 			// Chose the Seize object whose Queue contains the highest priority entity
 			// (lowest numerical value, i.e. 1 is higher priority than 2)
-			Queue que1 = s1.getQueue();
-			Queue que2 = s2.getQueue();
-			int ret = Integer.compare(que1.getFirstPriority(), que2.getFirstPriority());
+			int ret = Integer.compare(priority, ws.priority);
 
 			// If the priorities are the same, choose the one with the longest waiting time
-			if (ret == 0) {
-				return Double.compare(que2.getQueueTime(), que1.getQueueTime());
-			}
+			if (ret == 0)
+				ret = Double.compare(timeAdded, ws.timeAdded);
+
+			if (ret == 0)
+				ret = Integer.compare(index, ws.index);
 			return ret;
 		}
 	}
-	private SeizeCompare seizeCompare = new SeizeCompare();
 
 	/**
 	 * Returns true if the saved capacity differs from the present capacity
@@ -295,6 +316,11 @@ public class Resource extends DisplayEntity {
 		public boolean evaluate() {
 			return Resource.this.isCapacityChanged();
 		}
+
+		@Override
+		public boolean isTracked() {
+			return SampleExpression.isTracked(capacity.getValue());
+		}
 	}
 	private final Conditional capacityChangeConditional = new CapacityChangeConditional();
 
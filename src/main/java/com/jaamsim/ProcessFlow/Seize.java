@@ -161,6 +161,16 @@ public class Seize extends LinkedService {
 		}
 	}
 
+	/**
+	 * Updates the Resources' lists of waiting Seize objects when a different entity becomes
+	 * first in the queue.
+	 */
+	void firstEntityChanged() {
+		for (Resource res : resourceList.getValue()) {
+			res.updateWaitingSeize(this);
+		}
+	}
+
 	public Queue getQueue() {
 		return waitQueue.getValue();
 	}
@@ -49,8 +49,9 @@ public class SimEntity extends StateEntity implements LinkDisplayable {
 	public void earlyInit() {
 		super.earlyInit();
 
-		for (String state : defaultStateList.getValue()) {
-			this.addState(state);
+		ArrayList<String> list = defaultStateList.getValue();
+		for (int i = 0; i < list.size(); i++) {
+			this.addState(list.get(i));
 		}
 	}
 
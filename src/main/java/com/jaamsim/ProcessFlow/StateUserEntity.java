@@ -30,6 +30,10 @@ import com.jaamsim.states.StateEntity;
 
 public abstract class StateUserEntity extends StateEntity implements ThresholdUser, DowntimeUser {
 
+	public static final int STATE_STOPPED = getStateID("Stopped");
+	public static final int STATE_MAINTENANCE = getStateID("Maintenance");
+	public static final int STATE_BREAKDOWN = getStateID("Breakdown");
+
 	@Keyword(description = "A list of thresholds that must be satisfied for the object to "
 	                     + "operate. Operation is stopped immediately when one of the thresholds "
 	                     + "closes. If a threshold closes part way though processing an entity, "
@@ -131,11 +135,11 @@ public abstract class StateUserEntity extends StateEntity implements ThresholdUs
 
 		busy = false;
 
-		this.addState("Idle");
-		this.addState("Working");
-		this.addState("Stopped");
-		this.addState("Maintenance");
-		this.addState("Breakdown");
+		this.addState(STATE_IDLE);
+		this.addState(STATE_WORKING);
+		this.addState(STATE_STOPPED);
+		this.addState(STATE_MAINTENANCE);
+		this.addState(STATE_BREAKDOWN);
 	}
 
 	@Override
@@ -188,48 +192,35 @@ public abstract class StateUserEntity extends StateEntity implements ThresholdUs
 	 * @return true if all the thresholds are open.
 	 */
 	public final boolean isOpen() {
-		for (Threshold thr : immediateThresholdList.getValue()) {
-			if (!thr.isOpen())
-				return false;
-		}
-		for (Threshold thr : immediateReleaseThresholdList.getValue()) {
-			if (!thr.isOpen())
-				return false;
-		}
-		for (Threshold thr : operatingThresholdList.getValue()) {
-			if (!thr.isOpen())
-				return false;
-		}
-		return true;
+		return allOpen(immediateThresholdList.getValue())
+				&& allOpen(immediateReleaseThresholdList.getValue())
+				&& allOpen(operatingThresholdList.getValue());
 	}
 
 	public boolean isMaintenance() {
-		for (DowntimeEntity de : immediateMaintenanceList.getValue()) {
-			if (de.isDown())
-				return true;
-		}
-		for (DowntimeEntity de : forcedMaintenanceList.getValue()) {
-			if (de.isDown())
-				return true;
-		}
-		for (DowntimeEntity de : opportunisticMaintenanceList.getValue()) {
-			if (de.isDown())
-				return true;
-		}
-		return false;
+		return anyDown(immediateMaintenanceList.getValue())
+				|| anyDown(forcedMaintenanceList.getValue())
+				|| anyDown(opportunisticMaintenanceList.getValue());
 	}
 
 	public boolean isBreakdown() {
-		for (DowntimeEntity de : immediateBreakdownList.getValue()) {
-			if (de.isDown())
-				return true;
-		}
-		for (DowntimeEntity de : forcedBreakdownList.getValue()) {
-			if (de.isDown())
-				return true;
+		return anyDown(immediateBreakdownList.getValue())
+				|| anyDown(forcedBreakdownList.getValue())
+				|| anyDown(opportunisticBreakdownList.getValue());
+	}
+
+	// Indexed loops avoid creating an iterator each time the availability is tested
+	private static boolean allOpen(ArrayList<Threshold> list) {
+		for (int i = 0; i < list.size(); i++) {
+			if (!list.get(i).isOpen())
+				return false;
 		}
-		for (DowntimeEntity de : opportunisticBreakdownList.getValue()) {
-			if (de.isDown())
+		return true;
+	}
+
+	private static boolean anyDown(ArrayList<DowntimeEntity> list) {
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i).isDown())
 				return true;
 		}
 		return false;
@@ -266,26 +257,26 @@ public abstract class StateUserEntity extends StateEntity implements ThresholdUs
 
 		// Working (Busy)
 		if (this.isBusy()) {
-			this.setPresentState("Working");
+			this.setPresentState(STATE_WORKING);
 			return;
 		}
 
 		// Not working because of maintenance or a closure (UnableToWork)
 		if (this.isMaintenance()) {
-			this.setPresentState("Maintenance");
+			this.setPresentState(STATE_MAINTENANCE);
 			return;
 		}
 		if (this.isBreakdown()) {
-			this.setPresentState("Breakdown");
+			this.setPresentState(STATE_BREAKDOWN);
 			return;
 		}
 		if (!this.isOpen()) {
-			this.setPresentState("Stopped");
+			this.setPresentState(STATE_STOPPED);
 			return;
 		}
 
 		// Not working because there is nothing to do (Idle)
-		this.setPresentState("Idle");
+		this.setPresentState(STATE_IDLE);
 		return;
 	}
 
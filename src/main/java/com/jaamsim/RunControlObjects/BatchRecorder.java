@@ -17,6 +17,7 @@ package com.jaamsim.RunControlObjects;
 import java.util.ArrayList;
 
 import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.Samples.SampleExpression;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.basicsim.EntityTarget;
 import com.jaamsim.basicsim.Simulation;
@@ -508,6 +509,10 @@ public class BatchRecorder extends DisplayEntity {
 		 * Return true if the value being monitored has changed.
 		 * This also updates the internal variables if so.
 		 */
+		boolean isValueTracked() {
+			return SampleExpression.isTracked(sampleValue.getValue());
+		}
+
 		boolean valueChanged() {
 
 			boolean ret = false;
@@ -566,6 +571,11 @@ public class BatchRecorder extends DisplayEntity {
 		public boolean evaluate() {
 			return func.valueChanged();
 		}
+
+		@Override
+		public boolean isTracked() {
+			return func.isValueTracked();
+		}
 	}
 
 }
@@ -59,6 +59,14 @@ public class SampleExpression implements SampleProvider {
 		}
 	}
 
+	/**
+	 * Returns true if the values returned by the given SampleProvider depend only on
+	 * model state that is tracked for Conditional evaluation.
+	 */
+	public static boolean isTracked(SampleProvider samp) {
+		return samp == null || samp instanceof SampleConstant || samp instanceof SampleExpression;
+	}
+
 	@Override
 	public Class<? extends Unit> getUnitType() {
 		return unitType;
@@ -68,44 +68,46 @@ public class StringProvExpression implements StringProvider {
 	}
 
 	@Override
-	public String getNextString(double simTime, String fmt, double siFactor, boolean integerValue) {
-		String ret = "";
+	public ExpResult getNextResult(double simTime) {
 		try {
 			ExpResult result = ExpEvaluator.evaluateExpression(exp, simTime);
-			switch (result.type) {
-			case STRING:
-				ret = String.format(fmt, result.stringVal);
-				break;
-			case ENTITY:
-				ret = String.format(fmt, result.entVal.getName());
-				break;
-			case NUMBER:
-				if (result.unitType != unitType) {
-					thisEnt.error("Invalid unit returned by an expression: '%s'%n"
-							+ "Received: %s, expected: %s",
-							exp, ObjectType.getObjectTypeForClass(result.unitType),
-							ObjectType.getObjectTypeForClass(unitType));
-				}
-				if (integerValue) {
-					ret = String.format(fmt, (int)(result.value/siFactor));
-				}
-				else {
-					ret = String.format(fmt, result.value/siFactor);
-				}
-				break;
-			case COLLECTION:
-				ret = String.format(fmt, result.colVal.getOutputString());
-				break;
-			default:
-				assert(false);
-				ret = String.format(fmt, "???");
-				break;
+			if (result.type == ExpResType.NUMBER && result.unitType != unitType) {
+				thisEnt.error("Invalid unit returned by an expression: '%s'%n"
+						+ "Received: %s, expected: %s",
+						exp, ObjectType.getObjectTypeForClass(result.unitType),
+						ObjectType.getObjectTypeForClass(unitType));
 			}
+			return result;
 		}
 		catch(ExpError e) {
 			throw new ErrorException(thisEnt, e);
 		}
-		return ret;
+	}
+
+	@Override
+	public String getNextString(double simTime, String fmt, double siFactor, boolean integerValue) {
+		return formatResult(getNextResult(simTime), fmt, siFactor, integerValue);
+	}
+
+	/**
+	 * Returns the string for an expression result in the specified format.
+	 */
+	public static String formatResult(ExpResult result, String fmt, double siFactor, boolean integerValue) {
+		switch (result.type) {
+		case STRING:
+			return String.format(fmt, result.stringVal);
+		case ENTITY:
+			return String.format(fmt, result.entVal.getName());
+		case NUMBER:
+			if (integerValue)
+				return String.format(fmt, (int)(result.value/siFactor));
+			return String.format(fmt, result.value/siFactor);
+		case COLLECTION:
+			return String.format(fmt, result.colVal.getOutputString());
+		default:
+			assert(false);
+			return String.format(fmt, "???");
+		}
 	}
 
 	@Override
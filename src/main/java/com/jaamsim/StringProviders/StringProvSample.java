@@ -18,6 +18,7 @@
 package com.jaamsim.StringProviders;
 
 import com.jaamsim.Samples.SampleProvider;
+import com.jaamsim.input.ExpResult;
 
 public class StringProvSample implements StringProvider {
 	private final SampleProvider samp;
@@ -26,6 +27,11 @@ public class StringProvSample implements StringProvider {
 		samp = s;
 	}
 
+	@Override
+	public ExpResult getNextResult(double simTime) {
+		return ExpResult.makeNumResult(samp.getNextSample(simTime), samp.getUnitType());
+	}
+
 	@Override
 	public String getNextString(double simTime, String fmt, double siFactor) {
 		return getNextString(simTime, fmt, siFactor, false);
@@ -17,7 +17,13 @@
  */
 package com.jaamsim.StringProviders;
 
+import com.jaamsim.input.ExpResult;
+
 public interface StringProvider {
+	/**
+	 * Returns the next value without converting it to a string.
+	 */
+	public ExpResult getNextResult(double simTime);
 	public String getNextString(double simTime, String fmt, double siFactor);
 	public String getNextString(double simTime, String fmt, double siFactor, boolean bool);
 }
@@ -21,6 +21,7 @@ import com.jaamsim.DisplayModels.ShapeModel;
 import com.jaamsim.basicsim.EntityTarget;
 import com.jaamsim.basicsim.ErrorException;
 import com.jaamsim.events.Conditional;
+import com.jaamsim.events.ConditionalSource;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.BooleanInput;
@@ -72,6 +73,7 @@ public class ExpressionThreshold extends Threshold {
 	private final BooleanInput showPendingStates;
 
 	private boolean lastOpenValue; // state of the threshold that was calculated on-demand
+	private final ConditionalSource conditionSource = new ConditionalSource(); // condition inputs
 
 	{
 		attributeDefinitionList.setHidden(false);
@@ -116,6 +118,9 @@ public class ExpressionThreshold extends Threshold {
 		if (in == openCondition || in == closeCondition || in == initialOpenValue) {
 			lastOpenValue = initialOpenValue.getValue();
 			this.setInitialOpenValue(this.getOpenConditionValue(0.0));
+
+			// Re-evaluate a waiting conditional with the new inputs
+			conditionSource.notifyChanged();
 			return;
 		}
 	}
@@ -154,6 +159,7 @@ public class ExpressionThreshold extends Threshold {
 	 * @return state implied by the OpenCondition and CloseCondition expressions.
 	 */
 	private boolean getOpenConditionValue(double simTime) {
+		conditionSource.recordRead();
 		try {
 			if (openCondition.getValue() == null)
 				return super.isOpen();
@@ -220,6 +226,11 @@ public class ExpressionThreshold extends Threshold {
 		public boolean evaluate() {
 			return ExpressionThreshold.this.openStateChanged();
 		}
+
+		@Override
+		public boolean isTracked() {
+			return true;
+		}
 	}
 	private final Conditional openChanged = new OpenChangedConditional();
 
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 
 import com.jaamsim.DisplayModels.ShapeModel;
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.events.ConditionalSource;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
@@ -33,6 +34,9 @@ import com.jaamsim.units.DimensionlessUnit;
 
 public class Threshold extends StateEntity {
 
+	public static final int STATE_OPEN = getStateID("Open");
+	public static final int STATE_CLOSED = getStateID("Closed");
+
 	@Keyword(description = "The colour of the threshold graphic when the threshold is open.",
 	         exampleList = { "green" })
 	private final ColourInput openColour;
@@ -142,9 +146,17 @@ public class Threshold extends StateEntity {
 	}
 
 	public boolean isOpen() {
+		this.recordStateRead();
 		return open;
 	}
 
+	@Override
+	public ConditionalSource getOutputSource(String outputName) {
+		if ("Open".equals(outputName))
+			return super.getOutputSource("State");
+		return super.getOutputSource(outputName);
+	}
+
 	public final void setOpen(boolean bool) {
 		// If setting to the same value as current, return
 		if (open == bool)
@@ -154,11 +166,11 @@ public class Threshold extends StateEntity {
 
 		open = bool;
 		if (open) {
-			setPresentState("Open");
+			setPresentState(STATE_OPEN);
 			openCount++;
 		}
 		else {
-			setPresentState("Closed");
+			setPresentState(STATE_CLOSED);
 			closedCount++;
 		}
 
@@ -210,8 +222,8 @@ public class Threshold extends StateEntity {
 	    sequence = 1)
 	public double getOpenFraction(double simTime) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
-		long openTicks = this.getTicksInState(simTicks, getState("Open"));
-		long closedTicks = this.getTicksInState(simTicks, getState("Closed"));
+		long openTicks = this.getTicksInState(simTicks, getState(STATE_OPEN));
+		long closedTicks = this.getTicksInState(simTicks, getState(STATE_CLOSED));
 		long totTicks = openTicks + closedTicks;
 
 		return (double)openTicks / totTicks;
@@ -223,8 +235,8 @@ public class Threshold extends StateEntity {
 	    sequence = 2)
 	public double getClosedFraction(double simTime) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
-		long openTicks = this.getTicksInState(simTicks, getState("Open"));
-		long closedTicks = this.getTicksInState(simTicks, getState("Closed"));
+		long openTicks = this.getTicksInState(simTicks, getState(STATE_OPEN));
+		long closedTicks = this.getTicksInState(simTicks, getState(STATE_CLOSED));
 		long totTicks = openTicks + closedTicks;
 
 		return (double)closedTicks / totTicks;
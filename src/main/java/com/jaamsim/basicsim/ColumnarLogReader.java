@@ -0,0 +1,404 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads a binary log file written by ColumnarLogWriter one row group at a time.
+ * <p>
+ * Each call to nextGroup reads the column types and statistics for the next group. The values
+ * are read only if readGroup is called, so a group can be skipped on the basis of its minimum
+ * and maximum values without decoding it. For example:
+ * <pre>
+ * while (reader.nextGroup()) {
+ *     if (reader.getMax(1) &lt; limit)
+ *         continue;
+ *     reader.readGroup();
+ *     for (int row = 0; row &lt; reader.getRowCount(); row++) {
+ *         double val = reader.getDouble(1, row);
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * The main method converts a binary log file to a tab-delimited text file:
+ * <pre>
+ * java com.jaamsim.basicsim.ColumnarLogReader run-Logger.jlog run-Logger.txt
+ * </pre>
+ */
+public class ColumnarLogReader {
+	private final InputStream in;
+
+	// Present table
+	private String header = "";
+	private String[] titles = new String[0];
+	private String[] units = new String[0];
+
+	// Present group
+	private int numRows;
+	private int[] types;
+	private double[] mins;
+	private double[] maxs;
+	private boolean[] nans;
+	private String[][] dicts;
+	private long dataLength;
+	private boolean dataRead;
+
+	private double[][] doubles;  // values for a double column
+	private long[][] longs;      // values for a long column or dictionary indices for a string column
+
+	public ColumnarLogReader(InputStream stream) throws IOException {
+		in = new BufferedInputStream(stream);
+		for (byte b : ColumnarLogWriter.MAGIC) {
+			if (in.read() != b)
+				throw new IOException("Not a binary log file");
+		}
+	}
+
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * Moves to the next group of rows, skipping the values for the present group if they have
+	 * not been read. The table information is updated if a new table starts before the group.
+	 * @return false if there are no more groups in the file
+	 * @throws IOException if the file cannot be read or is invalid
+	 */
+	public boolean nextGroup() throws IOException {
+		if (!dataRead)
+			this.skipBytes(dataLength);
+		dataLength = 0L;
+		dataRead = true;
+		numRows = 0;
+
+		while (true) {
+			int block = in.read();
+			if (block == -1)
+				return false;
+
+			if (block == ColumnarLogWriter.BLOCK_TABLE) {
+				this.readTable();
+				continue;
+			}
+
+			if (block != ColumnarLogWriter.BLOCK_GROUP)
+				throw new IOException("Invalid block type in log file: " + block);
+
+			this.readVarLong();  // length of the statistics
+			dataLength = this.readVarLong();
+			dataRead = false;
+			this.readStatistics();
+			return true;
+		}
+	}
+
+	private void readTable() throws IOException {
+		header = this.readString();
+		int numCols = this.readCount();
+		titles = new String[numCols];
+		units = new String[numCols];
+		for (int i = 0; i < numCols; i++) {
+			titles[i] = this.readString();
+			units[i] = this.readString();
+		}
+	}
+
+	private void readStatistics() throws IOException {
+		int numCols = titles.length;
+		numRows = this.readCount();
+		types = new int[numCols];
+		mins = new double[numCols];
+		maxs = new double[numCols];
+		nans = new boolean[numCols];
+		dicts = new String[numCols][];
+		for (int c = 0; c < numCols; c++) {
+			types[c] = this.readByte();
+			switch (types[c]) {
+			case ColumnarLogWriter.TYPE_DOUBLE:
+				nans[c] = (this.readByte() != 0);
+				mins[c] = this.readDouble();
+				maxs[c] = this.readDouble();
+				break;
+
+			case ColumnarLogWriter.TYPE_LONG:
+				mins[c] = this.readSignedVarLong();
+				maxs[c] = this.readSignedVarLong();
+				break;
+
+			case ColumnarLogWriter.TYPE_STRING:
+				mins[c] = Double.NaN;
+				maxs[c] = Double.NaN;
+				dicts[c] = new String[this.readCount()];
+				for (int i = 0; i < dicts[c].length; i++) {
+					dicts[c][i] = this.readString();
+				}
+				break;
+
+			default:
+				throw new IOException("Invalid column type in log file: " + types[c]);
+			}
+		}
+	}
+
+	/**
+	 * Reads the values for the present group.
+	 * @throws IOException if the file cannot be read or is invalid
+	 */
+	public void readGroup() throws IOException {
+		if (dataRead)
+			return;
+		dataRead = true;
+
+		int numCols = titles.length;
+		doubles = new double[numCols][];
+		longs = new long[numCols][];
+		for (int c = 0; c < numCols; c++) {
+			if (types[c] == ColumnarLogWriter.TYPE_DOUBLE) {
+				doubles[c] = new double[numRows];
+				for (int i = 0; i < numRows; i++) {
+					doubles[c][i] = this.readDouble();
+				}
+				continue;
+			}
+
+			long offset = (types[c] == ColumnarLogWriter.TYPE_LONG) ? (long)mins[c] : 0L;
+			longs[c] = new long[numRows];
+			for (int i = 0; i < numRows; i++) {
+				longs[c][i] = offset + this.readVarLong();
+			}
+		}
+	}
+
+	public String getHeader() {
+		return header;
+	}
+
+	public int getColumnCount() {
+		return titles.length;
+	}
+
+	public String getTitle(int col) {
+		return titles[col];
+	}
+
+	public String getUnit(int col) {
+		return units[col];
+	}
+
+	public int getRowCount() {
+		return numRows;
+	}
+
+	/**
+	 * Returns the type of a column in the present group: ColumnarLogWriter.TYPE_DOUBLE,
+	 * TYPE_LONG, or TYPE_STRING.
+	 */
+	public int getColumnType(int col) {
+		return types[col];
+	}
+
+	/**
+	 * Returns the smallest number in a column for the present group, or NaN for a string column
+	 * or a column whose values are all NaN.
+	 */
+	public double getMin(int col) {
+		return mins[col];
+	}
+
+	/**
+	 * Returns the largest number in a column for the present group, or NaN for a string column
+	 * or a column whose values are all NaN.
+	 */
+	public double getMax(int col) {
+		return maxs[col];
+	}
+
+	/**
+	 * Returns true if a number column contains NaN values in the present group. These values
+	 * are not included in the minimum and maximum.
+	 */
+	public boolean hasNaN(int col) {
+		return nans[col];
+	}
+
+	/**
+	 * Returns a value from the present group as a number, or NaN for a string column.
+	 */
+	public double getDouble(int col, int row) {
+		this.checkRead();
+		switch (types[col]) {
+		case ColumnarLogWriter.TYPE_DOUBLE:
+			return doubles[col][row];
+		case ColumnarLogWriter.TYPE_LONG:
+			return longs[col][row];
+		default:
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Returns a value from a long column in the present group.
+	 */
+	public long getLong(int col, int row) {
+		this.checkRead();
+		if (types[col] != ColumnarLogWriter.TYPE_LONG)
+			throw new IllegalStateException("Column " + col + " does not contain long values");
+		return longs[col][row];
+	}
+
+	/**
+	 * Returns a value from the present group as a string. Numbers are returned in the same
+	 * format as in a text log file.
+	 */
+	public String getString(int col, int row) {
+		this.checkRead();
+		switch (types[col]) {
+		case ColumnarLogWriter.TYPE_STRING:
+			return dicts[col][(int)longs[col][row]];
+		case ColumnarLogWriter.TYPE_LONG:
+			return Double.toString(longs[col][row]);
+		default:
+			return Double.toString(doubles[col][row]);
+		}
+	}
+
+	private void checkRead() {
+		if (!dataRead || doubles == null)
+			throw new IllegalStateException("readGroup has not been called for the present group");
+	}
+
+	/**
+	 * Writes the contents of a binary log file in a tab-delimited text format.
+	 * @param out - destination for the text
+	 * @throws IOException if the log cannot be read or the text cannot be written
+	 */
+	public void writeText(Writer out) throws IOException {
+		String lineSep = System.lineSeparator();
+		String[] lastTitles = null;
+		while (this.nextGroup()) {
+			// Print the header, titles, and units at the start of each table
+			if (lastTitles != titles) {
+				lastTitles = titles;
+				if (!header.isEmpty())
+					out.write(header + lineSep);
+				writeLine(out, titles);
+				writeLine(out, units);
+			}
+
+			this.readGroup();
+			for (int row = 0; row < numRows; row++) {
+				for (int c = 0; c < titles.length; c++) {
+					if (c > 0)
+						out.write("\t");
+					out.write(this.getString(c, row));
+				}
+				out.write(lineSep);
+			}
+		}
+		out.flush();
+	}
+
+	private static void writeLine(Writer out, String[] vals) throws IOException {
+		for (int i = 0; i < vals.length; i++) {
+			if (i > 0)
+				out.write("\t");
+			out.write(vals[i]);
+		}
+		out.write(System.lineSeparator());
+	}
+
+	private void skipBytes(long n) throws IOException {
+		while (n > 0) {
+			long skipped = in.skip(n);
+			if (skipped <= 0) {
+				this.readByte();
+				skipped = 1;
+			}
+			n -= skipped;
+		}
+	}
+
+	private int readByte() throws IOException {
+		int ret = in.read();
+		if (ret == -1)
+			throw new EOFException("Log file ends part way through a block");
+		return ret;
+	}
+
+	private long readVarLong() throws IOException {
+		long ret = 0L;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = this.readByte();
+			ret |= (long)(b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return ret;
+		}
+		throw new IOException("Invalid number in log file");
+	}
+
+	private long readSignedVarLong() throws IOException {
+		long val = this.readVarLong();
+		return (val >>> 1) ^ -(val & 1);
+	}
+
+	private int readCount() throws IOException {
+		long ret = this.readVarLong();
+		if (ret < 0 || ret > Integer.MAX_VALUE)
+			throw new IOException("Invalid count in log file: " + ret);
+		return (int)ret;
+	}
+
+	private double readDouble() throws IOException {
+		long bits = 0L;
+		for (int i = 0; i < 8; i++) {
+			bits |= (long)this.readByte() << (8 * i);
+		}
+		return Double.longBitsToDouble(bits);
+	}
+
+	private String readString() throws IOException {
+		byte[] bytes = new byte[this.readCount()];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte)this.readByte();
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.out.println("Usage: ColumnarLogReader <binary log file> <text file>");
+			return;
+		}
+
+		ColumnarLogReader reader = new ColumnarLogReader(new FileInputStream(args[0]));
+		try (BufferedWriter out = new BufferedWriter(new FileWriter(args[1]))) {
+			reader.writeText(out);
+		}
+		finally {
+			reader.close();
+		}
+	}
+}
@@ -0,0 +1,324 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.InputErrorException;
+
+/**
+ * Writes log entries to a binary file in which the values are stored by column in groups of
+ * rows. The file can be read by ColumnarLogReader.
+ * <p>
+ * The file consists of a table block for each run, giving the column titles and units, followed
+ * by the row groups for that run. The type of each column is chosen separately for each group:
+ * <ul>
+ * <li>TYPE_LONG if every value is a number with an exact integer value,</li>
+ * <li>TYPE_DOUBLE if every value is a number,</li>
+ * <li>TYPE_STRING otherwise, with each distinct string stored once in a dictionary.</li>
+ * </ul>
+ * The minimum and maximum values of each numeric column are stored ahead of the data so that a
+ * reader can skip the groups it does not need. NaN values are left out of the minimum and maximum,
+ * and a flag records whether a TYPE_DOUBLE column contains any.
+ */
+public class ColumnarLogWriter implements LogWriter {
+	static final byte[] MAGIC = { 'J', 'S', 'L', 'O', 'G', 1 };
+	static final int BLOCK_TABLE = 1;  // header, number of columns, titles and units
+	static final int BLOCK_GROUP = 2;  // column statistics followed by column data
+
+	public static final int TYPE_DOUBLE = 0;
+	public static final int TYPE_LONG = 1;
+	public static final int TYPE_STRING = 2;
+
+	public static final int ROWS_PER_GROUP = 4096;
+
+	private static final double MAX_EXACT_LONG = 9007199254740992.0d;  // 2^53
+
+	private final OutputStream out;
+	private IOException writeError;
+
+	private int numCols;
+	private double[][] values;  // values for the present group by column and row
+	private String[][] strings; // string values, or null for a number
+	private int numRows;
+	private int col;            // next column to be set in the present row
+
+	private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream statsBytes = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream dataBytes = new ByteArrayOutputStream();
+	private final HashMap<String, Integer> dictionary = new HashMap<>();
+	private final ArrayList<String> dictList = new ArrayList<>();
+
+	public ColumnarLogWriter(String fileName) {
+		try {
+			out = new BufferedOutputStream(new FileOutputStream(fileName, false));
+		}
+		catch (IOException e) {
+			throw new InputErrorException("IOException thrown trying to open FileEntity: " + e);
+		}
+		catch (SecurityException e) {
+			throw new InputErrorException("SecurityException thrown trying to open File: " + e);
+		}
+
+		try {
+			out.write(MAGIC);
+		}
+		catch (IOException e) {
+			writeError = e;
+		}
+	}
+
+	/**
+	 * Starts a new table with the specified columns. The rows for the previous table are
+	 * written to the file.
+	 * @param header - text describing the table, such as the run number
+	 * @param titles - title for each column
+	 * @param units - unit for each column
+	 */
+	public void startTable(String header, List<String> titles, List<String> units) {
+		this.writeGroup();
+
+		numCols = titles.size();
+		values = new double[numCols][ROWS_PER_GROUP];
+		strings = new String[numCols][ROWS_PER_GROUP];
+		col = numCols;
+
+		blockBytes.reset();
+		blockBytes.write(BLOCK_TABLE);
+		writeString(blockBytes, header);
+		writeVarLong(blockBytes, numCols);
+		for (int i = 0; i < numCols; i++) {
+			writeString(blockBytes, titles.get(i));
+			writeString(blockBytes, units.get(i));
+		}
+		this.writeBlock(blockBytes);
+	}
+
+	@Override
+	public void newRow(double val) {
+		if (numCols == 0)
+			return;
+
+		this.endRow();
+		if (numRows == ROWS_PER_GROUP)
+			this.writeGroup();
+
+		numRows++;
+		col = 0;
+		this.addValue(val, -1);
+	}
+
+	@Override
+	public void addValue(double val, int precision) {
+		if (col >= numCols)
+			return;
+		values[col][numRows - 1] = val;
+		strings[col][numRows - 1] = null;
+		col++;
+	}
+
+	@Override
+	public void addString(String str) {
+		if (col >= numCols)
+			return;
+		strings[col][numRows - 1] = String.valueOf(str);
+		col++;
+	}
+
+	/**
+	 * Sets any columns that were not given a value in the present row to an empty string.
+	 */
+	private void endRow() {
+		while (col < numCols) {
+			strings[col][numRows - 1] = "";
+			col++;
+		}
+	}
+
+	/**
+	 * Writes the rows collected so far as a group.
+	 */
+	private void writeGroup() {
+		if (numRows == 0)
+			return;
+		this.endRow();
+
+		statsBytes.reset();
+		dataBytes.reset();
+		writeVarLong(statsBytes, numRows);
+		for (int c = 0; c < numCols; c++) {
+			this.writeColumn(values[c], strings[c]);
+		}
+
+		// The lengths allow a reader to skip the column data after reading the statistics
+		blockBytes.reset();
+		blockBytes.write(BLOCK_GROUP);
+		writeVarLong(blockBytes, statsBytes.size());
+		writeVarLong(blockBytes, dataBytes.size());
+		this.writeBlock(blockBytes, statsBytes, dataBytes);
+		numRows = 0;
+	}
+
+	private void writeColumn(double[] vals, String[] strs) {
+		boolean isString = false;
+		boolean isLong = true;
+		boolean hasNaN = false;
+		double min = Double.NaN;  // NaN until the first number is found
+		double max = Double.NaN;
+		for (int i = 0; i < numRows; i++) {
+			if (strs[i] != null) {
+				isString = true;
+				break;
+			}
+			double val = vals[i];
+			if (Double.isNaN(val)) {
+				isLong = false;
+				hasNaN = true;
+				continue;
+			}
+			if (isLong && !isExactLong(val))
+				isLong = false;
+			if (!(min <= val))
+				min = val;
+			if (!(max >= val))
+				max = val;
+		}
+
+		if (isString) {
+			dictionary.clear();
+			dictList.clear();
+			for (int i = 0; i < numRows; i++) {
+				String str = strs[i] != null ? strs[i] : Double.toString(vals[i]);
+				Integer id = dictionary.get(str);
+				if (id == null) {
+					id = dictList.size();
+					dictionary.put(str, id);
+					dictList.add(str);
+				}
+				writeVarLong(dataBytes, id);
+			}
+			statsBytes.write(TYPE_STRING);
+			writeVarLong(statsBytes, dictList.size());
+			for (String str : dictList) {
+				writeString(statsBytes, str);
+			}
+			return;
+		}
+
+		if (isLong) {
+			long minVal = (long)min;
+			for (int i = 0; i < numRows; i++) {
+				writeVarLong(dataBytes, (long)vals[i] - minVal);
+			}
+			statsBytes.write(TYPE_LONG);
+			writeSignedVarLong(statsBytes, minVal);
+			writeSignedVarLong(statsBytes, (long)max);
+			return;
+		}
+
+		for (int i = 0; i < numRows; i++) {
+			writeDouble(dataBytes, vals[i]);
+		}
+		statsBytes.write(TYPE_DOUBLE);
+		statsBytes.write(hasNaN ? 1 : 0);
+		writeDouble(statsBytes, min);
+		writeDouble(statsBytes, max);
+	}
+
+	/**
+	 * Returns true if the number can be stored as a long without losing information.
+	 */
+	private static boolean isExactLong(double val) {
+		return val == Math.rint(val) && Math.abs(val) <= MAX_EXACT_LONG
+				&& Double.doubleToRawLongBits(val) != Long.MIN_VALUE;  // -0.0
+	}
+
+	private void writeBlock(ByteArrayOutputStream... parts) {
+		if (writeError != null)
+			return;
+
+		try {
+			for (ByteArrayOutputStream bytes : parts) {
+				bytes.writeTo(out);
+			}
+		}
+		catch (IOException e) {
+			writeError = e;
+		}
+	}
+
+	@Override
+	public void flush() {
+		if (writeError != null)
+			return;
+		try {
+			out.flush();
+		}
+		catch (IOException e) {
+			writeError = e;
+		}
+	}
+
+	@Override
+	public void close() {
+		this.writeGroup();
+		try {
+			out.close();
+		}
+		catch (IOException e) {
+			if (writeError == null)
+				writeError = e;
+		}
+
+		if (writeError != null)
+			InputAgent.logMessage("Error writing the log file: %s", writeError);
+	}
+
+	static void writeVarLong(ByteArrayOutputStream bytes, long val) {
+		while ((val & ~0x7FL) != 0) {
+			bytes.write((int)(val & 0x7F) | 0x80);
+			val >>>= 7;
+		}
+		bytes.write((int)val);
+	}
+
+	static void writeSignedVarLong(ByteArrayOutputStream bytes, long val) {
+		writeVarLong(bytes, (val << 1) ^ (val >> 63));
+	}
+
+	static void writeDouble(ByteArrayOutputStream bytes, double val) {
+		long bits = Double.doubleToRawLongBits(val);
+		for (int i = 0; i < 8; i++) {
+			bytes.write((int)(bits >>> (8 * i)));
+		}
+	}
+
+	static void writeString(ByteArrayOutputStream bytes, String str) {
+		byte[] b = str.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(bytes, b.length);
+		bytes.write(b, 0, b.length);
+	}
+}
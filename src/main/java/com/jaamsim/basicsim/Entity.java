@@ -18,13 +18,15 @@
 package com.jaamsim.basicsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.datatypes.DoubleVector;
 import com.jaamsim.events.Conditional;
+import com.jaamsim.events.ConditionalSource;
 import com.jaamsim.events.EventHandle;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.ProcessTarget;
@@ -60,8 +62,11 @@ import com.jaamsim.units.UserSpecifiedUnit;
 public class Entity {
 	private static final JaamSimModel sim = new JaamSimModel();
 
-	String entityName;
-	private final long entityNumber;
+	volatile String entityName;
+	String namePrefix;  // prefix for the name of a generated entity that has not been built yet
+	long nameNumber;
+	long entityNumber;
+	EntityPool<?> pool;  // pool that receives the entity when it is disposed
 
 	private static final int FLAG_TRACE = 0x01;
 	//public static final int FLAG_TRACEREQUIRED = 0x02;
@@ -76,8 +81,12 @@ public class Entity {
 
 	private final ArrayList<Input<?>> inpList = new ArrayList<>();
 
-	private final HashMap<String, AttributeHandle> attributeMap = new LinkedHashMap<>();
-	private final HashMap<String, ExpressionHandle> customOutputMap = new LinkedHashMap<>();
+	// Most entities have no attributes or custom outputs, so these maps are created when needed
+	private Map<String, AttributeHandle> attributeMap = Collections.emptyMap();
+	private Map<String, ExpressionHandle> customOutputMap = Collections.emptyMap();
+
+	private static final ArrayList<AttributeHandle> NO_ATTRIBUTES = new ArrayList<>(0);
+	private static final ArrayList<NamedExpression> NO_CUSTOM_OUTPUTS = new ArrayList<>(0);
 
 	@Keyword(description = "Provides the programmer with a detailed trace of the logic executed "
 	                     + "by the entity. Trace information is sent to standard out.",
@@ -118,12 +127,12 @@ public class Entity {
 		this.addInput(desc);
 
 		attributeDefinitionList = new AttributeDefinitionListInput(this, "AttributeDefinitionList",
-				"Key Inputs", new ArrayList<AttributeHandle>());
+				"Key Inputs", NO_ATTRIBUTES);
 		attributeDefinitionList.setHidden(false);
 		this.addInput(attributeDefinitionList);
 
 		namedExpressionInput = new NamedExpressionListInput(this, "CustomOutputList",
-				"Key Inputs", new ArrayList<NamedExpression>());
+				"Key Inputs", NO_CUSTOM_OUTPUTS);
 		namedExpressionInput.setHidden(false);
 		this.addInput(namedExpressionInput);
 
@@ -138,8 +147,19 @@ public class Entity {
 		flags = 0;
 	}
 
-	public static ArrayList<? extends Entity> getAll() {
-		return sim.getEntities();
+	static EntityListNode getEntityList() {
+		return sim.getEntityList();
+	}
+
+	static Map<Class<? extends Entity>, EntityListNode> getClassLists() {
+		return sim.getClassLists();
+	}
+
+	/**
+	 * Returns the entity with the largest entity number.
+	 */
+	public static Entity getLastEntity() {
+		return sim.getLastEntity();
 	}
 
 	/**
@@ -231,6 +251,27 @@ public class Entity {
 		sim.removeInstance(this);
 	}
 
+	/**
+	 * Kills an entity that is no longer required by the model. If the entity was obtained from
+	 * an EntityPool, it is returned to the pool so that it can be reused.
+	 */
+	public void dispose() {
+		if (pool != null) {
+			pool.release(this);
+			return;
+		}
+		this.kill();
+	}
+
+	/**
+	 * Returns an entity that has been killed to the model with a new entity number. Its inputs
+	 * are retained, but its internal state must be reset by calling earlyInit.
+	 */
+	public void reuse() {
+		sim.reuseInstance(this);
+		this.clearFlag(Entity.FLAG_DEAD);
+	}
+
 	/**
 	 * Reverses the actions taken by the kill method.
 	 * @param name - entity's name before it was deleted
@@ -310,7 +351,9 @@ public class Entity {
 	 * Creates an exact copy of the specified entity.
 	 * <p>
 	 * All the entity's inputs are copied to the new entity, but its internal
-	 * properties are left uninitialised.
+	 * properties are left uninitialised. The new entity refers to the value
+	 * objects held by the original entity's inputs until one of its own
+	 * keywords is written.
 	 * @param ent - entity to be copied.
 	 * @param name - name of the copied entity.
 	 * @return - copied entity.
@@ -320,14 +363,19 @@ public class Entity {
 		ArrayList<Input<?>> orig = ent.getEditableInputs();
 		for (int i = 0; i < orig.size(); i++) {
 			Input<?> sourceInput = orig.get(i);
-
-			// Default values do not need to be copied
-			if (sourceInput.isDefault() || sourceInput.isSynonym())
+			if (sourceInput.isSynonym())
 				continue;
 
 			// Get the matching input for the new entity
 			Input<?> targetInput = target.getEditableInputs().get(i);
 
+			// Default values do not need to be copied, but the original entity's
+			// default objects are used in place of the new entity's own copies
+			if (sourceInput.isDefault()) {
+				targetInput.shareDefault(sourceInput);
+				continue;
+			}
+
 			// SampleInputs need to know their entity for "this" to work correctly
 			if (sourceInput instanceof SampleInput) {
 				((SampleInput)targetInput).setEntity(target);
@@ -370,7 +418,37 @@ public class Entity {
 	 * Note that the name of the entity may not be the unique identifier used in the namedEntityHashMap; see Entity.toString()
 	 */
 	public final String getName() {
-		return entityName;
+		String name = entityName;
+		if (name != null)
+			return name;
+
+		String prefix = namePrefix;
+		if (prefix == null)
+			return null;
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(prefix).append("_").append(nameNumber);
+		name = sb.toString();
+
+		// Only the simulation thread, which sets generated names, saves the name that it has
+		// built. Another thread could otherwise save the name from the previous generation.
+		if (EventManager.hasCurrent())
+			entityName = name;
+		return name;
+	}
+
+	/**
+	 * Sets the name of a generated entity to the specified prefix followed by an underscore and
+	 * the specified number. The name is not built until it is requested.
+	 * @param prefix - first part of the name
+	 * @param num - number that completes the name
+	 */
+	public final void setGeneratedName(String prefix, long num) {
+		if (!this.testFlag(FLAG_GENERATED))
+			throw new ErrorException("Only a generated entity can be given a generated name: %s", this);
+		nameNumber = num;
+		namePrefix = prefix;
+		entityName = null;  // publishes the new prefix and number to the other threads
 	}
 
 	/**
@@ -416,6 +494,9 @@ public class Entity {
 		}
 
 		if (in == attributeDefinitionList) {
+			for (AttributeHandle h : attributeMap.values()) {
+				h.invalidate();
+			}
 			attributeMap.clear();
 			for (AttributeHandle h : attributeDefinitionList.getValue()) {
 				this.addAttribute(h.getName(), h);
@@ -427,6 +508,8 @@ public class Entity {
 		}
 		if (in == namedExpressionInput) {
 			customOutputMap.clear();
+			if (!namedExpressionInput.getValue().isEmpty() && !(customOutputMap instanceof LinkedHashMap))
+				customOutputMap = new LinkedHashMap<>();
 			for (NamedExpression ne : namedExpressionInput.getValue()) {
 				ExpressionHandle eh = new ExpressionHandle(this, ne.getExpression(), ne.getName());
 				eh.setUnitType(ne.getUnitType());
@@ -627,6 +710,31 @@ public class Entity {
 		return null;
 	}
 
+	/**
+	 * Returns the OutputHandle for the attribute or custom output with the specified name,
+	 * or null if this entity does not have one. Outputs of this type are defined for the
+	 * individual entity rather than for its class.
+	 * @param outputName - name of the attribute or custom output
+	 * @return OutputHandle for the attribute or custom output
+	 */
+	public final OutputHandle getInstanceOutputHandle(String outputName) {
+		OutputHandle ret = attributeMap.get(outputName);
+		if (ret != null)
+			return ret;
+
+		return customOutputMap.get(outputName);
+	}
+
+	/**
+	 * Returns the ConditionalSource that is notified when the value of the specified
+	 * output changes, or null if changes to the output are not tracked.
+	 * @param outputName - name of the output
+	 * @return ConditionalSource for the output
+	 */
+	public ConditionalSource getOutputSource(String outputName) {
+		return null;
+	}
+
 	public boolean hasOutput(String outputName) {
 		if (OutputHandle.hasOutput(this.getClass(), outputName))
 			return true;
@@ -749,6 +857,8 @@ public class Entity {
 	}
 
 	private void addAttribute(String name, AttributeHandle h) {
+		if (!(attributeMap instanceof LinkedHashMap))
+			attributeMap = new LinkedHashMap<>();
 		attributeMap.put(name, h);
 	}
 
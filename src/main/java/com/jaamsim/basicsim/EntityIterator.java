@@ -17,58 +17,152 @@
 package com.jaamsim.basicsim;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
-
+/**
+ * Iterates over the entities whose classes satisfy the matches() method, in entity number
+ * order. Only the lists for the matching classes are visited, unless every class matches in
+ * which case the list of all entities is used.
+ * <p>
+ * Entities created during the iteration are included in either case, including the instances
+ * of a class whose first instance is created during the iteration.
+ */
 public abstract class EntityIterator<T extends Entity> implements Iterable<T>, Iterator<T> {
-	private final ArrayList<? extends Entity> allInstances = Entity.getAll();
 	protected final Class<T> entClass;
-	private int curPos;
-	private int nextPos;
+	private EntityListNode[] heads;     // head of the list for each matching class
+	private EntityListNode[] curNodes;  // last node visited in each list
+	private Entity[] nextEnts;          // next entity in each list, or null if not yet found
+	private boolean allEntities;        // true if the list of all entities is being used
+	private int numClasses;             // number of class lists when the lists were selected
+	private int nextList;               // list holding the next entity, or -1 if not yet found
 
 	public EntityIterator(Class<T> aClass) {
 		entClass = aClass;
-		curPos = -1;
-		nextPos = -1;
+		nextList = -1;
 	}
 
 	abstract boolean matches(Class<?> entklass);
 
-	private void updatePos() {
-		if (nextPos >= allInstances.size())
+	/**
+	 * Selects the lists to visit. This cannot be done in the constructor because
+	 * matches() may depend on fields in the sub-class.
+	 */
+	private void init() {
+		Map<Class<? extends Entity>, EntityListNode> classLists = Entity.getClassLists();
+		ArrayList<EntityListNode> list = new ArrayList<>();
+		numClasses = 0;
+		for (Map.Entry<Class<? extends Entity>, EntityListNode> each : classLists.entrySet()) {
+			numClasses++;
+			if (matches(each.getKey()))
+				list.add(each.getValue());
+		}
+
+		// If every class matches, it is faster to use the list of all entities
+		if (list.size() == numClasses && list.size() > 1) {
+			list.clear();
+			list.add(Entity.getEntityList());
+			allEntities = true;
+		}
+
+		heads = list.toArray(new EntityListNode[list.size()]);
+		curNodes = list.toArray(new EntityListNode[list.size()]);
+		nextEnts = new Entity[list.size()];
+	}
+
+	/**
+	 * Adds the lists for any matching classes whose first instance has been created since
+	 * the lists were selected.
+	 */
+	private void addNewClasses() {
+		Map<Class<? extends Entity>, EntityListNode> classLists = Entity.getClassLists();
+		ArrayList<EntityListNode> list = new ArrayList<>();
+		numClasses = 0;
+		for (Map.Entry<Class<? extends Entity>, EntityListNode> each : classLists.entrySet()) {
+			numClasses++;
+			if (!matches(each.getKey()) || Arrays.asList(heads).contains(each.getValue()))
+				continue;
+			list.add(each.getValue());
+		}
+		if (list.isEmpty())
 			return;
 
-		while (++nextPos < allInstances.size()) {
-			// If we find a match, break out
-			if (matches(allInstances.get(nextPos).getClass()))
-				break;
+		int n = heads.length;
+		heads = Arrays.copyOf(heads, n + list.size());
+		curNodes = Arrays.copyOf(curNodes, n + list.size());
+		nextEnts = Arrays.copyOf(nextEnts, n + list.size());
+		for (int i = 0; i < list.size(); i++) {
+			heads[n + i] = list.get(i);
+			curNodes[n + i] = list.get(i);
+		}
+	}
+
+	private void updatePos() {
+		if (heads == null)
+			init();
+		else if (!allEntities && Entity.getClassLists().size() != numClasses)
+			addNewClasses();
+
+		// Select the list whose next entity has the smallest entity number
+		nextList = heads.length;
+		long nextNum = Long.MAX_VALUE;
+		for (int i = 0; i < heads.length; i++) {
+			if (nextEnts[i] == null && curNodes[i].next != heads[i])
+				findNext(i);
+
+			if (nextEnts[i] == null)
+				continue;
+
+			long num = nextEnts[i].getEntityNumber();
+			if (num < nextNum) {
+				nextNum = num;
+				nextList = i;
+			}
+		}
+	}
+
+	/**
+	 * Advances to the next entity in the specified list, skipping any node whose entity
+	 * has been removed.
+	 */
+	private void findNext(int i) {
+		EntityListNode node = curNodes[i].next;
+
+		// A null link would mean a node was reached before it was linked, which the volatile
+		// fields prevent, so treat it as the end of the list rather than failing
+		while (node != null && node != heads[i]) {
+			curNodes[i] = node;
+			Entity ent = node.ent;
+			if (ent != null && (!allEntities || matches(ent.getClass()))) {
+				nextEnts[i] = ent;
+				return;
+			}
+			node = node.next;
 		}
 	}
 
 	@Override
 	public boolean hasNext() {
-		if (curPos == nextPos)
+		if (nextList == -1)
 			updatePos();
 
-		if (nextPos < allInstances.size())
-			return true;
-		else
-			return false;
+		return nextList < heads.length;
 	}
 
 	@Override
 	public T next() {
-		if (curPos == nextPos)
+		if (nextList == -1)
 			updatePos();
 
-		if (nextPos < allInstances.size()) {
-			curPos = nextPos;
-			return entClass.cast(allInstances.get(curPos));
-		}
-		else {
+		if (nextList == heads.length)
 			throw new NoSuchElementException();
-		}
+
+		Entity ent = nextEnts[nextList];
+		nextEnts[nextList] = null;
+		nextList = -1;
+		return entClass.cast(ent);
 	}
 
 	@Override
@@ -0,0 +1,47 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+/**
+ * Node in the doubly linked list of entities held by JaamSimModel.
+ * <p>
+ * When a node is removed from the list, its entity is set to null but its next pointer is
+ * retained, so that an EntityIterator positioned at the node can continue to the next entity.
+ * <p>
+ * The list is modified while holding the JaamSimModel's lock, but is read without it by the
+ * render and user interface threads. The links and the entity are volatile so that these
+ * threads never see a node before its fields have been set.
+ */
+final class EntityListNode {
+	volatile EntityListNode next;
+	volatile EntityListNode prev;
+	volatile Entity ent;
+	EntityListNode classNode; // node for the same entity in the list for its class
+
+	/**
+	 * Creates the head of an empty list.
+	 */
+	EntityListNode() {
+		next = this;
+		prev = this;
+		ent = null;
+	}
+
+	EntityListNode(Entity e) {
+		ent = e;
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+/**
+ * Hash map from entity number to the entity's node in the list of entities, using open
+ * addressing so that the entity numbers are not boxed. The map is not thread-safe and must
+ * be used while holding the JaamSimModel's lock.
+ */
+final class EntityNodeMap {
+	private long[] keys;
+	private EntityListNode[] vals;
+	private int size;
+	private int mask;
+
+	EntityNodeMap(int capacity) {
+		int len = 16;
+		while (len < 2 * capacity) {
+			len <<= 1;
+		}
+		keys = new long[len];
+		vals = new EntityListNode[len];
+		mask = len - 1;
+	}
+
+	private int slot(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32)) & mask;
+	}
+
+	int size() {
+		return size;
+	}
+
+	EntityListNode get(long key) {
+		for (int i = slot(key); vals[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key)
+				return vals[i];
+		}
+		return null;
+	}
+
+	boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	void put(long key, EntityListNode val) {
+		if (2 * (size + 1) > vals.length)
+			resize(2 * vals.length);
+
+		int i = slot(key);
+		while (vals[i] != null) {
+			if (keys[i] == key) {
+				vals[i] = val;
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		vals[i] = val;
+		size++;
+	}
+
+	EntityListNode remove(long key) {
+		int i = slot(key);
+		while (vals[i] != null && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		EntityListNode ret = vals[i];
+		if (ret == null)
+			return null;
+
+		// Shift back any following entries that can no longer be reached past the gap
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			if (vals[j] == null)
+				break;
+
+			int k = slot(keys[j]);
+			boolean reachable = (i <= j) ? (i < k && k <= j) : (i < k || k <= j);
+			if (reachable)
+				continue;
+
+			keys[i] = keys[j];
+			vals[i] = vals[j];
+			i = j;
+		}
+		vals[i] = null;
+		size--;
+		return ret;
+	}
+
+	private void resize(int len) {
+		long[] oldKeys = keys;
+		EntityListNode[] oldVals = vals;
+		keys = new long[len];
+		vals = new EntityListNode[len];
+		mask = len - 1;
+		size = 0;
+		for (int i = 0; i < oldVals.length; i++) {
+			if (oldVals[i] != null)
+				put(oldKeys[i], oldVals[i]);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.ArrayList;
+
+/**
+ * Holds entities that have been disposed so that they can be reused in place of new entities.
+ * An entity is added to the pool by calling its dispose method after it has been registered
+ * with the pool.
+ */
+public class EntityPool<T extends Entity> {
+	private final ArrayList<T> freeList = new ArrayList<>();
+
+	public EntityPool() {}
+
+	/**
+	 * Registers an entity with the pool so that it is returned to the pool when it is disposed.
+	 * @param ent - entity to be registered
+	 */
+	public void register(T ent) {
+		ent.pool = this;
+	}
+
+	/**
+	 * Returns an entity from the pool, or null if the pool is empty. The entity has a new
+	 * entity number, but its internal state must be reset by calling earlyInit.
+	 * @return entity to be reused
+	 */
+	public T acquire() {
+		if (freeList.isEmpty())
+			return null;
+
+		T ent = freeList.remove(freeList.size() - 1);
+		ent.reuse();
+		return ent;
+	}
+
+	@SuppressWarnings("unchecked")
+	void release(Entity ent) {
+		ent.kill();
+		freeList.add((T)ent);
+	}
+
+	/**
+	 * Returns the number of entities waiting to be reused.
+	 */
+	public int size() {
+		return freeList.size();
+	}
+
+	/**
+	 * Discards the entities that are waiting to be reused.
+	 */
+	public void clear() {
+		freeList.clear();
+	}
+}
@@ -1,6 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ * Copyright (C) 2017 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,80 +17,240 @@
  */
 package com.jaamsim.basicsim;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
 
 import com.jaamsim.events.EventManager;
 import com.jaamsim.events.EventTraceListener;
 import com.jaamsim.events.ProcessTarget;
-import com.jaamsim.input.Input;
+import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InputErrorException;
 
+/**
+ * Records the events executed by the model in a compact binary file that can be used to verify
+ * a later run or converted to text by EventTraceReader.
+ * <p>
+ * Each trace operation is encoded as an op code followed by variable length integers, and each
+ * EventManager name and target description is written once and then referred to by number.
+ * The encoded bytes are passed to a background thread through a fixed number of buffers so that
+ * the simulation thread does not wait for the file to be written unless the buffers are full.
+ */
 public class EventRecorder implements EventTraceListener {
-	private BufferedWriter outputStream;
-	private int traceLevel;
-	private final ArrayList<String> traces = new ArrayList<>();
+	static final byte[] MAGIC = { 'J', 'S', 'E', 'V', 'T', 1 };
+	static final int OP_STRING = 0;  // defines a string: id, length, UTF-8 bytes
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int NUM_BUFFERS = 8;
+
+	private final OutputStream outputStream;
+	private final ArrayBlockingQueue<TraceBuffer> freeBuffers;
+	private final ArrayBlockingQueue<TraceBuffer> fullBuffers;
+	private final Thread writerThread;
+	private IOException writeError;
+
+	private TraceBuffer buf;  // buffer being filled by the simulation thread
+	private boolean closed;
+
+	private final HashMap<String, Integer> stringIds = new HashMap<>();
+	private long lastTick;
+
+	private static final TraceBuffer CLOSE = new TraceBuffer();
+
+	private static final class TraceBuffer {
+		final byte[] data = new byte[BUFFER_SIZE];
+		int len;
+	}
 
 	public EventRecorder(String fileName) {
-		traceLevel = 0;
 		try {
-			File backingFileObject = new File(fileName);
-			backingFileObject.createNewFile();
-			outputStream = new BufferedWriter(new FileWriter(backingFileObject, false));
+			outputStream = new FileOutputStream(fileName, false);
 		}
 		catch (IOException e) {
 			throw new InputErrorException("IOException thrown trying to open FileEntity: " + e);
 		}
-		catch (IllegalArgumentException e) {
-			throw new InputErrorException("IllegalArgumentException thrown trying to open File (Should not happen): " + e);
-		}
 		catch (SecurityException e) {
 			throw new InputErrorException("SecurityException thrown trying to open File: " + e);
 		}
-	}
 
-	private void append(String record) {
-		StringBuilder rec = new StringBuilder();
+		freeBuffers = new ArrayBlockingQueue<>(NUM_BUFFERS);
+		fullBuffers = new ArrayBlockingQueue<>(NUM_BUFFERS + 1);
+		for (int i = 0; i < NUM_BUFFERS; i++) {
+			freeBuffers.add(new TraceBuffer());
+		}
+		buf = freeBuffers.poll();
+
+		writerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeBuffers();
+			}
+		}, "EventRecorder");
+		writerThread.setDaemon(true);
+		writerThread.start();
 
-		for (int i = 0; i < traceLevel; i++) {
-			rec.append(Input.SEPARATOR);
+		for (byte b : MAGIC) {
+			this.writeByte(b);
 		}
-		rec.append(record);
-		traces.add(rec.toString());
 	}
 
-	private void addHeader(String name, long internalTime) {
-		// Don't write anything if not at level 0
-		if (traceLevel != 0)
-			return;
+	/**
+	 * Writes the full buffers to the file until the recorder is closed.
+	 */
+	private void writeBuffers() {
+		while (true) {
+			TraceBuffer b;
+			try {
+				b = fullBuffers.take();
+			}
+			catch (InterruptedException e) {
+				continue;
+			}
 
-		StringBuilder header = new StringBuilder(name).append("\t").append(internalTime);
-		traces.add(header.toString());
-		traceLevel++;
-	}
+			if (b == CLOSE)
+				break;
 
-	private void finish(EventManager e) {
-		if(traceLevel != 1)
-			return;
+			if (writeError == null) {
+				try {
+					outputStream.write(b.data, 0, b.len);
+				}
+				catch (IOException e) {
+					writeError = e;
+				}
+			}
+			b.len = 0;
+			freeBuffers.add(b);
+		}
 
-		traces.add("");
-		for (String each : traces) {
+		try {
+			outputStream.close();
+		}
+		catch (IOException e) {
+			if (writeError == null)
+				writeError = e;
+		}
+	}
+
+	/**
+	 * Passes the present buffer to the writer thread, waiting for an empty buffer if necessary.
+	 */
+	private void sendBuffer() {
+		boolean interrupted = false;
+		while (true) {
 			try {
-				outputStream.write( each );
-				outputStream.newLine();
+				fullBuffers.put(buf);
+				buf = freeBuffers.take();
+				break;
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
 			}
-			catch( IOException ioe ) {}
 		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Writes the remaining trace records and closes the file.
+	 */
+	public synchronized void close() {
+		if (closed)
+			return;
+		closed = true;
+
+		this.sendBuffer();
+		fullBuffers.add(CLOSE);
 		try {
-			outputStream.flush();
+			writerThread.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (writeError != null)
+			InputAgent.logMessage("Error writing the event trace file: %s", writeError);
+	}
+
+	private void writeByte(int b) {
+		if (buf.len == BUFFER_SIZE)
+			this.sendBuffer();
+		buf.data[buf.len++] = (byte)b;
+	}
+
+	private void writeVarLong(long val) {
+		while ((val & ~0x7FL) != 0) {
+			this.writeByte((int)(val & 0x7F) | 0x80);
+			val >>>= 7;
 		}
-		catch( IOException ioe ) {}
+		this.writeByte((int)val);
+	}
 
-		traces.clear();
-		traceLevel--;
+	private void writeSignedVarLong(long val) {
+		this.writeVarLong((val << 1) ^ (val >> 63));
+	}
+
+	/**
+	 * Returns the id number for the specified string, writing its definition to the file the
+	 * first time it is used.
+	 */
+	private int getStringId(String str) {
+		Integer id = stringIds.get(str);
+		if (id != null)
+			return id;
+
+		int ret = stringIds.size();
+		stringIds.put(str, ret);
+
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		this.writeByte(OP_STRING);
+		this.writeVarLong(ret);
+		this.writeVarLong(bytes.length);
+		for (byte b : bytes) {
+			this.writeByte(b);
+		}
+		return ret;
+	}
+
+	/**
+	 * Writes a trace operation. The present tick is stored as the change from the previous
+	 * operation and the event's tick as the change from the present tick.
+	 * @param op - op code for the operation
+	 * @param name - name of the EventManager that executed the operation
+	 */
+	synchronized void writeTrace(int op, String name, long curTick, long tick, int priority, String desc) {
+		if (closed)
+			return;
+
+		int nameId = this.getStringId(name);
+		int descId = desc == null ? -1 : this.getStringId(desc);
+
+		this.writeByte(op);
+		this.writeVarLong(nameId);
+		this.writeSignedVarLong(curTick - lastTick);
+		lastTick = curTick;
+
+		switch (op) {
+		case EventTraceRecord.OP_EVENT:
+		case EventTraceRecord.OP_WAIT:
+		case EventTraceRecord.OP_SCHED_PROCESS:
+		case EventTraceRecord.OP_INTERRUPT:
+		case EventTraceRecord.OP_KILL:
+			this.writeSignedVarLong(tick - curTick);
+			this.writeSignedVarLong(priority);
+			this.writeVarLong(descId);
+			return;
+
+		case EventTraceRecord.OP_PROCESS_START:
+		case EventTraceRecord.OP_WAIT_UNTIL_ENDED:
+			this.writeVarLong(descId);
+			return;
+
+		default:
+			return;
+		}
 	}
 
 	private static final String entClassName = Entity.class.getName();
@@ -126,77 +287,53 @@ public class EventRecorder implements EventTraceListener {
 		else
 			elem = callStack[evtManIdx + 1];
 
-		return String.format("%s:%s", elem.getClassName(), elem.getMethodName());
+		StringBuilder sb = new StringBuilder();
+		sb.append(elem.getClassName()).append(":").append(elem.getMethodName());
+		return sb.toString();
 	}
 
 	@Override
 	public synchronized void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		traceLevel--;
-
-		this.append(String.format("Wait\t%d\t%d\t%s", tick, priority, getWaitDescription()));
-
-		this.finish(e);
+		this.writeTrace(EventTraceRecord.OP_WAIT, e.name, curTick, tick, priority, getWaitDescription());
 	}
 
 	@Override
 	public synchronized void traceEvent(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Event\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		this.writeTrace(EventTraceRecord.OP_EVENT, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceInterrupt(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Int\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		this.writeTrace(EventTraceRecord.OP_INTERRUPT, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceKill(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Kill\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		this.finish(e);
+		this.writeTrace(EventTraceRecord.OP_KILL, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceWaitUntil(EventManager e, long tick) {
-		this.addHeader(e.name, tick);
-		traceLevel--;
-		this.append("WaitUntil");
-		this.finish(e);
+		this.writeTrace(EventTraceRecord.OP_WAIT_UNTIL, e.name, tick, 0L, 0, null);
 	}
 
 	@Override
 	public synchronized void traceWaitUntilEnded(EventManager e, long curTick, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("WaitUntilEnded\t%s", t.getDescription()));
-		this.finish(e);
+		this.writeTrace(EventTraceRecord.OP_WAIT_UNTIL_ENDED, e.name, curTick, 0L, 0, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceProcessStart(EventManager e, ProcessTarget t, long tick) {
-		this.addHeader(e.name, tick);
-		this.append(String.format("StartProcess\t%s", t.getDescription()));
-		traceLevel++;
-		this.finish(e);
+		this.writeTrace(EventTraceRecord.OP_PROCESS_START, e.name, tick, 0L, 0, t.getDescription());
 	}
 
 	@Override
 	public synchronized void traceProcessEnd(EventManager e, long tick) {
-		this.addHeader(e.name, tick);
-		traceLevel--;
-		this.append("Exit");
-		this.finish(e);
+		this.writeTrace(EventTraceRecord.OP_PROCESS_END, e.name, tick, 0L, 0, null);
 	}
 
 	@Override
 	public synchronized void traceSchedProcess(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("SchedProcess\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		this.finish(e);
+		this.writeTrace(EventTraceRecord.OP_SCHED_PROCESS, e.name, curTick, tick, priority, t.getDescription());
 	}
 }
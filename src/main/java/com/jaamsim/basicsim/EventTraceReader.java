@@ -0,0 +1,224 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Reads the binary event trace file written by EventRecorder.
+ * <p>
+ * The main method converts a binary trace file to the text format used by earlier versions:
+ * <pre>
+ * java com.jaamsim.basicsim.EventTraceReader run.evb run.evt
+ * </pre>
+ */
+public class EventTraceReader {
+	private final InputStream in;
+	private final ArrayList<String> strings = new ArrayList<>();
+	private long lastTick;
+
+	// Present trace operation
+	private int op;
+	private String name;
+	private long curTick;
+	private long tick;
+	private int priority;
+	private String desc;
+
+	public EventTraceReader(InputStream stream) throws IOException {
+		in = new BufferedInputStream(stream);
+		for (byte b : EventRecorder.MAGIC) {
+			if (in.read() != b)
+				throw new IOException("Not a binary event trace file");
+		}
+	}
+
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * Reads the trace operations for the next complete record.
+	 * @param rec - empty record to receive the operations
+	 * @return false if there are no more complete records in the file
+	 * @throws IOException if the file cannot be read or is invalid
+	 */
+	boolean readRecord(EventTraceRecord rec) throws IOException {
+		// A record that is still in progress when the file is closed is ignored
+		while (this.readOp()) {
+			rec.addTrace(op, name, curTick, tick, priority, desc);
+			if (rec.finish())
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Writes the remaining trace operations to the specified recorder.
+	 * <p>
+	 * The trace file is closed part way through the event that ends the last run, so the
+	 * final record is incomplete. If further operations are to follow, that record must be
+	 * completed in the same way as when the run is followed by another one, by recording an
+	 * exit from each event and process that is still in progress.
+	 * @param out - recorder for the operations
+	 * @param finishRecord - true if an incomplete final record is to be completed
+	 * @throws IOException if the file cannot be read or is invalid
+	 */
+	void copyTo(EventRecorder out, boolean finishRecord) throws IOException {
+		EventTraceRecord rec = new EventTraceRecord();
+		while (this.readOp()) {
+			out.writeTrace(op, name, curTick, tick, priority, desc);
+			rec.addTrace(op, name, curTick, tick, priority, desc);
+			if (rec.finish())
+				rec.clear();
+		}
+
+		if (!finishRecord)
+			return;
+
+		while (!rec.isEmpty() && !rec.finish()) {
+			out.writeTrace(EventTraceRecord.OP_PROCESS_END, name, curTick, 0L, 0, null);
+			rec.addTrace(EventTraceRecord.OP_PROCESS_END, name, curTick, 0L, 0, null);
+		}
+	}
+
+	/**
+	 * Reads the next trace operation, including the definitions of any strings that precede it.
+	 * @return false if there are no more operations in the file
+	 * @throws IOException if the file cannot be read or is invalid
+	 */
+	private boolean readOp() throws IOException {
+		while (true) {
+			op = in.read();
+			if (op == -1)
+				return false;
+
+			if (op == EventRecorder.OP_STRING) {
+				int id = (int)this.readVarLong();
+				byte[] bytes = new byte[(int)this.readVarLong()];
+				for (int i = 0; i < bytes.length; i++) {
+					bytes[i] = (byte)this.readByte();
+				}
+				if (id != strings.size())
+					throw new IOException("Invalid string id in event trace file: " + id);
+				strings.add(new String(bytes, StandardCharsets.UTF_8));
+				continue;
+			}
+
+			name = this.getString(this.readVarLong());
+			curTick = lastTick + this.readSignedVarLong();
+			lastTick = curTick;
+
+			tick = 0L;
+			priority = 0;
+			desc = null;
+			switch (op) {
+			case EventTraceRecord.OP_EVENT:
+			case EventTraceRecord.OP_WAIT:
+			case EventTraceRecord.OP_SCHED_PROCESS:
+			case EventTraceRecord.OP_INTERRUPT:
+			case EventTraceRecord.OP_KILL:
+				tick = curTick + this.readSignedVarLong();
+				priority = (int)this.readSignedVarLong();
+				desc = this.getString(this.readVarLong());
+				return true;
+
+			case EventTraceRecord.OP_PROCESS_START:
+			case EventTraceRecord.OP_WAIT_UNTIL_ENDED:
+				desc = this.getString(this.readVarLong());
+				return true;
+
+			case EventTraceRecord.OP_PROCESS_END:
+			case EventTraceRecord.OP_WAIT_UNTIL:
+				return true;
+
+			default:
+				throw new IOException("Invalid op code in event trace file: " + op);
+			}
+		}
+	}
+
+	private String getString(long id) throws IOException {
+		if (id < 0 || id >= strings.size())
+			throw new IOException("Invalid string id in event trace file: " + id);
+		return strings.get((int)id);
+	}
+
+	private int readByte() throws IOException {
+		int ret = in.read();
+		if (ret == -1)
+			throw new EOFException("Event trace file ends part way through an operation");
+		return ret;
+	}
+
+	private long readVarLong() throws IOException {
+		long ret = 0L;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = this.readByte();
+			ret |= (long)(b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return ret;
+		}
+		throw new IOException("Invalid number in event trace file");
+	}
+
+	private long readSignedVarLong() throws IOException {
+		long val = this.readVarLong();
+		return (val >>> 1) ^ -(val & 1);
+	}
+
+	/**
+	 * Writes the contents of a binary event trace in the text format.
+	 * @param out - destination for the text
+	 * @throws IOException if the trace cannot be read or the text cannot be written
+	 */
+	public void writeText(Writer out) throws IOException {
+		EventTraceRecord rec = new EventTraceRecord();
+		while (this.readRecord(rec)) {
+			for (String line : rec) {
+				out.write(line);
+				out.write(System.lineSeparator());
+			}
+			rec.clear();
+		}
+		out.flush();
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.out.println("Usage: EventTraceReader <binary trace file> <text file>");
+			return;
+		}
+
+		EventTraceReader reader = new EventTraceReader(new FileInputStream(args[0]));
+		try (BufferedWriter out = new BufferedWriter(new FileWriter(args[1]))) {
+			reader.writeText(out);
+		}
+		finally {
+			reader.close();
+		}
+	}
+}
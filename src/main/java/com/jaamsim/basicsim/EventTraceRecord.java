@@ -66,6 +66,17 @@ class EventTraceRecord extends ArrayList<String> implements EventTraceListener {
 		}
 	}
 
+	// Trace operations, which are also the op codes used in the binary trace file
+	static final int OP_EVENT = 1;
+	static final int OP_WAIT = 2;
+	static final int OP_SCHED_PROCESS = 3;
+	static final int OP_PROCESS_START = 4;
+	static final int OP_PROCESS_END = 5;
+	static final int OP_INTERRUPT = 6;
+	static final int OP_KILL = 7;
+	static final int OP_WAIT_UNTIL = 8;
+	static final int OP_WAIT_UNTIL_ENDED = 9;
+
 	private void append(String record) {
 		StringBuilder rec = new StringBuilder();
 
@@ -86,66 +97,129 @@ class EventTraceRecord extends ArrayList<String> implements EventTraceListener {
 		traceLevel++;
 	}
 
-	@Override
-	public void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
+	/**
+	 * Adds the text for a single trace operation to the record.
+	 * @param op - trace operation
+	 * @param name - name of the EventManager
+	 * @param curTick - present simulation tick for the EventManager
+	 * @param tick - tick at which the event is scheduled
+	 * @param priority - priority of the event
+	 * @param desc - description of the event's target
+	 */
+	void addTrace(int op, String name, long curTick, long tick, int priority, String desc) {
+		switch (op) {
+		case OP_EVENT:
+			this.addHeader(name, curTick);
+			this.append(String.format("Event\t%d\t%d\t%s", tick, priority, desc));
+			traceLevel++;
+			return;
+
+		case OP_WAIT:
+			this.addHeader(name, curTick);
+			traceLevel--;
+			this.append(String.format("Wait\t%d\t%d\t%s", tick, priority, desc));
+			return;
+
+		case OP_SCHED_PROCESS:
+			this.addHeader(name, curTick);
+			this.append(String.format("SchedProcess\t%d\t%d\t%s", tick, priority, desc));
+			return;
+
+		case OP_PROCESS_START:
+			this.addHeader(name, curTick);
+			this.append(String.format("StartProcess\t%s", desc));
+			traceLevel++;
+			return;
+
+		case OP_PROCESS_END:
+			this.addHeader(name, curTick);
+			traceLevel--;
+			this.append("Exit");
+			return;
+
+		case OP_INTERRUPT:
+			this.addHeader(name, curTick);
+			this.append(String.format("Int\t%d\t%d\t%s", tick, priority, desc));
+			traceLevel++;
+			return;
+
+		case OP_KILL:
+			this.addHeader(name, curTick);
+			this.append(String.format("Kill\t%d\t%d\t%s", tick, priority, desc));
+			return;
+
+		case OP_WAIT_UNTIL:
+			this.addHeader(name, curTick);
+			traceLevel--;
+			this.append("WaitUntil");
+			return;
+
+		case OP_WAIT_UNTIL_ENDED:
+			this.addHeader(name, curTick);
+			this.append(String.format("WaitUntilEnded\t%s", desc));
+			return;
+
+		default:
+			throw new ErrorException("Unknown event trace operation: %d", op);
+		}
+	}
+
+	/**
+	 * Completes the record if the last trace operation returned it to the top level.
+	 * @return true if the record is complete
+	 */
+	boolean finish() {
+		if (traceLevel != 1)
+			return false;
+
+		this.add("");
 		traceLevel--;
+		return true;
+	}
 
-		this.append(String.format("Wait\t%d\t%d\t%s", tick, priority, EventRecorder.getWaitDescription()));
+	@Override
+	public void traceWait(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
+		this.addTrace(OP_WAIT, e.name, curTick, tick, priority, EventRecorder.getWaitDescription());
 	}
 
 	@Override
 	public void traceEvent(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Event\t%d\t%d\t%s", tick, priority, t.getDescription()));
-
-		traceLevel++;
+		this.addTrace(OP_EVENT, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public void traceInterrupt(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Int\t%d\t%d\t%s", tick, priority, t.getDescription()));
-		traceLevel++;
+		this.addTrace(OP_INTERRUPT, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public void traceKill(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("Kill\t%d\t%d\t%s", tick, priority, t.getDescription()));
+		this.addTrace(OP_KILL, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	@Override
 	public void traceWaitUntil(EventManager e, long tick) {
-		this.addHeader(e.name, tick);
-		traceLevel--;
-		this.append("WaitUntil");
+		this.addTrace(OP_WAIT_UNTIL, e.name, tick, 0L, 0, null);
 	}
 
 	@Override
 	public void traceWaitUntilEnded(EventManager e, long curTick, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("WaitUntilEnded\t%s", t.getDescription()));
+		this.addTrace(OP_WAIT_UNTIL_ENDED, e.name, curTick, 0L, 0, t.getDescription());
 	}
 
 	@Override
 	public void traceProcessStart(EventManager e, ProcessTarget t, long tick) {
-		this.addHeader(e.name, tick);
-		this.append(String.format("StartProcess\t%s", t.getDescription()));
-		traceLevel++;
+		this.addTrace(OP_PROCESS_START, e.name, tick, 0L, 0, t.getDescription());
 	}
 
 	@Override
 	public void traceProcessEnd(EventManager e, long tick) {
-		this.addHeader(e.name, tick);
-		traceLevel--;
-		this.append("Exit");
+		this.addTrace(OP_PROCESS_END, e.name, tick, 0L, 0, null);
 	}
 
 	@Override
 	public void traceSchedProcess(EventManager e, long curTick, long tick, int priority, ProcessTarget t) {
-		this.addHeader(e.name, curTick);
-		this.append(String.format("SchedProcess\t%d\t%d\t%s", tick, priority, t.getDescription()));
+		this.addTrace(OP_SCHED_PROCESS, e.name, curTick, tick, priority, t.getDescription());
 	}
 
 	boolean isDefaultEventManager() {
@@ -16,14 +16,17 @@
  */
 package com.jaamsim.basicsim;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class JaamSimModel {
 	private final AtomicLong entityCount = new AtomicLong(0);
-	private final ArrayList<Entity> allInstances = new ArrayList<>(100);
-	private final HashMap<String, Entity> namedEntities = new HashMap<>(100);
+	private final EntityListNode entityList = new EntityListNode(); // head of a circular list in entity number order
+	private final ConcurrentHashMap<Class<? extends Entity>, EntityListNode> classLists = new ConcurrentHashMap<>();
+	private final EntityNodeMap entityNodes = new EntityNodeMap(100);
+	private final ConcurrentHashMap<String, Entity> namedEntities = new ConcurrentHashMap<>(100);
+	private volatile int numLiveEnts;
 
 	public JaamSimModel() {
 	}
@@ -33,66 +36,61 @@ public class JaamSimModel {
 	}
 
 	public final Entity getNamedEntity(String name) {
-		synchronized (allInstances) {
-			return namedEntities.get(name);
-		}
+		if (name == null)
+			return null;
+		return namedEntities.get(name);
 	}
 
 	public final long getEntitySequence() {
-		long seq = (long)allInstances.size() << 32;
+		long seq = (long)numLiveEnts << 32;
 		seq += entityCount.get();
 		return seq;
 	}
 
-	private final int idToIndex(long id) {
-		int lowIdx = 0;
-		int highIdx = allInstances.size() - 1;
-
-		while (lowIdx <= highIdx) {
-			int testIdx = (lowIdx + highIdx) >>> 1; // Avoid sign extension
-			long testNum = allInstances.get(testIdx).getEntityNumber();
-
-			if (testNum < id) {
-				lowIdx = testIdx + 1;
-				continue;
-			}
-
-			if (testNum > id) {
-				highIdx = testIdx - 1;
-				continue;
-			}
+	public final Entity idToEntity(long id) {
+		synchronized (entityList) {
+			EntityListNode node = entityNodes.get(id);
+			if (node == null)
+				return null;
 
-			return testIdx;
+			return node.ent;
 		}
-
-		// Entity number not found
-		return -(lowIdx + 1);
 	}
 
-	public final Entity idToEntity(long id) {
-		synchronized (allInstances) {
-			int idx = this.idToIndex(id);
-			if (idx < 0)
-				return null;
+	/**
+	 * Returns the head of the list of entities. The head does not hold an entity.
+	 */
+	final EntityListNode getEntityList() {
+		return entityList;
+	}
 
-			return allInstances.get(idx);
-		}
+	/**
+	 * Returns the heads of the lists that hold the instances of each class, in entity
+	 * number order. A class is included once an instance of it has been created.
+	 */
+	final Map<Class<? extends Entity>, EntityListNode> getClassLists() {
+		return classLists;
 	}
 
-	public final ArrayList<? extends Entity> getEntities() {
-		synchronized(allInstances) {
-			return allInstances;
-		}
+	/**
+	 * Returns the entity with the largest entity number, or null if there are no entities.
+	 */
+	final Entity getLastEntity() {
+		return entityList.prev.ent;
 	}
 
 	final void renameEntity(Entity e, String newName) {
-		synchronized (allInstances) {
+		synchronized (entityList) {
 			// Generated Entities do not appear in the named entity hashmap, no consistency checks needed
 			if (e.testFlag(Entity.FLAG_GENERATED)) {
+				e.namePrefix = null;
 				e.entityName = newName;
 				return;
 			}
 
+			if (newName == null)
+				throw new ErrorException("Entity name cannot be null");
+
 			if (namedEntities.get(newName) != null)
 				throw new ErrorException("Entity name: %s is already in use.", newName);
 
@@ -106,37 +104,109 @@ public class JaamSimModel {
 	}
 
 	final void addInstance(Entity e) {
-		synchronized(allInstances) {
-			allInstances.add(e);
+		synchronized (entityList) {
+			EntityListNode node = new EntityListNode(e);
+			node.classNode = new EntityListNode(e);
+			entityNodes.put(e.getEntityNumber(), node);
+			linkBefore(node, entityList);
+			linkBefore(node.classNode, getClassList(e.getClass()));
+			numLiveEnts++;
+		}
+	}
+
+	final void reuseInstance(Entity e) {
+		synchronized (entityList) {
+			if (entityNodes.containsKey(e.getEntityNumber()))
+				throw new ErrorException("Entity already included in allInstances: %s", e);
+
+			e.entityNumber = getNextEntityID();
+			addInstance(e);
 		}
 	}
 
 	final void restoreInstance(Entity e) {
-		synchronized(allInstances) {
-			int index = idToIndex(e.getEntityNumber());
-			if (index >= 0) {
+		synchronized (entityList) {
+			long id = e.getEntityNumber();
+			if (entityNodes.containsKey(id)) {
 				throw new ErrorException("Entity already included in allInstances: %s", e);
 			}
-			allInstances.add(-index - 1, e);
+
+			EntityListNode node = new EntityListNode(e);
+			node.classNode = new EntityListNode(e);
+			entityNodes.put(id, node);
+			linkInOrder(node, entityList);
+			linkInOrder(node.classNode, getClassList(e.getClass()));
+			numLiveEnts++;
 		}
 	}
 
 	final void removeInstance(Entity e) {
-		synchronized (allInstances) {
-			int index = idToIndex(e.getEntityNumber());
-			if (index < 0)
+		synchronized (entityList) {
+			EntityListNode node = entityNodes.remove(e.getEntityNumber());
+			if (node == null)
 				return;
 
-			if (e != allInstances.remove(index))
+			if (e != node.ent)
 				throw new ErrorException("Internal Consistency Error - Entity List");
 
+			unlink(node);
+			unlink(node.classNode);
+			node.classNode = null;
+			numLiveEnts--;
+
 			if (!e.testFlag(Entity.FLAG_GENERATED)) {
-				if (e != namedEntities.remove(e.entityName))
+				if (e.entityName == null || e != namedEntities.remove(e.entityName))
 					throw new ErrorException("Named Entities Internal Consistency error: %s", e);
 			}
 
+			e.namePrefix = null;
 			e.entityName = null;
 			e.setFlag(Entity.FLAG_DEAD);
 		}
 	}
+
+	private EntityListNode getClassList(Class<? extends Entity> klass) {
+		EntityListNode head = classLists.get(klass);
+		if (head == null) {
+			head = new EntityListNode();
+			classLists.put(klass, head);
+		}
+		return head;
+	}
+
+	/**
+	 * Inserts a node into the list in front of the specified node. The node is complete
+	 * before it is linked from its predecessor, so that it can be reached safely by an
+	 * iterator on another thread.
+	 */
+	private static void linkBefore(EntityListNode node, EntityListNode pos) {
+		node.next = pos;
+		node.prev = pos.prev;
+		pos.prev.next = node;
+		pos.prev = node;
+	}
+
+	/**
+	 * Inserts a node into the specified list at the position given by its entity number.
+	 */
+	private static void linkInOrder(EntityListNode node, EntityListNode head) {
+		// Restored entities are normally near the end of the list, so search from the end
+		long id = node.ent.getEntityNumber();
+		EntityListNode pos = head;
+		while (pos.prev != head && pos.prev.ent.getEntityNumber() > id) {
+			pos = pos.prev;
+		}
+		linkBefore(node, pos);
+	}
+
+	/**
+	 * Removes a node from its list, but retains its next pointer for any iterator that is
+	 * using it.
+	 */
+	private static void unlink(EntityListNode node) {
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+		node.prev = null;
+		node.ent = null;
+	}
 }
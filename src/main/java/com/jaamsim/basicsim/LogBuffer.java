@@ -0,0 +1,259 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Collects the entries for a log file and passes them in batches to a background thread that
+ * formats them and writes them to the file using a LogWriter.
+ * <p>
+ * Numbers are stored as doubles and are not converted to text until they reach the writer
+ * thread. The number of batches waiting to be written is limited for all the log files
+ * together, and the simulation thread waits for the writer thread when the limit is reached.
+ */
+public class LogBuffer {
+	private static final int BATCH_SIZE = 4096;  // values per batch
+	private static final int MAX_BATCHES = 32;   // batches waiting to be written
+
+	// Types of value
+	private static final byte ENTRY = 0;   // number at the start of a new line
+	private static final byte VALUE = 1;   // number in the same format as "%s"
+	private static final byte FIXED = 2;   // number with a fixed number of decimal places
+	private static final byte STRING = 3;
+
+	// Actions taken after a batch has been written
+	private static final int NONE = 0;
+	private static final int FLUSH = 1;
+	private static final int CLOSE = 2;
+
+	private static final ArrayBlockingQueue<Batch> fullBatches = new ArrayBlockingQueue<>(MAX_BATCHES);
+	private static final ArrayBlockingQueue<Batch> freeBatches = new ArrayBlockingQueue<>(MAX_BATCHES);
+	private static Thread writerThread;
+
+	private final LogWriter writer;
+	private Batch batch;  // batch being filled by the simulation thread
+	private boolean closed;
+
+	private static final class Batch {
+		final byte[] types = new byte[BATCH_SIZE];
+		final double[] values = new double[BATCH_SIZE];
+		final int[] precisions = new int[BATCH_SIZE];
+		final String[] strings = new String[BATCH_SIZE];
+		int size;
+
+		LogWriter writer;
+		int action;
+		CountDownLatch done;  // set when the simulation thread waits for the batch
+	}
+
+	public LogBuffer(LogWriter w) {
+		writer = w;
+	}
+
+	/**
+	 * Starts a new line in the log file with the specified number, normally the simulation time.
+	 */
+	public void newEntry(double val) {
+		this.add(ENTRY, val, 0, null);
+	}
+
+	/**
+	 * Adds a number to the present line in the same format as String.format("\t%s", val).
+	 */
+	public void addValue(double val) {
+		this.add(VALUE, val, 0, null);
+	}
+
+	/**
+	 * Adds a number to the present line in the same format as String.format("\t%.nf", val),
+	 * where n is the specified number of decimal places.
+	 */
+	public void addValue(double val, int precision) {
+		this.add(FIXED, val, precision, null);
+	}
+
+	/**
+	 * Adds a string to the present line.
+	 */
+	public void addString(String str) {
+		this.add(STRING, 0.0d, 0, str);
+	}
+
+	private void add(byte type, double val, int precision, String str) {
+		if (closed)
+			return;
+
+		if (batch == null)
+			batch = getBatch();
+
+		int i = batch.size++;
+		batch.types[i] = type;
+		batch.values[i] = val;
+		batch.precisions[i] = precision;
+		batch.strings[i] = str;
+
+		if (batch.size == BATCH_SIZE)
+			this.send(NONE, false);
+	}
+
+	/**
+	 * Passes the entries collected so far to the writer thread and has it flush the file.
+	 */
+	public void flush() {
+		if (closed)
+			return;
+		this.send(FLUSH, false);
+	}
+
+	/**
+	 * Writes the remaining entries and closes the file, waiting for the writer thread to finish.
+	 */
+	public void close() {
+		if (closed)
+			return;
+		closed = true;
+		this.send(CLOSE, true);
+	}
+
+	/**
+	 * Waits for the writer thread to write the entries collected so far, so that a header can
+	 * be written to the file directly by the calling thread.
+	 */
+	public void waitForWriter() {
+		if (!closed)
+			this.send(NONE, true);
+	}
+
+	private static Batch getBatch() {
+		Batch ret = freeBatches.poll();
+		if (ret == null)
+			ret = new Batch();
+		return ret;
+	}
+
+	private void send(int action, boolean wait) {
+		if (batch == null) {
+			if (action == NONE && !wait)
+				return;
+			batch = getBatch();
+		}
+
+		Batch b = batch;
+		batch = null;
+		b.writer = writer;
+		b.action = action;
+		CountDownLatch done = wait ? new CountDownLatch(1) : null;
+		b.done = done;
+
+		startWriter();
+		boolean interrupted = false;
+		while (true) {
+			try {
+				fullBatches.put(b);
+				break;
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		// The batch is returned to the free list once it has been written
+		while (done != null) {
+			try {
+				done.await();
+				break;
+			}
+			catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private static synchronized void startWriter() {
+		if (writerThread != null)
+			return;
+
+		writerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeBatches();
+			}
+		}, "LogWriter");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * Formats and writes the batches passed by the simulation thread.
+	 */
+	private static void writeBatches() {
+		while (true) {
+			Batch b;
+			try {
+				b = fullBatches.take();
+			}
+			catch (InterruptedException e) {
+				continue;
+			}
+
+			try {
+				for (int i = 0; i < b.size; i++) {
+					switch (b.types[i]) {
+					case ENTRY:
+						b.writer.newRow(b.values[i]);
+						break;
+					case VALUE:
+						b.writer.addValue(b.values[i], -1);
+						break;
+					case FIXED:
+						b.writer.addValue(b.values[i], b.precisions[i]);
+						break;
+					case STRING:
+						b.writer.addString(b.strings[i]);
+						break;
+					}
+				}
+
+				if (b.action == FLUSH)
+					b.writer.flush();
+				else if (b.action == CLOSE)
+					b.writer.close();
+			}
+			catch (Throwable e) {
+				InputAgent.logMessage("Error writing log file: %s", e.getMessage());
+			}
+
+			CountDownLatch done = b.done;
+			Arrays.fill(b.strings, 0, b.size, null);
+			b.size = 0;
+			b.writer = null;
+			b.done = null;
+			freeBatches.offer(b);
+
+			if (done != null)
+				done.countDown();
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+/**
+ * Writes the entries collected by a LogBuffer to a log file. The methods are called by the
+ * LogBuffer's writer thread.
+ */
+public interface LogWriter {
+	/**
+	 * Starts a new row with the specified number, normally the simulation time.
+	 */
+	public void newRow(double val);
+
+	/**
+	 * Adds a number to the present row.
+	 * @param val - number to be added
+	 * @param precision - number of decimal places to show, or -1 for the format used by "%s"
+	 */
+	public void addValue(double val, int precision);
+
+	/**
+	 * Adds a string to the present row.
+	 */
+	public void addString(String str);
+
+	public void flush();
+
+	public void close();
+}
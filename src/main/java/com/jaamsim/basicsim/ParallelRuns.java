@@ -0,0 +1,317 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+import com.jaamsim.RunControlObjects.SequentialSampler;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.ui.GUIFrame;
+import com.jaamsim.ui.LogBox;
+
+/**
+ * Executes the runs from StartingRunNumber to EndingRunNumber using several worker processes.
+ * <p>
+ * The model's state is held in static fields, so each worker is a separate JVM that loads
+ * the same configuration file and executes a contiguous block of runs. Each worker writes
+ * its outputs under its own run name. The outputs are then merged in run number order so
+ * that the files are the same as those produced by executing the runs one after another.
+ */
+public class ParallelRuns {
+
+	private static final String WORKER_SUFFIX = "-w";
+
+	private ParallelRuns() {}
+
+	/**
+	 * Returns true if the loaded model can have its runs executed in parallel.
+	 * @param numWorkers - number of worker processes requested.
+	 */
+	public static boolean isParallel(int numWorkers) {
+		if (numWorkers <= 1 || !Simulation.isMultipleRuns())
+			return false;
+
+		// A SequentialSampler accumulates its statistics from one run to the next
+		for (SequentialSampler samp : Entity.getClonesOfIterator(SequentialSampler.class)) {
+			LogBox.format("Runs cannot be executed in parallel with SequentialSampler: %s", samp);
+			return false;
+		}
+
+		// The event trace for the runs is verified from start to finish
+		if (Simulation.verifyEvents()) {
+			LogBox.format("Runs cannot be executed in parallel with VerifyEvents");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the suffix added to the run name for the outputs from the specified worker.
+	 * @param worker - index of the worker process.
+	 */
+	public static String getRunNameSuffix(int worker) {
+		return WORKER_SUFFIX + worker;
+	}
+
+	/**
+	 * Returns the first run number to be executed by the specified worker.
+	 * @param start - first run number for the model.
+	 * @param end - last run number for the model.
+	 * @param numWorkers - number of worker processes.
+	 * @param worker - index of the worker process.
+	 */
+	static int getFirstRun(int start, int end, int numWorkers, int worker) {
+		long numRuns = end - start + 1;
+		return start + (int)(worker*numRuns/numWorkers);
+	}
+
+	/**
+	 * Executes the runs for the loaded model and merges their outputs.
+	 * @param numWorkers - maximum number of worker processes.
+	 * @return true if every worker completed normally.
+	 */
+	public static boolean execute(int numWorkers) {
+		int start = Simulation.getStartingRunNumber();
+		int end = Simulation.getEndingRunNumber();
+		int n = Math.min(numWorkers, end - start + 1);
+		File cfg = InputAgent.getConfigFile();
+		String runName = InputAgent.getRunName();
+
+		// The input trace file for the parent process is no longer needed
+		InputAgent.closeLogFile();
+
+		LogBox.format("Executing runs %d to %d using %d processes", start, end, n);
+		long startMillis = System.currentTimeMillis();
+
+		// Start the workers
+		ArrayList<Process> procs = new ArrayList<>(n);
+		try {
+			for (int i = 0; i < n; i++) {
+				int first = getFirstRun(start, end, n, i);
+				int last = getFirstRun(start, end, n, i + 1) - 1;
+				ProcessBuilder pb = new ProcessBuilder(getWorkerCommand(cfg, i, first, last));
+				pb.directory(cfg.getParentFile());
+				pb.inheritIO();
+				procs.add(pb.start());
+			}
+		}
+		catch (IOException e) {
+			LogBox.format("Unable to start a worker process: %s", e.getMessage());
+			for (Process p : procs)
+				p.destroy();
+			return false;
+		}
+
+		// Wait for the workers to finish
+		boolean ret = true;
+		for (int i = 0; i < procs.size(); i++) {
+			try {
+				int code = procs.get(i).waitFor();
+				if (code != 0) {
+					LogBox.format("Worker process %d exited with code %d", i, code);
+					ret = false;
+				}
+			}
+			catch (InterruptedException e) {
+				for (Process p : procs)
+					p.destroy();
+				return false;
+			}
+		}
+
+		// Merge the outputs in run number order
+		try {
+			File reportDir = new File(InputAgent.getReportFileName("")).getAbsoluteFile();
+			mergeOutputs(reportDir, runName, n);
+			if (!reportDir.equals(cfg.getParentFile().getAbsoluteFile()))
+				mergeOutputs(cfg.getParentFile(), runName, n);
+		}
+		catch (IOException e) {
+			LogBox.format("Unable to merge the outputs from the worker processes: %s", e.getMessage());
+			return false;
+		}
+
+		LogBox.format("Completed runs %d to %d in %.3f seconds", start, end,
+				(System.currentTimeMillis() - startMillis)/1000.0d);
+		return ret;
+	}
+
+	private static ArrayList<String> getWorkerCommand(File cfg, int worker, int first, int last) {
+		ArrayList<String> cmd = new ArrayList<>();
+		cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+		cmd.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		cmd.add("-cp");
+		cmd.add(System.getProperty("java.class.path"));
+		cmd.add(GUIFrame.class.getName());
+		cmd.add(cfg.getAbsolutePath());
+		cmd.add("-h");
+		if (EventManager.isVirtualThreads())
+			cmd.add("-vt");
+		cmd.add("-worker");
+		cmd.add(String.valueOf(worker));
+		cmd.add(String.valueOf(first));
+		cmd.add(String.valueOf(last));
+		return cmd;
+	}
+
+	/**
+	 * Combines the files written by each worker into the file that would have been written
+	 * had the runs been executed sequentially.
+	 */
+	static void mergeOutputs(File dir, String runName, int numWorkers) throws IOException {
+		HashSet<File> merged = new HashSet<>();
+		LinkedHashMap<File, ArrayList<File>> traces = new LinkedHashMap<>();
+		for (int i = 0; i < numWorkers; i++) {
+			String prefix = runName + getRunNameSuffix(i);
+			File[] files = dir.listFiles();
+			if (files == null)
+				return;
+
+			for (File f : files) {
+				String name = f.getName();
+				if (!name.startsWith(prefix) || name.length() == prefix.length())
+					continue;
+
+				char c = name.charAt(prefix.length());
+				if (c != '.' && c != '-')
+					continue;
+
+				File target = new File(dir, runName + name.substring(prefix.length()));
+
+				// The event traces are merged once the trace from every worker has been found
+				if (name.endsWith(".evb")) {
+					ArrayList<File> list = traces.get(target);
+					if (list == null) {
+						list = new ArrayList<>();
+						traces.put(target, list);
+					}
+					list.add(f);
+					continue;
+				}
+
+				// The first worker to write a file replaces any previous version
+				if (merged.add(target)) {
+					Files.move(f.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+					continue;
+				}
+
+				// The input report and the input trace are identical for every worker
+				if (name.endsWith(".inp") || name.equals(prefix + ".log")) {
+					Files.delete(f.toPath());
+					continue;
+				}
+
+				// Each worker writes the two header lines for the run outputs
+				if (name.endsWith(".dat")) {
+					appendFile(f, target, 2, null);
+				}
+				// Each binary log starts with the file signature, and its tables describe themselves
+				else if (name.endsWith(".jlog")) {
+					appendFile(f, target, 0, ColumnarLogWriter.MAGIC);
+				}
+				else {
+					appendFile(f, target, 0, null);
+				}
+				Files.delete(f.toPath());
+			}
+		}
+
+		for (Entry<File, ArrayList<File>> each : traces.entrySet()) {
+			mergeTraces(each.getValue(), each.getKey());
+		}
+	}
+
+	/**
+	 * Writes the operations from the event traces in the specified order to a single trace.
+	 * Each trace numbers its strings from zero and stores each tick as the change from the
+	 * previous operation in that trace, so the operations are decoded and recorded again
+	 * rather than appended. The event that ends each worker's last run is completed as it
+	 * would have been had the next run followed it.
+	 * @param srcs - event trace from each worker
+	 * @param target - merged event trace
+	 * @throws IOException if a trace cannot be read
+	 */
+	private static void mergeTraces(ArrayList<File> srcs, File target) throws IOException {
+		EventRecorder rec = new EventRecorder(target.getPath());
+		try {
+			for (int i = 0; i < srcs.size(); i++) {
+				EventTraceReader reader = new EventTraceReader(new FileInputStream(srcs.get(i)));
+				try {
+					reader.copyTo(rec, i < srcs.size() - 1);
+				}
+				finally {
+					reader.close();
+				}
+			}
+		}
+		finally {
+			rec.close();
+		}
+
+		for (File f : srcs) {
+			Files.delete(f.toPath());
+		}
+	}
+
+	/**
+	 * Appends the contents of one file to another.
+	 * @param src - file to be appended
+	 * @param target - file to be extended
+	 * @param skipLines - number of header lines in the source that are not copied
+	 * @param magic - signature at the start of the source that is not copied, or null
+	 * @throws IOException if the files cannot be read or written, or the signature is missing
+	 */
+	private static void appendFile(File src, File target, int skipLines, byte[] magic) throws IOException {
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(src.toPath()));
+		     OutputStream out = Files.newOutputStream(target.toPath(), StandardOpenOption.APPEND)) {
+			if (magic != null) {
+				for (byte b : magic) {
+					if (in.read() != b)
+						throw new IOException("Unexpected file format: " + src.getName());
+				}
+			}
+
+			while (skipLines > 0) {
+				int b = in.read();
+				if (b == -1)
+					return;
+				if (b == '\n')
+					skipLines--;
+			}
+
+			byte[] buf = new byte[8192];
+			int len;
+			while ((len = in.read(buf)) > 0) {
+				out.write(buf, 0, len);
+			}
+		}
+	}
+}
@@ -25,14 +25,17 @@ import java.util.Calendar;
 import javax.swing.JFrame;
 
 import com.jaamsim.Samples.SampleConstant;
+import com.jaamsim.Samples.SampleExpression;
 import com.jaamsim.Samples.SampleInput;
 import com.jaamsim.StringProviders.StringProvListInput;
 import com.jaamsim.datatypes.IntegerVector;
 import com.jaamsim.events.Conditional;
 import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventManager.EventListType;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.DirInput;
 import com.jaamsim.input.EntityListInput;
+import com.jaamsim.input.EnumInput;
 import com.jaamsim.input.Input;
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.IntegerListInput;
@@ -134,6 +137,14 @@ public class Simulation extends Entity {
 	         exampleList = {"1e-6 s"})
 	private static final ValueInput tickLengthInput;
 
+	@Keyword(description = "The data structure used to hold the future events. "
+	                     + "RED_BLACK_TREE is suitable for most models. "
+	                     + "LADDER_QUEUE can be faster for models with a very large number of "
+	                     + "scheduled events. The events are executed in the same order for "
+	                     + "either choice.",
+	         exampleList = {"LADDER_QUEUE"})
+	private static final EnumInput<EventListType> eventListInput;
+
 	// Multiple Runs tab
 	@Keyword(description = "Defines the number of run indices and the maximum value N for each "
 	                     + "index. When making multiple runs, each index will be iterated from "
@@ -247,9 +258,13 @@ public class Simulation extends Entity {
 	private static double startTime; // simulation time (seconds) for the start of the run (not necessarily zero)
 	private static double endTime;   // simulation time (seconds) for the end of the run
 	private static int runNumber;    // labels each run when multiple runs are being made
+	private static int firstRun;     // first run to execute, or zero to start at StartingRunNumber
+	private static int lastRun;      // last run to execute, or zero to end at EndingRunNumber
 	private static IntegerVector runIndexList;
 
 	private static Simulation myInstance;
+	private static EventRecorder eventRecorder;  // writes the event trace file, if required
+	private static EventManager eventManager;    // event manager for the present run
 
 	private static String modelName = "JaamSim";
 
@@ -289,6 +304,9 @@ public class Simulation extends Entity {
 		tickLengthInput.setUnitType(TimeUnit.class);
 		tickLengthInput.setValidRange(1e-9d, 5.0d);
 
+		eventListInput = new EnumInput<>(EventListType.class, "EventList", "Key Inputs",
+				EventListType.RED_BLACK_TREE);
+
 		// Multiple Runs tab
 		IntegerVector defRangeList = new IntegerVector();
 		defRangeList.add(1);
@@ -392,6 +410,7 @@ public class Simulation extends Entity {
 		this.addInput(unitTypeList);
 		this.addInput(runOutputList);
 		this.addInput(tickLengthInput);
+		this.addInput(eventListInput);
 
 		// Multiple Runs tab
 		this.addInput(runIndexDefinitionList);
@@ -584,8 +603,8 @@ public class Simulation extends Entity {
 		InputAgent.closeLogFile();
 
 		// Kill all entities except simulation
-		while(Entity.getAll().size() > 0) {
-			Entity ent = Entity.getAll().get(Entity.getAll().size()-1);
+		while(Entity.getLastEntity() != null) {
+			Entity ent = Entity.getLastEntity();
 			ent.kill();
 		}
 
@@ -618,16 +637,19 @@ public class Simulation extends Entity {
 		}
 
 		InputAgent.prepareReportDirectory();
+		eventManager = evt;
 		evt.clear();
+		evt.setEventListType(eventListInput.getValue());
 		evt.setTraceListener(null);
+		Simulation.closeEventRecorder();
 
 		if( Simulation.traceEvents() ) {
-			String evtName = InputAgent.getConfigFile().getParentFile() + File.separator + InputAgent.getRunName() + ".evt";
-			EventRecorder rec = new EventRecorder(evtName);
-			evt.setTraceListener(rec);
+			String evtName = InputAgent.getConfigFile().getParentFile() + File.separator + InputAgent.getRunName() + ".evb";
+			eventRecorder = new EventRecorder(evtName);
+			evt.setTraceListener(eventRecorder);
 		}
 		else if( Simulation.verifyEvents() ) {
-			String evtName = InputAgent.getConfigFile().getParentFile() + File.separator + InputAgent.getRunName() + ".evt";
+			String evtName = InputAgent.getConfigFile().getParentFile() + File.separator + InputAgent.getRunName() + ".evb";
 			EventTracer trc = new EventTracer(evtName);
 			evt.setTraceListener(trc);
 		}
@@ -640,7 +662,10 @@ public class Simulation extends Entity {
 		startTime = startTimeInput.getValue();
 		endTime = startTime + Simulation.getInitializationTime() + Simulation.getRunDuration();
 
-		Simulation.setRunNumber(startingRunNumber.getValue());
+		if (firstRun > 0)
+			Simulation.setRunNumber(firstRun);
+		else
+			Simulation.setRunNumber(startingRunNumber.getValue());
 		Simulation.startRun(evt);
 	}
 
@@ -698,6 +723,7 @@ public class Simulation extends Entity {
 		// Close warning/error trace file
 		LogBox.logLine("Made it to do end at");
 		InputAgent.closeLogFile();
+		Simulation.closeEventRecorder();
 
 		// Always terminate the run when in batch mode
 		if (InputAgent.getBatch() || exitAtStop.getValue())
@@ -714,6 +740,7 @@ public class Simulation extends Entity {
 
 		// Stop the present simulation run
 		Simulation.stopRun(evt);
+		Simulation.closeEventRecorder();
 
 		// Reset the run number and run indices
 		Simulation.setRunNumber(startingRunNumber.getValue());
@@ -722,6 +749,16 @@ public class Simulation extends Entity {
 		InputAgent.stop();
 	}
 
+	/**
+	 * Writes the remaining records to the event trace file and closes it.
+	 */
+	private static void closeEventRecorder() {
+		if (eventRecorder == null)
+			return;
+		eventRecorder.close();
+		eventRecorder = null;
+	}
+
 	/**
 	 * Stops the present simulation run when multiple runs are to be executed.
 	 * @param evt - EventManager for the run.
@@ -733,12 +770,9 @@ public class Simulation extends Entity {
 		evt.clear();
 
 		// Destroy the entities that were generated during the run
-		for (int i = 0; i < Entity.getAll().size();) {
-			Entity ent = Entity.getAll().get(i);
+		for (Entity ent : Entity.getClonesOfIterator(Entity.class)) {
 			if (ent.testFlag(Entity.FLAG_GENERATED))
 				ent.kill();
-			else
-				i++;
 		}
 
 		// Re-initialise the model
@@ -847,6 +881,11 @@ public class Simulation extends Entity {
 			double simTime = EventManager.simSeconds();
 			return pauseConditionInput.getValue().getNextSample(simTime) != 0.0d;
 		}
+
+		@Override
+		public boolean isTracked() {
+			return SampleExpression.isTracked(pauseConditionInput.getValue());
+		}
 	}
 	private final Conditional pauseCondition = new PauseConditional();
 
@@ -1029,9 +1068,30 @@ public class Simulation extends Entity {
 	}
 
 	public static boolean isLastRun() {
+		if (lastRun > 0)
+			return runNumber >= lastRun;
 		return runNumber >= endingRunNumber.getValue();
 	}
 
+	public static int getStartingRunNumber() {
+		return startingRunNumber.getValue();
+	}
+
+	public static int getEndingRunNumber() {
+		return endingRunNumber.getValue();
+	}
+
+	/**
+	 * Restricts the runs that are executed to a subset of the runs from StartingRunNumber to
+	 * EndingRunNumber. Used when the runs are divided between several processes.
+	 * @param first - first run number to execute.
+	 * @param last - last run number to execute.
+	 */
+	public static void setRunRange(int first, int last) {
+		firstRun = first;
+		lastRun = last;
+	}
+
 	@Output(name = "Software Name",
 	 description = "The licensed name for the simulation software.",
 	  reportable = true,
@@ -1115,4 +1175,37 @@ public class Simulation extends Entity {
 		return simTime;
 	}
 
+	@Output(name = "RealTimeLatenessAverage",
+	 description = "The average delay between the wall-clock time at which each event was due "
+	             + "to be executed in real-time mode and the time at which it was executed.",
+	    unitType = TimeUnit.class,
+	    sequence = 9)
+	public double getRealTimeLatenessAverage(double simTime) {
+		if (eventManager == null)
+			return 0.0d;
+		return eventManager.getRealTimeLatenessAverage();
+	}
+
+	@Output(name = "RealTimeLatenessMaximum",
+	 description = "The largest delay between the wall-clock time at which an event was due "
+	             + "to be executed in real-time mode and the time at which it was executed.",
+	    unitType = TimeUnit.class,
+	    sequence = 10)
+	public double getRealTimeLatenessMaximum(double simTime) {
+		if (eventManager == null)
+			return 0.0d;
+		return eventManager.getRealTimeLatenessMaximum();
+	}
+
+	@Output(name = "RealTimeLateCount",
+	 description = "The number of events executed in real-time mode that were more than one "
+	             + "millisecond late.",
+	    unitType = DimensionlessUnit.class,
+	    sequence = 11)
+	public long getRealTimeLateCount(double simTime) {
+		if (eventManager == null)
+			return 0L;
+		return eventManager.getRealTimeLateCount();
+	}
+
 }
@@ -0,0 +1,65 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+/**
+ * Writes log entries to a tab-delimited text file, with each row on a new line.
+ */
+public class TextLogWriter implements LogWriter {
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	private final FileEntity file;
+
+	public TextLogWriter(FileEntity f) {
+		file = f;
+	}
+
+	public FileEntity getFile() {
+		return file;
+	}
+
+	@Override
+	public void newRow(double val) {
+		file.write(LINE_SEPARATOR);
+		file.write(Double.toString(val));
+	}
+
+	@Override
+	public void addValue(double val, int precision) {
+		file.write("\t");
+		if (precision < 0)
+			file.write(Double.toString(val));
+		else
+			file.write(String.format("%." + precision + "f", val));
+	}
+
+	@Override
+	public void addString(String str) {
+		file.write("\t");
+		file.write(String.valueOf(str));
+	}
+
+	@Override
+	public void flush() {
+		file.flush();
+	}
+
+	@Override
+	public void close() {
+		file.close();
+	}
+}
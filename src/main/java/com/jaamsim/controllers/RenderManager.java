@@ -38,6 +38,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.JMenuItem;
@@ -99,6 +101,7 @@ import com.jaamsim.ui.View;
 public class RenderManager implements DragSourceListener {
 	private final static int EXCEPTION_STACK_THRESHOLD = 10; // The number of recoverable exceptions until a stack trace is output
 	private final static int EXCEPTION_PRINT_RATE = 30; // The number of total exceptions until the overall log is printed
+	private final static int GATHER_CHUNK_SIZE = 256; // The number of entities whose proxies are collected by each gather task
 
 	/**
 	 * Default plane used for Mouse click intersections.
@@ -131,6 +134,9 @@ public class RenderManager implements DragSourceListener {
 
 	private final ExceptionLogger exceptionLogger;
 
+	// Threads used to collect the render proxies for each frame
+	private final ForkJoinPool gatherPool = new ForkJoinPool();
+
 	private final HashMap<Integer, CameraControl> windowControls = new HashMap<>();
 	private final HashMap<Integer, View> windowToViewMap= new HashMap<>();
 	private int activeWindowID = -1;
@@ -367,23 +373,10 @@ public class RenderManager implements DragSourceListener {
 
 				long startNanos = System.nanoTime();
 
-				ArrayList<DisplayModelBinding> selectedBindings = new ArrayList<>();
-
 				// Update all graphical entities in the simulation
-				final ArrayList<? extends Entity> allEnts = Entity.getAll();
-				for (int i = 0; i < allEnts.size(); i++) {
-					DisplayEntity de;
-					try {
-						Entity e = allEnts.get(i);
-						if (e instanceof DisplayEntity)
-							de = (DisplayEntity)e;
-						else
-							continue;
-					}
-					catch (IndexOutOfBoundsException e) {
-						break;
-					}
-
+				ArrayList<DisplayEntity> entList = new ArrayList<>();
+				for (DisplayEntity de : Entity.getClonesOfIterator(DisplayEntity.class)) {
+					entList.add(de);
 					try {
 						de.updateGraphics(renderTime);
 					}
@@ -395,32 +388,28 @@ public class RenderManager implements DragSourceListener {
 
 				long updateNanos = System.nanoTime();
 
-				int totalBindings = 0;
-				for (int i = 0; i < allEnts.size(); i++) {
-					DisplayEntity de;
-					try {
-						Entity e = allEnts.get(i);
-						if (e instanceof DisplayEntity)
-							de = (DisplayEntity)e;
-						else
-							continue;
-					}
-					catch (IndexOutOfBoundsException e) {
-						break;
-					}
+				// Collect the proxies for each chunk of entities on the gather threads
+				int numChunks = (entList.size() + GATHER_CHUNK_SIZE - 1) / GATHER_CHUNK_SIZE;
+				GatherChunk[] chunks = new GatherChunk[numChunks];
+				for (int i = 0; i < numChunks; i++) {
+					int start = i * GATHER_CHUNK_SIZE;
+					int end = Math.min(start + GATHER_CHUNK_SIZE, entList.size());
+					chunks[i] = new GatherChunk(entList.subList(start, end), renderTime, selectedEntity);
+				}
+				if (numChunks == 1)
+					chunks[0].gather();
+				else if (numChunks > 1)
+					gatherPool.invoke(new GatherTask(chunks, 0, numChunks));
 
-					for (DisplayModelBinding binding : de.getDisplayBindings()) {
-						try {
-							totalBindings++;
-							binding.collectProxies(renderTime, cachedScene);
-							if (binding.isBoundTo(selectedEntity)) {
-								selectedBindings.add(binding);
-							}
-						} catch (Throwable t) {
-							// Log the exception in the exception list
-							logException(t);
-						}
-					}
+				// Merge the proxies in entity order so that the drawing order is unchanged
+				int totalBindings = 0;
+				long chunkNanos = 0;
+				ArrayList<DisplayModelBinding> selectedBindings = new ArrayList<>();
+				for (GatherChunk chunk : chunks) {
+					cachedScene.addAll(chunk.proxies);
+					selectedBindings.addAll(chunk.selectedBindings);
+					totalBindings += chunk.numBindings;
+					chunkNanos += chunk.nanos;
 				}
 
 				// Collect selection proxies second so they always appear on top
@@ -448,7 +437,13 @@ public class RenderManager implements DragSourceListener {
 				double gatherMS = (endNanos - updateNanos) / 1000000.0;
 				double updateMS = (updateNanos - startNanos) / 1000000.0;
 
-				String timeString = "Gather time (ms): " + gatherMS + " Update time (ms): " + updateMS;
+				// Speed-up is the time the gather tasks would have taken on a single thread
+				// divided by the elapsed time for the gather phase
+				int numThreads = numChunks > 1 ? Math.min(numChunks, gatherPool.getParallelism()) : 1;
+				double speedUp = endNanos > updateNanos ? (double)chunkNanos / (endNanos - updateNanos) : 1.0d;
+
+				String timeString = "Gather time (ms): " + gatherMS + " Update time (ms): " + updateMS +
+				                    String.format(" Gather threads: %d Speed-up: %.2f", numThreads, speedUp);
 
 				// Do some picking debug
 				ArrayList<Integer> windowIDs = renderer.getOpenWindowIDs();
@@ -871,15 +866,82 @@ public class RenderManager implements DragSourceListener {
 	}
 
 	private void logException(Throwable t) {
-		exceptionLogger.logException(t);
+		// Exceptions can be logged by several gather threads at once
+		synchronized (exceptionLogger) {
+			exceptionLogger.logException(t);
 
-		numberOfExceptions++;
+			numberOfExceptions++;
 
-		// Only print the exception log periodically (this can get a bit spammy)
-		if (numberOfExceptions % EXCEPTION_PRINT_RATE == 0) {
-			LogBox.renderLog("Recoverable Exceptions from RenderManager: ");
-			exceptionLogger.printExceptionLog();
-			LogBox.renderLog("");
+			// Only print the exception log periodically (this can get a bit spammy)
+			if (numberOfExceptions % EXCEPTION_PRINT_RATE == 0) {
+				LogBox.renderLog("Recoverable Exceptions from RenderManager: ");
+				exceptionLogger.printExceptionLog();
+				LogBox.renderLog("");
+			}
+		}
+	}
+
+	/**
+	 * Collects the render proxies for a contiguous range of the displayed entities.
+	 */
+	private class GatherChunk {
+		final List<DisplayEntity> entList;
+		final double renderTime;
+		final DisplayEntity selected;
+
+		final ArrayList<RenderProxy> proxies = new ArrayList<>();
+		final ArrayList<DisplayModelBinding> selectedBindings = new ArrayList<>();
+		int numBindings;
+		long nanos;
+
+		GatherChunk(List<DisplayEntity> ents, double time, DisplayEntity sel) {
+			entList = ents;
+			renderTime = time;
+			selected = sel;
+		}
+
+		void gather() {
+			long startNanos = System.nanoTime();
+			for (DisplayEntity de : entList) {
+				for (DisplayModelBinding binding : de.getDisplayBindings()) {
+					try {
+						numBindings++;
+						binding.collectRetainedProxies(renderTime, proxies);
+						if (binding.isBoundTo(selected)) {
+							selectedBindings.add(binding);
+						}
+					} catch (Throwable t) {
+						// Log the exception in the exception list
+						logException(t);
+					}
+				}
+			}
+			nanos = System.nanoTime() - startNanos;
+		}
+	}
+
+	/**
+	 * Fork/join task that splits a range of chunks in half until each task has a single chunk.
+	 */
+	private static class GatherTask extends RecursiveAction {
+		final GatherChunk[] chunks;
+		final int start;
+		final int end;
+
+		GatherTask(GatherChunk[] c, int s, int e) {
+			chunks = c;
+			start = s;
+			end = e;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start == 1) {
+				chunks[start].gather();
+				return;
+			}
+			int mid = (start + end) >>> 1;
+			invokeAll(new GatherTask(chunks, start, mid), new GatherTask(chunks, mid, end));
 		}
 	}
 
@@ -1818,14 +1880,8 @@ public class RenderManager implements DragSourceListener {
 	}
 
 	private void addLinkDisplays(ArrayList<RenderProxy> scene) {
-		ArrayList<? extends Entity> allEnts = Entity.getAll();
-
-		for (int i = 0; i < allEnts.size(); i++) {
+		for (Entity e : Entity.getClonesOfIterator(Entity.class, LinkDisplayable.class)) {
 			try {
-				Entity e = allEnts.get(i);
-				if (!(e instanceof LinkDisplayable))
-					continue;
-
 				LinkDisplayable ld = (LinkDisplayable)e;
 				ArrayList<Entity> dests = ld.getDestinationEntities();
 				// Now scan the destinations
@@ -0,0 +1,343 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.datatypes;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A sorted set that can also return the position of an element and the element at a given
+ * position. It is implemented as an AVL tree in which each node records the size of its
+ * subtree, so that add, remove, contains, indexOf, and get all take O(log n) time.
+ * <p>
+ * The elements are ordered by their natural ordering. Elements that compare as equal are
+ * treated as duplicates.
+ * <p>
+ * Removed nodes are kept on a free list and reused by later insertions, so a set whose size
+ * stays within its previous maximum can be updated without allocating.
+ */
+public class IndexedTreeSet<E extends Comparable<? super E>> extends AbstractSet<E> {
+
+	private static final class Node<E> {
+		E val;
+		Node<E> left;
+		Node<E> right;
+		int height;
+		int size;
+
+		Node(E v) {
+			val = v;
+			height = 1;
+			size = 1;
+		}
+	}
+
+	private Node<E> root;
+	private Node<E> freeNodes;  // removed nodes available for reuse, linked by their right field
+	private int modCount;
+	private boolean found;  // set by delete when the element was present
+
+	public IndexedTreeSet() {}
+
+	public IndexedTreeSet(Collection<? extends E> c) {
+		this.addAll(c);
+	}
+
+	@Override
+	public int size() {
+		return size(root);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		modCount++;
+	}
+
+	@Override
+	public boolean add(E e) {
+		int oldSize = size(root);
+		root = insert(root, e);
+		if (size(root) == oldSize)
+			return false;
+
+		modCount++;
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean remove(Object o) {
+		if (root == null)
+			return false;
+
+		found = false;
+		root = delete(root, (E)o);
+		if (!found)
+			return false;
+
+		modCount++;
+		return true;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean contains(Object o) {
+		return this.indexOf((E)o) >= 0;
+	}
+
+	/**
+	 * Returns the position of the specified element in the set, or -1 if it is not present.
+	 * The first element is at position zero.
+	 * @param e - element to find
+	 * @return position of the element
+	 */
+	public int indexOf(E e) {
+		int ret = 0;
+		Node<E> n = root;
+		while (n != null) {
+			int cmp = e.compareTo(n.val);
+			if (cmp < 0) {
+				n = n.left;
+			}
+			else if (cmp > 0) {
+				ret += size(n.left) + 1;
+				n = n.right;
+			}
+			else {
+				return ret + size(n.left);
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the element at the specified position in the set.
+	 * @param index - position of the element, starting at zero
+	 * @return element at the position
+	 */
+	public E get(int index) {
+		if (index < 0 || index >= size(root))
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size(root));
+
+		Node<E> n = root;
+		while (true) {
+			int leftSize = size(n.left);
+			if (index < leftSize) {
+				n = n.left;
+			}
+			else if (index > leftSize) {
+				index -= leftSize + 1;
+				n = n.right;
+			}
+			else {
+				return n.val;
+			}
+		}
+	}
+
+	/**
+	 * Returns the lowest element in the set.
+	 * @throws NoSuchElementException if the set is empty
+	 */
+	public E first() {
+		if (root == null)
+			throw new NoSuchElementException();
+
+		Node<E> n = root;
+		while (n.left != null)
+			n = n.left;
+		return n.val;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr();
+	}
+
+	private class Itr implements Iterator<E> {
+		private final ArrayList<Node<E>> stack = new ArrayList<>();
+		private final int expectedModCount = modCount;
+
+		Itr() {
+			pushLeft(root);
+		}
+
+		private void pushLeft(Node<E> n) {
+			while (n != null) {
+				stack.add(n);
+				n = n.left;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !stack.isEmpty();
+		}
+
+		@Override
+		public E next() {
+			if (modCount != expectedModCount)
+				throw new ConcurrentModificationException();
+			if (stack.isEmpty())
+				throw new NoSuchElementException();
+
+			Node<E> n = stack.remove(stack.size() - 1);
+			pushLeft(n.right);
+			return n.val;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private Node<E> newNode(E e) {
+		Node<E> n = freeNodes;
+		if (n == null)
+			return new Node<>(e);
+
+		freeNodes = n.right;
+		n.val = e;
+		n.right = null;
+		n.height = 1;
+		n.size = 1;
+		return n;
+	}
+
+	/**
+	 * Adds a node that has been unlinked from the tree to the free list.
+	 * @param n - node to be freed
+	 * @param child - the subtree that replaces the node
+	 * @return the replacement subtree
+	 */
+	private Node<E> freeNode(Node<E> n, Node<E> child) {
+		n.val = null;
+		n.left = null;
+		n.right = freeNodes;
+		freeNodes = n;
+		return child;
+	}
+
+	private static int size(Node<?> n) {
+		return n == null ? 0 : n.size;
+	}
+
+	private static int height(Node<?> n) {
+		return n == null ? 0 : n.height;
+	}
+
+	private static void update(Node<?> n) {
+		n.height = Math.max(height(n.left), height(n.right)) + 1;
+		n.size = size(n.left) + size(n.right) + 1;
+	}
+
+	private static <E> Node<E> rotateRight(Node<E> n) {
+		Node<E> l = n.left;
+		n.left = l.right;
+		l.right = n;
+		update(n);
+		update(l);
+		return l;
+	}
+
+	private static <E> Node<E> rotateLeft(Node<E> n) {
+		Node<E> r = n.right;
+		n.right = r.left;
+		r.left = n;
+		update(n);
+		update(r);
+		return r;
+	}
+
+	private static <E> Node<E> balance(Node<E> n) {
+		update(n);
+		int bal = height(n.left) - height(n.right);
+		if (bal > 1) {
+			if (height(n.left.left) < height(n.left.right))
+				n.left = rotateLeft(n.left);
+			return rotateRight(n);
+		}
+		if (bal < -1) {
+			if (height(n.right.right) < height(n.right.left))
+				n.right = rotateRight(n.right);
+			return rotateLeft(n);
+		}
+		return n;
+	}
+
+	private Node<E> insert(Node<E> n, E e) {
+		if (n == null)
+			return newNode(e);
+
+		int cmp = e.compareTo(n.val);
+		if (cmp < 0)
+			n.left = insert(n.left, e);
+		else if (cmp > 0)
+			n.right = insert(n.right, e);
+		else
+			return n;
+
+		return balance(n);
+	}
+
+	private Node<E> delete(Node<E> n, E e) {
+		if (n == null)
+			return null;
+
+		int cmp = e.compareTo(n.val);
+		if (cmp < 0) {
+			n.left = delete(n.left, e);
+		}
+		else if (cmp > 0) {
+			n.right = delete(n.right, e);
+		}
+		else {
+			found = true;
+			if (n.left == null)
+				return freeNode(n, n.right);
+			if (n.right == null)
+				return freeNode(n, n.left);
+
+			// Replace the element with the lowest element in the right subtree
+			Node<E> min = n.right;
+			while (min.left != null)
+				min = min.left;
+			n.val = min.val;
+			n.right = deleteMin(n.right);
+		}
+		return balance(n);
+	}
+
+	private Node<E> deleteMin(Node<E> n) {
+		if (n.left == null)
+			return freeNode(n, n.right);
+
+		n.left = deleteMin(n.left);
+		return balance(n);
+	}
+}
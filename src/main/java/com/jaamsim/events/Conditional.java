@@ -18,4 +18,14 @@ package com.jaamsim.events;
 
 public abstract class Conditional {
 	public abstract boolean evaluate();
+
+	/**
+	 * Returns true if every value used by evaluate() is read through a ConditionalSource.
+	 * A tracked conditional is re-evaluated only after one of the values it read during
+	 * its last evaluation has changed. Otherwise, the conditional is evaluated every time
+	 * the simulation time is about to advance.
+	 */
+	public boolean isTracked() {
+		return false;
+	}
 }
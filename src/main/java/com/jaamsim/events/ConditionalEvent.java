@@ -16,12 +16,55 @@
  */
 package com.jaamsim.events;
 
+import java.util.ArrayList;
+
 final class ConditionalEvent extends BaseEvent {
 	Conditional c;
+	boolean dirty;     // true if the conditional must be evaluated at the next opportunity
+	boolean polled;    // true if the conditional must be evaluated at every opportunity
+	boolean untracked; // true if the last evaluation read state without a ConditionalSource
+	private ArrayList<ConditionalSource> sources; // state read by the last evaluation
+	ConditionalEvent next; // next event in the EventManager's free list
+
+	ConditionalEvent() {}
 
-	ConditionalEvent(Conditional c, ProcessTarget t, EventHandle hand) {
+	final void init(Conditional cond, ProcessTarget t, EventHandle hand) {
 		this.target = t;
 		this.handle = hand;
-		this.c = c;
+		this.c = cond;
+		dirty = true;
+		polled = !cond.isTracked();
+		untracked = false;
+	}
+
+	/**
+	 * Adds the given source to the state read by this conditional.
+	 * Returns false if the source has already been recorded.
+	 */
+	final boolean addSource(ConditionalSource src) {
+		if (sources == null)
+			sources = new ArrayList<>();
+		else if (sources.contains(src))
+			return false;
+
+		sources.add(src);
+		return true;
+	}
+
+	final void removeSource(ConditionalSource src) {
+		sources.remove(src);
+	}
+
+	/**
+	 * Stops this conditional from being notified of changes to the state it has read.
+	 */
+	final void releaseSources() {
+		if (sources == null)
+			return;
+
+		for (int i = 0; i < sources.size(); i++) {
+			sources.get(i).removeDependent(this);
+		}
+		sources.clear();
 	}
 }
@@ -0,0 +1,95 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.ArrayList;
+
+/**
+ * A ConditionalSource represents a piece of model state that can be read by a
+ * tracked Conditional. Reads of the state made while the EventManager evaluates a
+ * tracked Conditional are recorded, and a change to the state marks the waiting
+ * conditionals that read it for evaluation at the next opportunity.
+ * <p>
+ * A Conditional that reads any state without a ConditionalSource must call
+ * recordUntracked() so that it continues to be evaluated every time the simulation
+ * time is about to advance.
+ */
+public final class ConditionalSource {
+	private ArrayList<ConditionalEvent> dependents;
+
+	public ConditionalSource() {}
+
+	/**
+	 * Returns true if the present thread is evaluating a tracked Conditional.
+	 */
+	public static final boolean isRecording() {
+		Process cur = Process.currentOrNull();
+		return cur != null && cur.getRecording() != null;
+	}
+
+	/**
+	 * Records that the state has been read by the Conditional being evaluated, if any.
+	 */
+	public final void recordRead() {
+		Process cur = Process.currentOrNull();
+		if (cur == null)
+			return;
+
+		ConditionalEvent rec = cur.getRecording();
+		if (rec == null || !rec.addSource(this))
+			return;
+
+		if (dependents == null)
+			dependents = new ArrayList<>();
+		dependents.add(rec);
+	}
+
+	/**
+	 * Records that the Conditional being evaluated, if any, has read state that
+	 * does not have a ConditionalSource.
+	 */
+	public static final void recordUntracked() {
+		Process cur = Process.currentOrNull();
+		if (cur == null)
+			return;
+
+		ConditionalEvent rec = cur.getRecording();
+		if (rec != null)
+			rec.untracked = true;
+	}
+
+	/**
+	 * Marks every waiting Conditional that has read the state for evaluation at the
+	 * next opportunity. Must be called whenever the value of the state changes.
+	 */
+	public final void notifyChanged() {
+		if (dependents == null || dependents.isEmpty())
+			return;
+
+		for (int i = 0; i < dependents.size(); i++) {
+			ConditionalEvent each = dependents.get(i);
+			each.dirty = true;
+			each.removeSource(this);
+		}
+		dependents.clear();
+	}
+
+	final void removeDependent(ConditionalEvent evt) {
+		if (dependents != null)
+			dependents.remove(evt);
+	}
+}
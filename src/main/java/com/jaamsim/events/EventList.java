@@ -0,0 +1,51 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+/**
+ * The future event list used by an EventManager. The events are held in EventNodes, one for
+ * each combination of schedule tick and priority, and the nodes are returned in order of
+ * increasing tick and then increasing priority.
+ */
+interface EventList {
+
+	/**
+	 * Returns the node with the lowest tick and priority, or null if the list is empty.
+	 */
+	EventNode getNextNode();
+
+	/**
+	 * Returns the node for the given tick and priority, creating it if necessary.
+	 */
+	EventNode createOrFindNode(long schedTick, int priority);
+
+	/**
+	 * Removes the node for the given tick and priority, which must not hold any events.
+	 * @return false if the node was not found.
+	 */
+	boolean removeNode(long schedTick, int priority);
+
+	/**
+	 * Passes each node to the given Runner in order of tick and priority.
+	 */
+	void runOnAllNodes(EventNode.Runner runner);
+
+	/**
+	 * Removes all the nodes.
+	 */
+	void reset();
+}
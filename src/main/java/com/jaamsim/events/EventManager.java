@@ -18,6 +18,8 @@
 package com.jaamsim.events;
 
 import java.util.ArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.ui.EventData;
@@ -43,9 +45,9 @@ import com.jaamsim.ui.EventData;
 public final class EventManager {
 	public final String name;
 
-	private final Object lockObject; // Object used as global lock for synchronization
+	private final ReentrantLock lock; // Global lock for synchronization
 
-	private final EventTree eventTree;
+	private EventList eventList;
 
 	private volatile boolean executeEvents;
 	private boolean processRunning;
@@ -62,8 +64,17 @@ public final class EventManager {
 	private double secsPerTick;    // The length of time in seconds each tick represents
 
 	// Real time execution state
-	private long realTimeTick;    // the simulation tick corresponding to the wall-clock millis value
-	private long realTimeMillis;  // the wall-clock time in millis
+	private static final long DISPLAY_UPDATE_NANOS = 20000000L; // interval between updates to the displayed time
+	private long realTimeTick;    // the simulation tick corresponding to the wall-clock nanos value
+	private long realTimeNanos;   // the wall-clock time in nanos (System.nanoTime)
+	private volatile Thread realTimeThread;  // thread waiting for the next real time event, if any
+	private volatile boolean realTimeWake;   // TRUE if the waiting thread is to re-evaluate its wait
+
+	// Real time lateness statistics
+	private long realTimeCount;        // number of time advances made in real time mode
+	private long realTimeLateCount;    // number of time advances made more than 1 ms late
+	private long realTimeLatenessSum;  // total lateness in nanos
+	private long realTimeLatenessMax;  // maximum lateness in nanos
 
 	private volatile boolean executeRealTime;  // TRUE if the simulation is to be executed in Real Time mode
 	private volatile boolean rebaseRealTime;   // TRUE if the time keeping for Real Time model needs re-basing
@@ -82,7 +93,7 @@ public final class EventManager {
 	public EventManager(String name) {
 		// Basic initialization
 		this.name = name;
-		lockObject = new Object();
+		lock = new ReentrantLock();
 
 		// Initialize and event lists and timekeeping variables
 		currentTick = 0;
@@ -92,7 +103,7 @@ public final class EventManager {
 
 		setTickLength(1e-6d);
 
-		eventTree = new EventTree();
+		eventList = new EventTree();
 		condEvents = new ArrayList<>();
 
 		executeEvents = false;
@@ -104,8 +115,44 @@ public final class EventManager {
 		setErrorListener(null);
 	}
 
+	/**
+	 * The data structures that can be used for the future event list.
+	 */
+	public static enum EventListType {
+		RED_BLACK_TREE,
+		LADDER_QUEUE,
+	}
+
+	/**
+	 * Selects the data structure used for the future event list. Any events that have been
+	 * scheduled are cleared.
+	 */
+	public final void setEventListType(EventListType type) {
+		lock.lock();
+		try {
+			if (type == getEventListType())
+				return;
+
+			clear();
+			if (type == EventListType.LADDER_QUEUE)
+				eventList = new LadderQueue();
+			else
+				eventList = new EventTree();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	public final EventListType getEventListType() {
+		if (eventList instanceof LadderQueue)
+			return EventListType.LADDER_QUEUE;
+		return EventListType.RED_BLACK_TREE;
+	}
+
 	public final void setTimeListener(EventTimeListener l) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			if (l != null)
 				timelistener = l;
 			else
@@ -113,43 +160,60 @@ public final class EventManager {
 
 			timelistener.tickUpdate(currentTick);
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	public final void setErrorListener(EventErrorListener l) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			if (l != null)
 				errListener = l;
 			else
 				errListener = new NoopListener();
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	public final void setTraceListener(EventTraceListener l) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			trcListener = l;
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	public void clear() {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			currentTick = 0;
 			nextTick = 0;
 			targetTick = Long.MAX_VALUE;
 			timelistener.tickUpdate(currentTick);
 			rebaseRealTime = true;
+			clearRealTimeStatistics();
 
-			eventTree.runOnAllNodes(new KillAllEvents());
-			eventTree.reset();
+			eventList.runOnAllNodes(new KillAllEvents());
+			eventList.reset();
 			clearFreeList();
 
 			for (int i = 0; i < condEvents.size(); i++) {
 				condEvents.get(i).target.kill();
+				condEvents.get(i).releaseSources();
 				if (condEvents.get(i).handle != null) {
 					condEvents.get(i).handle.event = null;
 				}
 			}
 			condEvents.clear();
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	private static class KillAllEvents implements EventNode.Runner {
@@ -174,8 +238,7 @@ public final class EventManager {
 			Process p = t.getProcess();
 			if (p != null) {
 				p.setNextProcess(cur);
-				p.wake();
-				threadWait(cur);
+				threadWait(cur, p);
 				return true;
 			}
 
@@ -218,7 +281,8 @@ public final class EventManager {
 	 * for Process objects taken out of the pool.
 	 */
 	final void execute(Process cur, ProcessTarget t) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			// This occurs in the startProcess or interrupt case where we start
 			// a process with a target already assigned
 			if (t != null) {
@@ -234,7 +298,7 @@ public final class EventManager {
 
 			// Loop continuously
 			while (true) {
-				EventNode nextNode = eventTree.getNextNode();
+				EventNode nextNode = eventList.getNextNode();
 				if (nextNode == null ||
 				    currentTick >= targetTick) {
 					executeEvents = false;
@@ -274,7 +338,7 @@ public final class EventManager {
 
 				// If the next event would require us to advance the time, check the
 				// conditonal events
-				if (eventTree.getNextNode().schedTick > nextTick) {
+				if (eventList.getNextNode().schedTick > nextTick) {
 					if (condEvents.size() > 0) {
 						evaluateConditions(cur);
 						if (!executeEvents) continue;
@@ -283,7 +347,7 @@ public final class EventManager {
 					// If a conditional event was satisfied, we will have a new event at the
 					// beginning of the eventStack for the current tick, go back to the
 					// beginning, otherwise fall through to the time-advance
-					nextTick = eventTree.getNextNode().schedTick;
+					nextTick = eventList.getNextNode().schedTick;
 					if (nextTick == currentTick)
 						continue;
 				}
@@ -292,14 +356,22 @@ public final class EventManager {
 				if (executeRealTime) {
 					// Loop until the next event time is reached
 					long realTick = this.calcRealTimeTick();
-					if (realTick < nextTick && realTick < targetTick) {
+					long stopTick = Math.min(nextTick, targetTick);
+					if (realTick < stopTick) {
 						// Update the displayed simulation time
 						currentTick = realTick;
 						timelistener.tickUpdate(currentTick);
-						//Halt the thread for 20ms and then reevaluate the loop
-						try { lockObject.wait(20); } catch( InterruptedException e ) {}
+
+						// Wait until the wall-clock time for the next event, updating the
+						// displayed time periodically if there is a listener
+						long waitNanos = this.calcRealTimeNanos(stopTick) - System.nanoTime();
+						if (!(timelistener instanceof NoopListener))
+							waitNanos = Math.min(waitNanos, DISPLAY_UPDATE_NANOS);
+						this.waitForRealTime(waitNanos);
 						continue;
 					}
+					if (nextTick <= targetTick)
+						this.recordLateness(System.nanoTime() - this.calcRealTimeNanos(nextTick));
 				}
 
 				// advance time
@@ -316,6 +388,9 @@ public final class EventManager {
 				}
 			}
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	public void nextOneEvent() {
@@ -334,7 +409,20 @@ public final class EventManager {
 		try {
 			for (int i = 0; i < condEvents.size();) {
 				ConditionalEvent c = condEvents.get(i);
-				if (c.c.evaluate()) {
+
+				// Skip a tracked conditional if none of the values it read have changed
+				if (!c.dirty) {
+					i++;
+					continue;
+				}
+
+				boolean satisfied;
+				if (c.polled)
+					satisfied = c.c.evaluate();
+				else
+					satisfied = evaluateTracked(cur, c);
+
+				if (satisfied) {
 					condEvents.remove(i);
 					EventNode node = getEventNode(currentTick, 0);
 					Event evt = getEvent();
@@ -348,6 +436,7 @@ public final class EventManager {
 					}
 					if (trcListener != null) trcListener.traceWaitUntilEnded(this, currentTick, c.target);
 					node.addEvent(evt, true);
+					reuseConditionalEvent(c);
 					continue;
 				}
 				i++;
@@ -362,24 +451,144 @@ public final class EventManager {
 		cur.endCallbacks();
 	}
 
+	/**
+	 * Evaluates a tracked conditional while recording the values that it reads.
+	 * If the conditional reads a value that is not tracked, it reverts to being
+	 * evaluated at every opportunity.
+	 */
+	private boolean evaluateTracked(Process cur, ConditionalEvent c) {
+		c.dirty = false;
+		c.untracked = false;
+		cur.setRecording(c);
+		boolean ret;
+		try {
+			ret = c.c.evaluate();
+		}
+		finally {
+			cur.setRecording(null);
+		}
+
+		if (c.untracked) {
+			c.polled = true;
+			c.dirty = true;
+			c.releaseSources();
+		}
+		return ret;
+	}
+
 	/**
 	 * Return the simulation time corresponding the given wall clock time
 	 * @param simTime = the current simulation time used when setting a real-time basis
 	 * @return simulation time in seconds
 	 */
 	private long calcRealTimeTick() {
-		long curMS = System.currentTimeMillis();
+		long curNanos = System.nanoTime();
 		if (rebaseRealTime) {
 			realTimeTick = currentTick;
-			realTimeMillis = curMS;
+			realTimeNanos = curNanos;
 			rebaseRealTime = false;
 		}
 
-		double simElapsedsec = ((curMS - realTimeMillis) * realTimeFactor) / 1000.0d;
+		double simElapsedsec = ((curNanos - realTimeNanos) * realTimeFactor) / 1.0e9d;
 		long simElapsedTicks = secondsToNearestTick(simElapsedsec);
 		return realTimeTick + simElapsedTicks;
 	}
 
+	/**
+	 * Returns the wall-clock time in nanos (System.nanoTime) at which the given simulation
+	 * tick is to be reached in real time mode.
+	 */
+	private long calcRealTimeNanos(long tick) {
+		double simElapsedsec = ticksToSeconds(tick - realTimeTick);
+		double nanos = Math.min(simElapsedsec * 1.0e9d / realTimeFactor, 1.0e18d);
+		return realTimeNanos + (long)nanos;
+	}
+
+	/**
+	 * Parks the calling thread for the given number of nanoseconds, or until woken by
+	 * wakeRealTime(). All holds on the lock are released while the thread is parked.
+	 */
+	private void waitForRealTime(long nanos) {
+		if (nanos <= 0)
+			return;
+
+		int holds = lock.getHoldCount();
+		for (int i = 0; i < holds; i++) {
+			lock.unlock();
+		}
+
+		realTimeThread = Thread.currentThread();
+		if (!realTimeWake)
+			LockSupport.parkNanos(this, nanos);
+		realTimeThread = null;
+		realTimeWake = false;
+
+		for (int i = 0; i < holds; i++) {
+			lock.lock();
+		}
+	}
+
+	/**
+	 * Wakes the thread that is waiting for the next real time event, if any, so that it can
+	 * respond to a change in the execution state.
+	 */
+	private void wakeRealTime() {
+		realTimeWake = true;
+		Thread t = realTimeThread;
+		if (t != null)
+			LockSupport.unpark(t);
+	}
+
+	private void recordLateness(long nanos) {
+		long late = Math.max(0L, nanos);
+		realTimeCount++;
+		realTimeLatenessSum += late;
+		realTimeLatenessMax = Math.max(realTimeLatenessMax, late);
+		if (late > 1000000L)
+			realTimeLateCount++;
+	}
+
+	private void clearRealTimeStatistics() {
+		realTimeCount = 0;
+		realTimeLateCount = 0;
+		realTimeLatenessSum = 0;
+		realTimeLatenessMax = 0;
+	}
+
+	/**
+	 * Returns the number of times the simulation time has been advanced to the next event in
+	 * real time mode.
+	 */
+	public long getRealTimeCount() {
+		return realTimeCount;
+	}
+
+	/**
+	 * Returns the number of times the next event has been reached more than one millisecond
+	 * after its wall-clock time in real time mode.
+	 */
+	public long getRealTimeLateCount() {
+		return realTimeLateCount;
+	}
+
+	/**
+	 * Returns the average time in seconds by which the next event has been reached after its
+	 * wall-clock time in real time mode.
+	 */
+	public double getRealTimeLatenessAverage() {
+		if (realTimeCount == 0)
+			return 0.0d;
+		return realTimeLatenessSum / 1.0e9d / realTimeCount;
+	}
+
+	/**
+	 * Returns the maximum time in seconds by which the next event has been reached after its
+	 * wall-clock time in real time mode.
+	 */
+	public double getRealTimeLatenessMaximum() {
+		return realTimeLatenessMax / 1.0e9d;
+	}
+
 	/**
 	// Pause the current active thread and restart the next thread on the
 	// active thread list. For this case, a future event or conditional event
@@ -387,26 +596,23 @@ public final class EventManager {
 	// eventManager.scheduleWait() and related methods, and by
 	// eventManager.waitUntil().
 	// restorePreviousActiveThread()
-	 * Must hold the lockObject when calling this method.
+	 * Must hold the lock when calling this method.
 	 */
 	private void captureProcess(Process cur) {
 		// if we don't wake a new process, take one from the pool
 		Process next = cur.preCapture();
 		if (next == null) {
 			processRunning = false;
-			Process.processEvents(this);
-		}
-		else {
-			next.wake();
+			next = Process.allocate(this, null, null);
 		}
 
-		threadWait(cur);
+		threadWait(cur, next);
 		cur.postCapture();
 	}
 
 	/**
 	 * Calculate the time for an event taking into account numeric overflow.
-	 * Must hold the lockObject when calling this method
+	 * Must hold the lock when calling this method
 	 */
 	private long calculateEventTime(long waitLength) {
 		// Test for negative duration schedule wait length
@@ -462,10 +668,11 @@ public final class EventManager {
 	 * @param priority the priority of the scheduled event: 1 is the highest priority (default is priority 5)
 	 */
 	private void waitTicks(Process cur, long ticks, int priority, boolean fifo, EventHandle handle) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			cur.checkCallback();
 			long nextEventTime = calculateEventTime(ticks);
-			WaitTarget t = new WaitTarget(cur);
+			WaitTarget t = cur.getWaitTarget();
 			EventNode node = getEventNode(nextEventTime, priority);
 			Event evt = getEvent();
 			evt.node = node;
@@ -485,6 +692,9 @@ public final class EventManager {
 			node.addEvent(evt, fifo);
 			captureProcess(cur);
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	/**
@@ -492,7 +702,7 @@ public final class EventManager {
 	 * insert it.
 	 */
 	private EventNode getEventNode(long tick, int prio) {
-		return eventTree.createOrFindNode(tick, prio);
+		return eventList.createOrFindNode(tick, prio);
 	}
 
 	private Event freeEvents = null;
@@ -506,8 +716,33 @@ public final class EventManager {
 		return new Event();
 	}
 
+	private ConditionalEvent freeCondEvents = null;
+	private ConditionalEvent getConditionalEvent(Conditional cond, ProcessTarget t, EventHandle handle) {
+		ConditionalEvent evt = freeCondEvents;
+		if (evt != null)
+			freeCondEvents = evt.next;
+		else
+			evt = new ConditionalEvent();
+
+		evt.init(cond, t, handle);
+		return evt;
+	}
+
+	/**
+	 * Returns a conditional event that has been removed from condEvents to the free list.
+	 */
+	private void reuseConditionalEvent(ConditionalEvent evt) {
+		evt.releaseSources();
+		evt.c = null;
+		evt.target = null;
+		evt.handle = null;
+		evt.next = freeCondEvents;
+		freeCondEvents = evt;
+	}
+
 	private void clearFreeList() {
 		freeEvents = null;
+		freeCondEvents = null;
 	}
 
 	public static final void waitUntil(Conditional cond, EventHandle handle) {
@@ -521,10 +756,11 @@ public final class EventManager {
 	 * the thread stack.
 	 */
 	private void waitUntil(Process cur, Conditional cond, EventHandle handle) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			cur.checkCallback();
-			WaitTarget t = new WaitTarget(cur);
-			ConditionalEvent evt = new ConditionalEvent(cond, t, handle);
+			WaitTarget t = cur.getWaitTarget();
+			ConditionalEvent evt = getConditionalEvent(cond, t, handle);
 			if (handle != null) {
 				if (handle.isScheduled())
 					throw new ProcessError("Tried to waitUntil using a handle already in use");
@@ -538,6 +774,9 @@ public final class EventManager {
 			}
 			captureProcess(cur);
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	public static final void scheduleUntil(ProcessTarget t, Conditional cond, EventHandle handle) {
@@ -546,9 +785,10 @@ public final class EventManager {
 	}
 
 	private void schedUntil(Process cur, ProcessTarget t, Conditional cond, EventHandle handle) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			cur.checkCallback();
-			ConditionalEvent evt = new ConditionalEvent(cond, t, handle);
+			ConditionalEvent evt = getConditionalEvent(cond, t, handle);
 			if (handle != null) {
 				if (handle.isScheduled())
 					throw new ProcessError("Tried to scheduleUntil using a handle already in use");
@@ -561,6 +801,9 @@ public final class EventManager {
 				cur.endCallbacks();
 			}
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	public static final void startProcess(ProcessTarget t) {
@@ -571,7 +814,8 @@ public final class EventManager {
 	private void start(Process cur, ProcessTarget t) {
 		Process newProcess = Process.allocate(this, cur, t);
 		// Notify the eventManager that a new process has been started
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			cur.checkCallback();
 			if (trcListener != null) {
 				cur.beginCallbacks();
@@ -579,13 +823,15 @@ public final class EventManager {
 				cur.endCallbacks();
 			}
 			// Transfer control to the new process
-			newProcess.wake();
-			threadWait(cur);
+			threadWait(cur, newProcess);
+		}
+		finally {
+			lock.unlock();
 		}
 	}
 
 	/**
-	 * Remove an event from the eventList, must hold the lockObject.
+	 * Remove an event from the eventList, must hold the lock.
 	 * @param idx
 	 * @return
 	 */
@@ -593,7 +839,7 @@ public final class EventManager {
 		EventNode node = evt.node;
 		node.removeEvent(evt);
 		if (node.head == null) {
-			if (!eventTree.removeNode(node.schedTick, node.priority))
+			if (!eventList.removeNode(node.schedTick, node.priority))
 				throw new ProcessError("Tried to remove an eventnode that could not be found");
 		}
 
@@ -619,6 +865,7 @@ public final class EventManager {
 		}
 		else {
 			condEvents.remove(base);
+			reuseConditionalEvent((ConditionalEvent)base);
 		}
 		return t;
 	}
@@ -637,7 +884,8 @@ public final class EventManager {
 	 *	Removes an event from the pending list without executing it.
 	 */
 	private void killEvent(Process cur, EventHandle handle) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			cur.checkCallback();
 
 			// no handle given, or Handle was not scheduled, nothing to do
@@ -653,6 +901,9 @@ public final class EventManager {
 
 			t.kill();
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	private void trcKill(BaseEvent event) {
@@ -679,7 +930,8 @@ public final class EventManager {
 	 *	Removes an event from the pending list and executes it.
 	 */
 	private void interruptEvent(Process cur, EventHandle handle) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			cur.checkCallback();
 
 			// no handle given, or Handle was not scheduled, nothing to do
@@ -697,8 +949,10 @@ public final class EventManager {
 			if (proc == null)
 				proc = Process.allocate(this, cur, t);
 			proc.setNextProcess(cur);
-			proc.wake();
-			threadWait(cur);
+			threadWait(cur, proc);
+		}
+		finally {
+			lock.unlock();
 		}
 	}
 
@@ -717,6 +971,7 @@ public final class EventManager {
 		realTimeFactor = factor;
 		if (useRealTime)
 			rebaseRealTime = true;
+		wakeRealTime();
 	}
 
 	/**
@@ -725,27 +980,29 @@ public final class EventManager {
 	 * onto the inactive thread stack it must be put to sleep to preserve
 	 * program ordering.
 	 * <p>
-	 * The function takes no parameters, it puts the calling thread to sleep.
-	 * This method is NOT static as it requires the use of wait() which cannot
-	 * be called from a static context
+	 * The calling thread must hold the global lock, which may have been acquired
+	 * more than once. All holds are released while the thread is parked and are
+	 * re-acquired before this method returns, mirroring the behaviour of
+	 * Object.wait().
 	 * <p>
-	 * There is a synchronized block of code that will acquire the global lock
-	 * and then wait() the current thread.
+	 * The Process that is to execute next is woken only after the lock has been
+	 * released, so that it does not have to queue for the lock.
+	 * @param cur - the calling Process
+	 * @param next - the Process to wake
 	 */
-	private void threadWait(Process cur) {
-		// Ensure that the thread owns the global thread lock
-		try {
-			/*
-			 * Halt the thread and only wake up by being interrupted.
-			 *
-			 * The infinite loop is _absolutely_ necessary to prevent
-			 * spurious wakeups from waking us early....which causes the
-			 * model to get into an inconsistent state causing crashes.
-			 */
-			while (true) { lockObject.wait(); }
-		}
-		// Catch the exception when the thread is interrupted
-		catch( InterruptedException e ) {}
+	private void threadWait(Process cur, Process next) {
+		int holds = lock.getHoldCount();
+		for (int i = 0; i < holds; i++) {
+			lock.unlock();
+		}
+		next.wake();
+
+		// Halt the thread and only wake up when woken by another Process
+		cur.park();
+
+		for (int i = 0; i < holds; i++) {
+			lock.lock();
+		}
 		if (cur.shouldDie())
 			throw new ThreadKilledException("Thread killed");
 	}
@@ -769,7 +1026,8 @@ public final class EventManager {
 	}
 
 	public void scheduleProcessExternal(long waitLength, int eventPriority, boolean fifo, ProcessTarget t, EventHandle handle) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			long schedTick = calculateEventTime(waitLength);
 			EventNode node = getEventNode(schedTick, eventPriority);
 			Event evt = getEvent();
@@ -788,8 +1046,11 @@ public final class EventManager {
 			// During real-time waits an event can be inserted becoming the next event to execute
 			// If nextTick is not updated, we can fall through the entire time update code and not
 			// execute this event, leading to the state machine becoming broken
-			if (nextTick > eventTree.getNextNode().schedTick)
-				nextTick = eventTree.getNextNode().schedTick;
+			if (nextTick > eventList.getNextNode().schedTick)
+				nextTick = eventList.getNextNode().schedTick;
+		}
+		finally {
+			lock.unlock();
 		}
 	}
 
@@ -854,6 +1115,7 @@ public final class EventManager {
 	 */
 	public void pause() {
 		executeEvents = false;
+		wakeRealTime();
 	}
 
 	/**
@@ -864,15 +1126,20 @@ public final class EventManager {
 	 * from an inconsistent state.
 	 */
 	public void resume(long targetTicks) {
-		synchronized (lockObject) {
+		lock.lock();
+		try {
 			targetTick = targetTicks;
 			rebaseRealTime = true;
+			wakeRealTime();
 			if (executeEvents)
 				return;
 
 			executeEvents = true;
 			Process.processEvents(this);
 		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
@@ -880,13 +1147,31 @@ public final class EventManager {
 		return name;
 	}
 
+	/**
+	 * Selects whether the Processes that execute the model are backed by virtual
+	 * threads or by pooled platform threads. Should be called before the model
+	 * is started. Virtual threads are only used if they are supported by the JVM.
+	 * @param useVirtual - true if virtual threads are to be used
+	 * @return true if virtual threads will be used
+	 */
+	public static final boolean setVirtualThreads(boolean useVirtual) {
+		return Process.setVirtualThreads(useVirtual);
+	}
+
+	/**
+	 * Returns true if the Processes that execute the model are backed by virtual threads.
+	 */
+	public static final boolean isVirtualThreads() {
+		return Process.isVirtualThreads();
+	}
+
 	/**
 	 * Returns whether or not we are currently running in a Process context
 	 * that has a controlling EventManager.
 	 * @return true if we are in a Process context, false otherwise
 	 */
 	public static final boolean hasCurrent() {
-		return (Thread.currentThread() instanceof Process);
+		return Process.hasCurrent();
 	}
 
 	/**
@@ -963,7 +1248,7 @@ public final class EventManager {
 	public ArrayList<EventData> getEventDataList() {
 		// Unsynchronized for use by the Event Viewer
 		EventDataBuilder lb = new EventDataBuilder();
-		eventTree.runOnAllNodes(lb);
+		eventList.runOnAllNodes(lb);
 		return lb.eventDataList;
 	}
 
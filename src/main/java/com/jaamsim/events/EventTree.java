@@ -25,7 +25,7 @@ import java.util.Arrays;
  * @author matt.chudleigh
  *
  */
-class EventTree {
+class EventTree implements EventList {
 
 	private EventNode root = EventNode.nilNode;
 	private EventNode lowest = null;
@@ -50,12 +50,14 @@ class EventTree {
 		scratchPos = 0;
 	}
 
-	EventNode getNextNode() {
+	@Override
+	public EventNode getNextNode() {
 		if (lowest == null) updateLowest();
 		return lowest;
 	}
 
-	final void reset() {
+	@Override
+	public final void reset() {
 		root = EventNode.nilNode;
 		lowest = null;
 		clearFreeList();
@@ -75,7 +77,8 @@ class EventTree {
 		lowest = current;
 	}
 
-	final EventNode createOrFindNode(long schedTick, int priority) {
+	@Override
+	public final EventNode createOrFindNode(long schedTick, int priority) {
 
 		if (root == EventNode.nilNode) {
 			root = getNewNode(schedTick, priority);
@@ -171,7 +174,8 @@ class EventTree {
 
 	}
 
-	final boolean removeNode(long schedTick, int priority) {
+	@Override
+	public final boolean removeNode(long schedTick, int priority) {
 		// First find the node to remove
 		resetScratch();
 		lowest = null;
@@ -337,7 +341,8 @@ class EventTree {
 		}
 	}
 
-	final void runOnAllNodes(EventNode.Runner runner) {
+	@Override
+	public final void runOnAllNodes(EventNode.Runner runner) {
 		runOnNode(root, runner);
 	}
 
@@ -0,0 +1,455 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * LadderQueue is a future event list with amortized O(1) insertion and removal, based on the
+ * Ladder Queue of Tang, Goh and Thng (2005).
+ * <p>
+ * Nodes for distant ticks are added unsorted to the Top list. When they are needed, they are
+ * spread into the buckets of a Rung, and a bucket that holds too many nodes is spread into
+ * the finer buckets of a new Rung below it. The nodes for the nearest ticks are sorted into
+ * the Bottom list, from which they are removed in order.
+ * <p>
+ * The nodes are linked through their 'right' field within each list or bucket, and through
+ * their 'left' field within the hash table used to find the node for a tick and priority.
+ * A node that is removed is dropped from the hash table straight away, but remains in its
+ * list until it reaches the front of the Bottom list.
+ */
+class LadderQueue implements EventList {
+	private static final int THRESHOLD = 50;  // maximum nodes in a bucket before a new rung is made
+	private static final int MAX_RUNGS = 8;
+
+	// Top: unsorted nodes for ticks greater than topLimit
+	private EventNode top;
+	private int topCount;
+	private long topMin;
+	private long topMax;
+	private long topLimit;
+
+	// Rungs: the lowest rung holds the nodes nearest to the Bottom
+	private final Rung[] rungs;
+	private int numRungs;
+
+	// Bottom: sorted nodes for ticks less than the current bucket of the lowest rung
+	private EventNode bottom;
+	private int bottomCount;
+
+	// Hash table of the nodes that have not been removed
+	private EventNode[] table;
+	private int size;
+
+	private EventNode freeList;
+
+	private static final class Rung {
+		long start;  // tick at the start of the first bucket
+		long width;  // ticks per bucket
+		int cur;     // present bucket, the earlier buckets are empty
+		int numBuckets;
+		EventNode[] buckets = new EventNode[0];
+		int[] counts = new int[0];
+
+		long curStart() {
+			return start + cur * width;
+		}
+	}
+
+	LadderQueue() {
+		rungs = new Rung[MAX_RUNGS];
+		for (int i = 0; i < MAX_RUNGS; i++) {
+			rungs[i] = new Rung();
+		}
+		table = new EventNode[64];
+		reset();
+	}
+
+	@Override
+	public final void reset() {
+		top = null;
+		topCount = 0;
+		topMin = Long.MAX_VALUE;
+		topMax = Long.MIN_VALUE;
+		topLimit = Long.MIN_VALUE;
+
+		for (int i = 0; i < numRungs; i++) {
+			Rung r = rungs[i];
+			Arrays.fill(r.buckets, null);
+			Arrays.fill(r.counts, 0);
+		}
+		numRungs = 0;
+
+		bottom = null;
+		bottomCount = 0;
+
+		Arrays.fill(table, null);
+		size = 0;
+		freeList = null;
+	}
+
+	@Override
+	public final EventNode getNextNode() {
+		while (true) {
+			if (bottom != null) {
+				// Discard any removed node at the front of the list
+				if (bottom.head == null && find(bottom.schedTick, bottom.priority) != bottom) {
+					EventNode n = bottom;
+					bottom = n.right;
+					bottomCount--;
+					reuseNode(n);
+					continue;
+				}
+				return bottom;
+			}
+
+			if (!refillBottom())
+				return null;
+		}
+	}
+
+	/**
+	 * Moves the next group of nodes into the Bottom list.
+	 * @return false if there are no more nodes.
+	 */
+	private boolean refillBottom() {
+		while (true) {
+			if (numRungs == 0) {
+				if (top == null)
+					return false;
+
+				// Move the Top nodes to the first rung, or straight to the Bottom if there are few
+				EventNode list = top;
+				int count = topCount;
+				long lo = topMin;
+				long hi = topMax;
+				top = null;
+				topCount = 0;
+				topMin = Long.MAX_VALUE;
+				topMax = Long.MIN_VALUE;
+				topLimit = hi;
+
+				if (count > THRESHOLD && hi > lo) {
+					addRung(list, count, lo, hi);
+					continue;
+				}
+				setBottom(list, count);
+				return true;
+			}
+
+			// Find the next bucket in the lowest rung that has nodes
+			Rung r = rungs[numRungs - 1];
+			while (r.cur < r.numBuckets && r.counts[r.cur] == 0) {
+				r.cur++;
+			}
+			if (r.cur == r.numBuckets) {
+				numRungs--;
+				continue;
+			}
+
+			EventNode list = r.buckets[r.cur];
+			int count = r.counts[r.cur];
+			long lo = r.curStart();
+			r.buckets[r.cur] = null;
+			r.counts[r.cur] = 0;
+			r.cur++;
+
+			// Spread a large bucket into a new rung
+			if (count > THRESHOLD && r.width > 1 && numRungs < MAX_RUNGS) {
+				addRung(list, count, lo, lo + r.width - 1);
+				continue;
+			}
+			setBottom(list, count);
+			return true;
+		}
+	}
+
+	/**
+	 * Adds a rung below the present ones whose buckets cover the ticks from lo to hi, and
+	 * spreads the given list of nodes into it.
+	 */
+	private void addRung(EventNode list, int count, long lo, long hi) {
+		Rung r = rungs[numRungs++];
+		r.start = lo;
+		r.width = (hi - lo) / count + 1;
+		r.cur = 0;
+		r.numBuckets = (int)((hi - lo) / r.width) + 1;
+		if (r.buckets.length < r.numBuckets) {
+			r.buckets = new EventNode[r.numBuckets];
+			r.counts = new int[r.numBuckets];
+		}
+
+		EventNode n = list;
+		while (n != null) {
+			EventNode next = n.right;
+			addToRung(r, n);
+			n = next;
+		}
+	}
+
+	private static void addToRung(Rung r, EventNode n) {
+		int i = (int)((n.schedTick - r.start) / r.width);
+		n.right = r.buckets[i];
+		r.buckets[i] = n;
+		r.counts[i]++;
+	}
+
+	/**
+	 * Sorts the given list of nodes into the empty Bottom list.
+	 */
+	private void setBottom(EventNode list, int count) {
+		bottom = sortList(list);
+		bottomCount = count;
+	}
+
+	@Override
+	public final EventNode createOrFindNode(long schedTick, int priority) {
+		EventNode n = find(schedTick, priority);
+		if (n != null)
+			return n;
+
+		n = getNewNode(schedTick, priority);
+		addToTable(n);
+		insert(n);
+		return n;
+	}
+
+	private void insert(EventNode n) {
+		long tick = n.schedTick;
+
+		// Distant ticks are added to the Top list
+		if (tick > topLimit) {
+			n.right = top;
+			top = n;
+			topCount++;
+			topMin = Math.min(topMin, tick);
+			topMax = Math.max(topMax, tick);
+			return;
+		}
+
+		// Add the node to the first rung that covers the tick
+		for (int i = 0; i < numRungs; i++) {
+			Rung r = rungs[i];
+			if (tick >= r.curStart()) {
+				addToRung(r, n);
+				return;
+			}
+		}
+
+		// Add the node to the Bottom list in order
+		if (bottom == null || n.compareToNode(bottom) < 0) {
+			n.right = bottom;
+			bottom = n;
+		}
+		else {
+			EventNode prev = bottom;
+			while (prev.right != null && prev.right.compareToNode(n) < 0) {
+				prev = prev.right;
+			}
+			n.right = prev.right;
+			prev.right = n;
+		}
+		bottomCount++;
+
+		// Spread a large Bottom list into a new rung
+		if (bottomCount > THRESHOLD && numRungs < MAX_RUNGS) {
+			long lo = bottom.schedTick;
+			long hi = (numRungs > 0) ? rungs[numRungs - 1].curStart() - 1 : topLimit;
+			if (hi > lo) {
+				EventNode list = bottom;
+				bottom = null;
+				bottomCount = 0;
+				addRung(list, THRESHOLD + 1, lo, hi);
+			}
+		}
+	}
+
+	@Override
+	public final boolean removeNode(long schedTick, int priority) {
+		EventNode n = find(schedTick, priority);
+		if (n == null)
+			return false;
+
+		if (n.head != null || n.tail != null)
+			throw new RuntimeException("Removing non-empy node");
+
+		// The node is discarded when it reaches the front of the Bottom list
+		removeFromTable(n);
+		return true;
+	}
+
+	@Override
+	public final void runOnAllNodes(EventNode.Runner runner) {
+		ArrayList<EventNode> list = new ArrayList<>(size);
+		for (EventNode each : table) {
+			for (EventNode n = each; n != null; n = n.left) {
+				list.add(n);
+			}
+		}
+		Collections.sort(list, nodeCompare);
+		for (EventNode n : list) {
+			runner.runOnNode(n);
+		}
+	}
+
+	private static final Comparator<EventNode> nodeCompare = new Comparator<EventNode>() {
+		@Override
+		public int compare(EventNode n1, EventNode n2) {
+			return n1.compareToNode(n2);
+		}
+	};
+
+	/**
+	 * Returns the number of nodes that have not been removed.
+	 */
+	final int getNodeCount() {
+		return size;
+	}
+
+	/**
+	 * Sorts a list of nodes linked through their 'right' field using a merge sort.
+	 */
+	private static EventNode sortList(EventNode list) {
+		if (list == null || list.right == null)
+			return list;
+
+		// Split the list in two
+		EventNode slow = list;
+		EventNode fast = list.right;
+		while (fast != null && fast.right != null) {
+			slow = slow.right;
+			fast = fast.right.right;
+		}
+		EventNode second = slow.right;
+		slow.right = null;
+
+		// Merge the two sorted halves
+		EventNode a = sortList(list);
+		EventNode b = sortList(second);
+		EventNode head = null;
+		EventNode tail = null;
+		while (a != null && b != null) {
+			EventNode n;
+			if (a.compareToNode(b) <= 0) {
+				n = a;
+				a = a.right;
+			}
+			else {
+				n = b;
+				b = b.right;
+			}
+			if (tail == null)
+				head = n;
+			else
+				tail.right = n;
+			tail = n;
+		}
+		tail.right = (a != null) ? a : b;
+		return head;
+	}
+
+	///////////////////////////////////////////
+	// Hash table
+
+	private static int hash(long schedTick, int priority) {
+		long h = schedTick * 0x9E3779B97F4A7C15L + priority;
+		return (int)(h ^ (h >>> 32));
+	}
+
+	final EventNode find(long schedTick, int priority) {
+		int i = hash(schedTick, priority) & (table.length - 1);
+		for (EventNode n = table[i]; n != null; n = n.left) {
+			if (n.schedTick == schedTick && n.priority == priority)
+				return n;
+		}
+		return null;
+	}
+
+	private void addToTable(EventNode n) {
+		if (size >= table.length * 3 / 4)
+			resizeTable();
+		int i = hash(n.schedTick, n.priority) & (table.length - 1);
+		n.left = table[i];
+		table[i] = n;
+		size++;
+	}
+
+	private void removeFromTable(EventNode n) {
+		int i = hash(n.schedTick, n.priority) & (table.length - 1);
+		if (table[i] == n) {
+			table[i] = n.left;
+		}
+		else {
+			EventNode prev = table[i];
+			while (prev.left != n) {
+				prev = prev.left;
+			}
+			prev.left = n.left;
+		}
+		n.left = null;
+		size--;
+	}
+
+	private void resizeTable() {
+		EventNode[] old = table;
+		table = new EventNode[old.length * 2];
+		for (EventNode each : old) {
+			EventNode n = each;
+			while (n != null) {
+				EventNode next = n.left;
+				int i = hash(n.schedTick, n.priority) & (table.length - 1);
+				n.left = table[i];
+				table[i] = n;
+				n = next;
+			}
+		}
+	}
+
+	///////////////////////////////////////////
+	// Free list
+
+	private EventNode getNewNode(long schedTick, int priority) {
+		if (freeList == null) {
+			EventNode ret = new EventNode(schedTick, priority);
+			ret.left = null;
+			ret.right = null;
+			return ret;
+		}
+
+		EventNode ret = freeList;
+		freeList = freeList.right;
+
+		ret.schedTick = schedTick;
+		ret.priority = priority;
+		ret.head = null;
+		ret.tail = null;
+		ret.left = null;
+		ret.right = null;
+		return ret;
+	}
+
+	private void reuseNode(EventNode node) {
+		node.head = null;
+		node.tail = null;
+		node.left = null;
+		node.right = freeList;
+		freeList = node;
+	}
+}
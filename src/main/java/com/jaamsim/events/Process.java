@@ -1,6 +1,7 @@
 /*
  * JaamSim Discrete Event Simulation
  * Copyright (C) 2002-2014 Ausenco Engineering Canada Inc.
+ * Copyright (C) 2017 JaamSim Software Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,28 +17,45 @@
  */
 package com.jaamsim.events;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Process is a subclass of Thread that can be managed by the discrete event
- * simulation.
+ * Process is a Runnable backed by its own thread that can be managed by the
+ * discrete event simulation.
  *
  * This is the basis for all functionality required by startProcess and the
  * discrete event model. Each process creates its own thread to run in. These
  * threads are managed by the eventManager and when a Process has completed
  * running is pooled for reuse.
  *
+ * The backing thread is either a platform thread or, when selected at startup
+ * and supported by the JVM, a virtual thread. A Process that is not executing
+ * is parked using LockSupport and is woken by setting its wake flag and
+ * unparking its thread.
+ *
  * LOCKING: All state in the Process must be updated from a synchronized block
  * using the Process itself as the lock object. Care must be taken to never take
  * the eventManager's lock while holding the Process's lock as this can cause a
  * deadlock with other threads trying to wake you from the threadPool.
  */
-final class Process extends Thread {
+final class Process implements Runnable {
 	// Properties required to manage the pool of available Processes
 	private static final ArrayList<Process> pool; // storage for all available Processes
 	private static final int maxPoolSize = 100; // Maximum number of Processes allowed to be pooled at a given time
 	private static int numProcesses = 0; // Total of all created processes to date (used to name new Processes)
 
+	// The Process executing on the present thread, null for any non-Process thread
+	private static final ThreadLocal<Process> currentProcess = new ThreadLocal<>();
+
+	// Builder used to create virtual threads, null if platform threads are to be used
+	private static Object virtualBuilder = null;
+	private static Method unstartedMethod = null;
+
+	private final Thread thread; // The thread that executes this Process
+	private volatile boolean wakeFlag; // Set when the Process is to resume execution
+
 	private EventManager eventManager; // The EventManager that is currently managing this Process
 	private Process nextProcess; // The Process from which the present process was created
 	private ProcessTarget target; // The entity whose method is to be executed
@@ -48,7 +66,11 @@ final class Process extends Thread {
 	private EventManager evt;
 	private boolean hasNext;
 
+	private ConditionalEvent recording; // The tracked conditional being evaluated by this Process
+	private final WaitTarget waitTarget; // Target used to resume this Process after a wait
+
 	private boolean dieFlag;
+	private boolean retireFlag;
 	private boolean activeFlag;
 	private boolean inUserCallback;
 
@@ -58,20 +80,94 @@ final class Process extends Thread {
 	}
 
 	private Process(String name) {
-		// Construct a thread with the given name
-		super(name);
+		thread = Process.newThread(this, name);
+		waitTarget = new WaitTarget(this);
+	}
+
+	/**
+	 * Selects the type of thread used to back any Processes created from now on.
+	 * Idle Processes in the pool are retired so that the new selection is used
+	 * for all subsequent model execution.
+	 * @param useVirtual - true if virtual threads are to be used
+	 * @return true if virtual threads are used following this call
+	 */
+	static boolean setVirtualThreads(boolean useVirtual) {
+		synchronized (pool) {
+			if (useVirtual == (virtualBuilder != null))
+				return useVirtual;
+
+			virtualBuilder = null;
+			unstartedMethod = null;
+			if (useVirtual) {
+				try {
+					Method ofVirtual = Thread.class.getMethod("ofVirtual");
+					Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+					virtualBuilder = ofVirtual.invoke(null);
+					unstartedMethod = builderClass.getMethod("unstarted", Runnable.class);
+				}
+				catch (ReflectiveOperationException e) {
+					// Virtual threads are not supported by this JVM
+					virtualBuilder = null;
+					unstartedMethod = null;
+				}
+			}
+
+			// Retire the pooled Processes that use the old type of thread
+			for (Process each : pool) {
+				each.retire();
+			}
+			pool.clear();
+			return virtualBuilder != null;
+		}
+	}
+
+	/**
+	 * Returns true if new Processes are backed by virtual threads.
+	 */
+	static boolean isVirtualThreads() {
+		synchronized (pool) {
+			return virtualBuilder != null;
+		}
+	}
+
+	private static Thread newThread(Process proc, String name) {
+		synchronized (pool) {
+			if (virtualBuilder != null) {
+				try {
+					Thread t = (Thread)unstartedMethod.invoke(virtualBuilder, proc);
+					t.setName(name);
+					return t;
+				}
+				catch (ReflectiveOperationException e) {
+					throw new ProcessError("Unable to create a virtual thread: " + e);
+				}
+			}
+			return new Thread(proc, name);
+		}
 	}
 
 	/**
 	 * Returns the currently executing Process.
 	 */
 	static final Process current() {
-		try {
-			return (Process)Thread.currentThread();
-		}
-		catch (ClassCastException e) {
+		Process cur = currentProcess.get();
+		if (cur == null)
 			throw new ProcessError("Non-process thread called Process.current()");
-		}
+		return cur;
+	}
+
+	/**
+	 * Returns the currently executing Process, or null for a non-Process thread.
+	 */
+	static final Process currentOrNull() {
+		return currentProcess.get();
+	}
+
+	/**
+	 * Returns true if the present thread is executing a Process.
+	 */
+	static final boolean hasCurrent() {
+		return currentProcess.get() != null;
 	}
 
 	/**
@@ -81,16 +177,19 @@ final class Process extends Thread {
 	 * will return it to a process pool if space is available, otherwise the resources
 	 * including the backing thread will be released.
 	 *
-	 * This method is called by Process.getProcess()
+	 * This method is called by the backing thread when it is started by Process.getProcess()
 	 */
 	@Override
 	public void run() {
+		currentProcess.set(this);
 		while (true) {
-			waitInPool();
+			park();
 
 			// Process has been woken up, execute the method we have been assigned
 			ProcessTarget t;
 			synchronized (this) {
+				if (retireFlag)
+					return;
 				evt = eventManager;
 				t = target;
 				target = null;
@@ -104,6 +203,7 @@ final class Process extends Thread {
 			evt = null;
 			hasNext = false;
 			setup(null, null, null);
+			returnToPool();
 		}
 	}
 
@@ -115,22 +215,44 @@ final class Process extends Thread {
 		return evt;
 	}
 
-	// Useful to filter pooled threads when staring at stack traces.
-	private void waitInPool() {
+	/**
+	 * Returns the target used to resume this Process when it waits. The same target is used
+	 * for every wait, as a Process can only wait for one event at a time.
+	 */
+	final WaitTarget getWaitTarget() {
+		return waitTarget;
+	}
+
+	final ConditionalEvent getRecording() {
+		return recording;
+	}
+
+	final void setRecording(ConditionalEvent evt) {
+		recording = evt;
+	}
+
+	/**
+	 * Parks the backing thread until this Process is woken. The wake flag is the
+	 * only legitimate signal, spurious returns from LockSupport.park() are ignored.
+	 */
+	final void park() {
+		while (!wakeFlag) {
+			LockSupport.park(this);
+		}
+		wakeFlag = false;
+	}
+
+	private void returnToPool() {
 		synchronized (pool) {
-			// Add ourselves to the pool and wait to be assigned work
 			pool.add(this);
-			// Set the present process to sleep, and release its lock
-			// (done by pool.wait();)
-			// Note: the try/while(true)/catch construct is needed to avoid
-			// spurious wake ups allowed as of Java 5.  All legitimate wake
-			// ups are done through the InterruptedException.
-			try {
-				while (true) { pool.wait(); }
-			} catch (InterruptedException e) {}
 		}
 	}
 
+	private synchronized void retire() {
+		retireFlag = true;
+		this.wake();
+	}
+
 	/*
 	 * Setup the process state for execution.
 	 */
@@ -161,44 +283,28 @@ final class Process extends Thread {
 
 	// Return a process from the pool or create a new one
 	private static Process getProcess() {
-		while (true) {
-			synchronized (pool) {
-				// If there is an available process in the pool, then use it
-				if (pool.size() > 0) {
-					return pool.remove(pool.size() - 1);
-				}
-				// If there are no process in the pool, then create a new one and add it to the pool
-				else {
-					numProcesses++;
-					Process temp = new Process("processthread-" + numProcesses);
-					temp.start(); // Note: Thread.start() calls Process.run which adds the new process to the pool
-				}
+		synchronized (pool) {
+			// If there is an available process in the pool, then use it
+			if (pool.size() > 0) {
+				return pool.remove(pool.size() - 1);
 			}
 
-			// Allow the Process.run method to execute so that it can add the
-			// new process to the pool
-			// Note: that the lock on the pool has been dropped, so that the
-			// Process.run method can grab it.
-			try { Thread.sleep(10); } catch (InterruptedException e) {}
+			// If there are no process in the pool, then create a new one and start it
+			// Note: the new process parks immediately until it is assigned work and woken
+			numProcesses++;
+			Process temp = new Process("processthread-" + numProcesses);
+			temp.thread.start();
+			return temp;
 		}
 	}
 
-	/**
-	 * We override this method to prevent user code from breaking the event state machine.
-	 * If user code explicitly interrupted a Process it would likely run event code
-	 * much earlier than intended.
-	 */
-	@Override
-	public void interrupt() {
-		new Throwable("AUDIT: direct call of Process.interrupt").printStackTrace();
-	}
-
 	/**
 	 * This is the wrapper to allow internal code to advance the state machine by waking
 	 * a Process.
 	 */
 	final void wake() {
-		super.interrupt();
+		wakeFlag = true;
+		LockSupport.unpark(thread);
 	}
 
 	synchronized void setNextProcess(Process next) {
@@ -17,11 +17,13 @@
 package com.jaamsim.input;
 
 import com.jaamsim.basicsim.Entity;
+import com.jaamsim.events.ConditionalSource;
 
 public class AttributeHandle extends OutputHandle {
 	private final String attributeName;
 	private ExpResult initialValue;
 	private ExpResult value;
+	private ConditionalSource source; // created when the attribute is first read by a Conditional
 
 	public AttributeHandle(Entity e, String outputName) {
 		super(e);
@@ -38,6 +40,25 @@ public class AttributeHandle extends OutputHandle {
 
 	public void setValue(ExpResult val) {
 		value = val;
+		this.invalidate();
+	}
+
+	/**
+	 * Notifies any Conditionals that have read this attribute that its value has changed.
+	 */
+	public void invalidate() {
+		if (source != null)
+			source.notifyChanged();
+	}
+
+	@Override
+	public void recordRead() {
+		if (!ConditionalSource.isRecording())
+			return;
+
+		if (source == null)
+			source = new ConditionalSource();
+		source.recordRead();
 	}
 
 	@Override
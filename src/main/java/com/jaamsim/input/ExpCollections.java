@@ -80,6 +80,50 @@ public class ExpCollections {
 		return null;
 	}
 
+	/**
+	 * Returns a collection of numbers with the specified unit type that is stored without
+	 * an ExpResult for each value.
+	 * @param vals - values in the collection
+	 * @param ut - unit type for the values
+	 */
+	public static ExpResult makeNumericCollection(DoubleVector vals, Class<? extends Unit> ut) {
+		return ExpResult.makeCollectionResult(new NumericCollection(vals, ut));
+	}
+
+	// Largest index for which the ExpResult is shared between collections
+	private static final int MAX_CACHED_INDEX = 1 << 16;
+	private static volatile ExpResult[] indexResults = new ExpResult[0];
+
+	/**
+	 * Returns a dimensionless ExpResult for the specified collection index. The results for
+	 * the indices used to iterate over most collections are created once and then shared.
+	 */
+	static ExpResult getIndexResult(int index) {
+		ExpResult[] cache = indexResults;
+		if (index >= 0 && index < cache.length)
+			return cache[index];
+
+		if (index < 0 || index >= MAX_CACHED_INDEX)
+			return ExpResult.makeNumResult(index, DimensionlessUnit.class);
+
+		return growIndexResults(index)[index];
+	}
+
+	private static synchronized ExpResult[] growIndexResults(int index) {
+		ExpResult[] cache = indexResults;
+		if (index < cache.length)
+			return cache;
+
+		int len = Math.min(Math.max(index + 1, cache.length * 2), MAX_CACHED_INDEX);
+		ExpResult[] ret = new ExpResult[len];
+		System.arraycopy(cache, 0, ret, 0, cache.length);
+		for (int i = cache.length; i < len; i++) {
+			ret[i] = ExpResult.makeNumResult(i, DimensionlessUnit.class);
+		}
+		indexResults = ret;
+		return ret;
+	}
+
 	public static ExpResult makeExpressionCollection(ArrayList<ExpResult> vals, boolean constExp) {
 		return ExpResult.makeCollectionResult(new AssignableArrayCollection(vals, constExp));
 	}
@@ -128,7 +172,7 @@ public class ExpCollections {
 
 			@Override
 			public ExpResult nextKey() throws ExpError {
-				ExpResult ret = ExpResult.makeNumResult(next + 1, DimensionlessUnit.class);
+				ExpResult ret = getIndexResult(next + 1);
 				next++;
 				return ret;
 			}
@@ -179,7 +223,7 @@ public class ExpCollections {
 				StringBuilder sb = new StringBuilder();
 				sb.append("{");
 				for (int i = 0; i < list.size(); ++i) {
-					ExpResult val = index(ExpResult.makeNumResult(i+1, DimensionlessUnit.class));
+					ExpResult val = index(getIndexResult(i+1));
 					sb.append(val.getOutputString());
 					if (i < list.size() -1) {
 						sb.append(", ");
@@ -224,7 +268,7 @@ public class ExpCollections {
 
 			@Override
 			public ExpResult nextKey() throws ExpError {
-				ExpResult ret = ExpResult.makeNumResult(next + 1, DimensionlessUnit.class);
+				ExpResult ret = getIndexResult(next + 1);
 				next++;
 				return ret;
 			}
@@ -289,7 +333,7 @@ public class ExpCollections {
 				StringBuilder sb = new StringBuilder();
 				sb.append("{");
 				for (int i = 0; i < Array.getLength(array); ++i) {
-					ExpResult val = index(ExpResult.makeNumResult(i+1, DimensionlessUnit.class));
+					ExpResult val = index(getIndexResult(i+1));
 					sb.append(val.getOutputString());
 					if (i < Array.getLength(array) -1) {
 						sb.append(", ");
@@ -334,7 +378,7 @@ public class ExpCollections {
 
 			@Override
 			public ExpResult nextKey() throws ExpError {
-				ExpResult ret = ExpResult.makeNumResult(next + 1, DimensionlessUnit.class);
+				ExpResult ret = getIndexResult(next + 1);
 				next++;
 				return ret;
 			}
@@ -357,7 +401,7 @@ public class ExpCollections {
 				return ExpResult.makeNumResult(0, unitType); // TODO: Is this how we want to handle this case?
 			}
 
-			Double value = vector.get(indexVal);
+			double value = vector.get(indexVal);
 			return ExpResult.makeNumResult(value, unitType);
 		}
 		@Override
@@ -391,6 +435,88 @@ public class ExpCollections {
 		}
 	}
 
+	/**
+	 * A read-only collection of numbers that share the same unit type.
+	 */
+	private static class NumericCollection implements ExpResult.Collection {
+
+		private final DoubleVector vector;
+		private final Class<? extends Unit> unitType;
+
+		public NumericCollection(DoubleVector v, Class<? extends Unit> ut) {
+			this.vector = v;
+			this.unitType = ut;
+		}
+
+		private static class Iter implements ExpResult.Iterator {
+
+			private int next = 0;
+			private final DoubleVector vector;
+
+			public Iter(DoubleVector v) {
+				this.vector = v;
+			}
+			@Override
+			public boolean hasNext() {
+				return next < vector.size();
+			}
+
+			@Override
+			public ExpResult nextKey() throws ExpError {
+				ExpResult ret = getIndexResult(next + 1);
+				next++;
+				return ret;
+			}
+		}
+		@Override
+		public Iterator getIter() {
+			return new Iter(vector);
+		}
+
+		@Override
+		public ExpResult index(ExpResult index) throws ExpError {
+
+			if (index.type != ExpResType.NUMBER) {
+				throw new ExpError(null, 0, "ArrayList is not being indexed by a number");
+			}
+
+			int indexVal = (int)index.value - 1; // Expressions use 1-base arrays
+
+			if (indexVal >= vector.size() || indexVal < 0) {
+				return ExpResult.makeNumResult(0, unitType); // TODO: Is this how we want to handle this case?
+			}
+
+			return ExpResult.makeNumResult(vector.get(indexVal), unitType);
+		}
+		@Override
+		public int getSize() {
+			return vector.size();
+		}
+		@Override
+		public ExpResult.Collection assign(ExpResult key, ExpResult value) throws ExpError {
+			throw new ExpError(null, 0, "Can not assign to built in collection");
+		}
+
+		@Override
+		public String getOutputString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append("{");
+			for (int i = 0; i < vector.size(); ++i) {
+				sb.append(ExpResult.makeNumResult(vector.get(i), unitType).getOutputString());
+				if (i < vector.size() - 1) {
+					sb.append(", ");
+				}
+			}
+			sb.append("}");
+			return sb.toString();
+		}
+
+		@Override
+		public ExpResult.Collection getCopy() {
+			return this;
+		}
+	}
+
 	private static class IntegerVectorCollection implements ExpResult.Collection {
 
 		private final IntegerVector vector;
@@ -416,7 +542,7 @@ public class ExpCollections {
 
 			@Override
 			public ExpResult nextKey() throws ExpError {
-				ExpResult ret = ExpResult.makeNumResult(next + 1, DimensionlessUnit.class);
+				ExpResult ret = getIndexResult(next + 1);
 				next++;
 				return ret;
 			}
@@ -439,7 +565,7 @@ public class ExpCollections {
 				return ExpResult.makeNumResult(0, unitType); // TODO: Is this how we want to handle this case?
 			}
 
-			Integer value = vector.get(indexVal);
+			int value = vector.get(indexVal);
 			return ExpResult.makeNumResult(value, unitType);
 		}
 		@Override
@@ -640,7 +766,7 @@ public class ExpCollections {
 
 			@Override
 			public ExpResult nextKey() throws ExpError {
-				ExpResult ret = ExpResult.makeNumResult(next + 1, DimensionlessUnit.class);
+				ExpResult ret = getIndexResult(next + 1);
 				next++;
 				return ret;
 			}
@@ -661,7 +787,7 @@ public class ExpCollections {
 				StringBuilder sb = new StringBuilder();
 				sb.append("{");
 				for (int i = 0; i < list.size(); ++i) {
-					ExpResult val = index(ExpResult.makeNumResult(i+1, DimensionlessUnit.class));
+					ExpResult val = index(getIndexResult(i+1));
 					sb.append(val.getOutputString());
 					if (i < list.size() -1) {
 						sb.append(", ");
@@ -0,0 +1,376 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import com.jaamsim.input.ExpParser.EvalContext;
+import com.jaamsim.input.ExpParser.ExpNode;
+
+/**
+ * Kernels used to evaluate the number-typed parts of a validated expression using unboxed
+ * double arithmetic. Each kernel matches the corresponding operator or function registered in
+ * ExpOperators for numerical arguments, so that a compiled sub-expression returns exactly the
+ * same value as the interpreted one.
+ */
+class ExpCompiler {
+
+	private ExpCompiler() {}
+
+	static abstract class NumNode {
+		abstract double eval(EvalContext ec) throws ExpError;
+	}
+
+	static NumNode makeConstant(double val) {
+		return new NumConst(val);
+	}
+
+	/**
+	 * Returns a kernel that evaluates an interpreted node known to return a number.
+	 */
+	static NumNode makeLeaf(ExpNode node) {
+		return new NumLeaf(node);
+	}
+
+	static NumNode makeConditional(NumNode cond, NumNode t, NumNode f) {
+		return new NumCond(cond, t, f);
+	}
+
+	/**
+	 * Returns the kernel for the specified unary operator, or null if there is none.
+	 */
+	static NumNode makeUnaryOp(String name, NumNode sub) {
+		switch (name) {
+		case "-": return new NumNeg(sub);
+		case "+": return sub;
+		case "!": return new NumNot(sub);
+		default: return null;
+		}
+	}
+
+	/**
+	 * Returns the kernel for the specified binary operator, or null if there is none.
+	 */
+	static NumNode makeBinaryOp(String name, NumNode l, NumNode r) {
+		switch (name) {
+		case "+":  return new NumAdd(l, r);
+		case "-":  return new NumSub(l, r);
+		case "*":  return new NumMul(l, r);
+		case "/":  return new NumDiv(l, r);
+		case "^":  return new NumPow(l, r);
+		case "%":  return new NumMod(l, r);
+		case "==": return new NumEq(l, r);
+		case "!=": return new NumNe(l, r);
+		case "<":  return new NumLt(l, r);
+		case "<=": return new NumLe(l, r);
+		case ">":  return new NumGt(l, r);
+		case ">=": return new NumGe(l, r);
+		case "&&": return new NumAnd(l, r);
+		case "||": return new NumOr(l, r);
+		default: return null;
+		}
+	}
+
+	/**
+	 * Returns the kernel for the specified function, or null if there is none.
+	 */
+	static NumNode makeFunction(String name, NumNode[] args) {
+		switch (name) {
+		case "max": return new NumMax(args);
+		case "min": return new NumMin(args);
+		case "atan2":
+			if (args.length != 2)
+				return null;
+			return new NumAtan2(args[0], args[1]);
+		default:
+			break;
+		}
+
+		if (args.length != 1)
+			return null;
+		int op = getMathFunc(name);
+		if (op < 0)
+			return null;
+		return new NumFunc(op, args[0]);
+	}
+
+	private static final String[] MATH_FUNCS = { "abs", "ceil", "floor", "signum", "sqrt", "cbrt",
+			"sin", "cos", "tan", "asin", "acos", "atan", "exp", "ln", "log" };
+
+	private static int getMathFunc(String name) {
+		for (int i = 0; i < MATH_FUNCS.length; i++) {
+			if (MATH_FUNCS[i].equals(name))
+				return i;
+		}
+		return -1;
+	}
+
+	private static final class NumConst extends NumNode {
+		private final double val;
+		NumConst(double v) {
+			val = v;
+		}
+		@Override
+		double eval(EvalContext ec) {
+			return val;
+		}
+	}
+
+	private static final class NumLeaf extends NumNode {
+		private final ExpNode node;
+		NumLeaf(ExpNode n) {
+			node = n;
+		}
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return node.evaluate(ec).value;
+		}
+	}
+
+	private static final class NumCond extends NumNode {
+		private final NumNode cond, t, f;
+		NumCond(NumNode c, NumNode t, NumNode f) {
+			this.cond = c;
+			this.t = t;
+			this.f = f;
+		}
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			if (cond.eval(ec) == 0)
+				return f.eval(ec);
+			else
+				return t.eval(ec);
+		}
+	}
+
+	private static final class NumNeg extends NumNode {
+		private final NumNode sub;
+		NumNeg(NumNode s) {
+			sub = s;
+		}
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return -sub.eval(ec);
+		}
+	}
+
+	private static final class NumNot extends NumNode {
+		private final NumNode sub;
+		NumNot(NumNode s) {
+			sub = s;
+		}
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return sub.eval(ec) == 0 ? 1 : 0;
+		}
+	}
+
+	private static abstract class NumBinary extends NumNode {
+		protected final NumNode l, r;
+		NumBinary(NumNode l, NumNode r) {
+			this.l = l;
+			this.r = r;
+		}
+	}
+
+	private static final class NumAdd extends NumBinary {
+		NumAdd(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) + r.eval(ec);
+		}
+	}
+
+	private static final class NumSub extends NumBinary {
+		NumSub(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) - r.eval(ec);
+		}
+	}
+
+	private static final class NumMul extends NumBinary {
+		NumMul(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) * r.eval(ec);
+		}
+	}
+
+	private static final class NumDiv extends NumBinary {
+		NumDiv(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) / r.eval(ec);
+		}
+	}
+
+	private static final class NumPow extends NumBinary {
+		NumPow(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return Math.pow(l.eval(ec), r.eval(ec));
+		}
+	}
+
+	private static final class NumMod extends NumBinary {
+		NumMod(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) % r.eval(ec);
+		}
+	}
+
+	private static final class NumEq extends NumBinary {
+		NumEq(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) == r.eval(ec) ? 1 : 0;
+		}
+	}
+
+	private static final class NumNe extends NumBinary {
+		NumNe(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) != r.eval(ec) ? 1 : 0;
+		}
+	}
+
+	private static final class NumLt extends NumBinary {
+		NumLt(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) < r.eval(ec) ? 1 : 0;
+		}
+	}
+
+	private static final class NumLe extends NumBinary {
+		NumLe(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) <= r.eval(ec) ? 1 : 0;
+		}
+	}
+
+	private static final class NumGt extends NumBinary {
+		NumGt(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) > r.eval(ec) ? 1 : 0;
+		}
+	}
+
+	private static final class NumGe extends NumBinary {
+		NumGe(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return l.eval(ec) >= r.eval(ec) ? 1 : 0;
+		}
+	}
+
+	private static final class NumAnd extends NumBinary {
+		NumAnd(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			if (l.eval(ec) == 0)
+				return 0;
+			return r.eval(ec) != 0 ? 1 : 0;
+		}
+	}
+
+	private static final class NumOr extends NumBinary {
+		NumOr(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			if (l.eval(ec) != 0)
+				return 1;
+			return r.eval(ec) != 0 ? 1 : 0;
+		}
+	}
+
+	private static final class NumAtan2 extends NumBinary {
+		NumAtan2(NumNode l, NumNode r) { super(l, r); }
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			return Math.atan2(l.eval(ec), r.eval(ec));
+		}
+	}
+
+	private static final class NumMax extends NumNode {
+		private final NumNode[] args;
+		NumMax(NumNode[] a) {
+			args = a;
+		}
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			double res = args[0].eval(ec);
+			for (int i = 1; i < args.length; i++) {
+				double val = args[i].eval(ec);
+				if (val > res)
+					res = val;
+			}
+			return res;
+		}
+	}
+
+	private static final class NumMin extends NumNode {
+		private final NumNode[] args;
+		NumMin(NumNode[] a) {
+			args = a;
+		}
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			double res = args[0].eval(ec);
+			for (int i = 1; i < args.length; i++) {
+				double val = args[i].eval(ec);
+				if (val < res)
+					res = val;
+			}
+			return res;
+		}
+	}
+
+	private static final class NumFunc extends NumNode {
+		private final int op;
+		private final NumNode arg;
+		NumFunc(int op, NumNode a) {
+			this.op = op;
+			arg = a;
+		}
+		@Override
+		double eval(EvalContext ec) throws ExpError {
+			double val = arg.eval(ec);
+			switch (op) {
+			case 0:  return Math.abs(val);
+			case 1:  return Math.ceil(val);
+			case 2:  return Math.floor(val);
+			case 3:  return Math.signum(val);
+			case 4:  return Math.sqrt(val);
+			case 5:  return Math.cbrt(val);
+			case 6:  return Math.sin(val);
+			case 7:  return Math.cos(val);
+			case 8:  return Math.tan(val);
+			case 9:  return Math.asin(val);
+			case 10: return Math.acos(val);
+			case 11: return Math.atan(val);
+			case 12: return Math.exp(val);
+			case 13: return Math.log(val);
+			case 14: return Math.log10(val);
+			default: return Double.NaN;
+			}
+		}
+	}
+}
@@ -26,6 +26,7 @@ import com.jaamsim.input.ExpParser.EvalContext;
 import com.jaamsim.input.ExpParser.OutputResolver;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
+import com.jaamsim.units.UserSpecifiedUnit;
 
 /**
  * Utility class to bridge the expression parser and attribute assignment
@@ -242,6 +243,7 @@ public class ExpEvaluator {
 				simTime = eec.simTime;
 			}
 
+			handle.recordRead();
 			switch (type) {
 			case NUMBER:
 				double val = handle.getValueAsDouble(simTime, 0);
@@ -277,8 +279,15 @@ public class ExpEvaluator {
 
 	private static class EntityResolver implements ExpParser.OutputResolver {
 
+		// Maximum number of entity classes held in the inline cache
+		private static final int MAX_CACHE_SIZE = 4;
+
 		private final String outputName;
 
+		// Output information for the entity classes seen by this resolver.
+		// The array is replaced rather than modified so that it can be read without locking.
+		private volatile ClassCacheEntry[] classCache = new ClassCacheEntry[0];
+
 		public EntityResolver(String name) {
 			outputName = name.intern();
 		}
@@ -301,11 +310,22 @@ public class ExpEvaluator {
 				throw new ExpError(null, 0, "Trying to resolve output on null entity");
 			}
 
-			OutputHandle oh = ent.getOutputHandleInterned(outputName);
+			// Attributes and custom outputs are defined for each entity and hide the outputs for its class
+			OutputHandle oh = ent.getInstanceOutputHandle(outputName);
+			if (oh == null) {
+				ClassCacheEntry entry = getClassCacheEntry(ent.getClass());
+				if (entry != null) {
+					OutputHandle.recordRead(ent, outputName);
+					return entry.resolve(ent, simTime);
+				}
+
+				oh = ent.getOutputHandleInterned(outputName);
+			}
 			if (oh == null) {
 				throw new ExpError(null, 0, "Could not find output '%s' on entity '%s'", outputName, ent.getName());
 			}
 
+			oh.recordRead();
 			ExpResult res = getResultFromOutput(oh, simTime);
 
 			if (res == null)
@@ -316,6 +336,42 @@ public class ExpEvaluator {
 
 		}
 
+		/**
+		 * Returns the cached output information for the specified class, or null if the
+		 * output is not cached for this class.
+		 */
+		private ClassCacheEntry getClassCacheEntry(Class<? extends Entity> klass) {
+			ClassCacheEntry[] cache = classCache;
+			for (int i = 0; i < cache.length; i++) {
+				if (cache[i].klass == klass)
+					return cache[i];
+			}
+
+			// The call site has become megamorphic
+			if (cache.length >= MAX_CACHE_SIZE)
+				return null;
+
+			OutputHandle.OutputStaticInfo info = OutputHandle.getOutputStaticInfo(klass, outputName);
+			if (info == null)
+				return null;
+
+			ExpResType type = getTypeForClass(info.method.getReturnType());
+			if (type == null)
+				return null;
+
+			ClassCacheEntry entry = new ClassCacheEntry(klass, info, type);
+			synchronized (this) {
+				cache = classCache;
+				if (cache.length < MAX_CACHE_SIZE) {
+					ClassCacheEntry[] newCache = new ClassCacheEntry[cache.length + 1];
+					System.arraycopy(cache, 0, newCache, 0, cache.length);
+					newCache[cache.length] = entry;
+					classCache = newCache;
+				}
+			}
+			return entry;
+		}
+
 		@Override
 		public ExpValResult validate(ExpValResult entValRes) {
 
@@ -328,6 +384,52 @@ public class ExpEvaluator {
 
 	}
 
+	/**
+	 * The information needed to resolve an output for every entity of a given class.
+	 */
+	private static final class ClassCacheEntry {
+		final Class<? extends Entity> klass;
+		final OutputHandle.OutputStaticInfo info;
+		final ExpResType type;
+		final boolean userUnitType;
+
+		ClassCacheEntry(Class<? extends Entity> klass, OutputHandle.OutputStaticInfo info, ExpResType type) {
+			this.klass = klass;
+			this.info = info;
+			this.type = type;
+			userUnitType = (info.unitType == UserSpecifiedUnit.class);
+		}
+
+		ExpResult resolve(Entity ent, double simTime) throws ExpError {
+			// Matches the unit type assigned by Entity.getOutputHandle
+			Class<? extends Unit> ut = userUnitType ? ent.getUserUnitType() : info.unitType;
+
+			if (type == ExpResType.NUMBER && info.hasDoubleAccessor())
+				return ExpResult.makeNumResult(info.getValueAsDouble(ent, simTime), ut);
+
+			Object val = info.getValue(ent, simTime);
+			switch (type) {
+			case NUMBER:
+				if (val instanceof Number)
+					return ExpResult.makeNumResult(((Number)val).doubleValue(), ut);
+				if (val instanceof Boolean)
+					return ExpResult.makeNumResult(((Boolean)val) ? 1.0d : 0.0d, ut);
+				if (val instanceof Character)
+					return ExpResult.makeNumResult(((Character)val).charValue(), ut);
+				return ExpResult.makeNumResult(0.0d, ut);
+			case ENTITY:
+				return ExpResult.makeEntityResult((Entity)val);
+			case STRING:
+				return ExpResult.makeStringResult((String)val);
+			case COLLECTION:
+				return ExpCollections.getCollection(val, ut);
+			default:
+				throw new ExpError(null, 0, "Output %s, on entity %s does not return a type compatible with expressions.",
+				                   info.name, ent.getName());
+			}
+		}
+	}
+
 	private static class EntityAssigner implements ExpParser.Assigner {
 
 		private final String attribName;
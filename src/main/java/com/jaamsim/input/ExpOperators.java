@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.Comparator;
 
 import com.jaamsim.basicsim.ObjectType;
+import com.jaamsim.datatypes.DoubleVector;
 import com.jaamsim.input.ExpParser.BinOpFunc;
 import com.jaamsim.input.ExpParser.CallableFunc;
 import com.jaamsim.input.ExpParser.EvalContext;
@@ -308,6 +309,8 @@ public class ExpOperators {
 		return String.format("Invalid unit: %s. Units of %s are required.", s0, s1);
 	}
 
+	private static final int RANGE_CAPACITY_INCREMENT = 1 << 16;
+
 	public static void InitOperatorsAndFuncs() {
 
 		///////////////////////////////////////////////////
@@ -1319,7 +1322,9 @@ public class ExpOperators {
 				boolean firstVal = true;
 				ArrayList<ExpResult> params = new ArrayList<>(numParams);
 
-				ArrayList<ExpResult> results = new ArrayList<>();
+				// Numerical results with the same unit type are stored without their ExpResults
+				DoubleVector numResults = new DoubleVector(col.getSize());
+				ArrayList<ExpResult> results = null;
 				params.add(null);
 
 				if (numParams == 2)
@@ -1336,6 +1341,21 @@ public class ExpOperators {
 					ExpResult result = mapFunc.evaluate(context, params);
 
 					Class<? extends Unit> resUnitType = result.type == ExpResType.NUMBER ? result.unitType : null;
+					if (results == null && resUnitType != null
+							&& (numResults.size() == 0 || resUnitType == unitType)) {
+						numResults.add(result.value);
+					}
+					else if (results == null) {
+						results = new ArrayList<>(col.getSize());
+						for (int i = 0; i < numResults.size(); i++) {
+							results.add(ExpResult.makeNumResult(numResults.get(i), unitType));
+						}
+						results.add(result);
+					}
+					else {
+						results.add(result);
+					}
+
 					if (firstVal) {
 						unitType = resUnitType;
 					} else {
@@ -1343,8 +1363,9 @@ public class ExpOperators {
 							throw new ExpError(source, pos, "All unit types of map results must match");
 						}
 					}
-					results.add(result);
 				}
+				if (results == null)
+					return ExpCollections.makeNumericCollection(numResults, unitType);
 				return ExpCollections.getCollection(results, unitType);
 			}
 
@@ -1621,13 +1642,16 @@ public class ExpOperators {
 				if (args.length > 2) {
 					inc = args[2].value;
 				}
-				ArrayList<ExpResult> res = new ArrayList<>();
+				int numVals = 10;
+				if (inc > 0)
+					numVals = (int)Math.min((endVal - startVal)/inc + 2, RANGE_CAPACITY_INCREMENT);
+				DoubleVector res = new DoubleVector(numVals, RANGE_CAPACITY_INCREMENT);
 				double val = startVal;
 				while (val <= endVal) {
-					res.add(ExpResult.makeNumResult(val, args[0].unitType));
+					res.add(val);
 					val += inc;
 				}
-				return ExpCollections.getCollection(res, args[0].unitType);
+				return ExpCollections.makeNumericCollection(res, args[0].unitType);
 
 			}
 
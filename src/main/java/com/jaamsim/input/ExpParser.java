@@ -340,6 +340,13 @@ public class ExpParser {
 
 		public ExpResult evaluate(EvalContext ec, ArrayList<ExpResult> params) throws ExpError {
 			// Fill in the context
+			// The parameters can be used directly when the function has no captured variables
+			if (params.size() == vars.size()) {
+				ec.pushClosure(params);
+				ExpResult ret = body.evaluate(ec);
+				ec.popClosure();
+				return ret;
+			}
 
 			ArrayList<ExpResult> close = new ArrayList<>(vars.size());
 			for (int i = 0; i < vars.size(); ++i) {
@@ -921,6 +928,35 @@ public class ExpParser {
 
 	}
 
+	/**
+	 * A number-typed sub-expression that has been compiled to unboxed double arithmetic.
+	 */
+	private static class CompiledNum extends ExpNode {
+		private final ExpCompiler.NumNode num;
+		private final Class<? extends Unit> unitType;
+		public CompiledNum(ParseContext context, ExpCompiler.NumNode num, Class<? extends Unit> unitType, Expression exp, int pos) {
+			super(context, exp, pos);
+			this.num = num;
+			this.unitType = unitType;
+		}
+		@Override
+		public ExpResult evaluate(EvalContext ec) throws ExpError {
+			return ExpResult.makeNumResult(num.eval(ec), unitType);
+		}
+		@Override
+		public ExpValResult validate() {
+			return ExpValResult.makeValidRes(ExpResType.NUMBER, unitType);
+		}
+		@Override
+		void walk(ExpressionWalker w) throws ExpError {
+			w.visit(this);
+		}
+		@Override
+		public String toString() {
+			return "Compiled";
+		}
+	}
+
 	// Some errors can be throw without a known source or position, update such errors with the given info
 	private static ExpError fixError(ExpError ex, String source, int pos) {
 		ExpError exFixed = ex;
@@ -1157,6 +1193,112 @@ public class ExpParser {
 	}
 	private static RuntimeCheckOptimizer RTC_OP = new RuntimeCheckOptimizer();
 
+	/**
+	 * Replaces each validated number-typed sub-expression built from arithmetic, comparison,
+	 * logical and simple math operations with a CompiledNum node. The tree is walked bottom-up
+	 * so that each compiled node absorbs the kernels for its compiled children. Other nodes,
+	 * such as outputs, collections and lambdas, continue to be interpreted.
+	 */
+	private static class NumCompiler implements ExpressionWalker {
+
+		@Override
+		public void visit(ExpNode exp) throws ExpError {
+			// N/A
+		}
+
+		@Override
+		public ExpNode updateRef(ExpNode origNode) throws ExpError {
+			ExpCompiler.NumNode num = compile(origNode);
+			if (num == null)
+				return origNode;
+
+			ExpValResult res = origNode.validate();
+			if (res.state != ExpValResult.State.VALID || res.type != ExpResType.NUMBER)
+				return origNode;
+
+			return new CompiledNum(origNode.context, num, res.unitType, origNode.exp, origNode.tokenPos);
+		}
+
+		private static ExpCompiler.NumNode compile(ExpNode node) {
+			// Only nodes that have passed validation are known to have numerical arguments
+			if (node instanceof UnaryOpNoChecks) {
+				UnaryOp uo = (UnaryOp)node;
+				ExpCompiler.NumNode sub = getNumArg(uo.subExp);
+				if (sub == null)
+					return null;
+				return ExpCompiler.makeUnaryOp(uo.name, sub);
+			}
+			if (node instanceof BinaryOpNoChecks || node instanceof LazyBinaryOp) {
+				BinaryOp bo = (BinaryOp)node;
+				ExpCompiler.NumNode l = getNumArg(bo.lSubExp);
+				if (l == null)
+					return null;
+				ExpCompiler.NumNode r = getNumArg(bo.rSubExp);
+				if (r == null)
+					return null;
+				return ExpCompiler.makeBinaryOp(bo.name, l, r);
+			}
+			if (node instanceof Conditional) {
+				Conditional c = (Conditional)node;
+				ExpCompiler.NumNode cond = getNumArg(c.condExp);
+				if (cond == null)
+					return null;
+				ExpCompiler.NumNode t = getNumArg(c.trueExp);
+				if (t == null)
+					return null;
+				ExpCompiler.NumNode f = getNumArg(c.falseExp);
+				if (f == null)
+					return null;
+				return ExpCompiler.makeConditional(cond, t, f);
+			}
+			if (node instanceof FuncCallNoChecks) {
+				FuncCall fc = (FuncCall)node;
+				if (fc.args.isEmpty())
+					return null;
+				ExpCompiler.NumNode[] args = new ExpCompiler.NumNode[fc.args.size()];
+				for (int i = 0; i < args.length; ++i) {
+					args[i] = getNumArg(fc.args.get(i));
+					if (args[i] == null)
+						return null;
+				}
+				return ExpCompiler.makeFunction(fc.name, args);
+			}
+			return null;
+		}
+
+		private static ExpCompiler.NumNode getNumArg(ExpNode node) {
+			if (node instanceof CompiledNum)
+				return ((CompiledNum)node).num;
+
+			if (node instanceof Constant) {
+				ExpResult val = ((Constant)node).val;
+				if (val.type != ExpResType.NUMBER)
+					return null;
+				return ExpCompiler.makeConstant(val.value);
+			}
+
+			ExpValResult res = node.validate();
+			if (res.state != ExpValResult.State.VALID || res.type != ExpResType.NUMBER)
+				return null;
+			return ExpCompiler.makeLeaf(node);
+		}
+	}
+	private static NumCompiler NUM_OP = new NumCompiler();
+
+	private static boolean compileNumbers = true;
+
+	/**
+	 * Sets whether the number-typed parts of newly parsed expressions are compiled to unboxed
+	 * double arithmetic. Expressions that have already been parsed are not affected.
+	 */
+	public static void setCompileNumbers(boolean bool) {
+		compileNumbers = bool;
+	}
+
+	public static boolean isCompileNumbers() {
+		return compileNumbers;
+	}
+
 	private static ExpNode optimizeAndValidateExpression(String input, ExpNode expNode, Expression exp) throws ExpError {
 		expNode.walk(CONST_OP);
 		expNode = CONST_OP.updateRef(expNode); // Finally, give the entire expression a chance to optimize itself into a constant
@@ -1176,6 +1318,12 @@ public class ExpParser {
 		expNode.walk(RTC_OP);
 		expNode = RTC_OP.updateRef(expNode); // Give the top level node a chance to optimize
 
+		// Finally, compile the validated numerical sub-expressions
+		if (compileNumbers) {
+			expNode.walk(NUM_OP);
+			expNode = NUM_OP.updateRef(expNode);
+		}
+
 		exp.validationResult = valRes;
 
 		return expNode;
@@ -91,6 +91,11 @@ public class ExpressionHandle extends OutputHandle {
 	public int getSequence() {
 		return Integer.MAX_VALUE;
 	}
+	@Override
+	public void recordRead() {
+		// The outputs used by the expression are recorded when it is evaluated
+	}
+
 	@Override
 	public boolean canCache() {
 		return false;
@@ -188,6 +188,25 @@ public abstract class Input<T> {
 		isValid = true;
 	}
 
+	/**
+	 * Replaces the default value for this input with the one held by the
+	 * specified input, which must belong to a prototype of the same class.
+	 * <p>
+	 * An entity generated from a prototype then refers to the prototype's
+	 * default value objects instead of keeping its own copies. Parsing a new
+	 * value for this input replaces the shared object rather than modifying it.
+	 * @param in - prototype input whose default value is to be shared.
+	 */
+	public void shareDefault(Input<?> in) {
+
+		@SuppressWarnings("unchecked")
+		Input<T> inp = (Input<T>) in;
+
+		defValue = inp.defValue;
+		if (isDef)
+			value = defValue;
+	}
+
 	/**
 	 * Deletes any use of the specified entity from this input.
 	 * @param ent - entity whose references are to be deleted
@@ -72,6 +72,7 @@ public class InputAgent {
 	private static final String INP_ERR_DEFINEUSED = "The name: %s has already been used and is a %s";
 	private static final String[] EARLY_KEYWORDS = {"UnitType", "UnitTypeList", "AttributeDefinitionList", "CustomOutputList"};
 
+	private static String runNameSuffix;     // appended to the run name for a worker process
 	private static File reportDir;
 	private static FileEntity reportFile;     // file to which the output report will be written
 	private static PrintStream outStream;  // location where the selected outputs will be written
@@ -89,6 +90,7 @@ public class InputAgent {
 		reportDir = null;
 		reportFile = null;
 		outStream = null;
+		runNameSuffix = "";
 		lastTickForTrace = -1l;
 		undoList = new ArrayList<>();
 		redoList = new ArrayList<>();
@@ -193,9 +195,18 @@ public class InputAgent {
 		String name = InputAgent.getConfigFile().getName();
 		int index = name.lastIndexOf('.');
 		if( index == -1 )
-			return name;
+			return name + runNameSuffix;
+
+		return name.substring( 0, index ) + runNameSuffix;
+	}
 
-		return name.substring( 0, index );
+	/**
+	 * Sets a suffix to be added to the run name, so that the output files from a worker
+	 * process do not overwrite those from another process.
+	 * @param suffix - text to append to the run name.
+	 */
+	public static void setRunNameSuffix(String suffix) {
+		runNameSuffix = suffix;
 	}
 
 	/**
@@ -561,6 +572,26 @@ public class InputAgent {
 		return ent;
 	}
 
+	/**
+	 * Creates a generated entity whose name is the specified prefix followed by an underscore
+	 * and the specified number. The name is not built until it is requested.
+	 */
+	public static <T extends Entity> T generateEntity(Class<T> proto, String prefix, long num) {
+		if (!isValidName(prefix)) {
+			InputAgent.logError("Entity names cannot contain spaces, tabs, { or }: %s", prefix);
+			return null;
+		}
+
+		T ent = createInstance(proto);
+		if (ent == null) {
+			InputAgent.logError("Could not create new Entity: %s_%s", prefix, num);
+			return null;
+		}
+		ent.setFlag(Entity.FLAG_GENERATED);
+		ent.setGeneratedName(prefix, num);
+		return ent;
+	}
+
 	public static String getUniqueName(String name, String sep) {
 
 		// Is the provided name unused?
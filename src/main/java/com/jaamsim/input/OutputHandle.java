@@ -16,15 +16,20 @@
  */
 package com.jaamsim.input;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
+import com.jaamsim.events.ConditionalSource;
 import com.jaamsim.units.Unit;
 
 /**
@@ -39,10 +44,11 @@ public class OutputHandle {
 	public OutputStaticInfo outputInfo;
 	public Class<? extends Unit> unitType;
 
-	private static final HashMap<Class<? extends Entity>, ArrayList<OutputStaticInfo>> outputInfoCache;
+	// Output information for each class, built once and read by both the simulation and render threads
+	private static final ConcurrentHashMap<Class<? extends Entity>, ClassOutputInfo> outputInfoCache;
 
 	static {
-		outputInfoCache = new HashMap<>();
+		outputInfoCache = new ConcurrentHashMap<>();
 	}
 
 	public OutputHandle(Entity e, String outputName) {
@@ -55,10 +61,29 @@ public class OutputHandle {
 		ent = e;
 	}
 
+	private static final MethodType OBJECT_ACCESSOR = MethodType.methodType(Object.class, Entity.class, double.class);
+	private static final MethodType DOUBLE_ACCESSOR = MethodType.methodType(double.class, Entity.class, double.class);
+	private static final MethodHandle BOOLEAN_TO_DOUBLE;
+
+	static {
+		try {
+			BOOLEAN_TO_DOUBLE = MethodHandles.lookup().findStatic(OutputHandle.class, "booleanToDouble",
+					MethodType.methodType(double.class, boolean.class));
+		}
+		catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	@SuppressWarnings("unused") // Used by BOOLEAN_TO_DOUBLE
+	private static double booleanToDouble(boolean val) {
+		return val ? 1.0d : 0.0d;
+	}
+
 	/**
 	 * A data class containing the 'static' (ie: class derived) information for a single output
 	 */
-	private static final class OutputStaticInfo {
+	static final class OutputStaticInfo {
 		public Method method;
 		public final String name;
 		public final String desc;
@@ -66,6 +91,10 @@ public class OutputHandle {
 		public final Class<? extends Unit> unitType;
 		public final int sequence;
 
+		// Accessors that call the method directly, or null if the method is not accessible
+		private final MethodHandle objectAccessor;
+		private final MethodHandle doubleAccessor;
+
 		public OutputStaticInfo(Method m, Output a) {
 			method = m;
 			desc = a.description();
@@ -73,9 +102,97 @@ public class OutputHandle {
 			name = a.name().intern();
 			unitType = a.unitType();
 			sequence = a.sequence();
+
+			MethodHandle obj = null;
+			MethodHandle dbl = null;
+			try {
+				MethodHandle mh = MethodHandles.lookup().unreflect(m);
+				obj = mh.asType(OBJECT_ACCESSOR);
+
+				Class<?> retType = m.getReturnType();
+				if (retType == boolean.class)
+					dbl = MethodHandles.filterReturnValue(mh, BOOLEAN_TO_DOUBLE).asType(DOUBLE_ACCESSOR);
+				else if (retType.isPrimitive() && isNumericType(retType))
+					dbl = mh.asType(DOUBLE_ACCESSOR);
+			}
+			catch (IllegalAccessException e) {}
+			objectAccessor = obj;
+			doubleAccessor = dbl;
+		}
+
+		/**
+		 * Returns true if getValueAsDouble can be used for this output.
+		 */
+		boolean hasDoubleAccessor() {
+			return doubleAccessor != null;
+		}
+
+		/**
+		 * Returns the value of this output for the specified entity.
+		 */
+		Object getValue(Entity ent, double simTime) {
+			if (objectAccessor == null) {
+				try {
+					return method.invoke(ent, simTime);
+				}
+				catch (InvocationTargetException ex) {
+					throw new ErrorException(ex.getTargetException());
+				}
+				catch (IllegalAccessException | IllegalArgumentException ex) {
+					throw new ErrorException(ex);
+				}
+			}
+
+			try {
+				return objectAccessor.invokeExact(ent, simTime);
+			}
+			catch (Throwable t) {
+				throw new ErrorException(t);
+			}
+		}
+
+		/**
+		 * Returns the value of this output for the specified entity without boxing.
+		 * Valid only for outputs that return a primitive number or boolean.
+		 */
+		double getValueAsDouble(Entity ent, double simTime) {
+			try {
+				return (double)doubleAccessor.invokeExact(ent, simTime);
+			}
+			catch (Throwable t) {
+				throw new ErrorException(t);
+			}
+		}
+	}
+
+	/**
+	 * The outputs for a single class. Neither the list nor the map are modified once built.
+	 */
+	private static final class ClassOutputInfo {
+		final ArrayList<OutputStaticInfo> list;
+		final HashMap<String, OutputStaticInfo> map;
+
+		ClassOutputInfo(ArrayList<OutputStaticInfo> list) {
+			this.list = list;
+			map = new HashMap<>(list.size() * 2);
+			for (OutputStaticInfo info : list) {
+				// A scan of the list would return the first output with the name
+				if (!map.containsKey(info.name))
+					map.put(info.name, info);
+			}
 		}
 	}
 
+	/**
+	 * Returns the static information for the specified output, or null if the class does
+	 * not have this output.
+	 * @param klass - entity class
+	 * @param outputName - output name
+	 */
+	static OutputStaticInfo getOutputStaticInfo(Class<? extends Entity> klass, String outputName) {
+		return getOutputInfo(klass, outputName);
+	}
+
 	// Note: this method will not include attributes in the list. For a complete list use
 	// Entity.hasOutput()
 	public static boolean hasOutput(Class<? extends Entity> klass, String outputName) {
@@ -83,32 +200,24 @@ public class OutputHandle {
 	}
 
 	public static boolean hasOutputInterned(Class<? extends Entity> klass, String outputName) {
-		return OutputHandle.getOutputInfoInterned(klass, outputName) != null;
+		return OutputHandle.getOutputInfo(klass, outputName) != null;
 	}
 
 	private static OutputStaticInfo getOutputInfo(Class<? extends Entity> klass, String outputName) {
-		for (OutputStaticInfo p : getOutputInfoImp(klass)) {
-			if( p.name.equals(outputName) )
-				return p;
-		}
-		return null;
+		return getClassOutputInfo(klass).map.get(outputName);
 	}
 
-	private static OutputStaticInfo getOutputInfoInterned(Class<? extends Entity> klass, String outputName) {
-		for (OutputStaticInfo p : getOutputInfoImp(klass)) {
-			if( p.name == outputName )
-				return p;
-		}
-		return null;
+	private static ArrayList<OutputStaticInfo> getOutputInfoImp(Class<? extends Entity> klass) {
+		return getClassOutputInfo(klass).list;
 	}
 
-	private static ArrayList<OutputStaticInfo> getOutputInfoImp(Class<? extends Entity> klass) {
-		ArrayList<OutputStaticInfo> ret = outputInfoCache.get(klass);
+	private static ClassOutputInfo getClassOutputInfo(Class<? extends Entity> klass) {
+		ClassOutputInfo ret = outputInfoCache.get(klass);
 		if (ret != null)
 			return ret;
 
 		// klass has not been cached yet, generate info
-		ret = new ArrayList<>();
+		ArrayList<OutputStaticInfo> list = new ArrayList<>();
 		for (Method m : klass.getMethods()) {
 			Output a = m.getAnnotation(Output.class);
 			if (a == null)
@@ -121,9 +230,14 @@ public class OutputHandle {
 				continue;
 			}
 
-			ret.add(new OutputStaticInfo(m, a));
+			list.add(new OutputStaticInfo(m, a));
 		}
-		outputInfoCache.put(klass, ret);
+
+		// Another thread may have built the same information in the meantime
+		ret = new ClassOutputInfo(list);
+		ClassOutputInfo prev = outputInfoCache.putIfAbsent(klass, ret);
+		if (prev != null)
+			return prev;
 		return ret;
 	}
 
@@ -203,12 +317,9 @@ public class OutputHandle {
 			if (!klass.isAssignableFrom(outputInfo.method.getReturnType()))
 				return null;
 
-			ret = (T)outputInfo.method.invoke(ent, simTime);
-		}
-		catch (InvocationTargetException ex) {
-			throw new ErrorException(ex.getTargetException());
+			ret = (T)outputInfo.getValue(ent, simTime);
 		}
-		catch (IllegalAccessException | ClassCastException ex) {
+		catch (ClassCastException ex) {
 			throw new ErrorException(ex);
 		}
 		return ret;
@@ -218,6 +329,27 @@ public class OutputHandle {
 		return true;
 	}
 
+	/**
+	 * Reports that the value of this output has been read to the tracked Conditional
+	 * being evaluated, if any. An output without a ConditionalSource causes the
+	 * Conditional to be evaluated every time the simulation time is about to advance.
+	 */
+	public void recordRead() {
+		recordRead(ent, this.getName());
+	}
+
+	static void recordRead(Entity ent, String outputName) {
+		if (!ConditionalSource.isRecording())
+			return;
+
+		ConditionalSource src = ent.getOutputSource(outputName);
+		if (src == null) {
+			ConditionalSource.recordUntracked();
+			return;
+		}
+		src.recordRead();
+	}
+
 	public boolean isNumericValue() {
 		return isNumericType(this.getReturnType());
 	}
@@ -282,6 +414,9 @@ public class OutputHandle {
 	 * @return
 	 */
 	public double getValueAsDouble(double simTime, double def) {
+		if (outputInfo.hasDoubleAccessor())
+			return outputInfo.getValueAsDouble(ent, simTime);
+
 		Class<?> retType = this.getReturnType();
 
 		if (retType == double.class)
@@ -385,14 +520,10 @@ public class OutputHandle {
 		}
 
 		@SuppressWarnings("unchecked")
-		ArrayList<OutputStaticInfo> infos = getOutputInfoImp((Class<? extends Entity>)klass);
-
-		for (OutputStaticInfo info : infos) {
-			if (info.name.equals(outputName)) {
-				 return info.method.getReturnType();
-			}
-		}
-		return null;
+		OutputStaticInfo info = getOutputInfo((Class<? extends Entity>)klass, outputName);
+		if (info == null)
+			return null;
+		return info.method.getReturnType();
 	}
 
 	// Lookup an outputs return type from the unit type
@@ -402,14 +533,10 @@ public class OutputHandle {
 		}
 
 		@SuppressWarnings("unchecked")
-		ArrayList<OutputStaticInfo> infos = getOutputInfoImp((Class<? extends Entity>)klass);
-
-		for (OutputStaticInfo info : infos) {
-			if (info.name.equals(outputName)) {
-				 return info.unitType;
-			}
-		}
-		return null;
+		OutputStaticInfo info = getOutputInfo((Class<? extends Entity>)klass, outputName);
+		if (info == null)
+			return null;
+		return info.unitType;
 	}
 
 }
@@ -0,0 +1,435 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.render;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.jaamsim.math.AABB;
+import com.jaamsim.math.Ray;
+import com.jaamsim.math.Vec3d;
+
+/**
+ * Bounding volume hierarchy over the bounds of the renderables in the scene. It is used to find
+ * the renderables inside a camera's view frustum and the renderables hit by a picking ray without
+ * testing every renderable in the scene.
+ * <p>
+ * Each leaf holds a few slots for renderables. When the scene changes, a new renderable takes the
+ * slot freed by a renderable with the same picking ID, which is normally the previous renderable
+ * for the same entity, and the bounds of the affected nodes are refit. Other new renderables are
+ * kept in an overflow list that is tested separately. The tree is rebuilt when the overflow list
+ * becomes too long, when half the slots are empty, or when refitting has doubled the total
+ * surface area of the nodes.
+ */
+class BVH {
+	private static final int LEAF_SIZE = 4;      // renderables per leaf when the tree is built
+	private static final double FUDGE = 0.1d;    // expansion of the bounds, as used by DebugLine for picking
+	private static final int MIN_OVERFLOW = 64;  // overflow list length that always triggers a rebuild
+	private static final int MAX_OVERFLOW = 16;  // rebuild when the overflow exceeds 1/MAX_OVERFLOW of the renderables
+
+	private List<Renderable> scene = new ArrayList<>();
+	private int[] indexSlot = new int[0];  // slot for each renderable in the scene list (-1 if none)
+
+	// Slots for the renderables in leaf order (null for an empty slot)
+	private Renderable[] items = new Renderable[0];
+	private int[] sceneIndex = new int[0];  // index of each renderable in the scene list
+	private int[] leafNode = new int[0];    // leaf that holds each slot
+	private boolean[] matched = new boolean[0];
+	private int numSlots;
+	private int numItems;
+	private final IdentityHashMap<Renderable, Integer> slotMap = new IdentityHashMap<>();
+
+	// Scene indices for the renderables that are not in the tree
+	private int[] overflow = new int[16];
+	private int numOverflow;
+
+	// Nodes in depth-first order, so that each node follows its parent
+	private AABB[] bounds = new AABB[0];
+	private int[] parent = new int[0];
+	private int[] leftChild = new int[0];   // -1 for a leaf
+	private int[] rightChild = new int[0];
+	private int[] firstSlot = new int[0];
+	private int[] slotCount = new int[0];
+	private boolean[] dirty = new boolean[0];
+	private int numNodes;
+	private double totalArea;  // sum of the surface areas of the nodes
+	private double builtArea;  // total area when the tree was built
+
+	// Work space for the queries
+	private final int[] stack = new int[64];
+	private int[] found = new int[16];
+	private int numFound;
+	private int nodesVisited;
+
+	/**
+	 * Updates the tree for the renderables in the specified scene list. The list must not be
+	 * changed until the next update.
+	 */
+	public void update(List<Renderable> newScene) {
+		List<Renderable> prevScene = scene;
+		int[] prevIndexSlot = indexSlot;
+		scene = newScene;
+		int n = newScene.size();
+		indexSlot = new int[n];
+
+		// Find the renderables that are already in the tree, checking first for a renderable at
+		// the same position in the previous scene list
+		Arrays.fill(matched, 0, numSlots, false);
+		ArrayList<Integer> added = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			Renderable r = newScene.get(i);
+			int slot = -1;
+			if (i < prevScene.size() && prevScene.get(i) == r) {
+				slot = prevIndexSlot[i];
+			}
+			else {
+				Integer mappedSlot = slotMap.get(r);
+				if (mappedSlot != null)
+					slot = mappedSlot;
+			}
+			if (slot == -1 || matched[slot]) {
+				indexSlot[i] = -1;
+				added.add(i);
+				continue;
+			}
+			matched[slot] = true;
+			sceneIndex[slot] = i;
+			indexSlot[i] = slot;
+		}
+
+		// Release the slots for the renderables that are no longer in the scene
+		HashMap<Long, ArrayList<Integer>> freedSlots = new HashMap<>();
+		for (int slot = 0; slot < numSlots; slot++) {
+			Renderable r = items[slot];
+			if (matched[slot] || r == null)
+				continue;
+			Integer mappedSlot = slotMap.get(r);
+			if (mappedSlot != null && mappedSlot == slot)
+				slotMap.remove(r);
+			items[slot] = null;
+			numItems--;
+			this.markDirty(leafNode[slot]);
+
+			ArrayList<Integer> list = freedSlots.get(r.getPickingID());
+			if (list == null) {
+				list = new ArrayList<>();
+				freedSlots.put(r.getPickingID(), list);
+			}
+			list.add(slot);
+		}
+
+		// Place each new renderable in a slot freed by the same picking ID, if possible
+		numOverflow = 0;
+		for (int i : added) {
+			Renderable r = newScene.get(i);
+			ArrayList<Integer> list = freedSlots.get(r.getPickingID());
+			if (r.getPickingID() == 0 || list == null || list.isEmpty()) {
+				if (numOverflow == overflow.length)
+					overflow = Arrays.copyOf(overflow, overflow.length * 2);
+				overflow[numOverflow++] = i;
+				continue;
+			}
+			this.place(list.remove(list.size() - 1), r, i);
+		}
+		this.refit();
+
+		if (numOverflow > Math.max(MIN_OVERFLOW, numItems / MAX_OVERFLOW)
+				|| numItems * 2 < numSlots || totalArea > 2.0d * builtArea)
+			this.rebuild();
+	}
+
+	private void place(int slot, Renderable r, int index) {
+		items[slot] = r;
+		sceneIndex[slot] = index;
+		indexSlot[index] = slot;
+		slotMap.put(r, slot);
+		numItems++;
+		this.markDirty(leafNode[slot]);
+	}
+
+	private void markDirty(int node) {
+		while (node >= 0 && !dirty[node]) {
+			dirty[node] = true;
+			node = parent[node];
+		}
+	}
+
+	/**
+	 * Builds a new tree by splitting the renderables at the median of their centres along the
+	 * axis with the largest extent.
+	 */
+	private void rebuild() {
+		int n = scene.size();
+		indexSlot = new int[n];
+		int[] order = new int[n];
+		double[][] centres = new double[3][n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+			AABB b = scene.get(i).getBoundsRef();
+			if (b.isEmpty())
+				continue;
+			centres[0][i] = b.center.x;
+			centres[1][i] = b.center.y;
+			centres[2][i] = b.center.z;
+		}
+
+		int maxNodes = Math.max(2 * n, 1);
+		int maxSlots = n;
+		items = new Renderable[maxSlots];
+		sceneIndex = new int[maxSlots];
+		leafNode = new int[maxSlots];
+		matched = new boolean[maxSlots];
+		bounds = new AABB[maxNodes];
+		parent = new int[maxNodes];
+		leftChild = new int[maxNodes];
+		rightChild = new int[maxNodes];
+		firstSlot = new int[maxNodes];
+		slotCount = new int[maxNodes];
+		dirty = new boolean[maxNodes];
+		slotMap.clear();
+		numNodes = 0;
+		numSlots = 0;
+		numItems = n;
+		numOverflow = 0;
+		totalArea = 0.0d;
+
+		this.buildNode(order, centres, 0, n, -1);
+		this.refit();
+		builtArea = totalArea;
+	}
+
+	private int buildNode(int[] order, double[][] centres, int start, int end, int par) {
+		int node = numNodes++;
+		parent[node] = par;
+		dirty[node] = true;
+
+		if (end - start <= LEAF_SIZE) {
+			leftChild[node] = -1;
+			rightChild[node] = -1;
+			firstSlot[node] = numSlots;
+			for (int i = start; i < end; i++) {
+				int slot = numSlots++;
+				Renderable r = scene.get(order[i]);
+				items[slot] = r;
+				sceneIndex[slot] = order[i];
+				indexSlot[order[i]] = slot;
+				leafNode[slot] = node;
+				slotMap.put(r, slot);
+			}
+			slotCount[node] = numSlots - firstSlot[node];
+			return node;
+		}
+
+		// Find the axis along which the centres are most spread out
+		int axis = 0;
+		double maxExtent = -1.0d;
+		for (int k = 0; k < 3; k++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (int i = start; i < end; i++) {
+				double c = centres[k][order[i]];
+				min = Math.min(min, c);
+				max = Math.max(max, c);
+			}
+			if (max - min > maxExtent) {
+				maxExtent = max - min;
+				axis = k;
+			}
+		}
+
+		int mid = (start + end) >>> 1;
+		select(order, centres[axis], start, end - 1, mid);
+		leftChild[node] = this.buildNode(order, centres, start, mid, node);
+		rightChild[node] = this.buildNode(order, centres, mid, end, node);
+		return node;
+	}
+
+	/**
+	 * Partially sorts the entries from lo to hi inclusive so that entry k has the value it would
+	 * have if the entries were sorted by key.
+	 */
+	private static void select(int[] order, double[] key, int lo, int hi, int k) {
+		while (lo < hi) {
+			double pivot = key[order[(lo + hi) >>> 1]];
+			int i = lo;
+			int j = hi;
+			while (i <= j) {
+				while (key[order[i]] < pivot)
+					i++;
+				while (key[order[j]] > pivot)
+					j--;
+				if (i <= j) {
+					int temp = order[i];
+					order[i] = order[j];
+					order[j] = temp;
+					i++;
+					j--;
+				}
+			}
+			if (k <= j)
+				hi = j;
+			else if (k >= i)
+				lo = i;
+			else
+				return;
+		}
+	}
+
+	/**
+	 * Recalculates the bounds for the nodes that have changed, starting from the leaves.
+	 */
+	private void refit() {
+		for (int node = numNodes - 1; node >= 0; node--) {
+			if (!dirty[node])
+				continue;
+			dirty[node] = false;
+
+			double minX = Double.POSITIVE_INFINITY, minY = minX, minZ = minX;
+			double maxX = Double.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+			if (leftChild[node] == -1) {
+				for (int slot = firstSlot[node]; slot < firstSlot[node] + slotCount[node]; slot++) {
+					if (items[slot] == null)
+						continue;
+					AABB b = items[slot].getBoundsRef();
+					if (b.isEmpty())
+						continue;
+					double fudge = FUDGE * b.radius.mag3();
+					minX = Math.min(minX, b.minPt.x - fudge);
+					minY = Math.min(minY, b.minPt.y - fudge);
+					minZ = Math.min(minZ, b.minPt.z - fudge);
+					maxX = Math.max(maxX, b.maxPt.x + fudge);
+					maxY = Math.max(maxY, b.maxPt.y + fudge);
+					maxZ = Math.max(maxZ, b.maxPt.z + fudge);
+				}
+			}
+			else {
+				for (int k = 0; k < 2; k++) {
+					AABB b = bounds[k == 0 ? leftChild[node] : rightChild[node]];
+					if (b.isEmpty())
+						continue;
+					minX = Math.min(minX, b.minPt.x);
+					minY = Math.min(minY, b.minPt.y);
+					minZ = Math.min(minZ, b.minPt.z);
+					maxX = Math.max(maxX, b.maxPt.x);
+					maxY = Math.max(maxY, b.maxPt.y);
+					maxZ = Math.max(maxZ, b.maxPt.z);
+				}
+			}
+
+			if (bounds[node] != null)
+				totalArea -= getArea(bounds[node]);
+			if (minX > maxX)
+				bounds[node] = new AABB();
+			else
+				bounds[node] = new AABB(new Vec3d(maxX, maxY, maxZ), new Vec3d(minX, minY, minZ));
+			totalArea += getArea(bounds[node]);
+		}
+	}
+
+	private static double getArea(AABB b) {
+		if (b.isEmpty())
+			return 0.0d;
+		Vec3d r = b.radius;
+		return 8.0d * (r.x * r.y + r.y * r.z + r.z * r.x);
+	}
+
+	/**
+	 * Adds the renderables whose bounds may be inside the camera's view frustum to the
+	 * specified list, in the same order as the scene list.
+	 */
+	public void cull(Camera cam, ArrayList<Renderable> out) {
+		numFound = 0;
+		nodesVisited = 0;
+		int top = 0;
+		if (numNodes > 0)
+			stack[top++] = 0;
+		while (top > 0) {
+			int node = stack[--top];
+			nodesVisited++;
+			if (!cam.collides(bounds[node]))
+				continue;
+			top = this.pushChildren(node, top);
+		}
+		for (int i = 0; i < numOverflow; i++) {
+			if (cam.collides(scene.get(overflow[i]).getBoundsRef()))
+				this.addFound(overflow[i]);
+		}
+		this.addFound(out);
+	}
+
+	/**
+	 * Adds the renderables whose bounds may be hit by the ray to the specified list, in the same
+	 * order as the scene list.
+	 */
+	public void pick(Ray ray, ArrayList<Renderable> out) {
+		numFound = 0;
+		nodesVisited = 0;
+		int top = 0;
+		if (numNodes > 0)
+			stack[top++] = 0;
+		while (top > 0) {
+			int node = stack[--top];
+			nodesVisited++;
+			if (bounds[node].collisionDist(ray) < 0.0d)
+				continue;
+			top = this.pushChildren(node, top);
+		}
+		for (int i = 0; i < numOverflow; i++) {
+			AABB b = scene.get(overflow[i]).getBoundsRef();
+			if (b.collisionDist(ray, FUDGE * b.radius.mag3()) >= 0.0d)
+				this.addFound(overflow[i]);
+		}
+		this.addFound(out);
+	}
+
+	private int pushChildren(int node, int top) {
+		if (leftChild[node] != -1) {
+			stack[top++] = rightChild[node];
+			stack[top++] = leftChild[node];
+			return top;
+		}
+		for (int slot = firstSlot[node]; slot < firstSlot[node] + slotCount[node]; slot++) {
+			if (items[slot] != null)
+				this.addFound(sceneIndex[slot]);
+		}
+		return top;
+	}
+
+	private void addFound(int index) {
+		if (numFound == found.length)
+			found = Arrays.copyOf(found, found.length * 2);
+		found[numFound++] = index;
+	}
+
+	private void addFound(ArrayList<Renderable> out) {
+		Arrays.sort(found, 0, numFound);
+		for (int i = 0; i < numFound; i++) {
+			out.add(scene.get(found[i]));
+		}
+	}
+
+	int getNodesVisited() {
+		return nodesVisited;
+	}
+
+	int getNodeCount() {
+		return numNodes;
+	}
+}
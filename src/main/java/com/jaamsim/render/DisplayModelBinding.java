@@ -21,6 +21,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.jaamsim.DisplayModels.DisplayModel;
 import com.jaamsim.Graphics.DisplayEntity;
@@ -59,8 +61,16 @@ public abstract class DisplayModelBinding {
 	private final static ArrayList<Vec4d> HANDLE_POINTS;
 	private final static ArrayList<Vec4d> ROTATE_POINTS;
 
-	private static int cacheHits = 0;
-	private static int cacheMisses = 0;
+	// Proxies are collected by several threads at once
+	private static final AtomicInteger cacheHits = new AtomicInteger();
+	private static final AtomicInteger cacheMisses = new AtomicInteger();
+
+	// Source for the stamps used to detect changes to entities and display models
+	private static final AtomicLong graphicsStampCount = new AtomicLong();
+
+	// Proxies from the last frame, reused until the entity or display model is changed
+	private ArrayList<RenderProxy> retainedProxies;
+	private long retainedStamp;
 
 	static {
 		// NOTE: the order of the points corresponds to the list of static picking IDs in RenderManager,
@@ -91,6 +101,53 @@ public abstract class DisplayModelBinding {
 
 	public abstract void collectProxies(double simTime, ArrayList<RenderProxy> out);
 
+	/**
+	 * Returns true if the proxies for this binding depend only on state of the entity and display
+	 * model that is covered by their graphics stamps, so that the proxies can be reused until
+	 * one of the stamps changes.
+	 */
+	protected boolean isRetainable() {
+		return false;
+	}
+
+	/**
+	 * Adds the proxies for this binding to the list. For a retainable binding, the proxies from
+	 * the previous frame are reused if neither the entity nor the display model has changed.
+	 */
+	public final void collectRetainedProxies(double simTime, ArrayList<RenderProxy> out) {
+		long stamp = getGraphicsStamp();
+		if (retainedProxies != null && stamp == retainedStamp) {
+			registerCacheHit("Retained");
+			out.addAll(retainedProxies);
+			return;
+		}
+
+		int start = out.size();
+		collectProxies(simTime, out);
+
+		if (!isRetainable()) {
+			retainedProxies = null;
+			return;
+		}
+		retainedProxies = new ArrayList<>(out.subList(start, out.size()));
+		retainedStamp = stamp;
+	}
+
+	private long getGraphicsStamp() {
+		long ret = dm.getGraphicsStamp();
+		if (observee instanceof DisplayEntity)
+			ret = Math.max(ret, ((DisplayEntity)observee).getGraphicsStamp());
+		return ret;
+	}
+
+	/**
+	 * Returns a new value for the graphics stamp of an entity or display model that has changed.
+	 * Each value is larger than the previous ones.
+	 */
+	public static long nextGraphicsStamp() {
+		return graphicsStampCount.incrementAndGet();
+	}
+
 	public boolean isBoundTo(Entity ent) {
 		return ent == observee;
 	}
@@ -168,19 +225,21 @@ public abstract class DisplayModelBinding {
 	}
 
 	public static int getCacheHits() {
-		return cacheHits;
+		return cacheHits.get();
 	}
 
 	public static int getCacheMisses() {
-		return cacheMisses;
+		return cacheMisses.get();
 	}
 	public static void clearCacheCounters() {
-		cacheHits = 0;
-		cacheMisses = 0;
+		cacheHits.set(0);
+		cacheMisses.set(0);
 	}
 
 	public static void clearCacheMissData() {
-		cacheMissData.clear();
+		synchronized (cacheMissData) {
+			cacheMissData.clear();
+		}
 	}
 
 	private static final boolean saveCacheMissData() {
@@ -196,47 +255,55 @@ public abstract class DisplayModelBinding {
 	}
 
 	public static void registerCacheHit(String type) {
-		cacheHits++;
+		cacheHits.incrementAndGet();
 		if (!saveCacheMissData()) {
 			return;
 		}
 
-		CacheCounter cc = cacheMissData.get(type);
-		if (cc == null) {
-			cc = new CacheCounter();
-			cacheMissData.put(type, cc);
+		synchronized (cacheMissData) {
+			CacheCounter cc = cacheMissData.get(type);
+			if (cc == null) {
+				cc = new CacheCounter();
+				cacheMissData.put(type, cc);
+			}
+			cc.hits++;
 		}
-		cc.hits++;
 	}
 
 	public static int getCacheHitCount(String type) {
-		CacheCounter cc = cacheMissData.get(type);
-		if (cc == null)
-			return 0;
+		synchronized (cacheMissData) {
+			CacheCounter cc = cacheMissData.get(type);
+			if (cc == null)
+				return 0;
 
-		return cc.hits;
+			return cc.hits;
+		}
 	}
 
 	public static void registerCacheMiss(String type) {
-		cacheMisses++;
+		cacheMisses.incrementAndGet();
 		if (!saveCacheMissData()) {
 			return;
 		}
 
-		CacheCounter cc = cacheMissData.get(type);
-		if (cc == null) {
-			cc = new CacheCounter();
-			cacheMissData.put(type, cc);
+		synchronized (cacheMissData) {
+			CacheCounter cc = cacheMissData.get(type);
+			if (cc == null) {
+				cc = new CacheCounter();
+				cacheMissData.put(type, cc);
+			}
+			cc.misses++;
 		}
-		cc.misses++;
 	}
 
 	public static int getCacheMissCount(String type) {
-		CacheCounter cc = cacheMissData.get(type);
-		if (cc == null)
-			return 0;
+		synchronized (cacheMissData) {
+			CacheCounter cc = cacheMissData.get(type);
+			if (cc == null)
+				return 0;
 
-		return cc.misses;
+			return cc.misses;
+		}
 	}
 
 	public VisibilityInfo getVisibilityInfo() {
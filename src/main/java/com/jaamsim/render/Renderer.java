@@ -171,6 +171,7 @@ public class Renderer implements GLAnimatorControl {
 
 	// A cache of the current scene, needed by the individual windows to render
 	private ArrayList<Renderable> currentScene = new ArrayList<>();
+	private final BVH sceneTree = new BVH(); // bounds hierarchy for currentScene
 	private ArrayList<OverlayRenderable> currentOverlay = new ArrayList<>();
 
 	public Renderer(boolean safeGraphics) throws RenderException {
@@ -291,7 +292,9 @@ public class Renderer implements GLAnimatorControl {
 						currentOverlay = null;
 						caps = null;
 
-						fontCache.clear();
+						synchronized (fontCache) {
+							fontCache.clear();
+						}
 						protoCache.clear();
 						shaders.clear();
 
@@ -400,11 +403,13 @@ public class Renderer implements GLAnimatorControl {
 	}
 
 	public TessFont getTessFont(TessFontKey key) {
-		if (!fontCache.containsKey(key)) {
-			loadTessFontImp(key); // Try lazy initialization for now
-		}
+		synchronized (fontCache) {
+			if (!fontCache.containsKey(key)) {
+				loadTessFontImp(key); // Try lazy initialization for now
+			}
 
-		return fontCache.get(key);
+			return fontCache.get(key);
+		}
 	}
 
 	public void setScene(ArrayList<RenderProxy> scene) {
@@ -924,6 +929,7 @@ private void initCoreShaders(GL2GL3 gl, String version) throws RenderException {
 				proxy.collectRenderables(this, currentScene);
 				proxy.collectOverlayRenderables(this, currentOverlay);
 			}
+			sceneTree.update(currentScene);
 
 			sceneTimeNS = System.nanoTime() - sceneStart;
 		}
@@ -968,7 +974,9 @@ private void initCoreShaders(GL2GL3 gl, String version) throws RenderException {
 
 			// Do not update the scene while a pick is underway
 			synchronized (sceneLock) {
-				for (Renderable r : currentScene) {
+				ArrayList<Renderable> candidates = new ArrayList<>();
+				sceneTree.pick(pickRay, candidates);
+				for (Renderable r : candidates) {
 					double rayDist = r.getCollisionDist(pickRay, precise);
 					if (rayDist >= 0.0) {
 
@@ -1195,11 +1203,12 @@ private void initCoreShaders(GL2GL3 gl, String version) throws RenderException {
 
 				allowDelayedTextures = true;
 
-				// Cache the current scene. This way we don't need to lock it for the full render
-				ArrayList<Renderable> scene = new ArrayList<>(currentScene.size());
+				// Cache the visible part of the current scene. This way we don't need to lock it for the full render
+				ArrayList<Renderable> scene = new ArrayList<>();
 				ArrayList<OverlayRenderable> overlay = new ArrayList<>(currentOverlay.size());
 				synchronized(sceneLock) {
-					scene.addAll(currentScene);
+					sceneTree.cull(cam, scene);
+					pi.objectsCulled += currentScene.size() - scene.size();
 					overlay.addAll(currentOverlay);
 				}
 
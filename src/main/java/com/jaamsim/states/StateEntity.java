@@ -17,14 +17,17 @@
 package com.jaamsim.states;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.LogBuffer;
+import com.jaamsim.events.ConditionalSource;
 import com.jaamsim.events.EventManager;
 import com.jaamsim.input.BooleanInput;
 import com.jaamsim.input.InputAgent;
@@ -37,6 +40,22 @@ import com.jaamsim.units.TimeUnit;
 
 public class StateEntity extends DisplayEntity {
 
+	// State names are numbered consecutively in the order they are first used by any class
+	private static final ConcurrentHashMap<String, Integer> stateIDs = new ConcurrentHashMap<>();
+	private static final ArrayList<String> stateNames = new ArrayList<>();
+	private static final StateRecord[] NO_STATES = new StateRecord[0];
+
+	// Slots in the state array for the states used by each class
+	private static final ClassValue<StateSlots> classSlots = new ClassValue<StateSlots>() {
+		@Override
+		protected StateSlots computeValue(Class<?> type) {
+			return new StateSlots();
+		}
+	};
+
+	public static final int STATE_IDLE = getStateID("Idle");
+	public static final int STATE_WORKING = getStateID("Working");
+
 	@Keyword(description = "A list of state/DisplayEntity pairs. For each state, the graphics "
 	                     + "will be changed to those for the corresponding DisplayEntity.",
 	         exampleList = {"{ idle DisplayEntity1 } { working DisplayEntity2 }"})
@@ -51,13 +70,16 @@ public class StateEntity extends DisplayEntity {
 	protected final StringListInput workingStateListInput;
 
 	private StateRecord presentState; // The present state of the entity
-	private final HashMap<String, StateRecord> states;
+	private StateRecord[] states;     // state records indexed by slot
+	private final StateSlots slots;   // slot for each state ID used by this class
+	private int numStates;
 	private final ArrayList<StateEntityListener> stateListeners;
+	private final ConditionalSource stateSource; // notified whenever the present state changes
 
 	private long lastStateCollectionTick;
 	private long workingTicks;
 
-	protected FileEntity stateReportFile;        // The file to store the state information
+	private LogBuffer stateTrace;        // The file to store the state information
 
 	{
 		stateGraphics = new StringKeyInput<>(DisplayEntity.class, "StateGraphics", "Key Inputs");
@@ -73,8 +95,10 @@ public class StateEntity extends DisplayEntity {
 	}
 
 	public StateEntity() {
-		states = new HashMap<>();
+		states = NO_STATES;
+		slots = classSlots.get(this.getClass());
 		stateListeners = new ArrayList<>();
+		stateSource = new ConditionalSource();
 	}
 
 	@Override
@@ -86,10 +110,27 @@ public class StateEntity extends DisplayEntity {
 		if (testFlag(FLAG_GENERATED))
 			return;
 
+		// Close the state trace file from the previous run
+		if (stateTrace != null) {
+			stateTrace.close();
+			stateTrace = null;
+		}
+
 		// Create state trace file if required
 		if (traceState.getValue()) {
 			String fileName = InputAgent.getReportFileName(InputAgent.getRunName() + "-" + this.getName() + ".trc");
-			stateReportFile = new FileEntity( fileName);
+			stateTrace = new LogBuffer(new StateTraceWriter(new FileEntity(fileName)));
+		}
+	}
+
+	@Override
+	public void doEnd() {
+		super.doEnd();
+
+		// Write the remaining state trace entries
+		if (stateTrace != null) {
+			stateTrace.close();
+			stateTrace = null;
 		}
 	}
 
@@ -110,15 +151,91 @@ public class StateEntity extends DisplayEntity {
 		if (EventManager.hasCurrent())
 			lastStateCollectionTick = getSimTicks();
 		workingTicks = 0;
-		states.clear();
+		Arrays.fill(states, null);
+		numStates = 0;
 
-		String initState = getInitialState().intern();
-		StateRecord init = new StateRecord(initState, isValidWorkingState(initState));
+		int initState = getStateID(getInitialState());
+		StateRecord init = this.createStateRecord(initState);
 		init.startTick = lastStateCollectionTick;
 		presentState = init;
-		states.put(init.name, init);
+		stateSource.notifyChanged();
+
+		this.setGraphicsForState(init.name);
+	}
 
-		this.setGraphicsForState(initState);
+	/**
+	 * Returns the integer ID for the specified state name, registering the name if it has not
+	 * been used before. The IDs are shared by all the StateEntity classes so that the states
+	 * used internally by a class can be held as constants. Each class maps the IDs it uses to
+	 * consecutive slots, so the size of an entity's state array does not depend on the number
+	 * of state names used by the other classes.
+	 * @param name - state name
+	 * @return state ID
+	 */
+	public static final int getStateID(String name) {
+		Integer id = stateIDs.get(name);
+		if (id != null)
+			return id;
+
+		synchronized (stateNames) {
+			id = stateIDs.get(name);
+			if (id != null)
+				return id;
+
+			String str = name.intern();
+			int ret = stateNames.size();
+			stateNames.add(str);
+			stateIDs.put(str, ret);
+			return ret;
+		}
+	}
+
+	private static String getStateName(int id) {
+		synchronized (stateNames) {
+			return stateNames.get(id);
+		}
+	}
+
+	/**
+	 * Returns the record for the specified state ID, or null if the entity has not used it.
+	 */
+	public StateRecord getState(int id) {
+		int slot = slots.get(id);
+		if (slot < 0 || slot >= states.length)
+			return null;
+		return states[slot];
+	}
+
+	/**
+	 * Creates the record for a state that the entity has not used before.
+	 */
+	private StateRecord createStateRecord(int id) {
+		String name = getStateName(id);
+		if (!isValidState(name))
+			error("Specified state: %s is not valid", name);
+
+		StateRecord rec = new StateRecord(name, id, isValidWorkingState(name));
+		int slot = slots.add(id);
+		if (slot >= states.length)
+			states = Arrays.copyOf(states, slots.size());
+		states[slot] = rec;
+		numStates++;
+		return rec;
+	}
+
+	@Override
+	public ConditionalSource getOutputSource(String outputName) {
+		if ("State".equals(outputName) || "WorkingState".equals(outputName))
+			return stateSource;
+		return super.getOutputSource(outputName);
+	}
+
+	/**
+	 * Reports that the present state has been read to the tracked Conditional
+	 * being evaluated, if any.
+	 */
+	protected final void recordStateRead() {
+		stateSource.recordRead();
 	}
 
 	public ArrayList<StateEntityListener> getStateListeners() {
@@ -160,29 +277,32 @@ public class StateEntity extends DisplayEntity {
 	 * Sets the state of this Entity to the given state.
 	 */
 	public final void setPresentState( String state ) {
+		this.setPresentState(getStateID(state));
+	}
+
+	/**
+	 * Sets the state of this Entity to the state with the given ID.
+	 * @param id - state ID returned by getStateID
+	 */
+	public final void setPresentState(int id) {
 		if (presentState == null)
 			this.initStateData();
 
-		if (presentState.name.equals(state))
+		if (presentState.id == id)
 			return;
 
-		StateRecord nextState = states.get(state);
-		if (nextState == null) {
-			if (!isValidState(state))
-				error("Specified state: %s is not valid", state);
-
-			String intState = state.intern();
-			nextState = new StateRecord(intState, isValidWorkingState(intState));
-			states.put(nextState.name, nextState);
-		}
+		StateRecord nextState = this.getState(id);
+		if (nextState == null)
+			nextState = this.createStateRecord(id);
 
-		this.setGraphicsForState(state);
+		this.setGraphicsForState(nextState.name);
 
 		updateStateStats();
 		nextState.startTick = lastStateCollectionTick;
 
 		StateRecord prev = presentState;
 		presentState = nextState;
+		stateSource.notifyChanged();
 		stateChanged(prev, presentState);
 	}
 
@@ -212,15 +332,15 @@ public class StateEntity extends DisplayEntity {
 	 */
 	public void stateChanged(StateRecord prev, StateRecord next) {
 
-		if (traceState.getValue()) {
+		if (stateTrace != null) {
 			long curTick = EventManager.simTicks();
 			EventManager evt = EventManager.current();
 			double duration = evt.ticksToSeconds(curTick - prev.getStartTick());
 			double timeOfPrevStart = evt.ticksToSeconds(prev.getStartTick());
-			stateReportFile.format("%.5f  %s.setState( \"%s\" ) dt = %g\n",
-			                       timeOfPrevStart, this.getName(),
-			                       prev.name, duration);
-			stateReportFile.flush();
+			stateTrace.newEntry(timeOfPrevStart);
+			stateTrace.addString(this.getName());
+			stateTrace.addString(prev.name);
+			stateTrace.addValue(duration);
 		}
 
 		for (StateEntityListener each : stateListeners) {
@@ -251,7 +371,9 @@ public class StateEntity extends DisplayEntity {
 	public void collectInitializationStats() {
 		updateStateStats();
 
-		for (StateRecord each : states.values()) {
+		for (StateRecord each : states) {
+			if (each == null)
+				continue;
 			each.initTicks = each.totalTicks;
 			each.totalTicks = 0;
 			each.completedCycleTicks = 0;
@@ -265,7 +387,9 @@ public class StateEntity extends DisplayEntity {
 		updateStateStats();
 
 		// clear totalHours for each state record
-		for (StateRecord each : states.values()) {
+		for (StateRecord each : states) {
+			if (each == null)
+				continue;
 			each.totalTicks = 0;
 			each.completedCycleTicks = 0;
 		}
@@ -278,7 +402,9 @@ public class StateEntity extends DisplayEntity {
 		updateStateStats();
 
 		// clear current cycle hours for each state record
-		for (StateRecord each : states.values()) {
+		for (StateRecord each : states) {
+			if (each == null)
+				continue;
 			each.currentCycleTicks = 0;
 		}
 	}
@@ -290,25 +416,29 @@ public class StateEntity extends DisplayEntity {
 		updateStateStats();
 
 		// finalize cycle for each state record
-		for (StateRecord each : states.values()) {
+		for (StateRecord each : states) {
+			if (each == null)
+				continue;
 			each.completedCycleTicks += each.currentCycleTicks;
 			each.currentCycleTicks = 0;
 		}
 	}
 
 	public void addState(String str) {
-		if (states.get(str) != null)
-			return;
-		if (!isValidState(str))
-			error("Specified state: %s is not valid", str);
+		this.addState(getStateID(str));
+	}
 
-		String state = str.intern();
-		StateRecord stateRec = new StateRecord(state, isValidWorkingState(state));
-		states.put(stateRec.name, stateRec);
+	public void addState(int id) {
+		if (this.getState(id) != null)
+			return;
+		this.createStateRecord(id);
 	}
 
 	public StateRecord getState(String state) {
-		return states.get(state);
+		Integer id = stateIDs.get(state);
+		if (id == null)
+			return null;
+		return this.getState(id);
 	}
 
 	public StateRecord getState() {
@@ -323,9 +453,11 @@ public class StateEntity extends DisplayEntity {
 	}
 
 	public ArrayList<StateRecord> getStateRecs() {
-		ArrayList<StateRecord> recs = new ArrayList<>(states.size());
-		for (StateRecord rec : states.values())
-			recs.add(rec);
+		ArrayList<StateRecord> recs = new ArrayList<>(numStates);
+		for (StateRecord rec : states) {
+			if (rec != null)
+				recs.add(rec);
+		}
 		Collections.sort(recs, new StateRecSort());
 		return recs;
 	}
@@ -414,7 +546,7 @@ public class StateEntity extends DisplayEntity {
 	 */
 	public double getTimeInState(double simTime, String state) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
-		StateRecord rec = states.get(state.intern());
+		StateRecord rec = this.getState(state);
 		if (rec == null)
 			return 0.0;
 		long ticks = getTicksInState(simTicks, rec);
@@ -465,7 +597,7 @@ public class StateEntity extends DisplayEntity {
 	    sequence = 3)
 	public LinkedHashMap<String, Double> getStateTimes(double simTime) {
 		long simTicks = EventManager.secsToNearestTick(simTime);
-		LinkedHashMap<String, Double> ret = new LinkedHashMap<>(states.size());
+		LinkedHashMap<String, Double> ret = new LinkedHashMap<>(numStates);
 		for (StateRecord stateRec : this.getStateRecs()) {
 			long ticks = getTicksInState(simTicks, stateRec);
 			Double t = EventManager.ticksToSecs(ticks);
@@ -474,4 +606,44 @@ public class StateEntity extends DisplayEntity {
 		return ret;
 	}
 
+	/**
+	 * Assigns consecutive slots to the state IDs used by one StateEntity class. Slots are added
+	 * under a lock, but can be looked up without one.
+	 */
+	private static final class StateSlots {
+		private volatile int[] slotPlusOne = new int[0];  // indexed by state ID, zero if unused
+		private int numSlots;
+
+		/**
+		 * Returns the slot for the specified state ID, or -1 if the class has not used it.
+		 */
+		int get(int id) {
+			int[] arr = slotPlusOne;
+			if (id < 0 || id >= arr.length)
+				return -1;
+			return arr[id] - 1;
+		}
+
+		/**
+		 * Returns the slot for the specified state ID, assigning the next slot if the class has
+		 * not used it before.
+		 */
+		synchronized int add(int id) {
+			int slot = this.get(id);
+			if (slot >= 0)
+				return slot;
+
+			int[] arr = slotPlusOne;
+			if (id >= arr.length)
+				arr = Arrays.copyOf(arr, Math.max(id + 1, 2 * arr.length));
+			slot = numSlots++;
+			arr[id] = slot + 1;
+			slotPlusOne = arr;
+			return slot;
+		}
+
+		synchronized int size() {
+			return numSlots;
+		}
+	}
 }
@@ -18,6 +18,7 @@ package com.jaamsim.states;
 
 public class StateRecord {
 	public final String name;
+	public final int id;  // see StateEntity.getStateID
 	long initTicks;
 	long totalTicks;
 	long completedCycleTicks;
@@ -25,8 +26,9 @@ public class StateRecord {
 	long startTick;
 	public final boolean working;
 
-	StateRecord(String state, boolean work) {
+	StateRecord(String state, int stateID, boolean work) {
 		name = state;
+		id = stateID;
 		working = work;
 	}
 
@@ -0,0 +1,68 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.states;
+
+import com.jaamsim.basicsim.FileEntity;
+import com.jaamsim.basicsim.LogWriter;
+
+/**
+ * Writes the state trace file for a StateEntity. Each entry consists of the start time of the
+ * previous state, the entity name, the previous state, and its duration.
+ */
+class StateTraceWriter implements LogWriter {
+	private final FileEntity file;
+
+	private double startTime;
+	private String entName;
+	private String stateName;
+	private int col;
+
+	StateTraceWriter(FileEntity f) {
+		file = f;
+	}
+
+	@Override
+	public void newRow(double val) {
+		startTime = val;
+		col = 1;
+	}
+
+	@Override
+	public void addValue(double val, int precision) {
+		file.format("%.5f  %s.setState( \"%s\" ) dt = %g\n", startTime, entName, stateName, val);
+		col = 0;
+	}
+
+	@Override
+	public void addString(String str) {
+		if (col == 1)
+			entName = str;
+		else
+			stateName = str;
+		col++;
+	}
+
+	@Override
+	public void flush() {
+		file.flush();
+	}
+
+	@Override
+	public void close() {
+		file.close();
+	}
+}
@@ -81,6 +81,7 @@ import com.jaamsim.Commands.KeywordCommand;
 import com.jaamsim.Graphics.DisplayEntity;
 import com.jaamsim.basicsim.Entity;
 import com.jaamsim.basicsim.ErrorException;
+import com.jaamsim.basicsim.ParallelRuns;
 import com.jaamsim.basicsim.Simulation;
 import com.jaamsim.controllers.RateLimiter;
 import com.jaamsim.controllers.RenderManager;
@@ -365,7 +366,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		InputAgent.clear();
 		InputAgent.setRecordEdits(false);
 		InputAgent.readResource("<res>/inputs/autoload.cfg");
-		InputAgent.setPreDefinedEntityCount( Entity.getAll().get( Entity.getAll().size() - 1 ).getEntityNumber());
+		InputAgent.setPreDefinedEntityCount( Entity.getLastEntity().getEntityNumber());
 
 		updateForUndo();
 	}
@@ -1845,8 +1846,14 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		boolean quiet = false;
 		boolean scriptMode = false;
 		boolean headless = false;
-
-		for (String each : args) {
+		boolean virtualThreads = false;
+		int numWorkers = 1;
+		int worker = -1;
+		int firstRun = 0;
+		int lastRun = 0;
+
+		for (int i = 0; i < args.length; i++) {
+			String each = args[i];
 			// Batch mode
 			if (each.equalsIgnoreCase("-b") ||
 			    each.equalsIgnoreCase("-batch")) {
@@ -1889,11 +1896,39 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 				SAFE_GRAPHICS = true;
 				continue;
 			}
+			// Run the model processes on virtual threads
+			if (each.equalsIgnoreCase("-vt") ||
+			    each.equalsIgnoreCase("-virtual_threads")) {
+				virtualThreads = true;
+				continue;
+			}
+			// Divide the runs between the specified number of processes
+			if ((each.equalsIgnoreCase("-p") ||
+			     each.equalsIgnoreCase("-parallel")) && i + 1 < args.length) {
+				try {
+					numWorkers = Integer.parseInt(args[++i]);
+				}
+				catch (NumberFormatException e) {
+					LogBox.format("Invalid number of processes: %s", args[i]);
+				}
+				continue;
+			}
+			// Execute a block of runs on behalf of a parallel run
+			if (each.equalsIgnoreCase("-worker") && i + 3 < args.length) {
+				worker = Integer.parseInt(args[++i]);
+				firstRun = Integer.parseInt(args[++i]);
+				lastRun = Integer.parseInt(args[++i]);
+				continue;
+			}
 			// Not a program directive, add to list of config files
 			configFiles.add(each);
 		}
 
 		InputAgent.setScriptMode(scriptMode);
+		if (worker >= 0) {
+			InputAgent.setRunNameSuffix(ParallelRuns.getRunNameSuffix(worker));
+			Simulation.setRunRange(firstRun, lastRun);
+		}
 
 		// If not running in batch mode, create the splash screen
 		JWindow splashScreen = null;
@@ -1919,6 +1954,12 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		// create a graphic simulation
 		LogBox.logLine("Loading Simulation Environment ... ");
 
+		if (virtualThreads && !EventManager.setVirtualThreads(true))
+			LogBox.logLine("Virtual threads are not supported by this JVM, using platform threads");
+
+		if (numWorkers > 1 && !batch)
+			LogBox.logLine("Parallel runs require batch mode (-b or -h), executing the runs in sequence");
+
 		EventManager evt = new EventManager("DefaultEventManager");
 		GUIFrame gui = null;
 		if (!headless) {
@@ -1945,7 +1986,7 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		// Load the autoload file
 		InputAgent.setRecordEdits(false);
 		InputAgent.readResource("<res>/inputs/autoload.cfg");
-		InputAgent.setPreDefinedEntityCount( Entity.getAll().get( Entity.getAll().size() - 1 ).getEntityNumber());
+		InputAgent.setPreDefinedEntityCount( Entity.getLastEntity().getEntityNumber());
 
 		// Show the Control Panel
 		if (gui != null) {
@@ -2008,6 +2049,10 @@ public class GUIFrame extends OSFixJFrame implements EventTimeListener, EventErr
 		if (batch) {
 			if (InputAgent.numErrors() > 0)
 				GUIFrame.shutdown(0);
+			if (worker < 0 && ParallelRuns.isParallel(numWorkers)) {
+				boolean bool = ParallelRuns.execute(numWorkers);
+				GUIFrame.shutdown(bool ? 0 : 1);
+			}
 			Simulation.start(evt);
 			return;
 		}
@@ -227,32 +227,28 @@ public class ObjectSelector extends FrameBox {
 		// Prepare a sorted list of entities
 		int numGenerated = 0;
 		ArrayList<Entity> entityList = new ArrayList<>();
-		for (int i = 0; i < Entity.getAll().size(); i++) {
-			try {
-				final Entity ent = Entity.getAll().get(i);
-
-				// The instance for Simulation has already been added
-				if (ent == Simulation.getInstance())
-					continue;
+		for (Entity ent : Entity.getClonesOfIterator(Entity.class)) {
 
-				// The instance for TLS has already been added
-				if (ent == tls)
-					continue;
+			// The instance for Simulation has already been added
+			if (ent == Simulation.getInstance())
+				continue;
 
-				// Do not include the units or views
-				if (ent instanceof Unit || ent instanceof View)
-					continue;
+			// The instance for TLS has already been added
+			if (ent == tls)
+				continue;
 
-				// Apply an upper bound on the number of generated entities to display
-				if (ent.testFlag(Entity.FLAG_GENERATED)) {
-					if (numGenerated > MAX_GENERATED_ENTITIES)
-						continue;
-					numGenerated++;
-				}
+			// Do not include the units or views
+			if (ent instanceof Unit || ent instanceof View)
+				continue;
 
-				entityList.add(ent);
+			// Apply an upper bound on the number of generated entities to display
+			if (ent.testFlag(Entity.FLAG_GENERATED)) {
+				if (numGenerated > MAX_GENERATED_ENTITIES)
+					continue;
+				numGenerated++;
 			}
-			catch (IndexOutOfBoundsException e) {}
+
+			entityList.add(ent);
 		}
 		try {
 			Collections.sort(entityList, selectorSortOrder);
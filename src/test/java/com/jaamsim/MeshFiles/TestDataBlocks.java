@@ -20,6 +20,12 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 import org.junit.Test;
 
@@ -256,4 +262,72 @@ public class TestDataBlocks {
 			assertTrue(grandChild.readDouble() == i * 16000);
 		}
 	}
+
+	@Test
+	public void testMappedRead() throws Throwable {
+		DataBlock block = new DataBlock("Blockity", 32);
+		for (int i = 0; i < 8; ++i) {
+			block.writeInt(i * 42);
+		}
+
+		DataBlock child = new DataBlock("Kiddy", 256);
+		for (int i = 0; i < 16; ++i) {
+			child.writeDouble(i * 3500);
+		}
+		child.writeString("");
+		child.writeString("Fee");
+		block.addChildBlock(child);
+
+		File file = File.createTempFile("TestDataBlocks", ".jsb");
+		file.deleteOnExit();
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			BlockWriter.writeBlock(out, block);
+		}
+
+		DataBlock readBlock = BlockReader.readBlock(mapFile(file), true);
+		assertTrue(readBlock.getName().equals("Blockity"));
+		int[] ints = new int[8];
+		readBlock.readInts(ints);
+		for (int i = 0; i < 8; ++i) {
+			assertTrue(ints[i] == i * 42);
+		}
+		assertTrue(readBlock.atEnd());
+
+		assertTrue(readBlock.getChildren().size() == 1);
+		DataBlock readChild = readBlock.getChildren().get(0);
+		assertTrue(readChild.getName().equals("Kiddy"));
+		double[] doubles = new double[16];
+		readChild.readDoubles(doubles);
+		for (int i = 0; i < 16; ++i) {
+			assertTrue(doubles[i] == i * 3500);
+		}
+		assertTrue(readChild.readString().equals(""));
+		assertTrue(readChild.readString().equals("Fee"));
+		assertTrue(readChild.atEnd());
+
+		// Corrupt the last double in the child's payload
+		ByteBuffer corrupt = ByteBuffer.allocate((int)file.length());
+		corrupt.put(mapFile(file));
+		int pos = (int)file.length() - 8 - 32 - 8 - 4 - 8 - 1;
+		corrupt.put(pos, (byte)(corrupt.get(pos) ^ 0xFF));
+
+		// The payload CRC is checked only when requested
+		corrupt.position(0);
+		assertTrue(BlockReader.readBlock(corrupt, false).getChildren().size() == 1);
+		boolean caught = false;
+		try {
+			corrupt.position(0);
+			BlockReader.readBlock(corrupt, true);
+		}
+		catch (DataBlock.Error e) {
+			caught = true;
+		}
+		assertTrue(caught);
+	}
+
+	private static ByteBuffer mapFile(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
 }
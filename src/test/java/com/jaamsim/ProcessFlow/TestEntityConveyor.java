@@ -0,0 +1,104 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.ProcessFlow;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.events.TestFrameworkHelpers;
+import com.jaamsim.input.InputAgent;
+
+public class TestEntityConveyor {
+	private static final int NUM_ENTS = 100000;
+	private static final long TRAVEL_TICKS = 1000000L;  // 1 s
+	private static final long ARRIVAL_TICKS = 700000L;  // 0.7 s
+
+	/**
+	 * Test that each entity spends exactly the travel time on a conveyor that is never empty,
+	 * so that the progress of the conveyor is never reset to zero and must be rebased.
+	 */
+	@Test
+	public void testBusyConveyor() {
+		TestFrameworkHelpers.loadAutoload();
+		EntityConveyor conveyor = InputAgent.defineEntityWithUniqueName(EntityConveyor.class, "TestConveyor", "-", true);
+		DepartureRecorder recorder = InputAgent.defineEntityWithUniqueName(DepartureRecorder.class, "TestRecorder", "-", true);
+		InputAgent.applyArgs(conveyor, "TravelTime", "1.0", "s");
+		InputAgent.applyArgs(conveyor, "NextComponent", recorder.getName());
+
+		DisplayEntity[] ents = new DisplayEntity[4];
+		for (int i = 0; i < ents.length; i++) {
+			ents[i] = InputAgent.defineEntityWithUniqueName(DisplayEntity.class, "TestConveyed", "-", true);
+		}
+
+		EventManager evt = new EventManager("TestEntityConveyorEVT");
+		evt.clear();
+		TestFrameworkHelpers.startEntities(evt, conveyor, recorder);
+		ArrivalTarget arrivals = new ArrivalTarget(conveyor, ents);
+		evt.scheduleProcessExternal(1, 0, false, arrivals, null);
+		TestFrameworkHelpers.runEventsToTick(evt, Long.MAX_VALUE, 60000);
+
+		assertTrue(recorder.count == NUM_ENTS);
+		for (int i = 0; i < NUM_ENTS; i++) {
+			assertTrue(recorder.departures[i] - arrivals.arrivals[i] == TRAVEL_TICKS);
+		}
+
+		conveyor.kill();
+		recorder.kill();
+		for (DisplayEntity ent : ents) {
+			ent.kill();
+		}
+	}
+
+	public static class DepartureRecorder extends EntitySink {
+		final long[] departures = new long[NUM_ENTS];
+		int count;
+
+		@Override
+		public void addEntity(DisplayEntity ent) {
+			departures[count++] = this.getSimTicks();
+		}
+	}
+
+	private static class ArrivalTarget extends ProcessTarget {
+		final EntityConveyor conveyor;
+		final DisplayEntity[] ents;
+		final long[] arrivals = new long[NUM_ENTS];
+
+		ArrivalTarget(EntityConveyor conv, DisplayEntity[] e) {
+			conveyor = conv;
+			ents = e;
+		}
+
+		@Override
+		public String getDescription() {
+			return "TestConveyorArrivals";
+		}
+
+		@Override
+		public void process() {
+			for (int i = 0; i < NUM_ENTS; i++) {
+				arrivals[i] = EventManager.simTicks();
+				conveyor.addEntity(ents[i % ents.length]);
+				EventManager.waitTicks(ARRIVAL_TICKS, 0, true, null);
+			}
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class TestColumnarLog {
+
+	private static final int NUM_ROWS = 10000;
+
+	/**
+	 * Test that the values written to a binary log are read back with the correct column types
+	 * and statistics.
+	 */
+	@Test
+	public void testColumnarLog() throws IOException {
+		File file = File.createTempFile("TestColumnarLog", ".jlog");
+		file.deleteOnExit();
+		ColumnarLogWriter writer = new ColumnarLogWriter(file.getPath());
+		LogBuffer buf = new LogBuffer(writer);
+
+		ArrayList<String> titles = new ArrayList<>(Arrays.asList("SimTime", "Count", "State", "Value"));
+		ArrayList<String> units = new ArrayList<>(Arrays.asList("h", "", "State", "m"));
+		writer.startTable("##### RUN 1 #####", titles, units);
+		for (int i = 0; i < NUM_ROWS; i++) {
+			buf.newEntry(i * 0.5d);
+			buf.addValue(i % 100);
+			buf.addString((i % 2 == 0) ? "Idle" : "Working");
+
+			// One row in the last group has an error message in place of a number
+			if (i == NUM_ROWS - 1)
+				buf.addString("error");
+			else
+				buf.addValue(i * 0.1d, 3);
+		}
+
+		// Second table with a missing value
+		buf.waitForWriter();
+		titles.remove(3);
+		units.remove(3);
+		writer.startTable("##### RUN 2 #####", titles, units);
+		buf.newEntry(1.0d);
+		buf.addValue(-5.0d);
+		buf.close();
+
+		ColumnarLogReader reader = new ColumnarLogReader(new FileInputStream(file));
+		int row = 0;
+		while (reader.nextGroup()) {
+			assertTrue(reader.getHeader().equals("##### RUN 1 #####"));
+			assertTrue(reader.getColumnCount() == 4);
+			assertTrue(reader.getTitle(2).equals("State"));
+			assertTrue(reader.getUnit(3).equals("m"));
+
+			int n = reader.getRowCount();
+			assertTrue(n == ColumnarLogWriter.ROWS_PER_GROUP || row + n == NUM_ROWS);
+			assertTrue(reader.getColumnType(0) == ColumnarLogWriter.TYPE_DOUBLE);
+			assertTrue(reader.getColumnType(1) == ColumnarLogWriter.TYPE_LONG);
+			assertTrue(reader.getColumnType(2) == ColumnarLogWriter.TYPE_STRING);
+			assertTrue(reader.getMin(0) == row * 0.5d);
+			assertTrue(reader.getMax(0) == (row + n - 1) * 0.5d);
+			assertTrue(reader.getMin(1) == 0.0d && reader.getMax(1) == 99.0d);
+
+			// Skip the second group without reading its values
+			if (row == ColumnarLogWriter.ROWS_PER_GROUP) {
+				row += n;
+				continue;
+			}
+
+			reader.readGroup();
+			boolean lastGroup = (row + n == NUM_ROWS);
+			assertTrue(reader.getColumnType(3) == (lastGroup ? ColumnarLogWriter.TYPE_STRING : ColumnarLogWriter.TYPE_DOUBLE));
+			for (int i = 0; i < n; i++, row++) {
+				assertTrue(reader.getDouble(0, i) == row * 0.5d);
+				assertTrue(reader.getLong(1, i) == row % 100);
+				assertTrue(reader.getString(2, i).equals((row % 2 == 0) ? "Idle" : "Working"));
+				String val = (row == NUM_ROWS - 1) ? "error" : Double.toString(row * 0.1d);
+				assertTrue(reader.getString(3, i).equals(val));
+			}
+			if (lastGroup)
+				break;
+		}
+		assertTrue(row == NUM_ROWS);
+
+		// Second table
+		assertTrue(reader.nextGroup());
+		assertTrue(reader.getHeader().equals("##### RUN 2 #####"));
+		assertTrue(reader.getColumnCount() == 3);
+		assertTrue(reader.getRowCount() == 1);
+		assertTrue(reader.getMin(1) == -5.0d);
+		reader.readGroup();
+		assertTrue(reader.getString(2, 0).isEmpty());
+		assertTrue(!reader.nextGroup());
+		reader.close();
+
+		// Conversion to text
+		reader = new ColumnarLogReader(new FileInputStream(file));
+		StringWriter out = new StringWriter();
+		reader.writeText(out);
+		reader.close();
+		String[] lines = out.toString().split(System.lineSeparator());
+		assertTrue(lines.length == NUM_ROWS + 7);
+		assertTrue(lines[1].equals("SimTime\tCount\tState\tValue"));
+		assertTrue(lines[4].equals("0.5\t1.0\tWorking\t0.1"));
+		assertTrue(lines[NUM_ROWS + 6].equals("1.0\t-5.0\t"));
+	}
+
+	/**
+	 * Test that NaN values are left out of the minimum and maximum for a group and are
+	 * recorded by its NaN flag.
+	 */
+	@Test
+	public void testNaNStatistics() throws IOException {
+		File file = File.createTempFile("TestColumnarLogNaN", ".jlog");
+		file.deleteOnExit();
+		ColumnarLogWriter writer = new ColumnarLogWriter(file.getPath());
+
+		ArrayList<String> titles = new ArrayList<>(Arrays.asList("SimTime", "Value", "Missing"));
+		ArrayList<String> units = new ArrayList<>(Arrays.asList("h", "m", "m"));
+		writer.startTable("##### RUN 1 #####", titles, units);
+		double[] vals = { 1.5d, Double.NaN, -2.5d, Double.NaN, 0.5d };
+		for (int i = 0; i < vals.length; i++) {
+			writer.newRow(i * 0.5d);
+			writer.addValue(vals[i], 3);
+			writer.addValue(Double.NaN, 3);
+		}
+		writer.close();
+
+		ColumnarLogReader reader = new ColumnarLogReader(new FileInputStream(file));
+		assertTrue(reader.nextGroup());
+		assertTrue(reader.getRowCount() == vals.length);
+
+		assertTrue(reader.getColumnType(0) == ColumnarLogWriter.TYPE_DOUBLE);
+		assertTrue(!reader.hasNaN(0));
+
+		assertTrue(reader.getColumnType(1) == ColumnarLogWriter.TYPE_DOUBLE);
+		assertTrue(reader.getMin(1) == -2.5d && reader.getMax(1) == 1.5d);
+		assertTrue(reader.hasNaN(1));
+
+		assertTrue(reader.getColumnType(2) == ColumnarLogWriter.TYPE_DOUBLE);
+		assertTrue(Double.isNaN(reader.getMin(2)) && Double.isNaN(reader.getMax(2)));
+		assertTrue(reader.hasNaN(2));
+
+		reader.readGroup();
+		for (int i = 0; i < vals.length; i++) {
+			assertTrue(Double.compare(reader.getDouble(1, i), vals[i]) == 0);
+			assertTrue(Double.isNaN(reader.getDouble(2, i)));
+		}
+		assertTrue(!reader.nextGroup());
+		reader.close();
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.jaamsim.ProcessFlow.SimEntity;
+import com.jaamsim.events.TestFrameworkHelpers;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Tests that the entities generated from a prototype share the prototype's input values, and
+ * checks the heap memory retained by each one.
+ */
+public class TestEntityFootprint {
+	private static final int NUM_ENTS = 20000;
+	private static final long MAX_BYTES_PER_ENT = 4096L;
+
+	@Test
+	public void testSharedInputs() {
+		TestFrameworkHelpers.loadAutoload();
+		SimEntity proto = InputAgent.defineEntityWithUniqueName(SimEntity.class, "SharedProto", "-", true);
+		InputAgent.applyArgs(proto, "Description", "Prototype");
+		InputAgent.applyArgs(proto, "Position", "1.0", "2.0", "0.0", "m");
+
+		SimEntity ent1 = InputAgent.generateEntity(SimEntity.class, "Shared", 1);
+		SimEntity ent2 = InputAgent.generateEntity(SimEntity.class, "Shared", 2);
+		Entity.fastCopyInputs(proto, ent1);
+		Entity.fastCopyInputs(proto, ent2);
+
+		// Edited and default values are both taken from the prototype
+		for (String key : new String[] { "Description", "Position", "Size", "DefaultStateList" }) {
+			assertTrue(ent1.getInput(key).getValue() == proto.getInput(key).getValue());
+			assertTrue(ent2.getInput(key).getValue() == proto.getInput(key).getValue());
+		}
+		assertTrue(ent1.getInput("DefaultStateList").isDefault());
+
+		// Writing a keyword gives the entity its own value
+		InputAgent.applyArgs(ent1, "Position", "3.0", "4.0", "0.0", "m");
+		InputAgent.applyArgs(ent1, "Size", "2.0", "2.0", "2.0", "m");
+		assertTrue(ent1.getInput("Position").getValue() != proto.getInput("Position").getValue());
+		assertTrue(ent1.getInput("Size").getValue() != proto.getInput("Size").getValue());
+		assertTrue(ent1.getInput("Position").getValueString().startsWith("3.0"));
+		assertTrue(proto.getInput("Position").getValueString().startsWith("1.0"));
+		assertTrue(ent2.getInput("Position").getValueString().startsWith("1.0"));
+		assertTrue(proto.getInput("Size").isDefault());
+		assertTrue(ent2.getInput("Size").getValue() == proto.getInput("Size").getValue());
+
+		ent1.kill();
+		ent2.kill();
+		proto.kill();
+	}
+
+	@Test
+	public void testGeneratedEntityFootprint() {
+		SimEntity proto = InputAgent.defineEntityWithUniqueName(SimEntity.class, "FootprintProto", "-", true);
+		ArrayList<SimEntity> ents = new ArrayList<>(NUM_ENTS);
+
+		long startBytes = getUsedHeap();
+		for (int i = 0; i < NUM_ENTS; i++) {
+			SimEntity ent = InputAgent.generateEntity(SimEntity.class, "Footprint", i);
+			Entity.fastCopyInputs(proto, ent);
+			ent.earlyInit();
+			ents.add(ent);
+		}
+		long bytes = getUsedHeap() - startBytes;
+		assertTrue(ents.size() == NUM_ENTS);
+		assertTrue(bytes / NUM_ENTS < MAX_BYTES_PER_ENT);
+
+		for (SimEntity ent : ents) {
+			ent.kill();
+		}
+		proto.kill();
+	}
+
+	private static long getUsedHeap() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.EventTraceListener;
+import com.jaamsim.events.ProcessTarget;
+
+public class TestEventTrace {
+
+	private static class Target extends ProcessTarget {
+		private final String desc;
+
+		Target(String d) {
+			desc = d;
+		}
+
+		@Override
+		public String getDescription() {
+			return desc;
+		}
+
+		@Override
+		public void process() {}
+	}
+
+	/**
+	 * Test that a binary event trace is converted to the same text as the records built
+	 * directly from the trace operations.
+	 */
+	@Test
+	public void testBinaryTrace() throws IOException {
+		File file = File.createTempFile("TestEventTrace", ".evb");
+		file.deleteOnExit();
+		EventRecorder rec = new EventRecorder(file.getPath());
+
+		StringBuilder expected = new StringBuilder();
+		EventTraceRecord textRec = new EventTraceRecord();
+		EventManager evt = new EventManager("DefaultEventManager");
+
+		// Enough records to fill several of the recorder's buffers
+		for (int i = 0; i < 20000; i++) {
+			long tick = 1000L * i;
+			Target t = new Target("Ent" + (i % 50) + ".method");
+			addTraces(rec, evt, tick, t);
+			addTraces(textRec, evt, tick, t);
+			appendRecords(textRec, expected);
+		}
+
+		// A record that is incomplete when the file is closed is not included
+		rec.traceEvent(evt, 5L, 5L, 1, new Target("Incomplete"));
+		rec.close();
+
+		EventTraceReader reader = new EventTraceReader(new FileInputStream(file));
+		StringWriter out = new StringWriter();
+		reader.writeText(out);
+		reader.close();
+
+		String text = expected.toString().replace("\n", System.lineSeparator());
+		assertTrue(out.toString().equals(text));
+		assertTrue(file.length() < text.length() / 4);
+	}
+
+	private static void addTraces(EventTraceListener l, EventManager evt, long tick, ProcessTarget t) {
+		l.traceEvent(evt, tick, tick, 5, t);
+		l.traceSchedProcess(evt, tick, tick + 250L, 2, t);
+		l.traceKill(evt, tick, -1L, -1, t);
+		l.traceProcessStart(evt, t, tick);
+		l.traceWaitUntil(evt, tick);
+		l.traceWaitUntilEnded(evt, tick, t);
+		l.traceProcessEnd(evt, tick);
+	}
+
+	private static void appendRecords(EventTraceRecord textRec, StringBuilder sb) {
+		if (!textRec.finish())
+			return;
+		for (String line : textRec) {
+			sb.append(line).append("\n");
+		}
+		textRec.clear();
+	}
+}
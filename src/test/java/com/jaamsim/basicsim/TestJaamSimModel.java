@@ -0,0 +1,242 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jaamsim.input.InputAgent;
+
+public class TestJaamSimModel {
+
+	/**
+	 * Test that entities can be killed while iterating over them, and that a restored
+	 * entity returns to its position in entity number order.
+	 */
+	@Test
+	public void testKillDuringIteration() {
+		ArrayList<TestEntity> ents = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			ents.add(InputAgent.defineEntityWithUniqueName(TestEntity.class, "TestEnt", "-", true));
+		}
+
+		// Kill every second entity, including the present one
+		ArrayList<TestEntity> visited = new ArrayList<>();
+		for (TestEntity ent : Entity.getInstanceIterator(TestEntity.class)) {
+			visited.add(ent);
+			if (ents.indexOf(ent) % 2 == 1)
+				ent.kill();
+		}
+		assertTrue(visited.equals(ents));
+
+		for (int i = 0; i < ents.size(); i++) {
+			TestEntity ent = ents.get(i);
+			Entity found = Entity.idToEntity(ent.getEntityNumber());
+			if (i % 2 == 1)
+				assertTrue(found == null && ent.testFlag(Entity.FLAG_DEAD));
+			else
+				assertTrue(found == ent);
+		}
+
+		// Restore an entity in the middle of the list
+		String name = "TestEntRestored";
+		ents.get(3).restore(name);
+		assertTrue(Entity.getNamedEntity(name) == ents.get(3));
+		assertTrue(Entity.idToEntity(ents.get(3).getEntityNumber()) == ents.get(3));
+
+		ArrayList<TestEntity> expected = new ArrayList<>();
+		expected.add(ents.get(0));
+		expected.add(ents.get(2));
+		expected.add(ents.get(3));
+		expected.add(ents.get(4));
+		visited.clear();
+		for (TestEntity ent : Entity.getInstanceIterator(TestEntity.class)) {
+			visited.add(ent);
+		}
+		assertTrue(visited.equals(expected));
+
+		for (TestEntity ent : expected) {
+			ent.kill();
+		}
+		assertTrue(!Entity.getInstanceIterator(TestEntity.class).hasNext());
+	}
+
+	/**
+	 * Test that the iterators for a class, its sub-classes, and an interface return the
+	 * matching entities in entity number order.
+	 */
+	@Test
+	public void testClassIterators() {
+		ArrayList<TestEntity> ents = new ArrayList<>();
+		for (int i = 0; i < 9; i++) {
+			if (i % 3 == 0)
+				ents.add(InputAgent.defineEntityWithUniqueName(TestEntity.class, "TestEnt", "-", true));
+			else if (i % 3 == 1)
+				ents.add(InputAgent.defineEntityWithUniqueName(TestSubEntity.class, "TestSub", "-", true));
+			else
+				ents.add(InputAgent.defineEntityWithUniqueName(TestIfaceEntity.class, "TestIface", "-", true));
+		}
+
+		ArrayList<TestEntity> instances = new ArrayList<>();
+		ArrayList<TestEntity> ifaces = new ArrayList<>();
+		for (TestEntity ent : ents) {
+			if (ent.getClass() == TestEntity.class)
+				instances.add(ent);
+			if (ent instanceof TestIface)
+				ifaces.add(ent);
+		}
+
+		ArrayList<TestEntity> visited = new ArrayList<>();
+		for (TestEntity ent : Entity.getClonesOfIterator(TestEntity.class)) {
+			visited.add(ent);
+		}
+		assertTrue(visited.equals(ents));
+
+		visited.clear();
+		for (TestEntity ent : Entity.getInstanceIterator(TestEntity.class)) {
+			visited.add(ent);
+		}
+		assertTrue(visited.equals(instances));
+
+		visited.clear();
+		for (TestEntity ent : Entity.getClonesOfIterator(TestEntity.class, TestIface.class)) {
+			visited.add(ent);
+		}
+		assertTrue(visited.equals(ifaces));
+
+		for (TestEntity ent : ents) {
+			ent.kill();
+		}
+		assertTrue(!Entity.getClonesOfIterator(TestEntity.class).hasNext());
+	}
+
+	/**
+	 * Test that a disposed entity is returned to its pool and is reused with a new entity
+	 * number and a lazily built name.
+	 */
+	@Test
+	public void testEntityPool() {
+		EntityPool<TestEntity> pool = new EntityPool<>();
+		TestEntity ent = InputAgent.generateEntity(TestEntity.class, "PoolEnt", 1);
+		pool.register(ent);
+		long num = ent.getEntityNumber();
+		assertTrue(ent.getName().equals("PoolEnt_1"));
+
+		ent.dispose();
+		assertTrue(ent.testFlag(Entity.FLAG_DEAD) && ent.getName() == null);
+		assertTrue(Entity.idToEntity(num) == null);
+		assertTrue(pool.size() == 1);
+
+		TestEntity reused = pool.acquire();
+		reused.setGeneratedName("PoolEnt", 2);
+		assertTrue(reused == ent && pool.size() == 0 && pool.acquire() == null);
+		assertTrue(!ent.testFlag(Entity.FLAG_DEAD));
+		assertTrue(ent.getEntityNumber() > num);
+		assertTrue(Entity.idToEntity(ent.getEntityNumber()) == ent);
+		assertTrue(Entity.getLastEntity() == ent);
+		assertTrue(ent.getName().equals("PoolEnt_2"));
+
+		pool.clear();
+		ent.kill();
+		assertTrue(!Entity.getInstanceIterator(TestEntity.class).hasNext());
+	}
+
+	/**
+	 * Test that the instances of a class whose first instance is created during an iteration
+	 * are included, whether the iterator uses the lists for each class or the list of all
+	 * entities.
+	 */
+	@Test
+	public void testNewClassDuringIteration() {
+		// An entity of a class that does not match, so that the lists for each class are used
+		TestOtherEntity other = InputAgent.defineEntityWithUniqueName(TestOtherEntity.class, "TestOther", "-", true);
+
+		ArrayList<TestEntity> ents = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			ents.add(InputAgent.defineEntityWithUniqueName(TestEntity.class, "TestEnt", "-", true));
+		}
+
+		// Lists for each class
+		ArrayList<TestEntity> visited = new ArrayList<>();
+		for (TestEntity ent : Entity.getClonesOfIterator(TestEntity.class)) {
+			visited.add(ent);
+			if (ent == ents.get(0)) {
+				ents.add(InputAgent.defineEntityWithUniqueName(TestLateEntity.class, "TestLate", "-", true));
+				ents.add(InputAgent.defineEntityWithUniqueName(TestEntity.class, "TestEnt", "-", true));
+			}
+		}
+		assertTrue(visited.equals(ents));
+
+		// List of all entities
+		ArrayList<Entity> all = new ArrayList<>();
+		TestEntity late = null;
+		for (Entity ent : Entity.getClonesOfIterator(Entity.class)) {
+			all.add(ent);
+			if (ent == ents.get(0))
+				late = InputAgent.defineEntityWithUniqueName(TestLaterEntity.class, "TestLater", "-", true);
+		}
+		assertTrue(late != null && all.get(all.size() - 1) == late);
+
+		ents.add(late);
+		for (TestEntity ent : ents) {
+			ent.kill();
+		}
+		other.kill();
+		assertTrue(!Entity.getClonesOfIterator(TestEntity.class).hasNext());
+	}
+
+	/**
+	 * Test that the map from entity number to list node matches a HashMap after a random
+	 * mix of insertions and removals.
+	 */
+	@Test
+	public void testEntityNodeMap() {
+		EntityNodeMap map = new EntityNodeMap(4);
+		HashMap<Long, EntityListNode> expected = new HashMap<>();
+		Random rand = new Random(42);
+		for (int i = 0; i < 200000; i++) {
+			long key = rand.nextInt(5000);
+			if (rand.nextInt(3) == 0) {
+				assertTrue(map.remove(key) == expected.remove(key));
+			}
+			else {
+				EntityListNode node = new EntityListNode();
+				map.put(key, node);
+				expected.put(key, node);
+			}
+		}
+
+		assertTrue(map.size() == expected.size());
+		for (long key = 0; key < 5000; key++) {
+			assertTrue(map.get(key) == expected.get(key));
+			assertTrue(map.containsKey(key) == expected.containsKey(key));
+		}
+	}
+
+	public static class TestEntity extends Entity {}
+	public static class TestSubEntity extends TestEntity {}
+	public static class TestLateEntity extends TestEntity {}
+	public static class TestLaterEntity extends TestEntity {}
+	public static class TestOtherEntity extends Entity {}
+	public static interface TestIface {}
+	public static class TestIfaceEntity extends TestSubEntity implements TestIface {}
+}
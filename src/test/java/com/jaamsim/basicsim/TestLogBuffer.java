@@ -0,0 +1,78 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+public class TestLogBuffer {
+
+	/**
+	 * Test that the entries written through a LogBuffer are the same as those formatted
+	 * directly with String.format.
+	 */
+	@Test
+	public void testLogBuffer() throws IOException {
+		File file = File.createTempFile("TestLogBuffer", ".log");
+		file.deleteOnExit();
+		FileEntity fileEnt = new FileEntity(file.getPath());
+		LogBuffer buf = new LogBuffer(new TextLogWriter(fileEnt));
+		StringBuilder expected = new StringBuilder();
+
+		// Header written directly to the file
+		buf.waitForWriter();
+		fileEnt.format("%n%s\t%s", "SimTime", "Value");
+		expected.append(String.format("%n%s\t%s", "SimTime", "Value"));
+
+		// Enough entries to fill several batches
+		for (int i = 0; i < 20000; i++) {
+			double t = i / 7.0d;
+			double val = Math.sin(i) * 1.0e3;
+			String str = (i % 3 == 0) ? null : "Ent_" + i;
+			buf.newEntry(t);
+			buf.addValue(val);
+			buf.addValue(val, i % 5);
+			buf.addValue(-0.0d);
+			buf.addString(str);
+			expected.append(String.format("%n%s\t%s\t%." + (i % 5) + "f\t%s\t%s", t, val, val, -0.0d, str));
+
+			if (i == 10000) {
+				buf.flush();
+				buf.waitForWriter();
+				fileEnt.format("%n%s", "Run 2");
+				expected.append(String.format("%n%s", "Run 2"));
+			}
+		}
+		buf.addValue(Double.NaN);
+		buf.addValue(Double.POSITIVE_INFINITY);
+		expected.append(String.format("\t%s\t%s", Double.NaN, Double.POSITIVE_INFINITY));
+		buf.close();
+
+		// Entries added after the file is closed are ignored
+		buf.addValue(1.0d);
+
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		String text = new String(bytes, Charset.defaultCharset());
+		assertTrue(text.equals(expected.toString()));
+	}
+}
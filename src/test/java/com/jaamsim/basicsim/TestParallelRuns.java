@@ -0,0 +1,177 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.basicsim;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+
+public class TestParallelRuns {
+
+	private static final int NUM_ROWS = 5000;
+	private static final int NUM_EVENTS = 2000;
+
+	private static class Target extends ProcessTarget {
+		private final String desc;
+
+		Target(String d) {
+			desc = d;
+		}
+
+		@Override
+		public String getDescription() {
+			return desc;
+		}
+
+		@Override
+		public void process() {}
+	}
+
+	/**
+	 * Test that the binary logs written by the workers are merged into a single log that
+	 * contains the tables for every run in run number order.
+	 */
+	@Test
+	public void testMergeColumnarLogs() throws IOException {
+		File dir = Files.createTempDirectory("TestParallelRuns").toFile();
+		writeLog(new File(dir, "Model" + ParallelRuns.getRunNameSuffix(0) + "-Logger.jlog"), 1, 2);
+		writeLog(new File(dir, "Model" + ParallelRuns.getRunNameSuffix(1) + "-Logger.jlog"), 3, 3);
+
+		ParallelRuns.mergeOutputs(dir, "Model", 2);
+		File file = new File(dir, "Model-Logger.jlog");
+		assertTrue(file.exists());
+		assertTrue(dir.list().length == 1);
+
+		ColumnarLogReader reader = new ColumnarLogReader(new FileInputStream(file));
+		int run = 0;
+		int row = 0;
+		String lastHeader = null;
+		while (reader.nextGroup()) {
+			if (!reader.getHeader().equals(lastHeader)) {
+				assertTrue(run == 0 || row == NUM_ROWS);
+				lastHeader = reader.getHeader();
+				run++;
+				row = 0;
+				assertTrue(lastHeader.equals("##### RUN " + run + " #####"));
+			}
+			assertTrue(reader.getColumnCount() == 2);
+			reader.readGroup();
+			for (int i = 0; i < reader.getRowCount(); i++) {
+				assertTrue(reader.getDouble(0, i) == row);
+				assertTrue(reader.getLong(1, i) == run * 100000L + row);
+				row++;
+			}
+		}
+		reader.close();
+		assertTrue(run == 3);
+		assertTrue(row == NUM_ROWS);
+
+		Files.delete(file.toPath());
+		Files.delete(dir.toPath());
+	}
+
+	private static void writeLog(File file, int firstRun, int lastRun) {
+		ColumnarLogWriter writer = new ColumnarLogWriter(file.getPath());
+		ArrayList<String> titles = new ArrayList<>(Arrays.asList("SimTime", "Value"));
+		ArrayList<String> units = new ArrayList<>(Arrays.asList("s", ""));
+		for (int run = firstRun; run <= lastRun; run++) {
+			writer.startTable("##### RUN " + run + " #####", titles, units);
+			for (int i = 0; i < NUM_ROWS; i++) {
+				writer.newRow(i);
+				writer.addValue(run * 100000L + i, 0);
+			}
+		}
+		writer.close();
+	}
+
+	/**
+	 * Test that the event traces written by the workers are merged into the same trace that
+	 * is written when the runs are executed one after another.
+	 */
+	@Test
+	public void testMergeEventTraces() throws IOException {
+		File dir = Files.createTempDirectory("TestParallelRuns").toFile();
+		EventManager evt = new EventManager("DefaultEventManager");
+		writeTrace(new File(dir, "Model" + ParallelRuns.getRunNameSuffix(0) + ".evb"), evt, 1, 2);
+		writeTrace(new File(dir, "Model" + ParallelRuns.getRunNameSuffix(1) + ".evb"), evt, 3, 3);
+
+		File seqFile = File.createTempFile("TestParallelRuns", ".evb");
+		seqFile.deleteOnExit();
+		writeTrace(seqFile, evt, 1, 3);
+
+		ParallelRuns.mergeOutputs(dir, "Model", 2);
+		File file = new File(dir, "Model.evb");
+		assertTrue(file.exists());
+		assertTrue(dir.list().length == 1);
+
+		String text = readTrace(file);
+		assertTrue(text.equals(readTrace(seqFile)));
+		assertTrue(text.contains("Run3.Ent" + (NUM_EVENTS - 1)));
+		assertTrue(text.split("SimulationEnd", -1).length == 3);
+		assertTrue(Arrays.equals(Files.readAllBytes(file.toPath()), Files.readAllBytes(seqFile.toPath())));
+
+		Files.delete(file.toPath());
+		Files.delete(dir.toPath());
+	}
+
+	/**
+	 * Records the events for the specified runs. The simulation time returns to zero at the
+	 * start of each run. As in a model, the trace is closed during the event that ends the
+	 * last run, while the events that end the earlier runs are completed.
+	 */
+	private static void writeTrace(File file, EventManager evt, int firstRun, int lastRun) {
+		EventRecorder rec = new EventRecorder(file.getPath());
+		for (int run = firstRun; run <= lastRun; run++) {
+			for (int i = 0; i < NUM_EVENTS; i++) {
+				long tick = 1000L * i;
+				Target t = new Target("Run" + run + ".Ent" + i);
+				rec.traceEvent(evt, tick, tick, 5, t);
+				rec.traceSchedProcess(evt, tick, tick + 250L, 2, t);
+				rec.traceKill(evt, tick, -1L, -1, t);
+				rec.traceProcessStart(evt, t, tick);
+				rec.traceWaitUntil(evt, tick);
+				rec.traceWaitUntilEnded(evt, tick, t);
+				rec.traceProcessEnd(evt, tick);
+			}
+
+			long endTick = 1000L * NUM_EVENTS;
+			rec.traceEvent(evt, endTick, endTick, 5, new Target("SimulationEnd"));
+			if (run < lastRun)
+				rec.traceProcessEnd(evt, endTick);
+		}
+		rec.close();
+	}
+
+	private static String readTrace(File file) throws IOException {
+		EventTraceReader reader = new EventTraceReader(new FileInputStream(file));
+		StringWriter out = new StringWriter();
+		reader.writeText(out);
+		reader.close();
+		return out.toString();
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.datatypes;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class TestIndexedTreeSet {
+
+	/**
+	 * Test that a random sequence of additions and removals gives the same contents and
+	 * positions as a TreeSet.
+	 */
+	@Test
+	public void testRandomOperations() {
+		Random rng = new Random(1234);
+		IndexedTreeSet<Integer> set = new IndexedTreeSet<>();
+		TreeSet<Integer> ref = new TreeSet<>();
+
+		for (int i = 0; i < 20000; i++) {
+			Integer val = rng.nextInt(500);
+			if (rng.nextInt(3) == 0)
+				assertTrue(set.remove(val) == ref.remove(val));
+			else
+				assertTrue(set.add(val) == ref.add(val));
+			assertTrue(set.size() == ref.size());
+
+			if (i % 1000 != 0)
+				continue;
+
+			ArrayList<Integer> list = new ArrayList<>(set);
+			assertTrue(list.equals(new ArrayList<>(ref)));
+			for (int j = 0; j < list.size(); j++) {
+				assertTrue(set.get(j).equals(list.get(j)));
+				assertTrue(set.indexOf(list.get(j)) == j);
+			}
+			if (!ref.isEmpty())
+				assertTrue(set.first().equals(ref.first()));
+		}
+
+		assertTrue(set.indexOf(-1) == -1);
+		assertTrue(!set.contains(500));
+
+		set.clear();
+		assertTrue(set.isEmpty());
+		assertTrue(!set.iterator().hasNext());
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.Test;
+
+import com.jaamsim.ProcessFlow.EntityDelay;
+import com.jaamsim.ProcessFlow.EntityGenerator;
+import com.jaamsim.ProcessFlow.Queue;
+import com.jaamsim.ProcessFlow.Server;
+import com.jaamsim.ProcessFlow.SimEntity;
+import com.jaamsim.events.EventManager.EventListType;
+import com.jaamsim.input.InputAgent;
+
+/**
+ * Counts the memory allocated while a steady-state Generator, Queue, Server and Delay model is
+ * executed, to confirm that scheduling and waiting for events does not allocate any objects.
+ */
+public class TestEventAllocation {
+	private static final int NUM_ENTITIES = 10;
+	private static final long WARMUP_TICKS = 200000000L;    // 200 s
+	private static final long RUN_TICKS = 20000000000L;     // 20000 s
+	private static final long MAX_BYTES = 16384L;
+
+	@Test
+	public void testEventTree() {
+		runModel(EventListType.RED_BLACK_TREE);
+	}
+
+	@Test
+	public void testLadderQueue() {
+		runModel(EventListType.LADDER_QUEUE);
+	}
+
+	private void runModel(EventListType type) {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean))
+			return;
+		com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean)bean;
+		if (!mx.isThreadAllocatedMemorySupported())
+			return;
+		mx.setThreadAllocatedMemoryEnabled(true);
+
+		// A fixed number of entities circulate between the queue, the server and the delay.
+		// Entities that wait too long renege from the queue and bypass the server.
+		TestFrameworkHelpers.loadAutoload();
+		SimEntity proto = InputAgent.defineEntityWithUniqueName(SimEntity.class, "AllocProto", "-", true);
+		EntityGenerator gen = InputAgent.defineEntityWithUniqueName(EntityGenerator.class, "AllocGenerator", "-", true);
+		Queue queue = InputAgent.defineEntityWithUniqueName(Queue.class, "AllocQueue", "-", true);
+		Server server = InputAgent.defineEntityWithUniqueName(Server.class, "AllocServer", "-", true);
+		EntityDelay delay = InputAgent.defineEntityWithUniqueName(EntityDelay.class, "AllocDelay", "-", true);
+
+		InputAgent.applyArgs(gen, "PrototypeEntity", proto.getName());
+		InputAgent.applyArgs(gen, "InterArrivalTime", "1.0", "s");
+		InputAgent.applyArgs(gen, "MaxNumber", Integer.toString(NUM_ENTITIES));
+		InputAgent.applyArgs(gen, "NextComponent", queue.getName());
+		InputAgent.applyArgs(queue, "RenegeTime", "4.0", "s");
+		InputAgent.applyArgs(queue, "RenegeDestination", delay.getName());
+		InputAgent.applyArgs(server, "WaitQueue", queue.getName());
+		InputAgent.applyArgs(server, "ServiceTime", "1.25", "s");
+		InputAgent.applyArgs(server, "NextComponent", delay.getName());
+		InputAgent.applyArgs(delay, "Duration", "2.0", "s");
+		InputAgent.applyArgs(delay, "NextComponent", queue.getName());
+
+		EventManager evt = new EventManager("TestEventAllocationEVT");
+		evt.setEventListType(type);
+		evt.clear();
+		TestFrameworkHelpers.startEntities(evt, proto, gen, queue, server, delay);
+
+		// Warm up until every entity has been generated and the free lists have been filled
+		TestFrameworkHelpers.runEventsToTick(evt, WARMUP_TICKS, 60000);
+		long startProcessed = server.getNumberProcessed(0.0d);
+		long startReneged = queue.getNumberReneged(0.0d);
+
+		long startBytes = getAllocatedBytes(mx);
+		TestFrameworkHelpers.runEventsToTick(evt, WARMUP_TICKS + RUN_TICKS, 60000);
+		long bytes = getAllocatedBytes(mx) - startBytes;
+
+		assertTrue(gen.getNumberGenerated(0.0d) == NUM_ENTITIES);
+		assertTrue(server.getNumberProcessed(0.0d) - startProcessed > 10000L);
+		assertTrue(queue.getNumberReneged(0.0d) - startReneged > 1000L);
+		assertTrue(bytes < MAX_BYTES);
+	}
+
+	private static long getAllocatedBytes(com.sun.management.ThreadMXBean mx) {
+		long ret = 0;
+		for (long each : mx.getThreadAllocatedBytes(mx.getAllThreadIds())) {
+			if (each > 0)
+				ret += each;
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jaamsim.events.EventManager.EventListType;
+
+public class TestEventList {
+
+	/**
+	 * Test that the LadderQueue returns its nodes in the same order as the EventTree for a random
+	 * sequence of insertions and removals.
+	 */
+	@Test
+	public void testLadderQueue() {
+		Random rnd = new Random(12345);
+		EventTree tree = new EventTree();
+		LadderQueue ladder = new LadderQueue();
+		ArrayList<long[]> keys = new ArrayList<>();
+		long now = 0;
+
+		for (int i = 0; i < 500000; i++) {
+			int op = rnd.nextInt(10);
+
+			// Remove the next node
+			if (op < 4) {
+				EventNode n1 = tree.getNextNode();
+				EventNode n2 = ladder.getNextNode();
+				if (n1 == null) {
+					assertTrue(n2 == null);
+					continue;
+				}
+				assertTrue(n1.compareToNode(n2) == 0);
+				now = n1.schedTick;
+				for (int j = 0; j < keys.size(); j++) {
+					long[] key = keys.get(j);
+					if (key[0] == n1.schedTick && key[1] == n1.priority) {
+						removeKey(keys, j);
+						break;
+					}
+				}
+				assertTrue(ladder.removeNode(n1.schedTick, n1.priority));
+				assertTrue(tree.removeNode(n1.schedTick, n1.priority));
+				continue;
+			}
+
+			// Remove a node chosen at random
+			if (op == 4 && !keys.isEmpty()) {
+				long[] key = removeKey(keys, rnd.nextInt(keys.size()));
+				assertTrue(ladder.removeNode(key[0], (int)key[1]));
+				assertTrue(tree.removeNode(key[0], (int)key[1]));
+				continue;
+			}
+
+			// Add a node at a random time in the future
+			long tick;
+			switch (rnd.nextInt(4)) {
+			case 0:  tick = now + rnd.nextInt(10); break;
+			case 1:  tick = now + (long)(-1.0e6d * Math.log(1.0d - rnd.nextDouble())); break;
+			case 2:  tick = now + 1000000000L + rnd.nextInt(1000); break;
+			default: tick = now + rnd.nextInt(100000); break;
+			}
+			int pri = rnd.nextInt(6);
+			if (tree.find(tick, pri) == null)
+				keys.add(new long[] { tick, pri });
+			EventNode n1 = tree.createOrFindNode(tick, pri);
+			EventNode n2 = ladder.createOrFindNode(tick, pri);
+			assertTrue(n1.compareToNode(n2) == 0);
+			assertTrue(ladder.getNodeCount() == keys.size());
+		}
+
+		// Remove the remaining nodes
+		while (tree.getNextNode() != null) {
+			EventNode n1 = tree.getNextNode();
+			EventNode n2 = ladder.getNextNode();
+			assertTrue(n1.compareToNode(n2) == 0);
+			ladder.removeNode(n1.schedTick, n1.priority);
+			tree.removeNode(n1.schedTick, n1.priority);
+		}
+		assertTrue(ladder.getNextNode() == null);
+		assertTrue(ladder.getNodeCount() == 0);
+	}
+
+	private static long[] removeKey(ArrayList<long[]> keys, int i) {
+		long[] ret = keys.get(i);
+		keys.set(i, keys.get(keys.size() - 1));
+		keys.remove(keys.size() - 1);
+		return ret;
+	}
+
+	/**
+	 * Test that events with equal times and priorities are executed in the same FIFO and LIFO
+	 * order for each type of event list.
+	 */
+	@Test
+	public void testEventOrder() {
+		ArrayList<Integer> order1 = runEventOrder(EventListType.RED_BLACK_TREE);
+		ArrayList<Integer> order2 = runEventOrder(EventListType.LADDER_QUEUE);
+		assertTrue(order1.size() == 20000);
+		assertTrue(order1.equals(order2));
+	}
+
+	private ArrayList<Integer> runEventOrder(EventListType type) {
+		EventManager evt = new EventManager("TestEventListEVT");
+		evt.setEventListType(type);
+		evt.clear();
+
+		Random rnd = new Random(54321);
+		ArrayList<Integer> order = new ArrayList<>();
+		for (int i = 0; i < 20000; i++) {
+			long tick = rnd.nextInt(500);
+			int pri = rnd.nextInt(3);
+			boolean fifo = rnd.nextBoolean();
+			evt.scheduleProcessExternal(tick, pri, fifo, new OrderTarget(i, order), null);
+		}
+
+		TestFrameworkHelpers.runEventsToTick(evt, Long.MAX_VALUE, 60000);
+		return order;
+	}
+
+	private static class OrderTarget extends ProcessTarget {
+		final int num;
+		final ArrayList<Integer> order;
+
+		OrderTarget(int n, ArrayList<Integer> o) {
+			num = n;
+			order = o;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Order-" + num;
+		}
+
+		@Override
+		public void process() {
+			order.add(num);
+		}
+	}
+
+	private static final int NUM_PENDING = 100000;
+	private static final int NUM_EVENTS = 2000000;
+
+	/**
+	 * Hold model comparing the event lists. A fixed number of events are pending at all times,
+	 * and each event that is executed schedules a replacement at a random time in the future.
+	 * Both lists must execute the events at the same sequence of times.
+	 */
+	@Test
+	public void testHoldModel() {
+		long sum1 = runHoldModel(EventListType.RED_BLACK_TREE, "Exponential");
+		long sum2 = runHoldModel(EventListType.LADDER_QUEUE, "Exponential");
+		assertTrue(sum1 == sum2);
+
+		sum1 = runHoldModel(EventListType.RED_BLACK_TREE, "Bimodal");
+		sum2 = runHoldModel(EventListType.LADDER_QUEUE, "Bimodal");
+		assertTrue(sum1 == sum2);
+	}
+
+	private long runHoldModel(EventListType type, String dist) {
+		EventManager evt = new EventManager("TestEventListEVT");
+		evt.setEventListType(type);
+		evt.clear();
+
+		HoldState state = new HoldState(dist.equals("Bimodal"));
+		for (int i = 0; i < NUM_PENDING; i++) {
+			evt.scheduleProcessExternal(state.nextDelay(), 0, true, new HoldTarget(state), null);
+		}
+
+		TestFrameworkHelpers.runEventsToTick(evt, Long.MAX_VALUE, 120000);
+
+		assertTrue(state.count == NUM_EVENTS + NUM_PENDING);
+		return state.checksum;
+	}
+
+	private static class HoldState {
+		final Random rnd = new Random(2468);
+		final boolean bimodal;
+		long count;
+		long checksum;
+
+		HoldState(boolean bi) {
+			bimodal = bi;
+		}
+
+		long nextDelay() {
+			double mean = 1.0e6d;
+			if (bimodal)
+				mean = rnd.nextInt(10) == 0 ? 1.0e8d : 1.0e4d;
+			return (long)(-mean * Math.log(1.0d - rnd.nextDouble()));
+		}
+	}
+
+	private static class HoldTarget extends ProcessTarget {
+		final HoldState state;
+
+		HoldTarget(HoldState s) {
+			state = s;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Hold";
+		}
+
+		@Override
+		public void process() {
+			state.count++;
+			state.checksum = state.checksum * 31 + EventManager.simTicks();
+			if (state.count <= NUM_EVENTS)
+				EventManager.scheduleTicks(state.nextDelay(), 0, true, this, null);
+		}
+	}
+}
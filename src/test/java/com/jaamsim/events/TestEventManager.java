@@ -337,6 +337,80 @@ public class TestEventManager {
 		}
 	}
 
+	/**
+	 * Test that a tracked Conditional is only re-evaluated after a value that it
+	 * read has changed, while an untracked Conditional is evaluated at every time step.
+	 */
+	@Test
+	public void testTrackedConditional() {
+		EventManager evt = new EventManager("testTrackedConditionalEVT");
+		evt.clear();
+
+		final ConditionalSource src = new ConditionalSource();
+		final int[] value = new int[1];
+		final CountConditional tracked = new CountConditional(src, value, true);
+		final CountConditional polled = new CountConditional(src, value, false);
+		final ArrayList<String> log = new ArrayList<>();
+		evt.scheduleProcessExternal(0, 0, false, new ProcessTarget() {
+			@Override
+			public String getDescription() { return ""; }
+
+			@Override
+			public void process() {
+				EventManager.scheduleUntil(new LogTarget(1, log), tracked, null);
+				EventManager.scheduleUntil(new LogTarget(2, log), polled, null);
+				for (int i = 1; i <= 10; i++) {
+					EventManager.waitTicks(1, 0, false, null);
+					value[0] = i;
+					if (i == 5)
+						src.notifyChanged();
+				}
+			}
+		}, null);
+
+		TestFrameworkHelpers.runEventsToTick(evt, 100, 1000);
+
+		// Both conditionals fire, but the tracked one only sees the change when notified
+		assertTrue(log.size() == 2);
+		assertTrue(log.get(0).equals("Target:2"));
+		assertTrue(log.get(1).equals("Target:1"));
+		assertTrue(polled.satisfiedTick == 3);
+		assertTrue(tracked.satisfiedTick == 5);
+
+		// Evaluated once when first scheduled and once after the notification
+		assertTrue(tracked.count == 2);
+		assertTrue(polled.count > tracked.count);
+	}
+
+	private static class CountConditional extends Conditional {
+		final ConditionalSource src;
+		final int[] value;
+		final boolean track;
+		int count;
+		long satisfiedTick = -1;
+
+		CountConditional(ConditionalSource s, int[] v, boolean t) {
+			src = s;
+			value = v;
+			track = t;
+		}
+
+		@Override
+		public boolean evaluate() {
+			count++;
+			src.recordRead();
+			if (value[0] < 3)
+				return false;
+			satisfiedTick = EventManager.simTicks();
+			return true;
+		}
+
+		@Override
+		public boolean isTracked() {
+			return track;
+		}
+	}
+
 	private static class LogTarget extends ProcessTarget {
 		final ArrayList<String> log;
 		final int num;
@@ -16,6 +16,9 @@
  */
 package com.jaamsim.events;
 
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.input.InputAgent;
+
 
 public class TestFrameworkHelpers {
 	public static void runEventsToTick(EventManager evt, long tick, long timeoutMS) {
@@ -23,6 +26,53 @@ public class TestFrameworkHelpers {
 		tl.waitforstop(evt, tick, timeoutMS);
 	}
 
+	/**
+	 * Loads the units and object types defined by the autoload file, if they have not
+	 * already been loaded, so that model objects can be created and given inputs.
+	 */
+	public static void loadAutoload() {
+		if (Entity.getNamedEntity("s") != null)
+			return;
+		InputAgent.setRecordEdits(false);
+		InputAgent.readResource("<res>/inputs/autoload.cfg");
+	}
+
+	/**
+	 * Initializes the specified entities in the same way as a simulation run and schedules
+	 * their startUp methods at the start of the run.
+	 */
+	public static void startEntities(EventManager evt, final Entity... ents) {
+		evt.scheduleProcessExternal(0, 0, false, new ProcessTarget() {
+			@Override
+			public String getDescription() {
+				return "TestInit";
+			}
+
+			@Override
+			public void process() {
+				for (Entity each : ents) {
+					each.earlyInit();
+				}
+				for (Entity each : ents) {
+					each.lateInit();
+				}
+				for (final Entity each : ents) {
+					EventManager.scheduleTicks(0, 0, true, new ProcessTarget() {
+						@Override
+						public String getDescription() {
+							return each.getName() + ".startUp";
+						}
+
+						@Override
+						public void process() {
+							each.startUp();
+						}
+					}, null);
+				}
+			}
+		}, null);
+	}
+
 	private static class TestTimeListener implements EventTimeListener {
 		Thread waitThread = null;
 
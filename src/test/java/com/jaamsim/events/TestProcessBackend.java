@@ -0,0 +1,103 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Hold model run on each of the Process backends. A fixed number of processes remain
+ * parked in waitTicks for the whole run, so each event is a hand-off between two Process
+ * threads. Every process must resume at the expected tick after each of its waits.
+ */
+public class TestProcessBackend {
+	private static final int NUM_PROCS = 2000;
+	private static final int NUM_WAITS = 50;
+
+	@Test
+	public void testPlatformThreads() {
+		boolean prev = EventManager.isVirtualThreads();
+		EventManager.setVirtualThreads(false);
+		try {
+			runHoldModel();
+		}
+		finally {
+			EventManager.setVirtualThreads(prev);
+		}
+	}
+
+	@Test
+	public void testVirtualThreads() {
+		boolean prev = EventManager.isVirtualThreads();
+		if (!EventManager.setVirtualThreads(true))
+			return;
+		try {
+			runHoldModel();
+		}
+		finally {
+			EventManager.setVirtualThreads(prev);
+		}
+	}
+
+	private void runHoldModel() {
+		EventManager evt = new EventManager("TestProcessBackendEVT");
+		evt.clear();
+
+		long[] count = new long[1];
+		HoldTarget[] targets = new HoldTarget[NUM_PROCS];
+		for (int i = 0; i < NUM_PROCS; i++) {
+			targets[i] = new HoldTarget(i, count);
+			evt.scheduleProcessExternal(i % 7, 0, true, targets[i], null);
+		}
+
+		TestFrameworkHelpers.runEventsToTick(evt, Long.MAX_VALUE, 60000);
+
+		// Every wait by every process has been completed at the expected time
+		assertTrue(count[0] == (long)NUM_PROCS * NUM_WAITS);
+		for (int i = 0; i < NUM_PROCS; i++) {
+			assertTrue(targets[i].errors == 0);
+		}
+	}
+
+	private static class HoldTarget extends ProcessTarget {
+		final int num;
+		final long[] count;
+		int errors;  // number of waits that ended at the wrong time
+		HoldTarget(int i, long[] c) {
+			num = i;
+			count = c;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Hold-" + num;
+		}
+
+		@Override
+		public void process() {
+			for (int i = 0; i < NUM_WAITS; i++) {
+				long dur = 1 + (num + i) % 5;
+				long expected = EventManager.simTicks() + dur;
+				EventManager.waitTicks(dur, 0, true, null);
+				if (EventManager.simTicks() != expected)
+					errors++;
+				count[0]++;
+			}
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.events;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestRealTime {
+
+	/**
+	 * Test that events are executed close to their wall-clock deadlines in real-time mode.
+	 */
+	@Test
+	public void testEventLateness() {
+		EventManager evt = new EventManager("TestEVT");
+		evt.clear();
+		evt.setExecuteRealTime(true, 1.0d);
+
+		int num = 10;
+		long[] nanos = new long[num];
+		for (int i = 0; i < num; i++) {
+			long tick = evt.secondsToNearestTick(0.05d * (i + 1));
+			evt.scheduleProcessExternal(tick, 0, false, new TimeTarget(nanos, i), null);
+		}
+
+		long start = System.nanoTime();
+		TestFrameworkHelpers.runEventsToTick(evt, evt.secondsToNearestTick(0.6d), 10000);
+
+		// Each event is executed no earlier than its deadline
+		for (int i = 0; i < num; i++) {
+			long due = start + (long)(0.05e9d * (i + 1));
+			assertTrue(nanos[i] >= due - 2000000L);
+		}
+
+		assertTrue(evt.getRealTimeCount() == num);
+		assertTrue(evt.getRealTimeLatenessAverage() < 0.02d);
+		assertTrue(evt.getRealTimeLatenessMaximum() < 0.2d);
+	}
+
+	/**
+	 * Test that a change to the real-time factor wakes the event manager so that a distant
+	 * event is executed promptly at the new rate.
+	 */
+	@Test
+	public void testFactorChange() {
+		final EventManager evt = new EventManager("TestEVT");
+		evt.clear();
+		evt.setExecuteRealTime(true, 1.0d);
+
+		long[] nanos = new long[1];
+		evt.scheduleProcessExternal(evt.secondsToNearestTick(100.0d), 0, false, new TimeTarget(nanos, 0), null);
+
+		Thread t = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try { Thread.sleep(50); }
+				catch (InterruptedException e) {}
+				evt.setExecuteRealTime(true, 1.0e6d);
+			}
+		});
+		long start = System.nanoTime();
+		t.start();
+		TestFrameworkHelpers.runEventsToTick(evt, evt.secondsToNearestTick(101.0d), 10000);
+
+		assertTrue(nanos[0] - start < 2000000000L);
+	}
+
+	private static class TimeTarget extends ProcessTarget {
+		final long[] nanos;
+		final int idx;
+
+		TimeTarget(long[] n, int i) {
+			nanos = n;
+			idx = i;
+		}
+
+		@Override
+		public String getDescription() {
+			return "TimeTarget-" + idx;
+		}
+
+		@Override
+		public void process() {
+			nanos[idx] = System.nanoTime();
+		}
+	}
+}
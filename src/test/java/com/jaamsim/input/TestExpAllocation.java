@@ -0,0 +1,124 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import com.jaamsim.input.ExpParser.Assigner;
+import com.jaamsim.input.ExpParser.EvalContext;
+import com.jaamsim.input.ExpParser.OutputResolver;
+import com.jaamsim.input.ExpParser.UnitData;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.Unit;
+
+/**
+ * Checks the memory allocated by the evaluation of numerical and collection expressions.
+ * Indexing and sizing a range must not depend on the number of elements, and the functions
+ * that apply a lambda to each element must stay within a small number of bytes per element.
+ */
+public class TestExpAllocation {
+	private static final int NUM_EVALS = 20;
+
+	private static class PC extends ExpParser.ParseContext {
+		public PC() {
+			super(new HashMap<String, ExpResult>());
+		}
+		@Override
+		public UnitData getUnitByName(String name) {
+			return null;
+		}
+		@Override
+		public Class<? extends Unit> multUnitTypes(Class<? extends Unit> a, Class<? extends Unit> b) {
+			return DimensionlessUnit.class;
+		}
+		@Override
+		public Class<? extends Unit> divUnitTypes(Class<? extends Unit> num, Class<? extends Unit> denom) {
+			return DimensionlessUnit.class;
+		}
+		@Override
+		public ExpResult getValFromLitName(String name, String source, int pos) throws ExpError {
+			return ExpResult.makeNumResult(1, DimensionlessUnit.class);
+		}
+		@Override
+		public OutputResolver getOutputResolver(String name) throws ExpError {
+			throw new ExpError(null, 0, "Outputs not supported");
+		}
+		@Override
+		public OutputResolver getConstOutputResolver(ExpResult constEnt, String name) throws ExpError {
+			throw new ExpError(null, 0, "Outputs not supported");
+		}
+		@Override
+		public Assigner getAssigner(String attribName) throws ExpError {
+			throw new ExpError(null, 0, "Assign not supported");
+		}
+		@Override
+		public Assigner getConstAssigner(ExpResult constEnt, String attribName) throws ExpError {
+			throw new ExpError(null, 0, "Assign not supported");
+		}
+	}
+
+	@Test
+	public void testCollectionAllocation() throws ExpError {
+		PC pc = new PC();
+		EvalContext ec = new EvalContext();
+
+		testExpression(pc, ec, "size(range(10000))", 10000, 1024L);
+		testExpression(pc, ec, "range(10000)(5000)", 5000, 1024L);
+		testExpression(pc, ec, "reduce(|x, accum|(x + accum), 0, range(10000))", 50005000, 2000000L);
+		testExpression(pc, ec, "size(map(|x|(2*x), range(10000)))", 10000, 2000000L);
+		testExpression(pc, ec, "size(filter(|x|(x % 2 == 0), range(10000)))", 5000, 3000000L);
+		testExpression(pc, ec, "map(|x, i|(x*i), range(10000))(100)", 10000, 2000000L);
+	}
+
+	private static void testExpression(PC pc, EvalContext ec, String str, double expected, long maxBytes) throws ExpError {
+		ExpParser.Expression exp = ExpParser.parseExpression(pc, str);
+		assertTrue(exp.evaluate(ec).value == expected);
+
+		long startBytes = getAllocatedBytes();
+		for (int i = 0; i < NUM_EVALS; i++) {
+			exp.evaluate(ec);
+		}
+		long bytes = getAllocatedBytes() - startBytes;
+
+		if (startBytes < 0)
+			return;
+		assertTrue(bytes / NUM_EVALS < maxBytes);
+	}
+
+	/**
+	 * Returns the number of bytes allocated by the present thread, or -1 if this is not
+	 * supported by the JVM.
+	 */
+	private static long getAllocatedBytes() {
+		try {
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			Class<?> klass = Class.forName("com.sun.management.ThreadMXBean");
+			Method m = klass.getMethod("getThreadAllocatedBytes", long.class);
+			return (Long)m.invoke(bean, Thread.currentThread().getId());
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			return -1;
+		}
+	}
+}
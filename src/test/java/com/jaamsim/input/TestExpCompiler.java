@@ -0,0 +1,140 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import com.jaamsim.input.ExpParser.Assigner;
+import com.jaamsim.input.ExpParser.EvalContext;
+import com.jaamsim.input.ExpParser.OutputResolver;
+import com.jaamsim.input.ExpParser.UnitData;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.Unit;
+
+/**
+ * Compares the compiled and interpreted evaluation of numerical expressions. Each expression
+ * must return the same value both ways, including after repeated evaluation.
+ */
+public class TestExpCompiler {
+	private static final int NUM_EVALS = 20000;
+
+	private static final String[] EXPS = {
+		"2*5 + 3*5*(3-1)+2",
+		"[foo].bar * 3 + [foo].baz / 2 - 1",
+		"max([foo].bar, 3, -[foo].baz) + min(1, [foo].baz)",
+		"[foo].bar > 3 && [foo].baz <= 4 || ![foo].bar",
+		"[foo].bar == 4 ? sqrt([foo].bar) : abs(-[foo].baz)",
+		"floor([foo].bar^2 % 7) + ceil(sin([foo].baz) * 10) + exp(ln([foo].bar))",
+		"{1, 2, [foo].bar}(3) + 1",
+		"|x|(2*x + [foo].bar)(21)",
+	};
+
+	private static class CountResolver implements OutputResolver {
+		private final double val;
+		CountResolver(String name) {
+			val = name.equals("bar") ? 4 : 3;
+		}
+		@Override
+		public ExpResult resolve(EvalContext ec, ExpResult ent) {
+			return ExpResult.makeNumResult(val, DimensionlessUnit.class);
+		}
+		@Override
+		public ExpValResult validate(ExpValResult entValRes) {
+			return ExpValResult.makeValidRes(ExpResType.NUMBER, DimensionlessUnit.class);
+		}
+	}
+
+	private static class PC extends ExpParser.ParseContext {
+		public PC() {
+			super(new HashMap<String, ExpResult>());
+		}
+		@Override
+		public UnitData getUnitByName(String name) {
+			return null;
+		}
+		@Override
+		public Class<? extends Unit> multUnitTypes(Class<? extends Unit> a, Class<? extends Unit> b) {
+			return DimensionlessUnit.class;
+		}
+		@Override
+		public Class<? extends Unit> divUnitTypes(Class<? extends Unit> num, Class<? extends Unit> denom) {
+			return DimensionlessUnit.class;
+		}
+		@Override
+		public ExpResult getValFromLitName(String name, String source, int pos) throws ExpError {
+			return ExpResult.makeNumResult(1, DimensionlessUnit.class);
+		}
+		@Override
+		public OutputResolver getOutputResolver(String name) throws ExpError {
+			return new CountResolver(name);
+		}
+		@Override
+		public OutputResolver getConstOutputResolver(ExpResult constEnt, String name) throws ExpError {
+			return new CountResolver(name);
+		}
+		@Override
+		public Assigner getAssigner(String attribName) throws ExpError {
+			throw new ExpError(null, 0, "Assign not supported");
+		}
+		@Override
+		public Assigner getConstAssigner(ExpResult constEnt, String attribName) throws ExpError {
+			throw new ExpError(null, 0, "Assign not supported");
+		}
+	}
+
+	@Test
+	public void testCompiledExpressions() throws ExpError {
+		PC pc = new PC();
+		EvalContext ec = new EvalContext();
+		boolean prev = ExpParser.isCompileNumbers();
+		try {
+			for (String str : EXPS) {
+				ExpParser.setCompileNumbers(false);
+				ExpParser.Expression interp = ExpParser.parseExpression(pc, str);
+				ExpParser.setCompileNumbers(true);
+				ExpParser.Expression comp = ExpParser.parseExpression(pc, str);
+
+				ExpResult interpRes = interp.evaluate(ec);
+				ExpResult compRes = comp.evaluate(ec);
+				assertTrue(interpRes.type == ExpResType.NUMBER);
+				assertTrue(compRes.type == ExpResType.NUMBER);
+				assertTrue(Double.compare(interpRes.value, compRes.value) == 0);
+				assertTrue(interpRes.unitType == compRes.unitType);
+
+				testRepeatedEvaluation(interp, ec, interpRes.value);
+				testRepeatedEvaluation(comp, ec, interpRes.value);
+			}
+		}
+		finally {
+			ExpParser.setCompileNumbers(prev);
+		}
+	}
+
+	/**
+	 * Evaluates the expression enough times for it to be optimised by the JIT compiler and
+	 * confirms that the value does not change.
+	 */
+	private static void testRepeatedEvaluation(ExpParser.Expression exp, EvalContext ec, double expected) throws ExpError {
+		for (int i = 0; i < NUM_EVALS; i++) {
+			assertTrue(Double.compare(exp.evaluate(ec).value, expected) == 0);
+		}
+	}
+}
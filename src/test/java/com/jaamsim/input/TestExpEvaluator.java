@@ -0,0 +1,115 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jaamsim.basicsim.Entity;
+import com.jaamsim.units.DimensionlessUnit;
+
+public class TestExpEvaluator {
+
+	public static class NextEntity extends Entity {
+		Entity next;
+
+		@Output(name = "Next")
+		public Entity getNext(double simTime) {
+			return next;
+		}
+	}
+
+	public static class DoubleEntity extends Entity {
+		@Output(name = "Value")
+		public double getValue(double simTime) {
+			return simTime * 2.0d;
+		}
+	}
+
+	public static class IntEntity extends Entity {
+		@Output(name = "Value")
+		public int getValue(double simTime) {
+			return 7;
+		}
+	}
+
+	public static class BooleanEntity extends Entity {
+		@Output(name = "Value")
+		public Boolean getValue(double simTime) {
+			return Boolean.TRUE;
+		}
+	}
+
+	public static class StringEntity extends Entity {
+		@Output(name = "Value")
+		public String getValue(double simTime) {
+			return "str";
+		}
+	}
+
+	/**
+	 * Test that an output on a non-constant entity is resolved correctly as the class of the
+	 * entity changes between evaluations.
+	 */
+	@Test
+	public void testPolymorphicResolution() throws ExpError {
+		NextEntity ent = InputAgent.defineEntityWithUniqueName(NextEntity.class, "NextEnt", "-", true);
+		DoubleEntity dblEnt = InputAgent.defineEntityWithUniqueName(DoubleEntity.class, "DoubleEnt", "-", true);
+		IntEntity intEnt = InputAgent.defineEntityWithUniqueName(IntEntity.class, "IntEnt", "-", true);
+		BooleanEntity boolEnt = InputAgent.defineEntityWithUniqueName(BooleanEntity.class, "BoolEnt", "-", true);
+		StringEntity strEnt = InputAgent.defineEntityWithUniqueName(StringEntity.class, "StrEnt", "-", true);
+
+		ExpParser.Expression exp = ExpParser.parseExpression(ExpEvaluator.getParseContext(ent, "this.Next.Value"), "this.Next.Value");
+
+		for (int i = 0; i < 3; i++) {
+			ent.next = dblEnt;
+			ExpResult res = ExpEvaluator.evaluateExpression(exp, 1.5d + i);
+			assertTrue(res.type == ExpResType.NUMBER && res.value == 3.0d + 2*i);
+			assertTrue(res.unitType == DimensionlessUnit.class);
+
+			ent.next = intEnt;
+			res = ExpEvaluator.evaluateExpression(exp, 0.0d);
+			assertTrue(res.type == ExpResType.NUMBER && res.value == 7.0d);
+
+			ent.next = boolEnt;
+			res = ExpEvaluator.evaluateExpression(exp, 0.0d);
+			assertTrue(res.type == ExpResType.NUMBER && res.value == 1.0d);
+
+			ent.next = strEnt;
+			res = ExpEvaluator.evaluateExpression(exp, 0.0d);
+			assertTrue(res.type == ExpResType.STRING && res.stringVal.equals("str"));
+
+			// An entity without the output
+			ent.next = ent;
+			boolean caught = false;
+			try {
+				ExpEvaluator.evaluateExpression(exp, 0.0d);
+			}
+			catch (ExpError e) {
+				caught = true;
+			}
+			assertTrue(caught);
+		}
+
+		ent.kill();
+		dblEnt.kill();
+		intEnt.kill();
+		boolEnt.kill();
+		strEnt.kill();
+	}
+}
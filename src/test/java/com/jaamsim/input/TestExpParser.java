@@ -870,6 +870,21 @@ public class TestExpParser {
 		double[] vals3 = { };
 		assertColSame(vals3, val.colVal);
 
+		exp = ExpParser.parseExpression(pc, "size(range(10000))");
+		val = exp.evaluate(ec);
+		assertTrue(val.value == 10000);
+
+		exp = ExpParser.parseExpression(pc, "range(3)(4)");
+		val = exp.evaluate(ec);
+		assertTrue(val.type == ExpResType.NUMBER && val.value == 0);
+
+		// Numerical results followed by a non-numerical one
+		exp = ExpParser.parseExpression(pc, "map(|x|(x == 2 ? {x} : x), range(3))");
+		val = exp.evaluate(ec);
+		assertTrue(val.colVal.getSize() == 3);
+		assertTrue(val.colVal.index(ExpResult.makeNumResult(1, DimensionlessUnit.class)).value == 1);
+		assertTrue(val.colVal.index(ExpResult.makeNumResult(2, DimensionlessUnit.class)).type == ExpResType.COLLECTION);
+		assertTrue(val.colVal.index(ExpResult.makeNumResult(3, DimensionlessUnit.class)).value == 3);
 	}
 
 	@Test
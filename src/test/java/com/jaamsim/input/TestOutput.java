@@ -63,4 +63,49 @@ public class TestOutput {
 		}
 	}
 
+	public static class AccessorEntity extends Entity {
+		@Output(name = "DoubleOut")
+		public double getDoubleOut(double simTime) {
+			return simTime + 0.5d;
+		}
+
+		@Output(name = "IntOut")
+		public int getIntOut(double simTime) {
+			return 3;
+		}
+
+		@Output(name = "BooleanOut")
+		public boolean getBooleanOut(double simTime) {
+			return true;
+		}
+
+		@Output(name = "BoxedOut")
+		public Double getBoxedOut(double simTime) {
+			return null;
+		}
+
+		@Output(name = "StringOut")
+		public String getStringOut(double simTime) {
+			return "str";
+		}
+	}
+
+	@Test
+	public void testOutputAccessors() {
+		AccessorEntity ent = InputAgent.defineEntityWithUniqueName(AccessorEntity.class, "AccessorEnt", "-", true);
+
+		assertTrue(ent.getOutputHandle("DoubleOut").getValueAsDouble(1.0d, -1.0d) == 1.5d);
+		assertTrue(ent.getOutputHandle("DoubleOut").getValue(1.0d, double.class) == 1.5d);
+		assertTrue(ent.getOutputHandle("IntOut").getValueAsDouble(1.0d, -1.0d) == 3.0d);
+		assertTrue(ent.getOutputHandle("BooleanOut").getValueAsDouble(1.0d, -1.0d) == 1.0d);
+		assertTrue(ent.getOutputHandle("BoxedOut").getValueAsDouble(1.0d, -1.0d) == -1.0d);
+		assertTrue(ent.getOutputHandle("StringOut").getValueAsDouble(1.0d, -1.0d) == -1.0d);
+		assertTrue(ent.getOutputHandle("StringOut").getValue(1.0d, String.class).equals("str"));
+		assertTrue(ent.getOutputHandle("StringOut").getValue(1.0d, Entity.class) == null);
+
+		assertTrue(OutputHandle.getStaticOutputType(AccessorEntity.class, "IntOut") == int.class);
+		assertTrue(OutputHandle.getStaticOutputType(AccessorEntity.class, "Missing") == null);
+		ent.kill();
+	}
+
 }
@@ -0,0 +1,151 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.render;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jaamsim.math.AABB;
+import com.jaamsim.math.Ray;
+import com.jaamsim.math.Vec3d;
+import com.jaamsim.math.Vec4d;
+
+public class TestBVH {
+
+	private static class Box implements Renderable {
+		final long id;
+		final AABB bounds;
+
+		Box(long id, double x, double y, double size) {
+			this.id = id;
+			bounds = new AABB(new Vec3d(x + size, y + size, -1000.0d + size), new Vec3d(x - size, y - size, -1000.0d - size));
+		}
+
+		@Override
+		public void render(int contextID, Renderer renderer, Camera cam, Ray pickRay) {}
+		@Override
+		public void renderTransparent(int contextID, Renderer renderer, Camera cam, Ray pickRay) {}
+		@Override
+		public long getPickingID() { return id; }
+		@Override
+		public AABB getBoundsRef() { return bounds; }
+		@Override
+		public boolean hasTransparent() { return false; }
+		@Override
+		public boolean renderForView(int viewID, Camera cam) { return true; }
+		@Override
+		public double getCollisionDist(Ray r, boolean precise) {
+			return bounds.collisionDist(r, 0.1d * bounds.radius.mag3());
+		}
+	}
+
+	private static Box randomBox(Random rng, long id) {
+		return new Box(id, rng.nextDouble() * 20000.0d - 10000.0d, rng.nextDouble() * 20000.0d - 10000.0d,
+				1.0d + rng.nextDouble() * 20.0d);
+	}
+
+	/**
+	 * Test that culling and picking with the tree find the same renderables as testing every
+	 * renderable, while the renderables move, appear and disappear between frames.
+	 */
+	@Test
+	public void testCullAndPick() {
+		Random rng = new Random(42);
+		int num = 20000;
+		long nextID = 1;
+		ArrayList<Box> scene = new ArrayList<>();
+		for (int i = 0; i < num; i++) {
+			scene.add(randomBox(rng, nextID++));
+		}
+
+		BVH tree = new BVH();
+		Camera cam = new Camera(Math.PI / 4.0d, 1.0d, 0.1d, 10000.0d);
+		for (int frame = 0; frame < 50; frame++) {
+			ArrayList<Renderable> list = new ArrayList<Renderable>(scene);
+			tree.update(list);
+
+			// Culling
+			ArrayList<Renderable> visible = new ArrayList<>();
+			tree.cull(cam, visible);
+			assertTrue(tree.getNodesVisited() < tree.getNodeCount() / 10);
+			checkOrder(list, visible);
+			HashSet<Renderable> visibleSet = new HashSet<>(visible);
+			int numVisible = 0;
+			for (Renderable r : list) {
+				if (cam.collides(r.getBoundsRef())) {
+					assertTrue(visibleSet.contains(r));
+					numVisible++;
+				}
+			}
+			assertTrue(numVisible > 0);
+
+			// Picking towards the centre of a renderable
+			Box target = scene.get(rng.nextInt(scene.size()));
+			Ray ray = new Ray(new Vec4d(0.0d, 0.0d, 0.0d, 1.0d), new Vec4d(target.bounds.center.x, target.bounds.center.y, target.bounds.center.z, 0.0d));
+			ArrayList<Renderable> candidates = new ArrayList<>();
+			tree.pick(ray, candidates);
+			assertTrue(tree.getNodesVisited() < tree.getNodeCount() / 10);
+			checkOrder(list, candidates);
+			HashSet<Renderable> candidateSet = new HashSet<>(candidates);
+			assertTrue(candidateSet.contains(target));
+			for (Renderable r : list) {
+				if (r.getCollisionDist(ray, false) >= 0.0d)
+					assertTrue(candidateSet.contains(r));
+			}
+
+			// Move some renderables, replacing them with new ones with the same picking ID
+			for (int i = 0; i < 200; i++) {
+				int index = rng.nextInt(scene.size());
+				Box b = scene.get(index);
+				scene.set(index, new Box(b.id, b.bounds.center.x + rng.nextDouble() * 10.0d,
+						b.bounds.center.y + rng.nextDouble() * 10.0d, b.bounds.radius.x));
+			}
+
+			// Remove and add a few renderables
+			for (int i = 0; i < 20; i++) {
+				scene.remove(rng.nextInt(scene.size()));
+				scene.add(rng.nextInt(scene.size()), randomBox(rng, nextID++));
+			}
+			if (frame % 10 == 9) {
+				for (int i = 0; i < 50; i++) {
+					scene.add(randomBox(rng, nextID++));
+				}
+			}
+
+			// Enough new renderables to rebuild the tree
+			if (frame == 25) {
+				for (int i = 0; i < 2000; i++) {
+					scene.add(randomBox(rng, nextID++));
+				}
+			}
+		}
+	}
+
+	private static void checkOrder(ArrayList<Renderable> scene, ArrayList<Renderable> found) {
+		int last = -1;
+		for (Renderable r : found) {
+			int index = scene.indexOf(r);
+			assertTrue(index > last);
+			last = index;
+		}
+	}
+}
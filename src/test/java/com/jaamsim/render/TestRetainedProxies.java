@@ -0,0 +1,91 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.render;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.jaamsim.DisplayModels.DisplayModel;
+import com.jaamsim.DisplayModels.ShapeModel;
+import com.jaamsim.Graphics.DisplayEntity;
+import com.jaamsim.input.ColourInput;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.math.Vec3d;
+
+public class TestRetainedProxies {
+
+	/**
+	 * Test that a binding reuses its proxies until its entity or display model is changed.
+	 */
+	@Test
+	public void testRetainedProxies() {
+		ShapeModel model = InputAgent.defineEntityWithUniqueName(ShapeModel.class, "RetainedModel", "-", true);
+		DisplayEntity ent = InputAgent.defineEntityWithUniqueName(DisplayEntity.class, "RetainedEnt", "-", true);
+		ArrayList<DisplayModel> dmList = new ArrayList<>();
+		dmList.add(model);
+		ent.setDisplayModelList(dmList);
+		ent.setShow(true);
+		DisplayModelBinding binding = ent.getDisplayBindings().get(0);
+
+		ArrayList<RenderProxy> first = collect(binding);
+		assertTrue(!first.isEmpty());
+
+		// Nothing has changed
+		assertTrue(sameProxies(first, collect(binding)));
+		ent.setPosition(ent.getPosition());
+		ent.setTagColour(ShapeModel.TAG_CONTENTS, ColourInput.BLACK);
+		ArrayList<RenderProxy> second = collect(binding);
+		assertTrue(!sameProxies(first, second));
+		ent.setTagColour(ShapeModel.TAG_CONTENTS, ColourInput.BLACK);
+		assertTrue(sameProxies(second, collect(binding)));
+
+		// Entity moved
+		ent.setPosition(new Vec3d(1.0d, 2.0d, 0.0d));
+		ArrayList<RenderProxy> third = collect(binding);
+		assertTrue(!sameProxies(second, third));
+
+		// Display model input changed
+		InputAgent.applyArgs(model, "FillColour", "red");
+		assertTrue(!sameProxies(third, collect(binding)));
+
+		// Entity hidden
+		ent.setShow(false);
+		assertTrue(collect(binding).isEmpty());
+
+		ent.kill();
+		model.kill();
+	}
+
+	private static ArrayList<RenderProxy> collect(DisplayModelBinding binding) {
+		ArrayList<RenderProxy> ret = new ArrayList<>();
+		binding.collectRetainedProxies(0.0d, ret);
+		return ret;
+	}
+
+	private static boolean sameProxies(ArrayList<RenderProxy> a, ArrayList<RenderProxy> b) {
+		if (a.size() != b.size())
+			return false;
+		for (int i = 0; i < a.size(); i++) {
+			if (a.get(i) != b.get(i))
+				return false;
+		}
+		return true;
+	}
+}
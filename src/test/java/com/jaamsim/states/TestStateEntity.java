@@ -0,0 +1,138 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2017 JaamSim Software Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.jaamsim.states;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.jaamsim.basicsim.ErrorException;
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.events.TestFrameworkHelpers;
+import com.jaamsim.input.InputAgent;
+
+public class TestStateEntity {
+
+	@Test
+	public void testStateIDs() {
+		int id = StateEntity.getStateID("TestStateID");
+		assertTrue(StateEntity.getStateID(new String("TestStateID")) == id);
+		assertTrue(StateEntity.getStateID(new String("Idle")) == StateEntity.STATE_IDLE);
+		assertTrue(StateEntity.getStateID("Working") == StateEntity.STATE_WORKING);
+		assertTrue(StateEntity.STATE_IDLE != StateEntity.STATE_WORKING);
+	}
+
+	@Test
+	public void testStateTimes() {
+		final TestStateEnt ent = InputAgent.defineEntityWithUniqueName(TestStateEnt.class, "StateEnt", "-", true);
+		ent.earlyInit();
+		assertTrue(ent.getState().id == StateEntity.STATE_IDLE);
+
+		EventManager evt = new EventManager("StateEntityEvt");
+		evt.clear();
+		evt.scheduleProcessExternal(1000L, 0, false, new StateTarget(ent, "Working"), null);
+		evt.scheduleProcessExternal(3000L, 0, false, new StateTarget(ent, "Idle"), null);
+		evt.scheduleProcessExternal(3500L, 0, false, new StateTarget(ent, "Idle"), null);
+		evt.scheduleProcessExternal(4000L, 0, false, new StateTarget(ent, "Invalid"), null);
+		TestFrameworkHelpers.runEventsToTick(evt, 5000L, 1000L);
+
+		assertTrue(ent.getState().id == StateEntity.STATE_IDLE);
+		assertTrue(ent.getState("Working").totalTicks == 2000L);
+		assertTrue(ent.getState(StateEntity.STATE_WORKING).working);
+		assertTrue(ent.getState("Invalid") == null);
+		assertTrue(ent.errorCount == 1);
+
+		ArrayList<StateRecord> recs = ent.getStateRecs();
+		assertTrue(recs.size() == 2);
+		assertTrue(recs.get(0).name.equals("Idle") && recs.get(1).name.equals("Working"));
+
+		ent.kill();
+	}
+
+	@Test
+	public void testStateSlots() {
+		// Register many state names so that the IDs used below are large
+		for (int i = 0; i < 1000; i++) {
+			StateEntity.getStateID("TestSlotName" + i);
+		}
+
+		TestAnyStateEnt ent1 = InputAgent.defineEntityWithUniqueName(TestAnyStateEnt.class, "AnyStateEnt", "-", true);
+		TestAnyStateEnt ent2 = InputAgent.defineEntityWithUniqueName(TestAnyStateEnt.class, "AnyStateEnt", "-", true);
+		TestStateEnt ent3 = InputAgent.defineEntityWithUniqueName(TestStateEnt.class, "StateEnt", "-", true);
+		ent1.earlyInit();
+		ent2.earlyInit();
+		ent3.earlyInit();
+
+		ent1.addState("TestSlotName999");
+		ent2.addState("TestSlotName500");
+		ent2.addState("TestSlotName999");
+		ent3.addState("Working");
+
+		assertTrue(ent1.getState("TestSlotName999").id == StateEntity.getStateID("TestSlotName999"));
+		assertTrue(ent1.getState("TestSlotName500") == null);
+		assertTrue(ent2.getState("TestSlotName500") != null);
+		assertTrue(ent2.getState("TestSlotName999") != ent1.getState("TestSlotName999"));
+		assertTrue(ent3.getState("TestSlotName999") == null);
+		assertTrue(ent3.getState(StateEntity.STATE_WORKING).working);
+		assertTrue(ent1.getStateRecs().size() == 2);
+		assertTrue(ent2.getStateRecs().size() == 3);
+		assertTrue(ent3.getStateRecs().size() == 2);
+
+		ent1.kill();
+		ent2.kill();
+		ent3.kill();
+	}
+
+	private static class StateTarget extends ProcessTarget {
+		private final TestStateEnt ent;
+		private final String state;
+
+		StateTarget(TestStateEnt e, String s) {
+			ent = e;
+			state = s;
+		}
+
+		@Override
+		public String getDescription() {
+			return "StateTarget";
+		}
+
+		@Override
+		public void process() {
+			try {
+				ent.setPresentState(state);
+			}
+			catch (ErrorException e) {
+				ent.errorCount++;
+			}
+		}
+	}
+
+	public static class TestStateEnt extends StateEntity {
+		int errorCount;
+	}
+
+	public static class TestAnyStateEnt extends StateEntity {
+		@Override
+		public boolean isValidState(String state) {
+			return true;
+		}
+	}
+}